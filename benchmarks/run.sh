@@ -0,0 +1,7 @@
+#!/usr/bin/env sh
+# Runs the JMH benchmarks with the GC profiler (allocation per operation)
+# and writes machine-readable results to benchmarks/target/jmh-result.json.
+# Extra arguments go to JMH, e.g. a name filter: benchmarks/run.sh Chunker
+set -e
+cd "$(dirname "$0")"
+exec java -jar target/benchmarks.jar -prof gc -rf json -rff target/jmh-result.json "$@"
@@ -0,0 +1,43 @@
+package com.symphony.docweave.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic benchmark inputs: the same seed always yields the same
+ * text and vectors, so results are comparable across runs and machines
+ * without shipping sample files.
+ */
+public final class SampleText {
+
+    public static final long SEED = 0x6b6e6f776c6578L;
+
+    private static final String[] VOCABULARY = (
+            "the of and to in is that for on with as by at from this be are or an it "
+            + "load balancer distributes incoming traffic across servers replica shard "
+            + "consistent hashing ring node key partition latency throughput cache eviction "
+            + "index vector embedding query document chunk retrieval ranking score cosine "
+            + "ERR-4012 SKU-88213 v2.3.1 config.yaml timeout retry backoff quorum leader"
+    ).split(" ");
+
+    private SampleText() {}
+
+    /** Prose-like text of {@code count} words with sentence breaks and paragraph gaps. */
+    public static String words(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder sb = new StringBuilder(count * 7);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) sb.append(i % 120 == 0 ? "\n\n" : " ");
+            sb.append(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+            if (random.nextInt(14) == 0) sb.append('.');
+        }
+        return sb.toString();
+    }
+
+    /** An embedding-like vector with components in [-0.1, 0.1). */
+    public static float[] vector(int dimensions, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        float[] v = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) v[i] = (float) (random.nextDouble() * 0.2 - 0.1);
+        return v;
+    }
+}
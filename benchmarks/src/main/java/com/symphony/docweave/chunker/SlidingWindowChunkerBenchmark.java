@@ -0,0 +1,49 @@
+package com.symphony.docweave.chunker;
+
+import com.symphony.docweave.bench.SampleText;
+import com.symphony.docweave.config.IngestionProperties;
+import com.symphony.docweave.domain.DocumentChunk;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunking at the default 200/40 window over documents from a short memo
+ * (2k words) to a long report (50k) and a book (250k).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SlidingWindowChunkerBenchmark {
+
+    @Param({"2000", "50000", "250000"})
+    public int words;
+
+    private SlidingWindowChunker chunker;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        chunker = new SlidingWindowChunker(new IngestionProperties());
+        text = SampleText.words(words);
+    }
+
+    @Benchmark
+    public List<DocumentChunk> chunk() {
+        return chunker.chunk(text, "benchmark-document");
+    }
+}
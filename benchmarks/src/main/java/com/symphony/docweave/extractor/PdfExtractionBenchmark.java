@@ -0,0 +1,84 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.bench.SampleText;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Text extraction of generated PDFs (about 500 words per page). The sample
+ * files are built in memory at setup from a fixed seed, so nothing has to
+ * be downloaded or checked in.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class PdfExtractionBenchmark {
+
+    private static final int LINES_PER_PAGE = 50;
+    private static final int WORDS_PER_LINE = 10;
+
+    @Param({"1", "20", "200"})
+    public int pages;
+
+    private PdfBoxDocumentExtractor extractor;
+    private byte[] pdf;
+
+    @Setup
+    public void setUp() throws IOException {
+        extractor = new PdfBoxDocumentExtractor();
+        pdf = generatePdf(pages);
+    }
+
+    @Benchmark
+    public String extract() {
+        return extractor.extract(new ByteArrayInputStream(pdf), "sample.pdf");
+    }
+
+    private static byte[] generatePdf(int pages) throws IOException {
+        String[] words = SampleText.words(pages * LINES_PER_PAGE * WORDS_PER_LINE).split("\\s+");
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            int w = 0;
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(13f);
+                    content.newLineAtOffset(50, 740);
+                    for (int line = 0; line < LINES_PER_PAGE && w < words.length; line++) {
+                        int end = Math.min(w + WORDS_PER_LINE, words.length);
+                        content.showText(String.join(" ", Arrays.copyOfRange(words, w, end)));
+                        content.newLine();
+                        w = end;
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        }
+    }
+}
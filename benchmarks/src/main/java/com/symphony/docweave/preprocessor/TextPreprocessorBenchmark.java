@@ -0,0 +1,68 @@
+package com.symphony.docweave.preprocessor;
+
+import com.symphony.docweave.bench.SampleText;
+import com.symphony.docweave.config.IngestionProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Default preprocessing over PDF-shaped text: 400-word pages with a running
+ * header, a page-number footer and a hyphenated line break on every page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TextPreprocessorBenchmark {
+
+    private static final int WORDS_PER_PAGE = 400;
+
+    @Param({"2000", "50000", "250000"})
+    public int words;
+
+    private DefaultTextPreprocessor preprocessor;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        preprocessor = new DefaultTextPreprocessor(new IngestionProperties());
+        String body = SampleText.words(words);
+        StringBuilder pages = new StringBuilder(body.length() + words / 4);
+        int page = 1;
+        int wordsOnPage = 0;
+        pages.append("Knowlex Design Notes - Confidential\n");
+        for (String word : body.split(" ")) {
+            if (wordsOnPage == WORDS_PER_PAGE) {
+                pages.append("\nPage ").append(page++).append('\n').append(TextPreprocessor.PAGE_BREAK)
+                        .append("Knowlex Design Notes - Confidential\n");
+                wordsOnPage = 0;
+            }
+            if (wordsOnPage == WORDS_PER_PAGE / 2 && word.length() > 4) {
+                pages.append(word, 0, 2).append("-\n").append(word, 2, word.length()).append(' ');
+            } else {
+                pages.append(word).append(wordsOnPage % 12 == 11 ? '\n' : ' ');
+            }
+            wordsOnPage++;
+        }
+        pages.append("\nPage ").append(page).append('\n');
+        text = pages.toString();
+    }
+
+    @Benchmark
+    public String preprocess() {
+        return preprocessor.preprocess(text);
+    }
+}
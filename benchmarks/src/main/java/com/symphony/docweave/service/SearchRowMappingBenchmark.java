@@ -0,0 +1,57 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.SearchResult;
+import com.symphony.docweave.bench.SampleText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping pgvector result rows ({@code findTopKSimilar} column layout) to
+ * {@link SearchResult}s for the default and maximum k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SearchRowMappingBenchmark {
+
+    @Param({"5", "50"})
+    public int k;
+
+    private List<Object[]> rows;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(SampleText.SEED);
+        String content = SampleText.words(200);
+        rows = new ArrayList<>(k);
+        for (int i = 0; i < k; i++) {
+            // The driver hands UUID columns back as UUID objects
+            UUID chunkId = new UUID(random.nextLong(), random.nextLong());
+            UUID documentId = new UUID(random.nextLong(), random.nextLong());
+            rows.add(new Object[]{chunkId, documentId, i, content, null, random.nextDouble()});
+        }
+    }
+
+    @Benchmark
+    public List<SearchResult> mapRows() {
+        return rows.stream().map(SemanticSearchService::toSearchResult).toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.symphony.docweave.util;
+
+import com.symphony.docweave.bench.SampleText;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vector encoding between the OpenAI client ({@code List<Double>}), the
+ * in-process float[] form and pgvector's text literal, plus batching.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class EmbeddingUtilsBenchmark {
+
+    /** text-embedding-3-small dimensionality */
+    @Param({"1536"})
+    public int dimensions;
+
+    private List<Double> apiVector;
+    private float[] vector;
+    private String literal;
+    private List<Integer> chunkIds;
+
+    @Setup
+    public void setUp() {
+        vector = SampleText.vector(dimensions, SampleText.SEED);
+        apiVector = new ArrayList<>(dimensions);
+        for (float f : vector) apiVector.add((double) f);
+        literal = EmbeddingUtils.toPgVectorLiteral(vector);
+        chunkIds = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) chunkIds.add(i);
+    }
+
+    @Benchmark
+    public float[] toFloatArray() {
+        return EmbeddingUtils.toFloatArray(apiVector);
+    }
+
+    @Benchmark
+    public String toPgVectorLiteral() {
+        return EmbeddingUtils.toPgVectorLiteral(vector);
+    }
+
+    @Benchmark
+    public float[] fromPgVectorLiteral() {
+        return EmbeddingUtils.fromPgVectorLiteral(literal);
+    }
+
+    /** 10k pending chunks split into embedding.batch-size batches. */
+    @Benchmark
+    public List<List<Integer>> partition() {
+        return EmbeddingUtils.partition(chunkIds, 20);
+    }
+}
@@ -0,0 +1,58 @@
+package com.symphony.docweave.loadtest;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-operation latency samples and error counts, reported as throughput
+ * and percentiles. Every sample is kept, so percentiles are exact.
+ */
+final class LatencyStats {
+
+    private final Map<String, Samples> byOperation = new ConcurrentHashMap<>();
+
+    void record(String operation, long nanos, boolean success) {
+        byOperation.computeIfAbsent(operation, o -> new Samples()).add(nanos, success);
+    }
+
+    void print(PrintStream out, double seconds) {
+        out.printf(Locale.ROOT, "%-10s %8s %7s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        byOperation.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(e -> e.getValue().print(out, e.getKey(), seconds));
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void add(long latency, boolean success) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = latency;
+            if (!success) errors++;
+        }
+
+        synchronized void print(PrintStream out, String operation, double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            out.printf(Locale.ROOT, "%-10s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, count, errors, count / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99),
+                    count == 0 ? 0 : sorted[count - 1] / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+
+        /** Nearest-rank percentile. */
+        private static double millis(long[] sorted, double percentile) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, rank)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.symphony.docweave.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Entry point: stub → application → seed corpus → measured mix → report.
+ *
+ * With {@code -Dloadtest.target-url} the harness drives an already running
+ * instance instead of launching one; that instance must be started with
+ * {@code --openai.base-url} pointing at the stub URL printed on startup.
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+
+        try (OpenAiStubServer stub = OpenAiStubServer.start(settings)) {
+            System.out.println("OpenAI stub listening on " + stub.baseUrl());
+
+            Process app = null;
+            String baseUrl = settings.targetUrl();
+            if (baseUrl == null) {
+                app = launch(settings, stub.baseUrl());
+                baseUrl = "http://127.0.0.1:" + settings.appPort();
+            }
+
+            try {
+                awaitReady(baseUrl, app);
+                Workload workload = new Workload(baseUrl, settings);
+
+                System.out.printf("Seeding %d document(s)...%n", settings.seedDocuments());
+                workload.seed();
+
+                System.out.printf("Running mix %s with %d worker(s): %ds warm-up + %ds measured%n",
+                        settings.mix(), settings.concurrency(), settings.warmupSeconds(), settings.durationSeconds());
+                LatencyStats stats = workload.run();
+
+                System.out.println();
+                stats.print(System.out, settings.durationSeconds());
+                System.out.printf("%nOpenAI stub: %d embedding call(s) for %d input(s), %d chat call(s), "
+                                + "%d throttled (429), %d injected error(s) (500)%n",
+                        stub.embeddingCalls.get(), stub.embeddedInputs.get(), stub.chatCalls.get(),
+                        stub.throttled.get(), stub.injectedErrors.get());
+            } finally {
+                if (app != null) {
+                    app.destroy();
+                    app.waitFor();
+                }
+            }
+        }
+        // The HTTP client's selector threads are not daemons
+        System.exit(0);
+    }
+
+    private static Process launch(LoadTestSettings settings, String stubUrl) throws IOException {
+        Path jar = settings.appJar();
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Application jar not found at " + jar + "; run `mvn package -DskipTests` first");
+        }
+
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "--add-modules", "jdk.incubator.vector",
+                "-jar", jar.toString(),
+                "--server.port=" + settings.appPort(),
+                "--openai.base-url=" + stubUrl,
+                "--openai.api-key=loadtest-stub",
+                "--spring.jpa.show-sql=false"));
+        if (!settings.appArgs().isBlank()) {
+            command.addAll(Arrays.asList(settings.appArgs().trim().split("\\s+")));
+        }
+
+        Path log = Files.createTempFile("knowlex-loadtest-", ".log");
+        System.out.println("Starting application (log: " + log + ")");
+        return new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    private static void awaitReady(String baseUrl, Process app) throws Exception {
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/health")).GET().build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(3).toNanos();
+
+        while (System.nanoTime() < deadline) {
+            if (app != null && !app.isAlive()) {
+                throw new IllegalStateException("Application exited during startup with code " + app.exitValue());
+            }
+            try {
+                if (http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) return;
+            } catch (IOException ignored) {
+                // not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Application at " + baseUrl + " did not become healthy within 3 minutes");
+    }
+}
@@ -0,0 +1,73 @@
+package com.symphony.docweave.loadtest;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Harness settings, read from {@code -Dloadtest.*} system properties.
+ */
+record LoadTestSettings(
+        String targetUrl,
+        Path appJar,
+        int appPort,
+        String appArgs,
+        int durationSeconds,
+        int warmupSeconds,
+        int concurrency,
+        Map<String, Integer> mix,
+        int seedDocuments,
+        int pagesPerDocument,
+        long randomSeed,
+        int stubEmbeddingLatencyMs,
+        int stubChatLatencyMs,
+        double stubJitter,
+        int stubRateLimitPerSecond,
+        double stubErrorRate) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String defaultJar = System.getProperty("loadtest.default-app-jar", "target/Knowlex-1.0-SNAPSHOT.jar");
+        return new LoadTestSettings(
+                System.getProperty("loadtest.target-url"),
+                Path.of(System.getProperty("loadtest.app-jar", defaultJar)),
+                intProperty("loadtest.app-port", 18080),
+                System.getProperty("loadtest.app-args", ""),
+                intProperty("loadtest.duration-seconds", 60),
+                intProperty("loadtest.warmup-seconds", 10),
+                intProperty("loadtest.concurrency", 16),
+                parseMix(System.getProperty("loadtest.mix", "search=60,rag=20,upload=15,backfill=5")),
+                intProperty("loadtest.seed-documents", 20),
+                intProperty("loadtest.pages-per-document", 3),
+                Long.getLong("loadtest.random-seed", 42L),
+                intProperty("loadtest.stub.embedding-latency-ms", 60),
+                intProperty("loadtest.stub.chat-latency-ms", 700),
+                doubleProperty("loadtest.stub.jitter", 0.25),
+                intProperty("loadtest.stub.rate-limit-per-second", 50),
+                doubleProperty("loadtest.stub.error-rate", 0.01));
+    }
+
+    /** {@code "search=60,rag=20"} → ordered operation weights; unknown operations are rejected. */
+    static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split("=");
+            if (kv.length != 2) throw new IllegalArgumentException("Bad mix entry: " + part);
+            String operation = kv[0].trim();
+            if (!Workload.OPERATIONS.contains(operation)) {
+                throw new IllegalArgumentException("Unknown operation '" + operation + "'; expected one of " + Workload.OPERATIONS);
+            }
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) weights.put(operation, weight);
+        }
+        if (weights.isEmpty()) throw new IllegalArgumentException("Mix has no positive weights: " + mix);
+        return weights;
+    }
+
+    private static int intProperty(String key, int defaultValue) {
+        return Integer.parseInt(System.getProperty(key, Integer.toString(defaultValue)));
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        return Double.parseDouble(System.getProperty(key, Double.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,200 @@
+package com.symphony.docweave.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the two OpenAI endpoints the application calls.
+ *
+ * <ul>
+ *   <li>{@code POST /v1/embeddings}: 1536-d vectors built by feature-hashing
+ *       the input's words, so texts sharing words are genuinely similar and
+ *       search results stay meaningful.</li>
+ *   <li>{@code POST /v1/chat/completions}: a canned answer.</li>
+ * </ul>
+ * Each call sleeps for its configured latency (± jitter). Requests beyond
+ * the per-second rate limit get HTTP 429, and a configurable fraction of the
+ * rest fail with HTTP 500, so retries and throttling are exercised too.
+ */
+final class OpenAiStubServer implements Closeable {
+
+    private static final int DIMENSIONS = 1536;
+
+    private final LoadTestSettings settings;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "openai-stub");
+        t.setDaemon(true);
+        return t;
+    });
+
+    final AtomicLong embeddingCalls = new AtomicLong();
+    final AtomicLong embeddedInputs = new AtomicLong();
+    final AtomicLong chatCalls = new AtomicLong();
+    final AtomicLong throttled = new AtomicLong();
+    final AtomicLong injectedErrors = new AtomicLong();
+
+    private long windowSecond;
+    private int windowCount;
+
+    private OpenAiStubServer(LoadTestSettings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        server.createContext("/v1/embeddings", exchange -> handle(exchange, this::embeddings, settings.stubEmbeddingLatencyMs()));
+        server.createContext("/v1/chat/completions", exchange -> handle(exchange, this::chat, settings.stubChatLatencyMs()));
+        server.setExecutor(executor);
+    }
+
+    static OpenAiStubServer start(LoadTestSettings settings) throws IOException {
+        OpenAiStubServer stub = new OpenAiStubServer(settings);
+        stub.server.start();
+        return stub;
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Request handling
+    // -------------------------------------------------------------------------
+
+    private interface Handler {
+        String respond(JsonNode request);
+    }
+
+    private void handle(HttpExchange exchange, Handler handler, int latencyMs) throws IOException {
+        try (exchange) {
+            JsonNode request = mapper.readTree(exchange.getRequestBody());
+            sleep(latencyMs);
+
+            if (!admit()) {
+                throttled.incrementAndGet();
+                send(exchange, 429, error("Rate limit reached for requests (stub)", "rate_limit_exceeded"));
+                return;
+            }
+            if (ThreadLocalRandom.current().nextDouble() < settings.stubErrorRate()) {
+                injectedErrors.incrementAndGet();
+                send(exchange, 500, error("The server had an error while processing your request (stub)", "server_error"));
+                return;
+            }
+            send(exchange, 200, handler.respond(request));
+        }
+    }
+
+    private String embeddings(JsonNode request) {
+        List<String> inputs = new ArrayList<>();
+        JsonNode input = request.path("input");
+        if (input.isArray()) input.forEach(n -> inputs.add(n.asText()));
+        else inputs.add(input.asText());
+
+        embeddingCalls.incrementAndGet();
+        embeddedInputs.addAndGet(inputs.size());
+
+        StringBuilder sb = new StringBuilder(inputs.size() * DIMENSIONS * 12);
+        sb.append("{\"object\":\"list\",\"model\":\"text-embedding-3-small\",\"data\":[");
+        int tokens = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"object\":\"embedding\",\"index\":").append(i).append(",\"embedding\":[");
+            float[] vector = embed(inputs.get(i));
+            for (int d = 0; d < vector.length; d++) {
+                if (d > 0) sb.append(',');
+                sb.append(vector[d]);
+            }
+            sb.append("]}");
+            tokens += inputs.get(i).length() / 4 + 1;
+        }
+        sb.append("],\"usage\":{\"prompt_tokens\":").append(tokens).append(",\"total_tokens\":").append(tokens).append("}}");
+        return sb.toString();
+    }
+
+    private String chat(JsonNode request) {
+        chatCalls.incrementAndGet();
+        String model = request.path("model").asText("gpt-4o-mini");
+        return "{\"id\":\"chatcmpl-stub\",\"object\":\"chat.completion\",\"created\":" + (System.currentTimeMillis() / 1000)
+                + ",\"model\":\"" + model + "\",\"choices\":[{\"index\":0,\"message\":{\"role\":\"assistant\","
+                + "\"content\":\"This is a stubbed answer generated for load testing.\"},\"finish_reason\":\"stop\"}],"
+                + "\"usage\":{\"prompt_tokens\":1000,\"completion_tokens\":12,\"total_tokens\":1012}}";
+    }
+
+    /** Signed feature hashing of lowercase words, L2-normalised. */
+    static float[] embed(String text) {
+        float[] v = new float[DIMENSIONS];
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) continue;
+            int h = word.hashCode();
+            v[Math.floorMod(h, DIMENSIONS)] += ((h >>> 16) & 1) == 0 ? 1f : -1f;
+        }
+        double norm = 0;
+        for (float f : v) norm += f * f;
+        if (norm == 0) {
+            v[0] = 1f;
+            return v;
+        }
+        float inv = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < v.length; i++) v[i] *= inv;
+        return v;
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /** Fixed one-second window; 0 disables the limit. */
+    private synchronized boolean admit() {
+        if (settings.stubRateLimitPerSecond() <= 0) return true;
+        long second = System.currentTimeMillis() / 1000;
+        if (second != windowSecond) {
+            windowSecond = second;
+            windowCount = 0;
+        }
+        return ++windowCount <= settings.stubRateLimitPerSecond();
+    }
+
+    private void sleep(int latencyMs) {
+        if (latencyMs <= 0) return;
+        double jitter = settings.stubJitter() * (ThreadLocalRandom.current().nextDouble() * 2 - 1);
+        try {
+            Thread.sleep(Math.max(0, Math.round(latencyMs * (1 + jitter))));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String error(String message, String code) {
+        return "{\"error\":{\"message\":\"" + message + "\",\"type\":\"" + code + "\",\"code\":\"" + code + "\"}}";
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.symphony.docweave.loadtest;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the application's HTTP API with a weighted mix of operations from
+ * a fixed number of closed-loop workers (each waits for its response before
+ * sending the next request).
+ */
+final class Workload {
+
+    static final List<String> OPERATIONS = List.of("upload", "backfill", "search", "rag");
+
+    private static final String[] VOCABULARY = (
+            "load balancer distributes incoming traffic across servers replica shard consistent hashing "
+            + "ring node key partition latency throughput cache eviction index vector embedding query "
+            + "document chunk retrieval ranking score timeout retry backoff quorum leader election "
+            + "ERR-4012 SKU-88213 refund policy invoice customer account billing region failover"
+    ).split(" ");
+
+    private static final String[] QUERIES = {
+            "How does load balancing work?",
+            "What happens during leader election?",
+            "Explain consistent hashing with virtual nodes",
+            "ERR-4012",
+            "What is the refund policy for invoices?",
+            "How are retries and backoff configured?",
+            "cache eviction under high throughput",
+            "SKU-88213 billing region",
+    };
+
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newCachedThreadPool())
+            .build();
+    private final AtomicLong documentSequence = new AtomicLong();
+    private final String runId = UUID.randomUUID().toString().substring(0, 8);
+
+    Workload(String baseUrl, LoadTestSettings settings) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.settings = settings;
+    }
+
+    /** Uploads and embeds a starting corpus so searches have something to rank. */
+    void seed() throws Exception {
+        SplittableRandom random = new SplittableRandom(settings.randomSeed());
+        for (int i = 0; i < settings.seedDocuments(); i++) {
+            expectSuccess(upload(random), "seed upload");
+        }
+        expectSuccess(send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/embeddings/generate"))
+                .POST(HttpRequest.BodyPublishers.noBody())), "seed backfill");
+    }
+
+    /**
+     * Runs the mix for warm-up plus measurement time; only requests started
+     * after the warm-up are recorded.
+     */
+    LatencyStats run() throws InterruptedException {
+        LatencyStats stats = new LatencyStats();
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(settings.warmupSeconds());
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(settings.durationSeconds());
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency());
+        for (int w = 0; w < settings.concurrency(); w++) {
+            SplittableRandom random = new SplittableRandom(settings.randomSeed() + 1 + w);
+            workers.submit(() -> {
+                while (System.nanoTime() < end) {
+                    String operation = pick(random);
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        success = isSuccess(execute(operation, random));
+                    } catch (Exception e) {
+                        success = false;
+                    }
+                    if (start >= warmupEnd) stats.record(operation, System.nanoTime() - start, success);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(settings.warmupSeconds() + settings.durationSeconds() + 300L, TimeUnit.SECONDS);
+        return stats;
+    }
+
+    // -------------------------------------------------------------------------
+    // Operations
+    // -------------------------------------------------------------------------
+
+    private String pick(SplittableRandom random) {
+        int total = settings.mix().values().stream().mapToInt(Integer::intValue).sum();
+        int roll = random.nextInt(total);
+        for (Map.Entry<String, Integer> e : settings.mix().entrySet()) {
+            roll -= e.getValue();
+            if (roll < 0) return e.getKey();
+        }
+        throw new IllegalStateException("unreachable");
+    }
+
+    private HttpResponse<String> execute(String operation, SplittableRandom random) throws Exception {
+        return switch (operation) {
+            case "upload" -> upload(random);
+            case "backfill" -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/embeddings/generate"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            case "search" -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/embeddings/search?k=5"))
+                    .header("Content-Type", "text/plain")
+                    .POST(HttpRequest.BodyPublishers.ofString(QUERIES[random.nextInt(QUERIES.length)])));
+            case "rag" -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/rag/ask"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"query\":\""
+                            + QUERIES[random.nextInt(QUERIES.length)] + "\",\"topK\":5}")));
+            default -> throw new IllegalArgumentException(operation);
+        };
+    }
+
+    /** Every upload is a distinct PDF, so the checksum de-duplication never short-circuits it. */
+    private HttpResponse<String> upload(SplittableRandom random) throws Exception {
+        long sequence = documentSequence.incrementAndGet();
+        String filename = "loadtest-" + runId + "-" + sequence + ".pdf";
+        byte[] pdf = samplePdf(filename, settings.pagesPerDocument(), random);
+
+        String boundary = "----loadtest" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(pdf.length + 256);
+        body.write(("--" + boundary + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\""
+                + URLEncoder.encode(filename, StandardCharsets.UTF_8) + "\"\r\n"
+                + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(pdf);
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/documents"))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())));
+    }
+
+    private static byte[] samplePdf(String title, int pages, SplittableRandom random) {
+        try (PDDocument document = new PDDocument(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                    content.beginText();
+                    content.setFont(PDType1Font.HELVETICA, 10);
+                    content.setLeading(13f);
+                    content.newLineAtOffset(50, 740);
+                    content.showText(title + " page " + (p + 1));
+                    content.newLine();
+                    for (int line = 0; line < 50; line++) {
+                        List<String> words = new ArrayList<>(12);
+                        for (int w = 0; w < 12; w++) words.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+                        content.showText(String.join(" ", words));
+                        content.newLine();
+                    }
+                    content.endText();
+                }
+            }
+            document.save(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // HTTP
+    // -------------------------------------------------------------------------
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return http.send(request.timeout(Duration.ofSeconds(120)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static boolean isSuccess(HttpResponse<?> response) {
+        return response.statusCode() / 100 == 2;
+    }
+
+    private static void expectSuccess(HttpResponse<String> response, String what) {
+        if (!isSuccess(response)) {
+            throw new IllegalStateException(what + " failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+    }
+}
@@ -1,19 +1,29 @@
 package com.symphony.docweave.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.symphony.docweave.api.dto.BulkDeleteResponse;
 import com.symphony.docweave.api.dto.ChunkResponse;
+import com.symphony.docweave.api.dto.CursorPage;
 import com.symphony.docweave.api.dto.DocumentResponse;
 import com.symphony.docweave.api.dto.IngestionResponse;
+import com.symphony.docweave.domain.SearchFilter;
 import com.symphony.docweave.service.DocumentIngestionService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/v1/documents")
@@ -21,10 +31,21 @@ public class DocumentIngestionController {
 
     private static final Logger log = LoggerFactory.getLogger(DocumentIngestionController.class);
 
+    /** Cursor for the page after this one; absent on the last page. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final DocumentIngestionService ingestionService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${api.listing.default-limit:100}")
+    private int defaultLimit;
+
+    @Value("${api.listing.max-limit:1000}")
+    private int maxLimit;
 
-    public DocumentIngestionController(DocumentIngestionService ingestionService) {
+    public DocumentIngestionController(DocumentIngestionService ingestionService, ObjectMapper objectMapper) {
         this.ingestionService = ingestionService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -45,21 +66,110 @@ public class DocumentIngestionController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Paged once the client sends {@code cursor} or {@code limit}; without
+     * either, the whole listing comes back as it did before paging existed.
+     */
     @GetMapping
-    public ResponseEntity<List<DocumentResponse>> getAllDocuments() {
-        List<DocumentResponse> documents = ingestionService.getAllDocuments();
-        return ResponseEntity.ok(documents);
+    public ResponseEntity<List<DocumentResponse>> getDocuments(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean includeStats) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(ingestionService.getAllDocuments(includeStats));
+        }
+        return toResponse(ingestionService.getDocuments(cursor, resolveLimit(limit), includeStats));
+    }
+
+    /**
+     * The whole listing as newline-delimited JSON, streamed from a database
+     * cursor; for clients that mirror the corpus.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamDocuments() {
+        return ndjson(ingestionService::streamDocuments);
     }
 
     @GetMapping("/{documentId}/chunks")
-    public ResponseEntity<List<ChunkResponse>> getChunks(@PathVariable UUID documentId) {
-        List<ChunkResponse> chunks = ingestionService.getChunksByDocumentId(documentId);
-        return ResponseEntity.ok(chunks);
+    public ResponseEntity<List<ChunkResponse>> getChunks(
+            @PathVariable UUID documentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        if (cursor == null && limit == null) {
+            return ResponseEntity.ok(ingestionService.getChunksByDocumentId(documentId));
+        }
+        return toResponse(ingestionService.getChunksByDocumentId(documentId, cursor, resolveLimit(limit)));
+    }
+
+    @GetMapping(value = "/{documentId}/chunks", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamChunks(@PathVariable UUID documentId) {
+        // Checked up front: once streaming starts the status can no longer become 404.
+        ingestionService.getDocument(documentId);
+        return this.<ChunkResponse>ndjson(sink -> ingestionService.streamChunks(documentId, sink));
     }
 
+    /**
+     * Deletes immediately (204), or with {@code async=true} hides the
+     * document at once and purges its chunks in the background (202).
+     */
     @DeleteMapping("/{documentId}")
-    public ResponseEntity<Void> deleteDocument(@PathVariable UUID documentId) {
+    public ResponseEntity<Void> deleteDocument(@PathVariable UUID documentId,
+                                               @RequestParam(defaultValue = "false") boolean async) {
+        if (async) {
+            ingestionService.deleteDocumentAsync(documentId);
+            return ResponseEntity.accepted().build();
+        }
         ingestionService.deleteDocument(documentId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Deletes every document matching the filter (same fields as search
+     * filters; at least one must be set). Always asynchronous.
+     */
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkDeleteResponse> deleteDocuments(@RequestBody SearchFilter filter) {
+        int deleted = ingestionService.deleteDocuments(filter);
+        return ResponseEntity.accepted().body(new BulkDeleteResponse(deleted));
+    }
+
+    // -------------------------------------------------------------------------
+    // Listing helpers
+    // -------------------------------------------------------------------------
+
+    private int resolveLimit(Integer limit) {
+        if (limit == null) return defaultLimit;
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        return limit;
+    }
+
+    private static <T> ResponseEntity<List<T>> toResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return response.body(page.getItems());
+    }
+
+    private <T> ResponseEntity<StreamingResponseBody> ndjson(Consumer<Consumer<T>> source) {
+        StreamingResponseBody body = out -> {
+            try {
+                source.accept(item -> writeLine(out, item));
+            } catch (UncheckedIOException e) {
+                // Client went away; the read transaction has already been rolled back.
+                throw e.getCause();
+            }
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLine(OutputStream out, Object item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -1,14 +1,23 @@
 package com.symphony.docweave.api;
 
+import com.symphony.docweave.api.dto.BatchSearchRequest;
+import com.symphony.docweave.api.dto.BatchSearchResult;
 import com.symphony.docweave.api.dto.SearchResult;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.domain.SearchFilter;
+import com.symphony.docweave.metrics.RequestTimings;
 import com.symphony.docweave.repository.DocumentChunkRepository;
 import com.symphony.docweave.service.EmbeddingService;
+import com.symphony.docweave.service.SearchMode;
 import com.symphony.docweave.service.SemanticSearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,13 +30,19 @@ public class EmbeddingController {
     private final EmbeddingService embeddingService;
     private final SemanticSearchService searchService;
     private final DocumentChunkRepository chunkRepository;
+    private final Shards shards;
+
+    @Value("${embedding.search.default-k:5}")
+    private int defaultK;
 
     public EmbeddingController(EmbeddingService embeddingService,
                                SemanticSearchService searchService,
-                               DocumentChunkRepository chunkRepository) {
+                               DocumentChunkRepository chunkRepository,
+                               Shards shards) {
         this.embeddingService = embeddingService;
         this.searchService = searchService;
         this.chunkRepository = chunkRepository;
+        this.shards = shards;
     }
 
     /**
@@ -49,22 +64,68 @@ public class EmbeddingController {
     public ResponseEntity<String> generateForDocument(@PathVariable UUID documentId) {
         log.info("Embedding chunks for document {}", documentId);
         int count = embeddingService.generateEmbeddingsForDocument(documentId);
-        if (count == 0 && chunkRepository.findByDocumentIdOrderByChunkIndex(documentId).isEmpty()) {
+        if (count == 0 && shards.onShardOf(documentId,
+                () -> chunkRepository.findByDocumentIdOrderByChunkIndex(documentId).isEmpty())) {
             return ResponseEntity.notFound().build();
         }
         return ResponseEntity.ok("Embedded " + count + " chunk(s) for document " + documentId);
     }
 
     /**
-     * POST /api/v1/embeddings/search?k=5
+     * POST /api/v1/embeddings/search?k=5&mode=hybrid
      * Body: plain-text query string.
-     * Returns the top-k most similar chunks with their similarity scores.
+     * Returns the top-k chunks with their scores; mode is vector, lexical or
+     * hybrid (defaults to embedding.search.mode).
+     *
+     * Optional filters (combined with AND): documentId and source may be
+     * repeated; createdAfter/createdBefore are ISO-8601 instants; filename is
+     * a case-insensitive glob such as *.pdf.
+     *
+     * The Server-Timing response header breaks the latency down by stage.
      */
     @PostMapping("/search")
     public ResponseEntity<List<SearchResult>> search(
             @RequestBody String query,
-            @RequestParam(defaultValue = "5") int k) {
+            @RequestParam(defaultValue = "5") int k,
+            @RequestParam(required = false) String mode,
+            @RequestParam(name = "documentId", required = false) List<UUID> documentIds,
+            @RequestParam(name = "source", required = false) List<String> sources,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdBefore,
+            @RequestParam(name = "filename", required = false) String filenamePattern) {
+
+        SearchMode searchMode = mode != null ? SearchMode.parse(mode) : null;
+        SearchFilter filter = new SearchFilter(documentIds, sources, createdAfter, createdBefore, filenamePattern);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            List<SearchResult> results = searchService.search(query, k, searchMode, filter);
+            return ResponseEntity.ok()
+                    .header(RequestTimings.HEADER, timings.toServerTiming())
+                    .body(results);
+        } finally {
+            RequestTimings.end();
+        }
+    }
 
-        return ResponseEntity.ok(searchService.search(query, k));
+    /**
+     * POST /api/v1/embeddings/search/batch
+     * Body: { "queries": [...], "k": 5, "mode": "hybrid", "filter": {...} }
+     * Runs every query with the same k, mode and filter and returns one entry
+     * per query, in request order. All queries are embedded in one API call.
+     * Carries the same Server-Timing header as /search.
+     */
+    @PostMapping("/search/batch")
+    public ResponseEntity<List<BatchSearchResult>> searchBatch(@RequestBody BatchSearchRequest request) {
+        int k = request.getK() != null ? request.getK() : defaultK;
+        SearchMode searchMode = request.getMode() != null ? SearchMode.parse(request.getMode()) : null;
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            List<BatchSearchResult> results = searchService.searchBatch(request.getQueries(), k, searchMode, request.getFilter());
+            return ResponseEntity.ok()
+                    .header(RequestTimings.HEADER, timings.toServerTiming())
+                    .body(results);
+        } finally {
+            RequestTimings.end();
+        }
     }
 }
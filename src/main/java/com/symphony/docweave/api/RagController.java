@@ -2,6 +2,7 @@ package com.symphony.docweave.api;
 
 import com.symphony.docweave.api.dto.RagRequest;
 import com.symphony.docweave.api.dto.RagResponse;
+import com.symphony.docweave.metrics.RequestTimings;
 import com.symphony.docweave.service.RagService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -27,7 +28,8 @@ public class RagController {
      * Request body:
      * {
      *   "query": "What is the refund policy?",
-     *   "topK": 5          // optional, defaults to rag.default-top-k
+     *   "topK": 5,         // optional, defaults to rag.default-top-k
+     *   "includeTimings": true   // optional, adds the "timings" block below
      * }
      *
      * Response:
@@ -35,13 +37,26 @@ public class RagController {
      *   "query": "What is the refund policy?",
      *   "answer": "According to the documents, ...",
      *   "sourceChunks": [ { "chunkId": "...", "documentId": "...", "chunkIndex": 2,
-     *                        "content": "...", "score": 0.12 }, ... ]
+     *                        "content": "...", "score": 0.12 }, ... ],
+     *   "timings": { "embed": 182.4, "vector": 3.1, "context": 0.4, "llm": 1210.7, "total": 1398.2 }
      * }
+     *
+     * Every response carries the same breakdown in a Server-Timing header.
      */
     @PostMapping("/ask")
     public ResponseEntity<RagResponse> ask(@RequestBody RagRequest request) {
         log.info("RAG request received: query=\"{}\" topK={}", request.getQuery(), request.getTopK());
-        RagResponse response = ragService.answer(request);
-        return ResponseEntity.ok(response);
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            RagResponse response = ragService.answer(request);
+            if (request.isIncludeTimings()) {
+                response.setTimings(timings.toMillis());
+            }
+            return ResponseEntity.ok()
+                    .header(RequestTimings.HEADER, timings.toServerTiming())
+                    .body(response);
+        } finally {
+            RequestTimings.end();
+        }
     }
 }
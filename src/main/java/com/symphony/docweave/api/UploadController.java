@@ -0,0 +1,87 @@
+package com.symphony.docweave.api;
+
+import com.symphony.docweave.api.dto.IngestionResponse;
+import com.symphony.docweave.api.dto.UploadResponse;
+import com.symphony.docweave.service.ResumableUploadService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads for files over the multipart limit: create an upload,
+ * PUT its bytes in ranges, then complete it to ingest the file. After a
+ * dropped connection, GET the upload and resume from its {@code offset}.
+ */
+@RestController
+@RequestMapping("/api/v1/uploads")
+public class UploadController {
+
+    /** {@code bytes start-end/total}, with {@code *} for a total not known yet. */
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private final ResumableUploadService uploadService;
+
+    public UploadController(ResumableUploadService uploadService) {
+        this.uploadService = uploadService;
+    }
+
+    @PostMapping
+    public ResponseEntity<UploadResponse> createUpload(@RequestParam(required = false) String filename,
+                                                       @RequestParam(required = false) String contentType,
+                                                       @RequestParam(required = false) Long length) {
+        UploadResponse upload = uploadService.create(filename, contentType, length);
+        return ResponseEntity.created(URI.create("/api/v1/uploads/" + upload.getUploadId())).body(upload);
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadResponse> getUpload(@PathVariable UUID uploadId) {
+        return ResponseEntity.ok(uploadService.status(uploadId));
+    }
+
+    /**
+     * Appends the request body at the range given by {@code Content-Range}.
+     * Send it as {@code application/octet-stream}; the body is streamed to
+     * disk. The response's {@code offset} is where the next range starts.
+     */
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<UploadResponse> uploadRange(
+            @PathVariable UUID uploadId,
+            @RequestHeader(value = HttpHeaders.CONTENT_RANGE, required = false) String contentRange,
+            InputStream body) {
+        Matcher range = contentRange == null ? null : CONTENT_RANGE.matcher(contentRange.trim());
+        if (range == null || !range.matches()) {
+            throw new IllegalArgumentException("Content-Range header 'bytes <start>-<end>/<total or *>' is required");
+        }
+        long start = Long.parseLong(range.group(1));
+        long end = Long.parseLong(range.group(2));
+        if (end < start) {
+            throw new IllegalArgumentException("Content-Range ends before it starts: " + contentRange);
+        }
+        Long total = "*".equals(range.group(3)) ? null : Long.valueOf(range.group(3));
+        return ResponseEntity.ok(uploadService.append(uploadId, start, end, total, body));
+    }
+
+    /**
+     * Ingests the uploaded file. {@code sha256}, if given, is checked against
+     * what arrived; on a mismatch the upload is discarded.
+     */
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<IngestionResponse> completeUpload(@PathVariable UUID uploadId,
+                                                            @RequestParam(required = false) String sha256) {
+        IngestionResponse response = uploadService.complete(uploadId, sha256);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable UUID uploadId) {
+        uploadService.abort(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+}
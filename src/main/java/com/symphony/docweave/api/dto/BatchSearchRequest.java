@@ -0,0 +1,27 @@
+package com.symphony.docweave.api.dto;
+
+import com.symphony.docweave.domain.SearchFilter;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@NoArgsConstructor
+public class BatchSearchRequest {
+
+    /** The queries to run; each gets its own ranked result list */
+    private List<String> queries;
+
+    /**
+     * Results per query (optional; falls back to embedding.search.default-k
+     * from application.yaml)
+     */
+    private Integer k;
+
+    /** vector, lexical or hybrid (optional; falls back to embedding.search.mode) */
+    private String mode;
+
+    /** Optional restriction applied to every query in the batch */
+    private SearchFilter filter;
+}
@@ -0,0 +1,17 @@
+package com.symphony.docweave.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BatchSearchResult {
+
+    /** The query these results belong to, echoed back in request order */
+    private String query;
+
+    /** Ranked matches for the query, best first */
+    private List<SearchResult> results;
+}
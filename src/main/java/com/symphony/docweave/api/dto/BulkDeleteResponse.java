@@ -0,0 +1,12 @@
+package com.symphony.docweave.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BulkDeleteResponse {
+
+    /** Documents hidden by this request; their chunks are purged in the background */
+    private int deletedDocuments;
+}
@@ -1,13 +1,13 @@
 package com.symphony.docweave.api.dto;
 
-import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Getter
-@AllArgsConstructor
 public class DocumentResponse {
 
     private UUID id;
@@ -15,4 +15,27 @@ public class DocumentResponse {
     private String originalFilename;
     private String checksum;
     private Instant createdAt;
+
+    /** Number of chunks; only present when the listing was asked for includeStats */
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long chunkCount;
+
+    /** Chunks that already have an embedding; only present with includeStats */
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long embeddedChunkCount;
+
+    /** Characters of chunk text across all chunks; only present with includeStats */
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long textLength;
+
+    public DocumentResponse(UUID id, String source, String originalFilename, String checksum, Instant createdAt) {
+        this.id = id;
+        this.source = source;
+        this.originalFilename = originalFilename;
+        this.checksum = checksum;
+        this.createdAt = createdAt;
+    }
 }
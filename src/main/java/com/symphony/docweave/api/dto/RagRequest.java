@@ -1,5 +1,6 @@
 package com.symphony.docweave.api.dto;
 
+import com.symphony.docweave.domain.SearchFilter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -15,4 +16,10 @@ public class RagRequest {
      * embedding.search.default-k from application.yaml)
      */
     private Integer topK;
+
+    /** Optional restriction of the retrieved chunks to matching documents */
+    private SearchFilter filter;
+
+    /** Include a per-stage latency breakdown in the response (optional, default false) */
+    private boolean includeTimings;
 }
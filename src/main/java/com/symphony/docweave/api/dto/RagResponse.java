@@ -1,9 +1,12 @@
 package com.symphony.docweave.api.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.List;
+import java.util.Map;
 
 @Getter
 @AllArgsConstructor
@@ -17,4 +20,16 @@ public class RagResponse {
 
     /** The chunks that were used as context (for transparency / citation) */
     private List<SearchResult> sourceChunks;
+
+    /**
+     * Milliseconds per pipeline stage (embed, vector, lexical, context, llm,
+     * total); only present when the request set includeTimings
+     */
+    @Setter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Double> timings;
+
+    public RagResponse(String query, String answer, List<SearchResult> sourceChunks) {
+        this(query, answer, sourceChunks, null);
+    }
 }
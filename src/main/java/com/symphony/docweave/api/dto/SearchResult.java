@@ -17,6 +17,10 @@ public class SearchResult {
     /** The matched text */
     private String content;
 
-    /** Cosine distance from the query (0 = identical, 1 = orthogonal) */
+    /**
+     * Lower = better. Cosine distance from the query (0 = identical,
+     * 1 = orthogonal) for vector search; 1 - relative score for lexical and
+     * hybrid search.
+     */
     private double score;
 }
@@ -0,0 +1,24 @@
+package com.symphony.docweave.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class UploadResponse {
+
+    private UUID uploadId;
+    private String filename;
+
+    /** Bytes received so far; the next part starts here */
+    private long offset;
+
+    /** Total size, once the client has declared it; otherwise null */
+    private Long length;
+
+    /** When the upload is discarded unless more bytes arrive */
+    private Instant expiresAt;
+}
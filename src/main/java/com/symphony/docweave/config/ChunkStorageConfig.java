@@ -0,0 +1,47 @@
+package com.symphony.docweave.config;
+
+import com.symphony.docweave.index.DatabaseVectorSource;
+import com.symphony.docweave.storage.ChunkStorage;
+import com.symphony.docweave.storage.ChunkStorageSynchronizer;
+import com.symphony.docweave.storage.FileSystemChunkStorage;
+import com.symphony.docweave.storage.StorageVectorSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Wires the local chunk storage when {@code storage.chunks.enabled=true}.
+ * With it enabled, the HNSW loader maps segments instead of streaming vectors
+ * out of Postgres, and quantized rescoring reads vectors from local files.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "storage.chunks", name = "enabled", havingValue = "true")
+public class ChunkStorageConfig {
+
+    @Bean(destroyMethod = "close")
+    public FileSystemChunkStorage chunkStorage(ChunkStorageProperties properties) throws IOException {
+        FileSystemChunkStorage storage = new FileSystemChunkStorage(
+                Path.of(properties.getDirectory()),
+                properties.getSegmentSizeMb() * 1024 * 1024,
+                properties.isStoreText(),
+                properties.getCompactionThreshold());
+        storage.open();
+        storage.startCompaction(properties.getCompactionIntervalSeconds());
+        return storage;
+    }
+
+    @Bean
+    public ChunkStorageSynchronizer chunkStorageSynchronizer(ChunkStorage chunkStorage) {
+        return new ChunkStorageSynchronizer(chunkStorage);
+    }
+
+    @Bean
+    @Primary
+    public StorageVectorSource storageVectorSource(ChunkStorage chunkStorage, DatabaseVectorSource databaseVectorSource) {
+        return new StorageVectorSource(chunkStorage, databaseVectorSource);
+    }
+}
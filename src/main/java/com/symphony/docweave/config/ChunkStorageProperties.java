@@ -0,0 +1,29 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "storage.chunks")
+@Getter
+@Setter
+public class ChunkStorageProperties {
+
+    /** Keep a memory-mapped local copy of embedded chunks alongside Postgres */
+    private boolean enabled = false;
+
+    private String directory = "./data/chunks";
+
+    /** Size of each pre-allocated segment file */
+    private int segmentSizeMb = 256;
+
+    /** Also store chunk text, not just vectors */
+    private boolean storeText = true;
+
+    private long compactionIntervalSeconds = 300;
+
+    /** Sealed segments with at least this fraction of dead bytes are compacted */
+    private double compactionThreshold = 0.3;
+}
@@ -0,0 +1,20 @@
+package com.symphony.docweave.config;
+
+import com.symphony.docweave.domain.EmbeddingStorage;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "embedding.storage")
+@Getter
+@Setter
+public class EmbeddingStorageProperties {
+
+    /**
+     * How chunk embeddings are stored; also passed to Flyway as the
+     * {@code embedding_storage} placeholder, so it must not change after V10 has run
+     */
+    private EmbeddingStorage mode = EmbeddingStorage.VECTOR;
+}
@@ -0,0 +1,25 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "index.exact")
+@Getter
+@Setter
+public class ExactSearchProperties {
+
+    /** Use brute-force SIMD search when the candidate set is small enough */
+    private boolean enabled = true;
+
+    /** Candidate sets at or below this size are scanned exactly instead of via HNSW */
+    private int maxCandidates = 100_000;
+
+    /** Worker threads in the dedicated fork-join pool */
+    private int parallelism = Runtime.getRuntime().availableProcessors();
+
+    /** Vectors scanned by one fork-join leaf task */
+    private int partitionSize = 16_384;
+}
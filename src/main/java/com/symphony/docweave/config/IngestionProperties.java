@@ -13,4 +13,17 @@ public class IngestionProperties {
 
     private int chunkSize = 200;
     private int chunkOverlap = 40;
+    private Preprocessing preprocessing = new Preprocessing();
+
+    @Getter
+    @Setter
+    public static class Preprocessing {
+
+        private boolean enabled = true;
+        private boolean dehyphenate = true;
+        private boolean collapseWhitespace = true;
+        private boolean removeRepeatedLines = true;
+        private int repeatedLineMinPages = 3;
+        private double repeatedLineMinRatio = 0.5;
+    }
 }
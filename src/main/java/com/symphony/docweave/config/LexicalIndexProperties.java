@@ -0,0 +1,37 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "index.lexical")
+@Getter
+@Setter
+public class LexicalIndexProperties {
+
+    /** Keep an in-process BM25 index over chunk text for lexical and hybrid search */
+    private boolean enabled = true;
+
+    /** BM25 term-frequency saturation */
+    private float k1 = 1.2f;
+
+    /** BM25 length normalisation (0 = none, 1 = full) */
+    private float b = 0.75f;
+
+    /** Rows fetched per round trip when building the index from Postgres */
+    private int loadBatchSize = 1000;
+
+    /** Reciprocal rank fusion constant; larger values flatten the rank curve */
+    private int rrfK = 60;
+
+    /** Candidates taken from each ranker before fusion, as a multiple of k */
+    private int hybridDepthFactor = 4;
+
+    /** Answer identifier-style queries from the lexical index alone, without embedding them */
+    private boolean shortCircuit = true;
+
+    /** Only queries of at most this many tokens are considered for short-circuiting */
+    private int shortCircuitMaxTokens = 4;
+}
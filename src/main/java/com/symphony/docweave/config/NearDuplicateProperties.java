@@ -0,0 +1,40 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "index.near-duplicates")
+@Getter
+@Setter
+public class NearDuplicateProperties {
+
+    /** Flag chunks that are near-copies of existing chunks at ingest, using MinHash LSH over word shingles */
+    private boolean enabled = true;
+
+    /** Words per shingle; larger values make the comparison more sensitive to word order */
+    private int shingleSize = 3;
+
+    /** LSH bands; bands * rows MinHash values are kept per chunk */
+    private int bands = 16;
+
+    /** MinHash values per band; with 16 x 8, pairs above ~0.7 Jaccard almost always collide in some band */
+    private int rows = 8;
+
+    /** Estimated Jaccard similarity of shingle sets above which a chunk counts as a near-duplicate */
+    private double threshold = 0.8;
+
+    /** Embedding backfill copies the vector of a duplicate's twin instead of calling the API */
+    private boolean reuseEmbeddings = true;
+
+    /** Search returns only the best-ranked chunk of each group of near-duplicates */
+    private boolean collapseResults = true;
+
+    /** Candidates ranked before collapsing, as a multiple of k, so collapsing does not leave fewer than k */
+    private int collapseDepthFactor = 2;
+
+    /** Rows fetched per round trip when building the index from Postgres */
+    private int loadBatchSize = 1000;
+}
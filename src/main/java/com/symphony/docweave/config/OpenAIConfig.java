@@ -1,25 +1,42 @@
 package com.symphony.docweave.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.theokanning.openai.OpenAiApi;
 import com.theokanning.openai.OpenAiService;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import retrofit2.Retrofit;
+import retrofit2.adapter.rxjava2.RxJava2CallAdapterFactory;
+import retrofit2.converter.jackson.JacksonConverterFactory;
+
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class OpenAIConfig {
 
     private static final Logger log = LoggerFactory.getLogger(OpenAIConfig.class);
 
+    private static final String DEFAULT_BASE_URL = "https://api.openai.com/";
+
     @Value("${openai.api-key}")
     private String apiKey;
 
     @Value("${openai.timeout-seconds:30}")
     private int timeoutSeconds;
 
+    @Value("${openai.base-url:" + DEFAULT_BASE_URL + "}")
+    private String baseUrl;
+
     @Bean
     public OpenAiService openAiService() {
         if (apiKey == null || apiKey.isBlank() || apiKey.equals("${OPENAI_API_KEY}")) {
@@ -27,7 +44,39 @@ public class OpenAIConfig {
                 "OpenAI API key is not set. " +
                 "Export it before starting the app: export OPENAI_API_KEY=sk-...");
         }
-        log.info("OpenAI client initialised (timeout={}s)", timeoutSeconds);
-        return new OpenAiService(apiKey, Duration.ofSeconds(timeoutSeconds));
+        if (baseUrl == null || baseUrl.isBlank() || baseUrl.equals(DEFAULT_BASE_URL)) {
+            log.info("OpenAI client initialised (timeout={}s)", timeoutSeconds);
+            return new OpenAiService(apiKey, Duration.ofSeconds(timeoutSeconds));
+        }
+        log.warn("OpenAI client initialised against {} (timeout={}s)", baseUrl, timeoutSeconds);
+        return new OpenAiService(customApi(baseUrl.endsWith("/") ? baseUrl : baseUrl + "/"));
+    }
+
+    /**
+     * The client library only targets api.openai.com, so a custom base URL
+     * (an OpenAI-compatible gateway, or the load-test stub) needs the same
+     * Retrofit setup it builds internally, pointed elsewhere.
+     */
+    private OpenAiApi customApi(String url) {
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(chain -> chain.proceed(chain.request().newBuilder()
+                        .header("Authorization", "Bearer " + apiKey)
+                        .build()))
+                .connectionPool(new ConnectionPool(5, 1, TimeUnit.SECONDS))
+                .readTimeout(Duration.ofSeconds(timeoutSeconds))
+                .build();
+
+        ObjectMapper mapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+        return new Retrofit.Builder()
+                .baseUrl(url)
+                .client(client)
+                .addConverterFactory(JacksonConverterFactory.create(mapper))
+                .addCallAdapterFactory(RxJava2CallAdapterFactory.create())
+                .build()
+                .create(OpenAiApi.class);
     }
 }
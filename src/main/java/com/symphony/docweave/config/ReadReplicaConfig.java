@@ -0,0 +1,70 @@
+package com.symphony.docweave.config;
+
+import com.symphony.docweave.datasource.ReplicaHealthChecker;
+import com.symphony.docweave.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source when
+ * {@code datasource.replicas.enabled=true}: {@code spring.datasource} stays
+ * the primary for writes, and {@code @Transactional(readOnly = true)} work
+ * (document reads, search queries, index loading) is spread across healthy
+ * replicas.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties primary,
+                                                             ReadReplicaProperties properties) {
+        if (properties.getNodes().isEmpty()) {
+            throw new IllegalStateException("datasource.replicas.enabled is true but no datasource.replicas.nodes are configured");
+        }
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.getUrl());
+            replica.setUsername(node.getUsername() != null ? node.getUsername() : primary.determineUsername());
+            replica.setPassword(node.getPassword() != null ? node.getPassword() : primary.determinePassword());
+            replica.setDriverClassName(primary.determineDriverClassName());
+            replica.setMaximumPoolSize(node.getMaximumPoolSize());
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaHealthChecker replicaHealthChecker(ReplicaRoutingDataSource routing, ReadReplicaProperties properties) {
+        ReplicaHealthChecker checker = new ReplicaHealthChecker(routing, properties.getMaxLagSeconds());
+        checker.start(properties.getHealthCheckIntervalSeconds());
+        return checker;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,41 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "datasource.replicas")
+@Getter
+@Setter
+public class ReadReplicaProperties {
+
+    /** Route read-only transactions to the replicas below; writes always use spring.datasource */
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /** Replicas further behind the primary than this are skipped until they catch up */
+    private long maxLagSeconds = 10;
+
+    private long healthCheckIntervalSeconds = 5;
+
+    @Getter
+    @Setter
+    public static class Node {
+
+        private String url;
+
+        /** Defaults to spring.datasource.username */
+        private String username;
+
+        /** Defaults to spring.datasource.password */
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,76 @@
+package com.symphony.docweave.config;
+
+import com.symphony.docweave.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Replaces the auto-configured data source when {@code sharding.enabled=true}:
+ * one pool per {@code sharding.nodes} entry behind a routing data source,
+ * with {@link com.symphony.docweave.datasource.Shards} choosing the shard.
+ * {@code spring.datasource} only supplies the driver and default credentials.
+ *
+ * Flyway migrates every shard at startup. Open-session-in-view must be off:
+ * a request-scoped session would keep the first shard's connection for the
+ * whole request.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties defaults,
+                                                         ShardingProperties properties,
+                                                         ReadReplicaProperties replicas,
+                                                         @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (replicas.isEnabled()) {
+            throw new IllegalStateException("sharding.enabled and datasource.replicas.enabled cannot both be set");
+        }
+        if (openInView) {
+            throw new IllegalStateException("sharding.enabled requires spring.jpa.open-in-view=false");
+        }
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        for (ShardingProperties.Node node : properties.getNodes()) {
+            HikariDataSource shard = new HikariDataSource();
+            shard.setPoolName("shard-" + node.getName());
+            shard.setJdbcUrl(node.getUrl());
+            shard.setUsername(node.getUsername() != null ? node.getUsername() : defaults.determineUsername());
+            shard.setPassword(node.getPassword() != null ? node.getPassword() : defaults.determinePassword());
+            shard.setDriverClassName(defaults.determineDriverClassName());
+            shard.setMaximumPoolSize(node.getMaximumPoolSize());
+            shards.put(node.getName(), shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /** Applies the configured migrations to each shard in turn instead of the routing data source. */
+    @Bean
+    public FlywayMigrationStrategy shardedFlywayMigration(ShardRoutingDataSource routing) {
+        return flyway -> routing.shards().forEach((name, shard) -> {
+            log.info("Migrating shard {}", name);
+            Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate();
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    /** Spread documents across the nodes below instead of spring.datasource; exclusive with datasource.replicas */
+    private boolean enabled = false;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    /** Ring positions per shard; more gives a more even spread */
+    private int virtualNodes = 128;
+
+    /** Shards that have not answered a scatter query within this are left out of the result */
+    private long queryTimeoutMs = 2000;
+
+    @Getter
+    @Setter
+    public static class Node {
+
+        /** Stable ring identity; renaming a shard moves its documents on the ring */
+        private String name;
+
+        private String url;
+
+        /** Defaults to spring.datasource.username */
+        private String username;
+
+        /** Defaults to spring.datasource.password */
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,40 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "embedding.search.two-tier")
+@Getter
+@Setter
+public class TwoTierSearchProperties {
+
+    /** Width of the full embedding the short vector is cut from */
+    private static final int MAX_DIMENSIONS = 1536;
+
+    /**
+     * Shortlist pgvector candidates by the short vector's HNSW index and
+     * rerank them by the full vector; otherwise search the full vector's index
+     */
+    private boolean enabled = true;
+
+    /**
+     * Leading embedding dimensions kept, renormalised, in {@code embedding_short};
+     * also passed to Flyway as the {@code short_embedding_dimensions} placeholder
+     * that sizes the column, so it must not change after V9 has run
+     */
+    private int dimensions = 256;
+
+    /** The shortlist holds k * oversampling chunks before rescoring */
+    private int oversampling = 4;
+
+    public void setDimensions(int dimensions) {
+        if (dimensions < 1 || dimensions > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException(
+                    "embedding.search.two-tier.dimensions must be between 1 and " + MAX_DIMENSIONS);
+        }
+        this.dimensions = dimensions;
+    }
+}
@@ -0,0 +1,24 @@
+package com.symphony.docweave.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "upload")
+@Getter
+@Setter
+public class UploadProperties {
+
+    /** Spool for resumable uploads; each upload is a data file plus a small properties file */
+    private String directory = "./data/uploads";
+
+    /** Largest resumable upload accepted */
+    private long maxSizeMb = 20_480;
+
+    /** Uploads not written to for this long are discarded */
+    private long expireAfterHours = 24;
+
+    private long cleanupIntervalSeconds = 3600;
+}
@@ -0,0 +1,50 @@
+package com.symphony.docweave.config;
+
+import com.symphony.docweave.index.VectorEncoding;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "index.hnsw")
+@Getter
+@Setter
+public class VectorIndexProperties {
+
+    /** Serve searches from the in-process HNSW index once it has loaded */
+    private boolean enabled = true;
+
+    private int dimensions = 1536;
+
+    /** Max links per node on upper layers (layer 0 uses 2 * m) */
+    private int m = 16;
+
+    private int efConstruction = 200;
+
+    private int efSearch = 100;
+
+    /** In-memory vector representation: FLOAT32, INT8 (4x smaller) or BINARY (32x smaller) */
+    private VectorEncoding encoding = VectorEncoding.FLOAT32;
+
+    /** Quantized encodings fetch k * oversampling candidates before exact rescoring */
+    private int oversampling = 4;
+
+    /** Rows fetched per round trip when building the index from Postgres */
+    private int loadBatchSize = 1000;
+
+    /**
+     * Fraction of graph nodes tombstoned by deletes or re-embeddings at which
+     * the graph is rebuilt without them in the background
+     */
+    private double compactionThreshold = 0.25;
+
+    /** Optional snapshot file; loaded at startup and rewritten on shutdown */
+    private String snapshotPath;
+
+    /**
+     * How often the loaded index picks up embeddings written and documents
+     * deleted on other nodes; 0 disables (single-node deployments)
+     */
+    private long catchUpIntervalSeconds = 30;
+}
@@ -0,0 +1,95 @@
+package com.symphony.docweave.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically measures each replica's replay lag and marks it eligible for
+ * reads only while it answers and is within {@code maxLagSeconds} of the
+ * primary. An unreachable or lagging replica drops out of rotation at the
+ * next check, and reads fall back to the primary when none are eligible.
+ */
+public class ReplicaHealthChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealthChecker.class);
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when the replica has
+     * replayed everything it received (an idle primary produces no new
+     * transactions, so the timestamp alone would report growing lag).
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                     WHEN NOT pg_is_in_recovery() THEN 0
+                     WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                     ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+                   END
+            """;
+
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final ReplicaRoutingDataSource routing;
+    private final long maxLagSeconds;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaHealthChecker(ReplicaRoutingDataSource routing, long maxLagSeconds) {
+        this.routing = routing;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public void start(long intervalSeconds) {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health-check");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, 0, Math.max(1, intervalSeconds), TimeUnit.SECONDS);
+    }
+
+    /** Probes every replica once and publishes the eligible set. */
+    public void check() {
+        List<String> eligible = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : routing.replicas().entrySet()) {
+            String name = replica.getKey();
+            boolean wasHealthy = routing.healthyReplicas().contains(name);
+            try {
+                double lag = lagSeconds(replica.getValue());
+                if (lag <= maxLagSeconds) {
+                    eligible.add(name);
+                    if (!wasHealthy) log.info("Replica {} in rotation (lag {}s)", name, lag);
+                } else if (wasHealthy) {
+                    log.warn("Replica {} out of rotation: lag {}s exceeds {}s", name, lag, maxLagSeconds);
+                }
+            } catch (Exception e) {
+                if (wasHealthy) log.warn("Replica {} out of rotation: {}", name, e.getMessage());
+            }
+        }
+        routing.setHealthy(eligible);
+    }
+
+    public void close() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private static double lagSeconds(DataSource replica) throws Exception {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.symphony.docweave.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica (round robin) and
+ * everything else to the primary.
+ *
+ * The read-only flag is only known once the transaction has started, so this
+ * must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * which defers fetching the physical connection until the first statement.
+ * Replicas start out unhealthy; until {@link ReplicaHealthChecker} has seen
+ * them caught up, reads stay on the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<String> healthy = List.of();
+
+    /**
+     * @param replicas replica pools by name; closed with this data source
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return PRIMARY;
+
+        List<String> candidates = healthy;
+        if (candidates.isEmpty()) return PRIMARY;
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    Map<String, DataSource> replicas() {
+        return replicas;
+    }
+
+    /** Replaces the set of replicas eligible for reads, keeping configuration order. */
+    void setHealthy(List<String> names) {
+        healthy = replicas.keySet().stream().filter(names::contains).toList();
+    }
+
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof Closeable closeable) closeable.close();
+        }
+    }
+}
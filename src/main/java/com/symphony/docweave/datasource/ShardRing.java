@@ -0,0 +1,73 @@
+package com.symphony.docweave.datasource;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Consistent-hash ring mapping document ids to shard names.
+ *
+ * Each shard owns {@code virtualNodes} points on a 64-bit ring and a document
+ * belongs to the first point at or after its own hash. Adding a shard
+ * therefore only moves the documents that land on the new shard's points,
+ * roughly {@code 1 / shards} of the corpus, instead of rehashing everything.
+ */
+public final class ShardRing {
+
+    private final TreeMap<Long, String> ring = new TreeMap<>();
+
+    public ShardRing(List<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("A shard ring needs at least one shard");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("virtualNodes must be at least 1");
+        }
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                String previous = ring.put(hash(shard + "#" + i), shard);
+                if (previous != null && !previous.equals(shard)) {
+                    throw new IllegalStateException("Ring position collision between shards " + previous + " and " + shard);
+                }
+            }
+        }
+    }
+
+    public String shardFor(UUID documentId) {
+        return shardFor(documentId.toString());
+    }
+
+    /** Shard owning an arbitrary key, such as a content checksum. */
+    public String shardFor(String key) {
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * A random id that hashes to the same shard as {@code key}. Draws random
+     * ids until one lands there, about as many draws as there are shards.
+     */
+    public UUID randomIdOnShardOf(String key) {
+        String shard = shardFor(key);
+        UUID id = UUID.randomUUID();
+        while (!shardFor(id).equals(shard)) {
+            id = UUID.randomUUID();
+        }
+        return id;
+    }
+
+    /** First eight bytes of MD5: stable across JVMs and evenly spread, unlike {@link String#hashCode()}. */
+    private static long hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(key.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.symphony.docweave.datasource;
+
+import com.symphony.docweave.config.ShardingProperties;
+import com.symphony.docweave.metrics.RequestTimings;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Where a document's rows live, and how to run work against one shard or all
+ * of them.
+ *
+ * With {@code sharding.enabled=false} there is a single implicit shard and
+ * every method simply runs its work on the calling thread, inside whatever
+ * transaction is already open, so callers are written once for both setups.
+ *
+ * With sharding on, a document and all of its chunks live on the shard its
+ * id hashes to on a {@link ShardRing}. The shard is selected per thread and
+ * read by {@link ShardRoutingDataSource} when a transaction issues its first
+ * statement:
+ * <ul>
+ *   <li>{@link #bindTransaction} pins the surrounding transaction to one
+ *       document's shard;</li>
+ *   <li>{@link #on} and {@link #read} run a unit of work against a named
+ *       shard outside the caller's transaction;</li>
+ *   <li>{@link #each} visits every shard in turn and {@link #scatter} queries
+ *       them all in parallel, leaving out shards that fail or exceed
+ *       {@code sharding.query-timeout-ms}.</li>
+ * </ul>
+ */
+@Component
+public class Shards {
+
+    private static final Logger log = LoggerFactory.getLogger(Shards.class);
+
+    static final String SINGLE = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final List<String> names;
+    private final ShardRing ring;
+    private final long queryTimeoutMs;
+    private final TransactionTemplate outsideTransaction;
+    private final TransactionTemplate readTransaction;
+    private final ExecutorService executor;
+
+    public Shards(ShardingProperties properties, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.queryTimeoutMs = properties.getQueryTimeoutMs();
+        if (!properties.isEnabled()) {
+            this.names = List.of(SINGLE);
+            this.ring = null;
+            this.outsideTransaction = null;
+            this.readTransaction = null;
+            this.executor = null;
+            return;
+        }
+
+        this.names = properties.getNodes().stream().map(ShardingProperties.Node::getName).toList();
+        if (names.isEmpty()) {
+            throw new IllegalStateException("sharding.enabled is true but no sharding.nodes are configured");
+        }
+        if (names.stream().anyMatch(Objects::isNull) || names.stream().distinct().count() != names.size()) {
+            throw new IllegalStateException("Every sharding.nodes entry needs a unique name");
+        }
+        this.ring = new ShardRing(names, properties.getVirtualNodes());
+
+        PlatformTransactionManager tm = transactionManager.getObject();
+        this.outsideTransaction = new TransactionTemplate(tm);
+        outsideTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.readTransaction = new TransactionTemplate(tm);
+        readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readTransaction.setReadOnly(true);
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "shard-query-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /** The shard selected on this thread, or {@code null} outside any shard-scoped work. */
+    static String current() {
+        return CURRENT.get();
+    }
+
+    public boolean isSharded() {
+        return ring != null;
+    }
+
+    /** Shard names in configuration order. */
+    public List<String> names() {
+        return names;
+    }
+
+    public String shardFor(UUID documentId) {
+        return ring == null ? SINGLE : ring.shardFor(documentId);
+    }
+
+    /**
+     * A new document id on the shard {@code checksum} hashes to, so every
+     * upload of the same file lands on one shard and that shard's unique
+     * checksum index rejects concurrent duplicates.
+     */
+    public UUID newDocumentId(String checksum) {
+        return ring == null ? UUID.randomUUID() : ring.randomIdOnShardOf(checksum);
+    }
+
+    // -------------------------------------------------------------------------
+    // Single-shard work
+    // -------------------------------------------------------------------------
+
+    /**
+     * Pins the surrounding transaction to {@code documentId}'s shard. Must be
+     * called before the transaction's first statement; the selection is
+     * cleared when the transaction completes.
+     *
+     * @throws IllegalStateException if the thread is already bound to another shard
+     */
+    public void bindTransaction(UUID documentId) {
+        if (ring == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("bindTransaction requires an active transaction");
+        }
+        String shard = ring.shardFor(documentId);
+        String previous = CURRENT.get();
+        if (previous != null && !previous.equals(shard)) {
+            throw new IllegalStateException(
+                    "Transaction is bound to shard " + previous + " but document " + documentId + " lives on " + shard);
+        }
+        CURRENT.set(shard);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                restore(previous);
+            }
+        });
+    }
+
+    /**
+     * Runs {@code work} against {@code shard} with the caller's transaction
+     * suspended, so each repository call opens its own transaction there.
+     */
+    public <T> T on(String shard, Supplier<T> work) {
+        if (ring == null) return work.get();
+        return withShard(shard, () -> outsideTransaction.execute(status -> work.get()));
+    }
+
+    public <T> T onShardOf(UUID documentId, Supplier<T> work) {
+        return on(shardFor(documentId), work);
+    }
+
+    /**
+     * Runs {@code work} in a new read-only transaction on {@code shard}, for
+     * work that must hold one connection throughout, e.g. consuming a
+     * server-side cursor.
+     */
+    public <T> T read(String shard, Supplier<T> work) {
+        if (ring == null) return work.get();
+        return withShard(shard, () -> readTransaction.execute(status -> work.get()));
+    }
+
+    // -------------------------------------------------------------------------
+    // Multi-shard work
+    // -------------------------------------------------------------------------
+
+    /**
+     * Runs {@code work} on every shard in turn, as with {@link #on}, returning
+     * the results in shard order. The first failure is rethrown.
+     */
+    public <T> List<T> each(Function<String, T> work) {
+        List<T> results = new ArrayList<>(names.size());
+        for (String shard : names) {
+            results.add(on(shard, () -> work.apply(shard)));
+        }
+        return results;
+    }
+
+    /**
+     * Runs {@code work} on all shards in parallel and returns the results of
+     * those that answered within {@code sharding.query-timeout-ms}, in shard
+     * order. A shard that fails or times out is logged and left out, so a
+     * slow or unreachable node degrades results instead of failing them.
+     *
+     * @throws IllegalStateException if no shard answered
+     */
+    public <T> List<T> scatter(Function<String, T> work) {
+        if (ring == null) return Collections.singletonList(work.apply(SINGLE));
+
+        List<Callable<T>> tasks = names.stream()
+                .<Callable<T>>map(shard -> () -> on(shard, () -> work.apply(shard)))
+                .toList();
+        List<Future<T>> futures;
+        try {
+            futures = executor.invokeAll(tasks, queryTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        }
+
+        List<T> results = new ArrayList<>(names.size());
+        RuntimeException lastFailure = null;
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).get());
+            } catch (CancellationException e) {
+                log.warn("Shard {} did not answer within {} ms; leaving it out", names.get(i), queryTimeoutMs);
+            } catch (ExecutionException e) {
+                lastFailure = e.getCause() instanceof RuntimeException re ? re : new IllegalStateException(e.getCause());
+                log.warn("Shard {} query failed; leaving it out: {}", names.get(i), e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while querying shards", e);
+            }
+        }
+        if (results.isEmpty()) {
+            throw new IllegalStateException("No shard answered", lastFailure);
+        }
+        if (results.size() < names.size()) {
+            RequestTimings.flag("shards", results.size() + "/" + names.size());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+
+    private static <T> T withShard(String shard, Supplier<T> work) {
+        String previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    private static void restore(String previous) {
+        if (previous == null) CURRENT.remove();
+        else CURRENT.set(previous);
+    }
+}
@@ -28,6 +28,17 @@ public class DocumentChunkEntity {
     @Column(name = "embedding", columnDefinition = "vector(1536)")
     private float[] embedding;
 
+    /**
+     * Leading dimensions of {@link #embedding}, renormalised; shortlists candidates in two-tier search.
+     * The width is set by the V9 migration from {@code embedding.search.two-tier.dimensions}.
+     */
+    @Column(name = "embedding_short", columnDefinition = "vector")
+    private float[] embeddingShort;
+
+    /** Earlier chunk, possibly in another document, whose text this one nearly repeats; no foreign key */
+    @Column(name = "duplicate_of")
+    private UUID duplicateOf;
+
     protected DocumentChunkEntity() {} // JPA
 
     public DocumentChunkEntity(UUID id, DocumentEntity document, int chunkIndex, String content) {
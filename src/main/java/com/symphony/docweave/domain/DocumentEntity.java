@@ -25,6 +25,9 @@ public class DocumentEntity {
 
     private Instant createdAt;
 
+    /** Set when the document is deleted asynchronously; cleared only by the purge removing the row. */
+    private Instant deletedAt;
+
     protected DocumentEntity() {} // JPA
 
     public DocumentEntity(UUID id, String source, String originalFilename, String checksum) {
@@ -34,4 +37,8 @@ public class DocumentEntity {
         this.checksum = checksum;
         this.createdAt = Instant.now();
     }
+
+    public boolean isDeleted() {
+        return deletedAt != null;
+    }
 }
@@ -4,5 +4,7 @@ public enum DocumentType {
 
     PDF,
     DOCX,
-    HTML
+    HTML,
+    MARKDOWN,
+    TEXT
 }
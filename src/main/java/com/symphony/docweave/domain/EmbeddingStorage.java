@@ -0,0 +1,17 @@
+package com.symphony.docweave.domain;
+
+/**
+ * Column type of {@code document_chunks.embedding}, chosen by
+ * {@code embedding.storage.mode} and fixed once the V10 migration has run.
+ */
+public enum EmbeddingStorage {
+
+    /** {@code vector(1536)}: 4 bytes per dimension, cosine distance */
+    VECTOR,
+
+    /**
+     * {@code halfvec(1536)}: 2 bytes per dimension. Vectors are normalised
+     * on write, so inner product ranks the same as cosine and is cheaper
+     */
+    HALFVEC
+}
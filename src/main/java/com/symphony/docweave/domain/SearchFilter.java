@@ -0,0 +1,63 @@
+package com.symphony.docweave.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Restricts a search to chunks of matching documents. Every field is
+ * optional; set fields are combined with AND, list fields match any value.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchFilter {
+
+    /** Only chunks of these documents */
+    private List<UUID> documentIds;
+
+    /** Only documents whose {@code source} (content type) is one of these */
+    private List<String> sources;
+
+    /** Ingested at or after this instant */
+    private Instant createdAfter;
+
+    /** Ingested strictly before this instant */
+    private Instant createdBefore;
+
+    /** Case-insensitive glob on the original filename, e.g. {@code *.pdf} or {@code report-2024*} */
+    private String filenamePattern;
+
+    public boolean isEmpty() {
+        return (documentIds == null || documentIds.isEmpty())
+                && (sources == null || sources.isEmpty())
+                && createdAfter == null
+                && createdBefore == null
+                && (filenamePattern == null || filenamePattern.isBlank());
+    }
+
+    /**
+     * Translates {@link #filenamePattern} into a SQL {@code LIKE} pattern:
+     * {@code *} → {@code %}, {@code ?} → {@code _}, literal {@code % _ \} escaped.
+     */
+    public String filenameLikePattern() {
+        if (filenamePattern == null || filenamePattern.isBlank()) return null;
+        StringBuilder sb = new StringBuilder();
+        for (char c : filenamePattern.trim().toLowerCase(Locale.ROOT).toCharArray()) {
+            switch (c) {
+                case '*' -> sb.append('%');
+                case '?' -> sb.append('_');
+                case '%', '_', '\\' -> sb.append('\\').append(c);
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
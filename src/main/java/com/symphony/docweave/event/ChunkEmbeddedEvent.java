@@ -0,0 +1,12 @@
+package com.symphony.docweave.event;
+
+import java.util.UUID;
+
+/**
+ * Published by {@code EmbeddingService} after a chunk's embedding has been
+ * written, so in-memory search structures and local chunk storage can pick
+ * up the new vector.
+ */
+public record ChunkEmbeddedEvent(UUID chunkId, UUID documentId, int chunkIndex, float[] embedding,
+                                 String content) {
+}
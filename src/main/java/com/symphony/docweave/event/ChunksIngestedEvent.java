@@ -0,0 +1,16 @@
+package com.symphony.docweave.event;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by {@code DocumentIngestionServiceImpl} once a document's chunks
+ * have been saved, so text indexes can pick them up without waiting for
+ * embeddings.
+ */
+public record ChunksIngestedEvent(UUID documentId, List<IngestedChunk> chunks) {
+
+    /** @param duplicateOf the existing chunk this one nearly repeats, or {@code null} */
+    public record IngestedChunk(UUID chunkId, int chunkIndex, String content, UUID duplicateOf) {
+    }
+}
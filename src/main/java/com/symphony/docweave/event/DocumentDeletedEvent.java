@@ -0,0 +1,11 @@
+package com.symphony.docweave.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a document and its chunks are deleted. Listeners should use
+ * {@code @TransactionalEventListener} so they only react once the delete has
+ * committed.
+ */
+public record DocumentDeletedEvent(UUID documentId) {
+}
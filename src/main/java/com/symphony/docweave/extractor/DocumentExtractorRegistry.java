@@ -0,0 +1,126 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import com.symphony.docweave.exception.DocumentProcessingException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks the extractor for an upload.
+ *
+ * The first bytes of the stream decide where they can (PDF and ZIP-based
+ * DOCX have unambiguous signatures), then the declared content type, then the
+ * file extension. Text formats have no signature, so anything left over is
+ * sniffed: NUL bytes mean an unsupported binary, an HTML prologue means HTML,
+ * and the rest is treated as plain text.
+ */
+@Component
+public class DocumentExtractorRegistry {
+
+    static final int SNIFF_BYTES = 512;
+
+    private static final byte[] PDF_MAGIC = {'%', 'P', 'D', 'F', '-'};
+    private static final byte[] ZIP_MAGIC = {'P', 'K', 3, 4};
+    private static final String DOCX_CONTENT_TYPE =
+            "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+
+    private final Map<DocumentType, DocumentTextExtractor> extractors = new EnumMap<>(DocumentType.class);
+
+    public DocumentExtractorRegistry(List<DocumentTextExtractor> extractors) {
+        for (DocumentTextExtractor extractor : extractors) {
+            DocumentTextExtractor previous = this.extractors.putIfAbsent(extractor.supportedType(), extractor);
+            if (previous != null) {
+                throw new IllegalStateException("Two extractors registered for " + extractor.supportedType()
+                        + ": " + previous.getClass().getSimpleName() + ", " + extractor.getClass().getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Sniffs the head of {@code inputStream}, which must support mark/reset,
+     * and rewinds it so the returned extractor reads the upload from the start.
+     */
+    public DocumentTextExtractor select(InputStream inputStream, String contentType, String filename) {
+        byte[] head;
+        try {
+            inputStream.mark(SNIFF_BYTES);
+            head = inputStream.readNBytes(SNIFF_BYTES);
+            inputStream.reset();
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to read document: " + filename, e);
+        }
+        DocumentType type = detect(head, contentType, filename);
+        DocumentTextExtractor extractor = type == null ? null : extractors.get(type);
+        if (extractor == null) {
+            throw new DocumentProcessingException("Unsupported document type"
+                    + (type == null ? "" : " " + type) + ": " + filename);
+        }
+        return extractor;
+    }
+
+    /** The detected format, or {@code null} for binary content no extractor understands. */
+    static DocumentType detect(byte[] head, String contentType, String filename) {
+        if (startsWith(head, PDF_MAGIC)) return DocumentType.PDF;
+        if (startsWith(head, ZIP_MAGIC)) return DocumentType.DOCX;
+
+        // text/plain is what many clients send for any text file, so a more specific extension wins over it
+        DocumentType declared = fromContentType(contentType);
+        if (declared == null || declared == DocumentType.TEXT) {
+            DocumentType byExtension = fromExtension(filename);
+            if (byExtension != null) declared = byExtension;
+        }
+        if (declared != null) return declared;
+
+        for (byte b : head) {
+            if (b == 0) return null;
+        }
+        String text = new String(head, StandardCharsets.UTF_8).stripLeading().toLowerCase(Locale.ROOT);
+        if (text.startsWith("\uFEFF")) text = text.substring(1).stripLeading();
+        if (text.startsWith("<!doctype html") || text.startsWith("<html") || text.contains("<body")) {
+            return DocumentType.HTML;
+        }
+        return DocumentType.TEXT;
+    }
+
+    private static DocumentType fromContentType(String contentType) {
+        if (contentType == null) return null;
+        String mime = contentType.split(";", 2)[0].strip().toLowerCase(Locale.ROOT);
+        return switch (mime) {
+            case "application/pdf" -> DocumentType.PDF;
+            case DOCX_CONTENT_TYPE -> DocumentType.DOCX;
+            case "text/html", "application/xhtml+xml" -> DocumentType.HTML;
+            case "text/markdown", "text/x-markdown" -> DocumentType.MARKDOWN;
+            case "text/plain" -> DocumentType.TEXT;
+            default -> null;
+        };
+    }
+
+    private static DocumentType fromExtension(String filename) {
+        if (filename == null) return null;
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) return null;
+        return switch (filename.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+            case "pdf" -> DocumentType.PDF;
+            case "docx" -> DocumentType.DOCX;
+            case "html", "htm", "xhtml" -> DocumentType.HTML;
+            case "md", "markdown" -> DocumentType.MARKDOWN;
+            case "txt" -> DocumentType.TEXT;
+            default -> null;
+        };
+    }
+
+    private static boolean startsWith(byte[] head, byte[] prefix) {
+        if (head.length < prefix.length) return false;
+        for (int i = 0; i < prefix.length; i++) {
+            if (head[i] != prefix[i]) return false;
+        }
+        return true;
+    }
+}
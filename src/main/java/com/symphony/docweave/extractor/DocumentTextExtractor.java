@@ -1,11 +1,15 @@
 package com.symphony.docweave.extractor;
 
 import com.symphony.docweave.domain.Document;
+import com.symphony.docweave.domain.DocumentType;
 
 import java.io.InputStream;
 
 public interface DocumentTextExtractor {
 
+    /** The format this extractor parses; {@link DocumentExtractorRegistry} routes uploads by it. */
+    DocumentType supportedType();
+
     String extract(Document document);
 
     String extract(InputStream inputStream, String filename);
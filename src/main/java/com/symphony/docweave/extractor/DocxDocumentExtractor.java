@@ -0,0 +1,86 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import com.symphony.docweave.exception.DocumentProcessingException;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.InputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Extracts the body text of a Word (OOXML) document.
+ *
+ * The upload is read as a ZIP stream up to the {@code word/document.xml}
+ * entry, which is parsed with SAX: only run text ({@code w:t}) is kept, with
+ * tabs, line breaks and paragraph ends turned into whitespace. Nothing is
+ * buffered beyond the extracted text. Headers, footers, footnotes and
+ * comments live in other parts and are not included.
+ */
+@Component
+public class DocxDocumentExtractor extends StreamingDocumentExtractor {
+
+    private static final String BODY_PART = "word/document.xml";
+    private static final String WORDPROCESSING_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    @Override
+    public DocumentType supportedType() {
+        return DocumentType.DOCX;
+    }
+
+    @Override
+    protected String extractText(InputStream inputStream, String filename) throws Exception {
+        ZipInputStream zip = new ZipInputStream(inputStream);
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if (BODY_PART.equals(entry.getName())) {
+                BodyTextHandler handler = new BodyTextHandler();
+                parserFactory().newSAXParser().parse(new InputSource(zip), handler);
+                return handler.text.toString();
+            }
+        }
+        throw new DocumentProcessingException("Not a DOCX file (no " + BODY_PART + "): " + filename);
+    }
+
+    /** DTDs are refused outright, which also rules out external entity tricks. */
+    private static SAXParserFactory parserFactory() throws Exception {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return factory;
+    }
+
+    private static final class BodyTextHandler extends DefaultHandler {
+
+        private final StringBuilder text = new StringBuilder();
+        private boolean inRunText;
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if (!WORDPROCESSING_NS.equals(uri)) return;
+            switch (localName) {
+                case "t" -> inRunText = true;
+                case "tab" -> text.append('\t');
+                case "br", "cr" -> text.append('\n');
+                default -> { }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if (!WORDPROCESSING_NS.equals(uri)) return;
+            if (localName.equals("t")) inRunText = false;
+            else if (localName.equals("p")) text.append('\n');
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (inRunText) text.append(ch, start, length);
+        }
+    }
+}
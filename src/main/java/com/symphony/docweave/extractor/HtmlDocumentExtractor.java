@@ -0,0 +1,219 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Extracts visible text from HTML in a single pass over the character stream.
+ *
+ * Tags are stripped, block-level elements become line breaks, entities are
+ * decoded and runs of whitespace collapse to one space. The contents of
+ * script, style, noscript and template elements are skipped. This is not an
+ * HTML parser: malformed markup degrades to slightly noisier text rather than
+ * an error, which is the right trade-off for indexing.
+ */
+@Component
+public class HtmlDocumentExtractor extends StreamingDocumentExtractor {
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "p", "div", "br", "hr", "li", "ul", "ol", "dl", "dt", "dd", "tr", "table", "thead", "tbody",
+            "h1", "h2", "h3", "h4", "h5", "h6", "pre", "blockquote", "section", "article", "header",
+            "footer", "nav", "aside", "main", "figure", "figcaption", "title", "form", "address");
+
+    private static final Set<String> RAW_TEXT_TAGS = Set.of("script", "style", "noscript", "template");
+
+    private static final Map<String, String> NAMED_ENTITIES = Map.ofEntries(
+            Map.entry("amp", "&"), Map.entry("lt", "<"), Map.entry("gt", ">"),
+            Map.entry("quot", "\""), Map.entry("apos", "'"), Map.entry("nbsp", "\u00A0"),
+            Map.entry("ndash", "\u2013"), Map.entry("mdash", "\u2014"), Map.entry("hellip", "\u2026"),
+            Map.entry("lsquo", "\u2018"), Map.entry("rsquo", "\u2019"),
+            Map.entry("ldquo", "\u201C"), Map.entry("rdquo", "\u201D"),
+            Map.entry("copy", "\u00A9"), Map.entry("reg", "\u00AE"), Map.entry("trade", "\u2122"),
+            Map.entry("bull", "\u2022"), Map.entry("middot", "\u00B7"), Map.entry("euro", "\u20AC"));
+
+    private static final int MAX_ENTITY_LENGTH = 10;
+
+    @Override
+    public DocumentType supportedType() {
+        return DocumentType.HTML;
+    }
+
+    @Override
+    protected String extractText(InputStream inputStream, String filename) throws Exception {
+        return new Stripper(utf8(inputStream)).run();
+    }
+
+    private enum State { TEXT, TAG, COMMENT, RAW }
+
+    private static final class Stripper {
+
+        private final Reader in;
+        private final StringBuilder out = new StringBuilder();
+        private final StringBuilder tag = new StringBuilder();
+        private final StringBuilder entity = new StringBuilder();
+        private State state = State.TEXT;
+        private char quote;
+        private String rawTag;
+        private boolean inEntity;
+        private boolean pendingSpace;
+
+        Stripper(Reader in) {
+            this.in = in;
+        }
+
+        String run() throws Exception {
+            for (int c = in.read(); c != -1; c = in.read()) {
+                char ch = (char) c;
+                switch (state) {
+                    case TEXT -> text(ch);
+                    case TAG -> tag(ch);
+                    case COMMENT -> comment(ch);
+                    case RAW -> raw(ch);
+                }
+            }
+            flushEntity();
+            return out.toString().strip();
+        }
+
+        private void text(char ch) {
+            if (inEntity) {
+                if (ch == ';') {
+                    decodeEntity();
+                    return;
+                }
+                if (Character.isLetterOrDigit(ch) || ch == '#') {
+                    if (entity.length() < MAX_ENTITY_LENGTH) {
+                        entity.append(ch);
+                        return;
+                    }
+                }
+                flushEntity();
+            }
+            if (ch == '<') {
+                state = State.TAG;
+                tag.setLength(0);
+            } else if (ch == '&') {
+                inEntity = true;
+                entity.setLength(0);
+            } else {
+                emit(ch);
+            }
+        }
+
+        private void tag(char ch) {
+            if (tag.isEmpty() && !Character.isLetter(ch) && ch != '/' && ch != '!') {
+                // a bare '<' in running text, not the start of a tag
+                state = State.TEXT;
+                emit('<');
+                text(ch);
+                return;
+            }
+            if (quote != 0) {
+                if (ch == quote) quote = 0;
+                return;
+            }
+            if ((ch == '"' || ch == '\'') && tag.indexOf("=") >= 0) {
+                quote = ch;
+                return;
+            }
+            if (ch != '>') {
+                tag.append(ch);
+                if (tag.length() == 3 && tag.toString().equals("!--")) {
+                    state = State.COMMENT;
+                    tag.setLength(0);
+                }
+                return;
+            }
+            state = State.TEXT;
+            String name = tagName(tag);
+            if (BLOCK_TAGS.contains(name)) {
+                newline();
+            } else if (!name.isEmpty() && tag.charAt(0) != '/' && RAW_TEXT_TAGS.contains(name)
+                    && tag.charAt(tag.length() - 1) != '/') {
+                state = State.RAW;
+                rawTag = "</" + name;
+                tag.setLength(0);
+            }
+        }
+
+        private void comment(char ch) {
+            tag.append(ch);
+            if (tag.length() > 3) tag.deleteCharAt(0);
+            if (ch == '>' && tag.length() == 3 && tag.charAt(0) == '-' && tag.charAt(1) == '-') {
+                state = State.TEXT;
+            }
+        }
+
+        /** Only the tail of the raw text is kept, just enough to spot the closing tag. */
+        private void raw(char ch) {
+            tag.append(Character.toLowerCase(ch));
+            if (tag.length() > rawTag.length()) tag.deleteCharAt(0);
+            if (tag.length() == rawTag.length() && tag.toString().equals(rawTag)) {
+                state = State.TAG;
+                tag.setLength(0);
+                tag.append('/');
+            }
+        }
+
+        private void decodeEntity() {
+            inEntity = false;
+            String name = entity.toString();
+            String decoded = null;
+            if (name.startsWith("#")) {
+                try {
+                    int codePoint = name.length() > 1 && (name.charAt(1) == 'x' || name.charAt(1) == 'X')
+                            ? Integer.parseInt(name.substring(2), 16)
+                            : Integer.parseInt(name.substring(1));
+                    if (Character.isValidCodePoint(codePoint)) decoded = new String(Character.toChars(codePoint));
+                } catch (NumberFormatException ignored) {
+                    // fall through and keep the entity as literal text
+                }
+            } else {
+                decoded = NAMED_ENTITIES.get(name);
+            }
+            if (decoded == null) {
+                emitLiteral("&" + name + ";");
+            } else {
+                decoded.chars().forEach(c -> emit((char) c));
+            }
+        }
+
+        private void flushEntity() {
+            if (!inEntity) return;
+            inEntity = false;
+            emitLiteral("&" + entity);
+        }
+
+        private void emitLiteral(String s) {
+            s.chars().forEach(c -> emit((char) c));
+        }
+
+        private void emit(char ch) {
+            if (Character.isWhitespace(ch) || ch == '\u00A0') {
+                pendingSpace = true;
+                return;
+            }
+            if (pendingSpace && !out.isEmpty() && out.charAt(out.length() - 1) != '\n') out.append(' ');
+            pendingSpace = false;
+            out.append(ch);
+        }
+
+        private void newline() {
+            pendingSpace = false;
+            if (!out.isEmpty() && out.charAt(out.length() - 1) != '\n') out.append('\n');
+        }
+
+        private static String tagName(CharSequence tag) {
+            int i = 0;
+            while (i < tag.length() && tag.charAt(i) == '/') i++;
+            int start = i;
+            while (i < tag.length() && Character.isLetterOrDigit(tag.charAt(i))) i++;
+            return tag.subSequence(start, i).toString().toLowerCase();
+        }
+    }
+}
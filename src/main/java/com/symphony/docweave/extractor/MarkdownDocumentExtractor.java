@@ -0,0 +1,52 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts text from Markdown line by line, dropping the markup that would
+ * otherwise end up in chunks and embeddings: heading and quote markers, list
+ * bullets, code fences, emphasis and link targets. Code block contents and
+ * single underscores (common in identifiers) are kept as-is.
+ */
+@Component
+public class MarkdownDocumentExtractor extends StreamingDocumentExtractor {
+
+    private static final Pattern BLOCK_PREFIX = Pattern.compile("^\\s{0,3}(?:#{1,6}\\s+|>\\s?|[-*+]\\s+|\\d+[.)]\\s+)+");
+    private static final Pattern FENCE = Pattern.compile("^\\s{0,3}(?:```|~~~).*");
+    private static final Pattern IMAGE_OR_LINK = Pattern.compile("!?\\[([^\\]]*)]\\([^)]*\\)");
+    private static final Pattern EMPHASIS = Pattern.compile("\\*\\*|__|`");
+    private static final Pattern TRAILING_HASHES = Pattern.compile("\\s+#+\\s*$");
+
+    @Override
+    public DocumentType supportedType() {
+        return DocumentType.MARKDOWN;
+    }
+
+    @Override
+    protected String extractText(InputStream inputStream, String filename) throws Exception {
+        StringBuilder out = new StringBuilder();
+        BufferedReader reader = utf8(inputStream);
+        boolean inFence = false;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (FENCE.matcher(line).matches()) {
+                inFence = !inFence;
+                continue;
+            }
+            if (!inFence) line = cleanLine(line);
+            out.append(line).append('\n');
+        }
+        return out.toString();
+    }
+
+    static String cleanLine(String line) {
+        String text = BLOCK_PREFIX.matcher(line).replaceFirst("");
+        text = TRAILING_HASHES.matcher(text).replaceFirst("");
+        text = IMAGE_OR_LINK.matcher(text).replaceAll("$1");
+        return EMPHASIS.matcher(text).replaceAll("");
+    }
+}
@@ -3,15 +3,23 @@ package com.symphony.docweave.extractor;
 import com.symphony.docweave.domain.Document;
 import com.symphony.docweave.domain.DocumentType;
 import com.symphony.docweave.exception.DocumentProcessingException;
+import com.symphony.docweave.preprocessor.TextPreprocessor;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 
 @Component
 public class PdfBoxDocumentExtractor implements DocumentTextExtractor {
+
+    @Override
+    public DocumentType supportedType() {
+        return DocumentType.PDF;
+    }
+
     @Override
     public String extract(Document document) {
 
@@ -26,8 +34,7 @@ public class PdfBoxDocumentExtractor implements DocumentTextExtractor {
 
         // Use PDFBox to extract text from the PDF file
         try (PDDocument pdfDocument = PDDocument.load(pdfFile)) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            return pdfStripper.getText(pdfDocument);
+            return newStripper().getText(pdfDocument);
         } catch (Exception e) {
             throw new RuntimeException("Failed to extract text from PDF document: " + document.getSourceName(), e);
         }
@@ -37,13 +44,19 @@ public class PdfBoxDocumentExtractor implements DocumentTextExtractor {
     @Override
     public String extract(InputStream inputStream, String filename) {
         try (PDDocument pdfDocument = PDDocument.load(inputStream)) {
-            PDFTextStripper pdfStripper = new PDFTextStripper();
-            return pdfStripper.getText(pdfDocument);
+            return newStripper().getText(pdfDocument);
         } catch (Exception e) {
             throw new DocumentProcessingException("Failed to extract text from PDF: " + filename, e);
         }
     }
 
+    /** Pages end with a form feed so the preprocessor can find running headers and footers. */
+    private static PDFTextStripper newStripper() throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setPageEnd(stripper.getLineSeparator() + TextPreprocessor.PAGE_BREAK);
+        return stripper;
+    }
+
     private File resolveFile(Document document) {
         return new File(document.getSourceName());
     }
@@ -0,0 +1,28 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+/** Plain UTF-8 text, passed through unchanged apart from a leading byte-order mark. */
+@Component
+public class PlainTextDocumentExtractor extends StreamingDocumentExtractor {
+
+    @Override
+    public DocumentType supportedType() {
+        return DocumentType.TEXT;
+    }
+
+    @Override
+    protected String extractText(InputStream inputStream, String filename) throws Exception {
+        StringBuilder out = new StringBuilder();
+        Reader reader = utf8(inputStream);
+        char[] buffer = new char[8192];
+        for (int n = reader.read(buffer); n != -1; n = reader.read(buffer)) {
+            out.append(buffer, 0, n);
+        }
+        return out.toString();
+    }
+}
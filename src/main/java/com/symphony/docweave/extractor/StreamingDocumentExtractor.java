@@ -0,0 +1,54 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.Document;
+import com.symphony.docweave.exception.DocumentProcessingException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Base for extractors that parse their format in one forward pass over the
+ * upload stream, without buffering the file or building a document tree.
+ */
+abstract class StreamingDocumentExtractor implements DocumentTextExtractor {
+
+    @Override
+    public String extract(Document document) {
+        if (document.getDocumentType() != supportedType()) {
+            throw new IllegalArgumentException("Unsupported document type: " + document.getDocumentType());
+        }
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(Path.of(document.getSourceName())))) {
+            return extract(in, document.getSourceName());
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to read document: " + document.getSourceName(), e);
+        }
+    }
+
+    @Override
+    public String extract(InputStream inputStream, String filename) {
+        try {
+            return extractText(inputStream, filename);
+        } catch (DocumentProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DocumentProcessingException(
+                    "Failed to extract text from " + supportedType() + ": " + filename, e);
+        }
+    }
+
+    protected abstract String extractText(InputStream inputStream, String filename) throws Exception;
+
+    /** UTF-8 reader that drops a leading byte-order mark. */
+    static BufferedReader utf8(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') reader.reset();
+        return reader;
+    }
+}
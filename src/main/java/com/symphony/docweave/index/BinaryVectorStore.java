@@ -0,0 +1,135 @@
+package com.symphony.docweave.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-bit (sign) quantization packed into 64-bit words, compared with
+ * Hamming distance. For normalised embeddings the fraction of differing
+ * sign bits approximates the angle between two vectors / π, which is mapped
+ * back to a cosine distance so scores stay comparable with other encodings.
+ */
+final class BinaryVectorStore implements VectorStore {
+
+    static final int VECTORS_PER_PAGE = 65536;
+
+    private final int dimensions;
+    private final int words;
+    private final List<LongBuffer> pages = new ArrayList<>();
+
+    BinaryVectorStore(int dimensions) {
+        this.dimensions = dimensions;
+        this.words = (dimensions + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    @Override
+    public VectorEncoding encoding() {
+        return VectorEncoding.BINARY;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public void set(int slot, float[] normalized) {
+        ensureCapacity(slot + 1);
+        page(slot).put(offset(slot), encode(normalized));
+    }
+
+    @Override
+    public Scorer scorer(float[] normalizedQuery) {
+        long[] query = encode(normalizedQuery);
+        return slot -> {
+            LongBuffer page = page(slot);
+            int base = offset(slot);
+            int hamming = 0;
+            for (int w = 0; w < words; w++) {
+                hamming += Long.bitCount(page.get(base + w) ^ query[w]);
+            }
+            return toDistance(hamming);
+        };
+    }
+
+    @Override
+    public float distance(int a, int b) {
+        LongBuffer pageA = page(a);
+        LongBuffer pageB = page(b);
+        int baseA = offset(a);
+        int baseB = offset(b);
+        int hamming = 0;
+        for (int w = 0; w < words; w++) {
+            hamming += Long.bitCount(pageA.get(baseA + w) ^ pageB.get(baseB + w));
+        }
+        return toDistance(hamming);
+    }
+
+    @Override
+    public long reservedBytes() {
+        return (long) pages.size() * VECTORS_PER_PAGE * words * Long.BYTES;
+    }
+
+    @Override
+    public void writeSlot(DataOutputStream out, int slot) throws IOException {
+        LongBuffer page = page(slot);
+        int base = offset(slot);
+        for (int w = 0; w < words; w++) {
+            out.writeLong(page.get(base + w));
+        }
+    }
+
+    @Override
+    public void readSlot(DataInputStream in, int slot) throws IOException {
+        ensureCapacity(slot + 1);
+        LongBuffer page = page(slot);
+        int base = offset(slot);
+        for (int w = 0; w < words; w++) {
+            page.put(base + w, in.readLong());
+        }
+    }
+
+    @Override
+    public void copySlot(int slot, VectorStore target, int targetSlot) {
+        BinaryVectorStore to = (BinaryVectorStore) target;
+        to.ensureCapacity(targetSlot + 1);
+        to.page(targetSlot).put(to.offset(targetSlot), page(slot), offset(slot), words);
+    }
+
+    private long[] encode(float[] vector) {
+        long[] bits = new long[words];
+        for (int i = 0; i < dimensions; i++) {
+            if (vector[i] > 0f) {
+                bits[i >>> 6] |= 1L << (i & 63);
+            }
+        }
+        return bits;
+    }
+
+    private float toDistance(int hamming) {
+        return (float) (1d - Math.cos(Math.PI * hamming / dimensions));
+    }
+
+    private void ensureCapacity(int slots) {
+        while ((long) pages.size() * VECTORS_PER_PAGE < slots) {
+            pages.add(ByteBuffer
+                    .allocateDirect(VECTORS_PER_PAGE * words * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer());
+        }
+    }
+
+    private LongBuffer page(int slot) {
+        return pages.get(slot / VECTORS_PER_PAGE);
+    }
+
+    private int offset(int slot) {
+        return (slot % VECTORS_PER_PAGE) * words;
+    }
+}
@@ -0,0 +1,368 @@
+package com.symphony.docweave.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * Inverted index over chunk text scored with Okapi BM25.
+ *
+ * Each chunk gets an integer slot; every term maps to a postings list of
+ * parallel {@code int[]} slots and term frequencies, appended in slot order
+ * so lists stay sorted. Removals tombstone the slot and decrement document
+ * frequencies immediately; postings and slot tables are compacted once
+ * tombstones pass {@link #COMPACTION_RATIO} of all slots.
+ *
+ * A query's scores are accumulated in a small open-addressing table sized
+ * from the postings it reads, so its cost follows the matching chunks
+ * rather than the size of the corpus.
+ *
+ * Not thread-safe; {@link LexicalIndex} guards it with a read/write lock.
+ */
+public class Bm25Index {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double COMPACTION_RATIO = 0.25;
+
+    private final float k1;
+    private final float b;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<UUID, Integer> slotByChunk = new HashMap<>();
+    private final Map<UUID, List<Integer>> slotsByDocument = new HashMap<>();
+    private BitSet deleted = new BitSet();
+
+    private UUID[] chunkIds = new UUID[INITIAL_CAPACITY];
+    private UUID[] documentIds = new UUID[INITIAL_CAPACITY];
+    private int[] chunkIndexes = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private Postings[][] slotTerms = new Postings[INITIAL_CAPACITY][];
+
+    private int size;
+    private int deletedCount;
+    private long totalLength;
+
+    public Bm25Index(float k1, float b) {
+        this.k1 = k1;
+        this.b = b;
+    }
+
+    // -------------------------------------------------------------------------
+    // Mutation
+    // -------------------------------------------------------------------------
+
+    /** Indexes a chunk, replacing any earlier text for the same chunk id. */
+    public void upsert(UUID chunkId, UUID documentId, int chunkIndex, String text) {
+        remove(chunkId);
+
+        List<String> tokens = LexicalAnalyzer.tokens(text);
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int slot = allocate(chunkId, documentId, chunkIndex, tokens.size());
+        Postings[] terms = new Postings[frequencies.size()];
+        int t = 0;
+        for (Map.Entry<String, Integer> e : frequencies.entrySet()) {
+            Postings list = postings.computeIfAbsent(e.getKey(), key -> new Postings());
+            list.add(slot, e.getValue());
+            terms[t++] = list;
+        }
+        slotTerms[slot] = terms;
+    }
+
+    public boolean remove(UUID chunkId) {
+        Integer slot = slotByChunk.remove(chunkId);
+        if (slot == null) return false;
+
+        List<Integer> siblings = slotsByDocument.get(documentIds[slot]);
+        if (siblings != null) {
+            siblings.remove(slot);
+            if (siblings.isEmpty()) slotsByDocument.remove(documentIds[slot]);
+        }
+        tombstone(slot);
+        maybeCompact();
+        return true;
+    }
+
+    public int removeDocument(UUID documentId) {
+        List<Integer> slots = slotsByDocument.remove(documentId);
+        if (slots == null) return 0;
+        for (int slot : slots) {
+            slotByChunk.remove(chunkIds[slot]);
+            tombstone(slot);
+        }
+        maybeCompact();
+        return slots.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Queries
+    // -------------------------------------------------------------------------
+
+    /**
+     * Top-{@code k} chunks by BM25 score for the analysed query. Repeated
+     * query terms count once.
+     */
+    public List<LexicalHit> search(String query, int k) {
+        return search(query, k, null);
+    }
+
+    /** As {@link #search(String, int)}, skipping chunks whose document fails {@code documentFilter}. */
+    public List<LexicalHit> search(String query, int k, Predicate<UUID> documentFilter) {
+        int live = liveCount();
+        if (live == 0 || k <= 0) return List.of();
+
+        List<Postings> lists = new ArrayList<>();
+        long read = 0;
+        for (String term : new LinkedHashSet<>(LexicalAnalyzer.tokens(query))) {
+            Postings list = postings.get(term);
+            if (list == null || list.live == 0) continue;
+            lists.add(list);
+            read += list.size;
+        }
+        if (lists.isEmpty()) return List.of();
+
+        double averageLength = (double) totalLength / live;
+        Scores scores = new Scores((int) Math.min(read, size));
+        for (Postings list : lists) {
+            float idf = (float) Math.log(1d + (live - list.live + 0.5d) / (list.live + 0.5d));
+            for (int i = 0; i < list.size; i++) {
+                int slot = list.slots[i];
+                if (deleted.get(slot)) continue;
+                if (documentFilter != null && !documentFilter.test(documentIds[slot])) continue;
+                int tf = list.frequencies[i];
+                double norm = k1 * (1d - b + b * lengths[slot] / averageLength);
+                scores.add(slot, (float) (idf * tf * (k1 + 1d) / (tf + norm)));
+            }
+        }
+
+        TopK top = new TopK(k);
+        scores.forEach(top::offer);
+        int[] slots = new int[top.size()];
+        float[] best = new float[top.size()];
+        top.drainDescending(slots, best);
+
+        List<LexicalHit> hits = new ArrayList<>(slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            hits.add(new LexicalHit(chunkIds[slot], documentIds[slot], chunkIndexes[slot], best[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * Number of live chunks containing every one of {@code terms}, found by
+     * intersecting sorted postings lists starting from the rarest.
+     */
+    public int countContainingAll(Collection<String> terms) {
+        return countContainingAll(terms, null);
+    }
+
+    /** As {@link #countContainingAll(Collection)}, counting only documents passing {@code documentFilter}. */
+    public int countContainingAll(Collection<String> terms, Predicate<UUID> documentFilter) {
+        if (terms.isEmpty()) return 0;
+        List<Postings> lists = new ArrayList<>(terms.size());
+        for (String term : new LinkedHashSet<>(terms)) {
+            Postings list = postings.get(term);
+            if (list == null || list.live == 0) return 0;
+            lists.add(list);
+        }
+        lists.sort((x, y) -> Integer.compare(x.size, y.size));
+
+        int count = 0;
+        Postings rarest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        outer:
+        for (int i = 0; i < rarest.size; i++) {
+            int slot = rarest.slots[i];
+            if (deleted.get(slot)) continue;
+            if (documentFilter != null && !documentFilter.test(documentIds[slot])) continue;
+            for (int l = 1; l < lists.size(); l++) {
+                Postings other = lists.get(l);
+                int c = cursors[l];
+                while (c < other.size && other.slots[c] < slot) c++;
+                cursors[l] = c;
+                if (c == other.size) break outer;
+                if (other.slots[c] != slot) continue outer;
+            }
+            count++;
+        }
+        return count;
+    }
+
+    public boolean contains(UUID chunkId) {
+        return slotByChunk.containsKey(chunkId);
+    }
+
+    public int liveCount() {
+        return size - deletedCount;
+    }
+
+    public int termCount() {
+        return postings.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Internals
+    // -------------------------------------------------------------------------
+
+    private int allocate(UUID chunkId, UUID documentId, int chunkIndex, int length) {
+        if (size == chunkIds.length) {
+            int capacity = size * 2;
+            chunkIds = Arrays.copyOf(chunkIds, capacity);
+            documentIds = Arrays.copyOf(documentIds, capacity);
+            chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            slotTerms = Arrays.copyOf(slotTerms, capacity);
+        }
+        int slot = size++;
+        chunkIds[slot] = chunkId;
+        documentIds[slot] = documentId;
+        chunkIndexes[slot] = chunkIndex;
+        lengths[slot] = length;
+        totalLength += length;
+        slotByChunk.put(chunkId, slot);
+        slotsByDocument.computeIfAbsent(documentId, id -> new ArrayList<>()).add(slot);
+        return slot;
+    }
+
+    private void tombstone(int slot) {
+        deleted.set(slot);
+        deletedCount++;
+        totalLength -= lengths[slot];
+        for (Postings list : slotTerms[slot]) {
+            list.live--;
+        }
+        slotTerms[slot] = null;
+    }
+
+    private void maybeCompact() {
+        if (deletedCount > size * COMPACTION_RATIO && deletedCount >= INITIAL_CAPACITY) {
+            compact();
+        }
+    }
+
+    /** Renumbers live slots densely and drops tombstoned entries from every postings list. */
+    private void compact() {
+        int[] remap = new int[size];
+        int next = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (deleted.get(slot)) {
+                remap[slot] = -1;
+                continue;
+            }
+            remap[slot] = next;
+            chunkIds[next] = chunkIds[slot];
+            documentIds[next] = documentIds[slot];
+            chunkIndexes[next] = chunkIndexes[slot];
+            lengths[next] = lengths[slot];
+            slotTerms[next] = slotTerms[slot];
+            next++;
+        }
+        Arrays.fill(chunkIds, next, size, null);
+        Arrays.fill(documentIds, next, size, null);
+        Arrays.fill(slotTerms, next, size, null);
+
+        postings.values().removeIf(list -> {
+            list.compact(remap);
+            return list.size == 0;
+        });
+        slotByChunk.replaceAll((id, slot) -> remap[slot]);
+        for (List<Integer> slots : slotsByDocument.values()) {
+            slots.replaceAll(slot -> remap[slot]);
+        }
+
+        size = next;
+        deletedCount = 0;
+        deleted = new BitSet();
+    }
+
+    /** Slot → accumulated score, open addressing with linear probing, at most half full. */
+    private static final class Scores {
+
+        private static final int EMPTY = -1;
+
+        private final int[] slots;
+        private final float[] values;
+        private final int mask;
+
+        /** {@code expected} is an upper bound on the distinct slots added. */
+        Scores(int expected) {
+            int capacity = Integer.highestOneBit(Math.max(2, expected) * 2 - 1) << 1;
+            slots = new int[capacity];
+            values = new float[capacity];
+            mask = capacity - 1;
+            Arrays.fill(slots, EMPTY);
+        }
+
+        void add(int slot, float score) {
+            int h = slot * 0x9E3779B9;
+            int i = (h ^ (h >>> 16)) & mask;
+            while (slots[i] != slot) {
+                if (slots[i] == EMPTY) {
+                    slots[i] = slot;
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+            values[i] += score;
+        }
+
+        void forEach(SlotScoreConsumer consumer) {
+            for (int i = 0; i < slots.length; i++) {
+                if (slots[i] != EMPTY) consumer.accept(slots[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SlotScoreConsumer {
+        void accept(int slot, float score);
+    }
+
+    /** Parallel arrays of (slot, term frequency), sorted by slot. */
+    private static final class Postings {
+
+        int[] slots = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+        /** Document frequency excluding tombstoned slots. */
+        int live;
+
+        void add(int slot, int frequency) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            slots[size] = slot;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = remap[slots[i]];
+                if (slot < 0) continue;
+                slots[kept] = slot;
+                frequencies[kept] = frequencies[i];
+                kept++;
+            }
+            size = kept;
+            if (slots.length > 16 && size < slots.length / 4) {
+                slots = Arrays.copyOf(slots, Math.max(4, size * 2));
+                frequencies = Arrays.copyOf(frequencies, Math.max(4, size * 2));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.util.EmbeddingUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads full-precision vectors for a handful of candidates straight from
+ * {@code document_chunks} by primary key, asking every shard since a chunk
+ * id does not say which shard holds it.
+ */
+@Component
+@RequiredArgsConstructor
+public class DatabaseVectorSource implements FullPrecisionVectorSource {
+
+    private final DocumentChunkRepository chunkRepository;
+    private final Shards shards;
+
+    @Override
+    public Map<UUID, float[]> fetch(Collection<UUID> chunkIds) {
+        Map<UUID, float[]> vectors = new HashMap<>();
+        if (chunkIds.isEmpty()) return vectors;
+        for (List<Object[]> rows : shards.scatter(shard -> chunkRepository.findEmbeddedVectorsByIds(chunkIds))) {
+            for (Object[] row : rows) {
+                vectors.put(UUID.fromString(row[0].toString()),
+                        EmbeddingUtils.fromPgVectorLiteral(row[3].toString()));
+            }
+        }
+        return vectors;
+    }
+}
@@ -0,0 +1,146 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.ExactSearchProperties;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Brute-force top-k by dot product over L2-normalised vectors.
+ *
+ * The slot range is split recursively across a dedicated fork-join pool;
+ * each leaf copies vectors into a thread-local block, scores them with
+ * {@link SimdVectorMath} and keeps its own {@link TopK}. Heaps are merged
+ * on the way back up, so there is no shared state while scanning.
+ *
+ * Results are exact, and latency grows linearly with the number of slots,
+ * which makes this the right tool for small corpora and for filtered
+ * queries where an approximate graph would return too few hits.
+ */
+@Component
+public class ExactSearchEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(ExactSearchEngine.class);
+
+    /** Vectors copied and scored per inner iteration (fits comfortably in L2). */
+    private static final int BLOCK_VECTORS = 64;
+
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final ThreadLocal<float[]> scratch = new ThreadLocal<>();
+
+    @Autowired
+    public ExactSearchEngine(ExactSearchProperties properties) {
+        this(properties.getParallelism(), properties.getPartitionSize());
+    }
+
+    ExactSearchEngine(int parallelism, int partitionSize) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("exact-search-" + t.getPoolIndex());
+            t.setDaemon(true);
+            return t;
+        }, null, false);
+        this.partitionSize = Math.max(BLOCK_VECTORS, partitionSize);
+        log.info("Exact search engine: parallelism={}, SIMD={}", pool.getParallelism(), SimdVectorMath.AVAILABLE);
+    }
+
+    /**
+     * Scores every slot accepted by {@code accept} against the query.
+     *
+     * @param normalizedQuery L2-normalised query, same dimensionality as {@code vectors}
+     * @return up to {@code k} slots, most similar first
+     */
+    Result search(VectorBlocks vectors, float[] normalizedQuery, int k, IntPredicate accept) {
+        if (k <= 0 || vectors.slots() == 0) return new Result(new int[0], new float[0]);
+        if (normalizedQuery.length != vectors.dimensions()) {
+            throw new IllegalArgumentException("Expected query of " + vectors.dimensions()
+                    + " dimensions but got " + normalizedQuery.length);
+        }
+
+        TopK top = pool.invoke(new Partition(vectors, normalizedQuery, k, accept, 0, vectors.slots()));
+        int[] slots = new int[top.size()];
+        float[] similarities = new float[top.size()];
+        top.drainDescending(slots, similarities);
+        return new Result(slots, similarities);
+    }
+
+    /** Tasks waiting in the pool, for the queue-depth gauge. */
+    public long queuedTasks() {
+        return pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /** Slots and their dot-product similarity to the query, best first. */
+    record Result(int[] slots, float[] similarities) {
+    }
+
+    private final class Partition extends RecursiveTask<TopK> {
+
+        private final VectorBlocks vectors;
+        private final float[] query;
+        private final int k;
+        private final IntPredicate accept;
+        private final int from;
+        private final int to;
+
+        Partition(VectorBlocks vectors, float[] query, int k, IntPredicate accept, int from, int to) {
+            this.vectors = vectors;
+            this.query = query;
+            this.k = k;
+            this.accept = accept;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TopK compute() {
+            if (to - from <= partitionSize) return scan();
+
+            int mid = (from + to) >>> 1;
+            Partition left = new Partition(vectors, query, k, accept, from, mid);
+            Partition right = new Partition(vectors, query, k, accept, mid, to);
+            left.fork();
+            TopK merged = right.compute();
+            merged.merge(left.join());
+            return merged;
+        }
+
+        private TopK scan() {
+            int dims = query.length;
+            float[] block = block(dims);
+            TopK top = new TopK(k);
+
+            for (int start = from; start < to; start += BLOCK_VECTORS) {
+                int count = Math.min(BLOCK_VECTORS, to - start);
+                vectors.copy(start, count, block);
+                for (int i = 0; i < count; i++) {
+                    int slot = start + i;
+                    if (accept != null && !accept.test(slot)) continue;
+                    top.offer(slot, SimdVectorMath.dot(block, i * dims, query));
+                }
+            }
+            return top;
+        }
+
+        private float[] block(int dims) {
+            float[] block = scratch.get();
+            if (block == null || block.length < BLOCK_VECTORS * dims) {
+                block = new float[BLOCK_VECTORS * dims];
+                scratch.set(block);
+            }
+            return block;
+        }
+    }
+}
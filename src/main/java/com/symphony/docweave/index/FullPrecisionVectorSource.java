@@ -0,0 +1,15 @@
+package com.symphony.docweave.index;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Supplies the original float embeddings used to rescore candidates found
+ * with a quantized {@link VectorEncoding}.
+ */
+public interface FullPrecisionVectorSource {
+
+    /** Returns the vectors that exist for {@code chunkIds}; missing ids are omitted. */
+    Map<UUID, float[]> fetch(Collection<UUID> chunkIds);
+}
@@ -0,0 +1,629 @@
+package com.symphony.docweave.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical Navigable Small World graph (Malkov &amp; Yashunin) over
+ * L2-normalised vectors, scored by cosine distance.
+ *
+ * Each inserted chunk gets an integer slot; vectors live in an off-heap
+ * {@link VectorStore} (full precision or quantized) and adjacency lists are
+ * plain {@code int[]}s whose first element is the neighbour count. Removals only tombstone the
+ * slot: the node keeps routing traffic but never appears in results.
+ * {@link #compact()} and snapshots leave tombstoned nodes out, linking
+ * their live neighbours to each other instead, which reclaims the space.
+ *
+ * Not thread-safe; {@link HnswVectorIndex} guards it with a read/write lock.
+ */
+public class HnswGraph {
+
+    private static final int SNAPSHOT_MAGIC = 0x484E5357; // "HNSW"
+    /** Version 2 snapshots also held tombstoned nodes; they can still be read. */
+    private static final int SNAPSHOT_VERSION = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final Comparator<Candidate> NEAREST_FIRST =
+            Comparator.comparingDouble(Candidate::distance);
+    private static final Comparator<Candidate> FURTHEST_FIRST = NEAREST_FIRST.reversed();
+
+    private final int dimensions;
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+    private final VectorStore vectors;
+
+    private UUID[] chunkIds = new UUID[INITIAL_CAPACITY];
+    private UUID[] documentIds = new UUID[INITIAL_CAPACITY];
+    private int[] chunkIndexes = new int[INITIAL_CAPACITY];
+    private int[][][] neighbours = new int[INITIAL_CAPACITY][][];
+    private final BitSet deleted = new BitSet();
+    private final Map<UUID, Integer> slotByChunk = new HashMap<>();
+    private final Map<UUID, List<Integer>> slotsByDocument = new HashMap<>();
+
+    private int size;
+    private int deletedCount;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    public HnswGraph(int dimensions, int m, int efConstruction, long seed) {
+        this(dimensions, m, efConstruction, seed, VectorEncoding.FLOAT32);
+    }
+
+    public HnswGraph(int dimensions, int m, int efConstruction, long seed, VectorEncoding encoding) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW m must be at least 2");
+        }
+        this.dimensions = dimensions;
+        this.m = m;
+        this.maxM0 = m * 2;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelMultiplier = 1d / Math.log(m);
+        this.random = new Random(seed);
+        this.vectors = VectorStore.create(encoding, dimensions);
+    }
+
+    // -------------------------------------------------------------------------
+    // Mutation
+    // -------------------------------------------------------------------------
+
+    /**
+     * Inserts a chunk vector, replacing (tombstoning) any previous vector
+     * stored under the same chunk id.
+     */
+    public void upsert(UUID chunkId, UUID documentId, int chunkIndex, float[] vector) {
+        remove(chunkId);
+
+        float[] normalized = VectorMath.normalize(vector);
+        int level = randomLevel();
+        int slot = allocate(chunkId, documentId, chunkIndex, level);
+        vectors.set(slot, normalized);
+
+        if (entryPoint < 0) {
+            entryPoint = slot;
+            maxLevel = level;
+            return;
+        }
+
+        VectorStore.Scorer scorer = vectors.scorer(normalized);
+        int ep = entryPoint;
+        float epDistance = scorer.distance(ep);
+        for (int l = maxLevel; l > level; l--) {
+            Candidate closest = greedyClosest(scorer, ep, epDistance, l);
+            ep = closest.slot();
+            epDistance = closest.distance();
+        }
+
+        for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+            List<Candidate> found = searchLayer(scorer, ep, epDistance, efConstruction, l);
+            List<Candidate> selected = selectNeighbours(found, m);
+            for (Candidate c : selected) {
+                addLink(slot, c.slot(), l);
+                addLink(c.slot(), slot, l);
+            }
+            ep = found.get(0).slot();
+            epDistance = found.get(0).distance();
+        }
+
+        if (level > maxLevel) {
+            entryPoint = slot;
+            maxLevel = level;
+        }
+    }
+
+    /** Tombstones a chunk. Returns {@code false} if it was not indexed. */
+    public boolean remove(UUID chunkId) {
+        Integer slot = slotByChunk.remove(chunkId);
+        if (slot == null) return false;
+
+        deleted.set(slot);
+        deletedCount++;
+        List<Integer> docSlots = slotsByDocument.get(documentIds[slot]);
+        if (docSlots != null) {
+            docSlots.remove(slot);
+            if (docSlots.isEmpty()) slotsByDocument.remove(documentIds[slot]);
+        }
+        return true;
+    }
+
+    /** Tombstones every chunk of a document; returns how many were removed. */
+    public int removeDocument(UUID documentId) {
+        List<Integer> docSlots = slotsByDocument.remove(documentId);
+        if (docSlots == null) return 0;
+        for (int slot : docSlots) {
+            slotByChunk.remove(chunkIds[slot]);
+            deleted.set(slot);
+            deletedCount++;
+        }
+        return docSlots.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Search
+    // -------------------------------------------------------------------------
+
+    /**
+     * Approximate k-nearest-neighbour search. {@code ef} is the size of the
+     * dynamic candidate list on the bottom layer; larger values trade latency
+     * for recall and are raised to at least {@code k}.
+     *
+     * With a quantized {@link #encoding()} the returned distances are
+     * approximations; callers should over-fetch and rescore.
+     */
+    public List<IndexHit> search(float[] query, int k, int ef) {
+        return search(query, k, ef, null);
+    }
+
+    /**
+     * As {@link #search(float[], int, int)} but only returns chunks whose
+     * document passes {@code documentFilter}. Filtered-out nodes still route
+     * the traversal; callers widen {@code ef} when too few hits survive.
+     */
+    public List<IndexHit> search(float[] query, int k, int ef, Predicate<UUID> documentFilter) {
+        if (entryPoint < 0 || k <= 0) return List.of();
+
+        VectorStore.Scorer scorer = vectors.scorer(VectorMath.normalize(query));
+        int ep = entryPoint;
+        float epDistance = scorer.distance(ep);
+        for (int l = maxLevel; l > 0; l--) {
+            Candidate closest = greedyClosest(scorer, ep, epDistance, l);
+            ep = closest.slot();
+            epDistance = closest.distance();
+        }
+
+        // Tombstoned nodes still occupy candidate slots, so widen the beam by
+        // the fraction of dead entries to keep k live results reachable.
+        int beam = Math.max(ef, k) + (int) Math.ceil(Math.max(ef, k) * deletedRatio());
+        List<Candidate> found = searchLayer(scorer, ep, epDistance, beam, 0);
+
+        List<IndexHit> hits = new ArrayList<>(k);
+        for (Candidate c : found) {
+            if (deleted.get(c.slot())) continue;
+            if (documentFilter != null && !documentFilter.test(documentIds[c.slot()])) continue;
+            hits.add(toHit(c));
+            if (hits.size() == k) break;
+        }
+        return hits;
+    }
+
+    /**
+     * Exact top-k over every live slot (optionally only those whose document
+     * passes {@code documentFilter}) using {@link ExactSearchEngine}. Only
+     * available with {@link VectorEncoding#FLOAT32}, since quantized slots
+     * would give approximate scores anyway.
+     */
+    public List<IndexHit> exactSearch(ExactSearchEngine engine, float[] query, int k,
+                                      Predicate<UUID> documentFilter) {
+        if (!(vectors instanceof OffHeapVectorStore store)) {
+            throw new IllegalStateException("Exact search requires FLOAT32 vectors but the graph uses " + encoding());
+        }
+        if (liveCount() == 0 || k <= 0) return List.of();
+
+        int slots = size;
+        VectorBlocks blocks = new VectorBlocks() {
+            @Override
+            public int dimensions() {
+                return dimensions;
+            }
+
+            @Override
+            public int slots() {
+                return slots;
+            }
+
+            @Override
+            public void copy(int from, int count, float[] dest) {
+                store.copy(from, count, dest);
+            }
+        };
+        IntPredicate accept = documentFilter == null
+                ? slot -> !deleted.get(slot)
+                : slot -> !deleted.get(slot) && documentFilter.test(documentIds[slot]);
+
+        ExactSearchEngine.Result result = engine.search(blocks, VectorMath.normalize(query), k, accept);
+        List<IndexHit> hits = new ArrayList<>(result.slots().length);
+        for (int i = 0; i < result.slots().length; i++) {
+            hits.add(toHit(new Candidate(result.slots()[i], 1f - result.similarities()[i])));
+        }
+        return hits;
+    }
+
+    public boolean contains(UUID chunkId) {
+        return slotByChunk.containsKey(chunkId);
+    }
+
+    /** Live chunks belonging to any of {@code documentIds}. */
+    public int countChunks(Collection<UUID> documentIds) {
+        int count = 0;
+        for (UUID documentId : documentIds) {
+            List<Integer> slots = slotsByDocument.get(documentId);
+            if (slots != null) count += slots.size();
+        }
+        return count;
+    }
+
+    public int liveCount() {
+        return size - deletedCount;
+    }
+
+    public int deletedCount() {
+        return deletedCount;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public VectorEncoding encoding() {
+        return vectors.encoding();
+    }
+
+    public long offHeapBytes() {
+        return vectors.reservedBytes();
+    }
+
+    public void forEachChunkId(Consumer<UUID> consumer) {
+        slotByChunk.keySet().forEach(consumer);
+    }
+
+    public void forEachDocumentId(Consumer<UUID> consumer) {
+        slotsByDocument.keySet().forEach(consumer);
+    }
+
+    // -------------------------------------------------------------------------
+    // Graph internals
+    // -------------------------------------------------------------------------
+
+    private Candidate greedyClosest(VectorStore.Scorer scorer, int ep, float epDistance, int level) {
+        int current = ep;
+        float currentDistance = epDistance;
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] list = neighbours[current][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int n = list[i];
+                float d = scorer.distance(n);
+                if (d < currentDistance) {
+                    current = n;
+                    currentDistance = d;
+                    changed = true;
+                }
+            }
+        }
+        return new Candidate(current, currentDistance);
+    }
+
+    /** Beam search on one layer; returns up to {@code ef} candidates, nearest first. */
+    private List<Candidate> searchLayer(VectorStore.Scorer scorer, int ep, float epDistance, int ef, int level) {
+        BitSet visited = new BitSet(size);
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(FURTHEST_FIRST);
+
+        Candidate start = new Candidate(ep, epDistance);
+        visited.set(ep);
+        candidates.add(start);
+        results.add(start);
+
+        while (!candidates.isEmpty()) {
+            Candidate c = candidates.poll();
+            if (results.size() >= ef && c.distance() > results.peek().distance()) break;
+
+            int[] list = neighbours[c.slot()][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int n = list[i];
+                if (visited.get(n)) continue;
+                visited.set(n);
+
+                float d = scorer.distance(n);
+                if (results.size() < ef || d < results.peek().distance()) {
+                    Candidate next = new Candidate(n, d);
+                    candidates.add(next);
+                    results.add(next);
+                    if (results.size() > ef) results.poll();
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * Neighbour-selection heuristic: a candidate is kept only if it is closer
+     * to the base node than to any already-selected neighbour, which keeps
+     * long-range links alive. Remaining slots are back-filled by distance.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> sortedCandidates, int max) {
+        List<Candidate> selected = new ArrayList<>(max);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate c : sortedCandidates) {
+            if (selected.size() >= max) break;
+            boolean diverse = true;
+            for (Candidate s : selected) {
+                if (distance(c.slot(), s.slot()) < c.distance()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) selected.add(c);
+            else pruned.add(c);
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < max; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void addLink(int from, int to, int level) {
+        int[] list = neighbours[from][level];
+        int count = list[0];
+        if (count < list.length - 1) {
+            list[count + 1] = to;
+            list[0] = count + 1;
+            return;
+        }
+
+        // Full: re-select the best neighbours among existing links + the new one
+        List<Candidate> all = new ArrayList<>(count + 1);
+        for (int i = 1; i <= count; i++) {
+            all.add(new Candidate(list[i], distance(from, list[i])));
+        }
+        all.add(new Candidate(to, distance(from, to)));
+        all.sort(NEAREST_FIRST);
+
+        List<Candidate> kept = selectNeighbours(all, list.length - 1);
+        list[0] = kept.size();
+        for (int i = 0; i < kept.size(); i++) {
+            list[i + 1] = kept.get(i).slot();
+        }
+    }
+
+    private int allocate(UUID chunkId, UUID documentId, int chunkIndex, int level) {
+        if (size == chunkIds.length) {
+            int capacity = chunkIds.length * 2;
+            chunkIds = Arrays.copyOf(chunkIds, capacity);
+            documentIds = Arrays.copyOf(documentIds, capacity);
+            chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            neighbours = Arrays.copyOf(neighbours, capacity);
+        }
+        int slot = size++;
+        chunkIds[slot] = chunkId;
+        documentIds[slot] = documentId;
+        chunkIndexes[slot] = chunkIndex;
+        neighbours[slot] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            neighbours[slot][l] = new int[1 + (l == 0 ? maxM0 : m)];
+        }
+        slotByChunk.put(chunkId, slot);
+        slotsByDocument.computeIfAbsent(documentId, id -> new ArrayList<>()).add(slot);
+        return slot;
+    }
+
+    private int randomLevel() {
+        return (int) Math.floor(-Math.log(1d - random.nextDouble()) * levelMultiplier);
+    }
+
+    private float distance(int a, int b) {
+        return vectors.distance(a, b);
+    }
+
+    double deletedRatio() {
+        return size == 0 ? 0d : (double) deletedCount / size;
+    }
+
+    private IndexHit toHit(Candidate c) {
+        int slot = c.slot();
+        return new IndexHit(chunkIds[slot], documentIds[slot], chunkIndexes[slot], c.distance());
+    }
+
+    private record Candidate(int slot, float distance) {}
+
+    // -------------------------------------------------------------------------
+    // Snapshots
+    // -------------------------------------------------------------------------
+
+    /**
+     * A copy of the live graph with tombstoned nodes left out and live slots
+     * renumbered, as {@link #writeTo} stores it, so search no longer pays
+     * for them. Runs in time linear in the graph; only links to tombstoned
+     * nodes are re-selected.
+     */
+    public HnswGraph compact() {
+        LiveLayout layout = liveLayout();
+        HnswGraph copy = new HnswGraph(dimensions, m, efConstruction, random.nextLong(), vectors.encoding());
+        for (int slot = 0; slot < size; slot++) {
+            if (deleted.get(slot)) continue;
+            int target = copy.allocate(chunkIds[slot], documentIds[slot], chunkIndexes[slot],
+                    neighbours[slot].length - 1);
+            for (int level = 0; level < neighbours[slot].length; level++) {
+                int[] links = liveLinks(slot, level);
+                int[] list = copy.neighbours[target][level];
+                list[0] = links.length;
+                for (int i = 0; i < links.length; i++) {
+                    list[i + 1] = layout.renumbered()[links[i]];
+                }
+            }
+            vectors.copySlot(slot, copy.vectors, target);
+        }
+        copy.entryPoint = layout.entryPoint();
+        copy.maxLevel = layout.maxLevel();
+        return copy;
+    }
+
+    /**
+     * Writes the live graph (ids, adjacency lists and vectors) so a restart
+     * can skip the expensive re-insertion of every vector. Tombstoned nodes
+     * are left out and live slots renumbered; a link to a tombstoned node is
+     * replaced by that node's own live links, re-selected with the usual
+     * heuristic, so the graph stays connected around the gap.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        LiveLayout layout = liveLayout();
+        int[] renumbered = layout.renumbered();
+
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeInt(dimensions);
+        out.writeInt(vectors.encoding().ordinal());
+        out.writeInt(m);
+        out.writeInt(layout.live());
+        out.writeInt(layout.entryPoint());
+        out.writeInt(layout.maxLevel());
+
+        for (int slot = 0; slot < size; slot++) {
+            if (deleted.get(slot)) continue;
+            writeUuid(out, chunkIds[slot]);
+            writeUuid(out, documentIds[slot]);
+            out.writeInt(chunkIndexes[slot]);
+            out.writeInt(neighbours[slot].length);
+            for (int level = 0; level < neighbours[slot].length; level++) {
+                int[] links = liveLinks(slot, level);
+                out.writeInt(links.length);
+                for (int link : links) {
+                    out.writeInt(renumbered[link]);
+                }
+            }
+            vectors.writeSlot(out, slot);
+        }
+    }
+
+    /**
+     * New slot of every live slot (-1 for tombstones), and the entry point
+     * and top level in the new numbering.
+     */
+    private record LiveLayout(int[] renumbered, int live, int entryPoint, int maxLevel) {}
+
+    private LiveLayout liveLayout() {
+        int[] renumbered = new int[size];
+        int live = 0;
+        // A tombstoned entry point is replaced by the live node on the highest level
+        boolean newEntryPoint = entryPoint >= 0 && deleted.get(entryPoint);
+        int liveEntryPoint = newEntryPoint ? -1 : entryPoint;
+        int liveMaxLevel = newEntryPoint ? -1 : maxLevel;
+        for (int slot = 0; slot < size; slot++) {
+            if (deleted.get(slot)) {
+                renumbered[slot] = -1;
+                continue;
+            }
+            renumbered[slot] = live++;
+            if (newEntryPoint && neighbours[slot].length - 1 > liveMaxLevel) {
+                liveEntryPoint = slot;
+                liveMaxLevel = neighbours[slot].length - 1;
+            }
+        }
+        return new LiveLayout(renumbered, live, liveEntryPoint < 0 ? -1 : renumbered[liveEntryPoint], liveMaxLevel);
+    }
+
+    /**
+     * The slot's links on one level with tombstoned neighbours bypassed: each
+     * is replaced by its own live links on that level (which exist, since
+     * links only join nodes that both reach the level).
+     */
+    private int[] liveLinks(int slot, int level) {
+        int[] list = neighbours[slot][level];
+        List<Candidate> links = new ArrayList<>(list[0]);
+        BitSet seen = new BitSet();
+        seen.set(slot);
+        boolean bypassed = false;
+        for (int i = 1; i <= list[0]; i++) {
+            int n = list[i];
+            if (!deleted.get(n)) {
+                if (!seen.get(n)) links.add(new Candidate(n, distance(slot, n)));
+                seen.set(n);
+                continue;
+            }
+            bypassed = true;
+            int[] detour = neighbours[n][level];
+            for (int j = 1; j <= detour[0]; j++) {
+                int d = detour[j];
+                if (deleted.get(d) || seen.get(d)) continue;
+                seen.set(d);
+                links.add(new Candidate(d, distance(slot, d)));
+            }
+        }
+        if (bypassed) {
+            links.sort(NEAREST_FIRST);
+            links = selectNeighbours(links, list.length - 1);
+        }
+        return links.stream().mapToInt(Candidate::slot).toArray();
+    }
+
+    /**
+     * Restores a graph written by {@link #writeTo}. The {@code m} and
+     * encoding of the snapshot must match the configured values.
+     */
+    public static HnswGraph readFrom(DataInputStream in, int m, int efConstruction, long seed,
+                                     VectorEncoding encoding) throws IOException {
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("Not an HNSW snapshot");
+        }
+        int version = in.readInt();
+        if (version != SNAPSHOT_VERSION && version != 2) {
+            throw new IOException("Unsupported HNSW snapshot version: " + version);
+        }
+        int dimensions = in.readInt();
+        VectorEncoding snapshotEncoding = VectorEncoding.values()[in.readInt()];
+        if (snapshotEncoding != encoding) {
+            throw new IOException("Snapshot uses " + snapshotEncoding + " vectors but " + encoding + " is configured");
+        }
+        int snapshotM = in.readInt();
+        if (snapshotM != m) {
+            throw new IOException("Snapshot was built with m=" + snapshotM + " but m=" + m + " is configured");
+        }
+
+        HnswGraph graph = new HnswGraph(dimensions, m, efConstruction, seed, encoding);
+        int size = in.readInt();
+        int entryPoint = in.readInt();
+        int maxLevel = in.readInt();
+
+        for (int slot = 0; slot < size; slot++) {
+            UUID chunkId = readUuid(in);
+            UUID documentId = readUuid(in);
+            int chunkIndex = in.readInt();
+            boolean isDeleted = version == 2 && in.readBoolean();
+            int levels = in.readInt();
+
+            graph.allocate(chunkId, documentId, chunkIndex, levels - 1);
+            for (int l = 0; l < levels; l++) {
+                int[] list = graph.neighbours[slot][l];
+                list[0] = in.readInt();
+                for (int i = 1; i <= list[0]; i++) {
+                    list[i] = in.readInt();
+                }
+            }
+            graph.vectors.readSlot(in, slot);
+            if (isDeleted) graph.remove(chunkId);
+        }
+        graph.entryPoint = entryPoint;
+        graph.maxLevel = maxLevel;
+        return graph;
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readUuid(DataInputStream in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+}
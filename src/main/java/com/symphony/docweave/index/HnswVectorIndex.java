@@ -0,0 +1,381 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.VectorIndexProperties;
+import com.symphony.docweave.event.ChunkEmbeddedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Process-local approximate nearest-neighbour index over chunk embeddings.
+ *
+ * Built in the background by {@link VectorIndexLoader} and kept in sync with
+ * the database through {@link ChunkEmbeddedEvent} / {@link DocumentDeletedEvent},
+ * and by the loader's periodic catch-up for writes made on other nodes.
+ * Until {@link #isReady()} returns true, callers should fall back to the
+ * pgvector query.
+ *
+ * With a quantized {@link VectorEncoding} the graph only holds compressed
+ * codes; searches over-fetch {@code k * oversampling} candidates and rescore
+ * them against full-precision vectors from a {@link FullPrecisionVectorSource}.
+ *
+ * With {@link VectorEncoding#FLOAT32} the same vectors can also be scanned
+ * exhaustively by the {@link ExactSearchEngine}; see {@link #searchExact}.
+ *
+ * Deletes only tombstone graph nodes, and searches widen their beam to step
+ * over them. Once tombstones reach {@code index.hnsw.compaction-threshold}
+ * of the graph, it is compacted in the background ({@link HnswGraph#compact})
+ * and swapped in. Searches carry on meanwhile; writes wait for the swap.
+ */
+@Component
+public class HnswVectorIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(HnswVectorIndex.class);
+
+    private static final long LEVEL_SEED = 42L;
+
+    /** Small graphs are not worth a rebuild, however many of their nodes are tombstoned. */
+    private static final int MIN_COMPACTION_TOMBSTONES = 1024;
+
+    private final VectorIndexProperties properties;
+    private final FullPrecisionVectorSource vectorSource;
+    private final ExactSearchEngine exactSearchEngine;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Held by every writer, outside {@link #lock}, and by a compaction from
+     * start to swap, so no write lands on the graph being replaced.
+     */
+    private final ReentrantLock mutation = new ReentrantLock();
+    private final AtomicBoolean compactionPending = new AtomicBoolean();
+
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "hnsw-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private volatile HnswGraph graph;
+    private volatile boolean ready;
+
+    public HnswVectorIndex(VectorIndexProperties properties, FullPrecisionVectorSource vectorSource,
+                           ExactSearchEngine exactSearchEngine) {
+        this.properties = properties;
+        this.vectorSource = vectorSource;
+        this.exactSearchEngine = exactSearchEngine;
+        this.graph = newGraph();
+    }
+
+    // -------------------------------------------------------------------------
+    // Public API
+    // -------------------------------------------------------------------------
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    public List<IndexHit> search(float[] query, int k) {
+        return search(query, k, null);
+    }
+
+    /**
+     * Approximate search restricted to documents passing {@code documentFilter}
+     * (all documents when null). When the filter leaves fewer than the wanted
+     * candidates, the beam is widened 4x at a time until enough survive or it
+     * covers the whole graph.
+     */
+    public List<IndexHit> search(float[] query, int k, Predicate<UUID> documentFilter) {
+        boolean quantized = properties.getEncoding() != VectorEncoding.FLOAT32;
+        int candidates = quantized ? k * Math.max(1, properties.getOversampling()) : k;
+
+        List<IndexHit> hits;
+        lock.readLock().lock();
+        try {
+            int ef = Math.max(properties.getEfSearch(), candidates);
+            hits = graph.search(query, candidates, ef, documentFilter);
+            while (documentFilter != null && hits.size() < candidates && ef < graph.liveCount()) {
+                ef = (int) Math.min((long) ef * 4, graph.liveCount());
+                hits = graph.search(query, candidates, ef, documentFilter);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return quantized ? rescore(query, hits, k) : hits;
+    }
+
+    /** Live chunks of the given documents; used to pick exact vs. graph search. */
+    public int countChunks(Collection<UUID> documentIds) {
+        lock.readLock().lock();
+        try {
+            return graph.countChunks(documentIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** True when vectors are held at full precision and can be brute-force scanned. */
+    public boolean supportsExactSearch() {
+        return properties.getEncoding() == VectorEncoding.FLOAT32;
+    }
+
+    /**
+     * Exact top-k over every live vector, or only those whose document id
+     * passes {@code documentFilter} when it is non-null.
+     */
+    public List<IndexHit> searchExact(float[] query, int k, Predicate<UUID> documentFilter) {
+        lock.readLock().lock();
+        try {
+            return graph.exactSearch(exactSearchEngine, query, k, documentFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(UUID chunkId, UUID documentId, int chunkIndex, float[] embedding) {
+        mutate(() -> {
+            graph.upsert(chunkId, documentId, chunkIndex, embedding);
+            return null;
+        });
+    }
+
+    public int removeDocument(UUID documentId) {
+        return mutate(() -> graph.removeDocument(documentId));
+    }
+
+    public boolean remove(UUID chunkId) {
+        return mutate(() -> graph.remove(chunkId));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return graph.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean contains(UUID chunkId) {
+        lock.readLock().lock();
+        try {
+            return graph.contains(chunkId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of every document with live chunks, used to drop documents deleted elsewhere. */
+    public Set<UUID> documentIds() {
+        lock.readLock().lock();
+        try {
+            Set<UUID> ids = new HashSet<>();
+            graph.forEachDocumentId(ids::add);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Ids of every live chunk, used to reconcile a snapshot against the DB. */
+    public Set<UUID> chunkIds() {
+        lock.readLock().lock();
+        try {
+            Set<UUID> ids = new HashSet<>(graph.liveCount() * 2);
+            graph.forEachChunkId(ids::add);
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces approximate distances with exact cosine distances and re-ranks.
+     * Candidates whose vector no longer exists (deleted meanwhile) are dropped.
+     */
+    private List<IndexHit> rescore(float[] query, List<IndexHit> candidates, int k) {
+        if (candidates.isEmpty()) return candidates;
+
+        Map<UUID, float[]> full = vectorSource.fetch(candidates.stream().map(IndexHit::chunkId).toList());
+        float[] normalizedQuery = VectorMath.normalize(query);
+
+        List<IndexHit> rescored = new ArrayList<>(candidates.size());
+        for (IndexHit hit : candidates) {
+            float[] vector = full.get(hit.chunkId());
+            if (vector == null) continue;
+            double distance = 1d - VectorMath.dot(normalizedQuery, VectorMath.normalize(vector));
+            rescored.add(new IndexHit(hit.chunkId(), hit.documentId(), hit.chunkIndex(), distance));
+        }
+        rescored.sort(Comparator.comparingDouble(IndexHit::distance));
+        return rescored.size() > k ? rescored.subList(0, k) : rescored;
+    }
+
+    // -------------------------------------------------------------------------
+    // Writes and compaction
+    // -------------------------------------------------------------------------
+
+    private <T> T mutate(Supplier<T> write) {
+        T result;
+        mutation.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                result = write.get();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            mutation.unlock();
+        }
+        if (needsCompaction() && compactionPending.compareAndSet(false, true)) {
+            compactor.execute(this::compactSafely);
+        }
+        return result;
+    }
+
+    /** Read without the lock: a stale answer only delays or repeats a compaction check. */
+    private boolean needsCompaction() {
+        HnswGraph current = graph;
+        return current.deletedCount() >= MIN_COMPACTION_TOMBSTONES
+                && current.deletedRatio() >= properties.getCompactionThreshold();
+    }
+
+    private void compactSafely() {
+        try {
+            compact();
+        } catch (Exception e) {
+            log.warn("HNSW compaction failed; tombstones stay until the next attempt: {}", e.getMessage());
+        } finally {
+            compactionPending.set(false);
+        }
+    }
+
+    /**
+     * Builds a tombstone-free copy under the read lock, so searches continue,
+     * while {@link #mutation} holds writers back; then swaps it in.
+     */
+    void compact() {
+        long start = System.currentTimeMillis();
+        mutation.lock();
+        try {
+            HnswGraph compacted;
+            int tombstones;
+            lock.readLock().lock();
+            try {
+                tombstones = graph.deletedCount();
+                if (tombstones == 0) return;
+                compacted = graph.compact();
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                graph = compacted;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Compacted HNSW index: {} tombstone(s) dropped, {} live vector(s), {} ms",
+                    tombstones, compacted.liveCount(), System.currentTimeMillis() - start);
+        } finally {
+            mutation.unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Sync with the database
+    // -------------------------------------------------------------------------
+
+    /** After commit, so an embedding write that rolls back is never indexed. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChunkEmbedded(ChunkEmbeddedEvent event) {
+        if (!properties.isEnabled()) return;
+        upsert(event.chunkId(), event.documentId(), event.chunkIndex(), event.embedding());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        if (!properties.isEnabled()) return;
+        int removed = removeDocument(event.documentId());
+        log.debug("Removed {} chunk(s) of document {} from HNSW index", removed, event.documentId());
+    }
+
+    // -------------------------------------------------------------------------
+    // Lifecycle (used by VectorIndexLoader)
+    // -------------------------------------------------------------------------
+
+    void markReady() {
+        lock.readLock().lock();
+        try {
+            log.info("HNSW index ready: {} live {} vector(s), {} tombstone(s), {} MB off-heap",
+                    graph.liveCount(), graph.encoding(), graph.deletedCount(),
+                    graph.offHeapBytes() / (1024 * 1024));
+        } finally {
+            lock.readLock().unlock();
+        }
+        ready = true;
+    }
+
+    void loadSnapshot(Path path) throws IOException {
+        HnswGraph loaded;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            loaded = HnswGraph.readFrom(in, properties.getM(), properties.getEfConstruction(), LEVEL_SEED,
+                    properties.getEncoding());
+        }
+        if (loaded.dimensions() != properties.getDimensions()) {
+            throw new IOException("Snapshot has " + loaded.dimensions() + " dimensions, expected "
+                    + properties.getDimensions());
+        }
+
+        mutate(() -> graph = loaded);
+    }
+
+    /** Writes to a temp file first so a crash mid-write never corrupts the last good snapshot. */
+    void writeSnapshot(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            graph.writeTo(out);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private HnswGraph newGraph() {
+        return new HnswGraph(properties.getDimensions(), properties.getM(),
+                properties.getEfConstruction(), LEVEL_SEED, properties.getEncoding());
+    }
+}
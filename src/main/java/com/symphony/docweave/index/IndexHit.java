@@ -0,0 +1,10 @@
+package com.symphony.docweave.index;
+
+import java.util.UUID;
+
+/**
+ * A chunk returned by the in-memory index together with its cosine distance
+ * to the query (0 = identical), on the same scale as pgvector's {@code <=>}.
+ */
+public record IndexHit(UUID chunkId, UUID documentId, int chunkIndex, double distance) {
+}
@@ -0,0 +1,133 @@
+package com.symphony.docweave.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Symmetric int8 scalar quantization: each vector is scaled by its largest
+ * absolute component so that component maps to ±127, and the scale is kept
+ * alongside the codes. Queries stay in float (asymmetric distance), which
+ * recovers most of the precision lost on the stored side.
+ */
+final class Int8VectorStore implements VectorStore {
+
+    private static final int VECTORS_PER_PAGE = 16384;
+
+    private final int dimensions;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private float[] scales = new float[VECTORS_PER_PAGE];
+
+    Int8VectorStore(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public VectorEncoding encoding() {
+        return VectorEncoding.INT8;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public void set(int slot, float[] normalized) {
+        float maxAbs = 0f;
+        for (float v : normalized) {
+            maxAbs = Math.max(maxAbs, Math.abs(v));
+        }
+        float scale = maxAbs == 0f ? 0f : maxAbs / 127f;
+
+        ensureCapacity(slot + 1);
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        for (int i = 0; i < dimensions; i++) {
+            int code = scale == 0f ? 0 : Math.round(normalized[i] / scale);
+            page.put(base + i, (byte) Math.max(-127, Math.min(127, code)));
+        }
+        scales[slot] = scale;
+    }
+
+    @Override
+    public Scorer scorer(float[] normalizedQuery) {
+        return slot -> {
+            ByteBuffer page = page(slot);
+            int base = offset(slot);
+            float sum = 0f;
+            for (int i = 0; i < dimensions; i++) {
+                sum += normalizedQuery[i] * page.get(base + i);
+            }
+            return 1f - sum * scales[slot];
+        };
+    }
+
+    @Override
+    public float distance(int a, int b) {
+        ByteBuffer pageA = page(a);
+        ByteBuffer pageB = page(b);
+        int baseA = offset(a);
+        int baseB = offset(b);
+        int sum = 0;
+        for (int i = 0; i < dimensions; i++) {
+            sum += pageA.get(baseA + i) * pageB.get(baseB + i);
+        }
+        return 1f - sum * scales[a] * scales[b];
+    }
+
+    @Override
+    public long reservedBytes() {
+        return (long) pages.size() * VECTORS_PER_PAGE * dimensions + (long) scales.length * Float.BYTES;
+    }
+
+    @Override
+    public void writeSlot(DataOutputStream out, int slot) throws IOException {
+        out.writeFloat(scales[slot]);
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        for (int i = 0; i < dimensions; i++) {
+            out.writeByte(page.get(base + i));
+        }
+    }
+
+    @Override
+    public void readSlot(DataInputStream in, int slot) throws IOException {
+        ensureCapacity(slot + 1);
+        scales[slot] = in.readFloat();
+        ByteBuffer page = page(slot);
+        int base = offset(slot);
+        for (int i = 0; i < dimensions; i++) {
+            page.put(base + i, in.readByte());
+        }
+    }
+
+    @Override
+    public void copySlot(int slot, VectorStore target, int targetSlot) {
+        Int8VectorStore to = (Int8VectorStore) target;
+        to.ensureCapacity(targetSlot + 1);
+        to.scales[targetSlot] = scales[slot];
+        to.page(targetSlot).put(to.offset(targetSlot), page(slot), offset(slot), dimensions);
+    }
+
+    private void ensureCapacity(int slots) {
+        while ((long) pages.size() * VECTORS_PER_PAGE < slots) {
+            pages.add(ByteBuffer.allocateDirect(VECTORS_PER_PAGE * dimensions));
+        }
+        if (scales.length < slots) {
+            scales = Arrays.copyOf(scales, Math.max(slots, scales.length * 2));
+        }
+    }
+
+    private ByteBuffer page(int slot) {
+        return pages.get(slot / VECTORS_PER_PAGE);
+    }
+
+    private int offset(int slot) {
+        return (slot % VECTORS_PER_PAGE) * dimensions;
+    }
+}
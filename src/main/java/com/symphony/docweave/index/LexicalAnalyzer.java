@@ -0,0 +1,96 @@
+package com.symphony.docweave.index;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Tokenizer shared by indexing and querying in {@link Bm25Index}.
+ *
+ * Splits on anything that is not a letter or digit, except that {@code - _ . / :}
+ * between two alphanumerics keep a compound token together. Compounds such as
+ * {@code ERR-4012} or {@code sku_12.b} are emitted whole (lower-cased) and
+ * then as their parts, so both the exact code and its pieces are searchable.
+ */
+public final class LexicalAnalyzer {
+
+    private LexicalAnalyzer() {}
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        forEachCompound(text, compound -> {
+            tokens.add(compound);
+            if (hasJoiner(compound)) {
+                splitParts(compound, tokens);
+            }
+        });
+        return tokens;
+    }
+
+    /** Whole compound tokens of {@code text}, without their split parts. */
+    public static List<String> compounds(String text) {
+        List<String> compounds = new ArrayList<>();
+        forEachCompound(text, compounds::add);
+        return compounds;
+    }
+
+    /**
+     * True for compound tokens that look like identifiers (product codes,
+     * error ids, versions): they mix letters and digits or contain a joiner.
+     */
+    public static boolean isIdentifier(String token) {
+        boolean letter = false;
+        boolean digit = false;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (Character.isDigit(c)) digit = true;
+            else if (Character.isLetter(c)) letter = true;
+        }
+        return (letter && digit) || (hasJoiner(token) && (letter || digit));
+    }
+
+    private static void forEachCompound(String text, Consumer<String> consumer) {
+        if (text == null) return;
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            if (i >= length) break;
+
+            int start = i;
+            while (i < length) {
+                char c = text.charAt(i);
+                if (Character.isLetterOrDigit(c)) {
+                    i++;
+                } else if (isJoiner(c) && i + 1 < length && Character.isLetterOrDigit(text.charAt(i + 1))) {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            consumer.accept(text.substring(start, i).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static void splitParts(String compound, List<String> out) {
+        int start = 0;
+        for (int i = 0; i <= compound.length(); i++) {
+            if (i == compound.length() || isJoiner(compound.charAt(i))) {
+                if (i > start) out.add(compound.substring(start, i));
+                start = i + 1;
+            }
+        }
+    }
+
+    private static boolean hasJoiner(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            if (isJoiner(token.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isJoiner(char c) {
+        return c == '-' || c == '_' || c == '.' || c == '/' || c == ':';
+    }
+}
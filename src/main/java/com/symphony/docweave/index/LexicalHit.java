@@ -0,0 +1,10 @@
+package com.symphony.docweave.index;
+
+import java.util.UUID;
+
+/**
+ * A chunk returned by the BM25 index with its relevance score
+ * (higher = better; not comparable across queries).
+ */
+public record LexicalHit(UUID chunkId, UUID documentId, int chunkIndex, double score) {
+}
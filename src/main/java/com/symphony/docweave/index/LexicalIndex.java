@@ -0,0 +1,133 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.LexicalIndexProperties;
+import com.symphony.docweave.event.ChunksIngestedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Process-local BM25 index over {@code chunk_text}.
+ *
+ * Built in the background by {@link LexicalIndexLoader} and kept in sync
+ * through {@link ChunksIngestedEvent} / {@link DocumentDeletedEvent}. Chunks
+ * are searchable lexically as soon as they are ingested, before they have
+ * been embedded.
+ */
+@Component
+public class LexicalIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(LexicalIndex.class);
+
+    private final LexicalIndexProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Bm25Index index;
+
+    private volatile boolean ready;
+
+    public LexicalIndex(LexicalIndexProperties properties) {
+        this.properties = properties;
+        this.index = new Bm25Index(properties.getK1(), properties.getB());
+    }
+
+    // -------------------------------------------------------------------------
+    // Public API
+    // -------------------------------------------------------------------------
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    /** Top-k chunks by BM25, restricted to documents passing {@code documentFilter} when non-null. */
+    public List<LexicalHit> search(String query, int k, Predicate<UUID> documentFilter) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, k, documentFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of chunks containing every one of {@code terms} (already analysed). */
+    public int countContainingAll(Collection<String> terms, Predicate<UUID> documentFilter) {
+        lock.readLock().lock();
+        try {
+            return index.countContainingAll(terms, documentFilter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(UUID chunkId, UUID documentId, int chunkIndex, String text) {
+        lock.writeLock().lock();
+        try {
+            index.upsert(chunkId, documentId, chunkIndex, text);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int removeDocument(UUID documentId) {
+        lock.writeLock().lock();
+        try {
+            return index.removeDocument(documentId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.liveCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Sync with the database
+    // -------------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChunksIngested(ChunksIngestedEvent event) {
+        if (!properties.isEnabled()) return;
+        lock.writeLock().lock();
+        try {
+            for (ChunksIngestedEvent.IngestedChunk chunk : event.chunks()) {
+                index.upsert(chunk.chunkId(), event.documentId(), chunk.chunkIndex(), chunk.content());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        if (!properties.isEnabled()) return;
+        int removed = removeDocument(event.documentId());
+        log.debug("Removed {} chunk(s) of document {} from lexical index", removed, event.documentId());
+    }
+
+    // -------------------------------------------------------------------------
+    // Lifecycle (used by LexicalIndexLoader)
+    // -------------------------------------------------------------------------
+
+    void markReady() {
+        lock.readLock().lock();
+        try {
+            log.info("Lexical index ready: {} chunk(s), {} term(s)", index.liveCount(), index.termCount());
+        } finally {
+            lock.readLock().unlock();
+        }
+        ready = true;
+    }
+}
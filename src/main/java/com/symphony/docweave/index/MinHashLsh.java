@@ -0,0 +1,205 @@
+package com.symphony.docweave.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Locality-sensitive hashing index for finding chunks whose text nearly
+ * repeats another chunk's.
+ *
+ * Text is reduced to its set of word shingles and summarised by
+ * {@code bands * rows} MinHash values; two texts agree on each value with
+ * probability equal to the Jaccard similarity of their shingle sets. Each
+ * band of {@code rows} values is hashed to a bucket key, and chunks sharing
+ * any bucket are candidates. Candidates are confirmed against a compact
+ * sketch that keeps only the low 8 bits of every MinHash value (b-bit
+ * MinHash), so a chunk costs {@code bands * rows} bytes plus its bucket keys.
+ *
+ * Hash functions come from a fixed seed, so every instance with the same
+ * shape produces the same signatures.
+ *
+ * Not thread-safe; {@link NearDuplicateIndex} guards it with a read/write lock.
+ */
+public class MinHashLsh {
+
+    private static final long SEED = 0x6d696e68617368L;
+
+    /** Chance that two unrelated 8-bit sketch values collide. */
+    private static final double SKETCH_COLLISION = 1.0 / 256;
+
+    private final int shingleSize;
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final long[] seeds;
+
+    private final Map<Long, List<UUID>> buckets = new HashMap<>();
+    private final Map<UUID, Entry> entries = new HashMap<>();
+    private final Map<UUID, List<UUID>> chunksByDocument = new HashMap<>();
+
+    public MinHashLsh(int shingleSize, int bands, int rows, double threshold) {
+        if (shingleSize < 1 || bands < 1 || rows < 1) {
+            throw new IllegalArgumentException("shingleSize, bands and rows must be positive");
+        }
+        this.shingleSize = shingleSize;
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        SplittableRandom random = new SplittableRandom(SEED);
+        this.seeds = new long[bands * rows];
+        for (int i = 0; i < seeds.length; i++) seeds[i] = random.nextLong();
+    }
+
+    /** An empty index with the same shape, for comparing a batch of texts among themselves. */
+    public MinHashLsh emptyCopy() {
+        return new MinHashLsh(shingleSize, bands, rows, threshold);
+    }
+
+    // -------------------------------------------------------------------------
+    // Signatures
+    // -------------------------------------------------------------------------
+
+    /** What the index keeps of a text; {@code null} for text without any words. */
+    public record Signature(byte[] sketch, long[] bucketKeys) {
+    }
+
+    public Signature signature(String text) {
+        long[] shingles = shingles(text);
+        if (shingles.length == 0) return null;
+
+        int[] mins = new int[seeds.length];
+        Arrays.fill(mins, -1);
+        for (long shingle : shingles) {
+            for (int i = 0; i < seeds.length; i++) {
+                int h = (int) (mix(shingle ^ seeds[i]) >>> 32);
+                if (Integer.compareUnsigned(h, mins[i]) < 0) mins[i] = h;
+            }
+        }
+
+        byte[] sketch = new byte[mins.length];
+        for (int i = 0; i < mins.length; i++) sketch[i] = (byte) mins[i];
+        long[] bucketKeys = new long[bands];
+        for (int band = 0; band < bands; band++) {
+            long key = band + 1;
+            for (int r = 0; r < rows; r++) key = mix(key * 31 + mins[band * rows + r]);
+            bucketKeys[band] = key;
+        }
+        return new Signature(sketch, bucketKeys);
+    }
+
+    /** Estimated Jaccard similarity from two b-bit sketches, corrected for chance collisions. */
+    static double similarity(byte[] a, byte[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        double p = (double) equal / a.length;
+        return Math.max(0.0, (p - SKETCH_COLLISION) / (1 - SKETCH_COLLISION));
+    }
+
+    // -------------------------------------------------------------------------
+    // Index
+    // -------------------------------------------------------------------------
+
+    /** The most similar indexed chunk at or above the threshold, or {@code null}. */
+    public NearDuplicate findNearest(Signature signature) {
+        Set<UUID> seen = new HashSet<>();
+        NearDuplicate best = null;
+        for (long key : signature.bucketKeys()) {
+            List<UUID> bucket = buckets.get(key);
+            if (bucket == null) continue;
+            for (UUID chunkId : bucket) {
+                if (!seen.add(chunkId)) continue;
+                Entry entry = entries.get(chunkId);
+                double similarity = similarity(signature.sketch(), entry.sketch());
+                if (similarity >= threshold && (best == null || similarity > best.similarity())) {
+                    best = new NearDuplicate(chunkId, entry.documentId(), similarity);
+                }
+            }
+        }
+        return best;
+    }
+
+    public void add(UUID chunkId, UUID documentId, Signature signature) {
+        if (entries.containsKey(chunkId)) return;
+        entries.put(chunkId, new Entry(documentId, signature.sketch(), signature.bucketKeys()));
+        chunksByDocument.computeIfAbsent(documentId, d -> new ArrayList<>()).add(chunkId);
+        for (long key : signature.bucketKeys()) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(chunkId);
+        }
+    }
+
+    /** Returns the number of chunks removed. */
+    public int removeDocument(UUID documentId) {
+        List<UUID> chunkIds = chunksByDocument.remove(documentId);
+        if (chunkIds == null) return 0;
+        for (UUID chunkId : chunkIds) {
+            Entry entry = entries.remove(chunkId);
+            for (long key : entry.bucketKeys()) {
+                List<UUID> bucket = buckets.get(key);
+                bucket.remove(chunkId);
+                if (bucket.isEmpty()) buckets.remove(key);
+            }
+        }
+        return chunkIds.size();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Shingling
+    // -------------------------------------------------------------------------
+
+    /**
+     * Hashes of every run of {@code shingleSize} consecutive lower-cased
+     * words; text shorter than that is a single shingle.
+     */
+    private long[] shingles(String text) {
+        List<Long> words = new ArrayList<>();
+        long h = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                h = (inWord ? h : 0xcbf29ce484222325L) ^ Character.toLowerCase(c);
+                h *= 0x100000001b3L;
+                inWord = true;
+            } else if (inWord) {
+                words.add(h);
+                inWord = false;
+            }
+        }
+        if (inWord) words.add(h);
+        if (words.isEmpty()) return new long[0];
+
+        int count = Math.max(1, words.size() - shingleSize + 1);
+        long[] shingles = new long[count];
+        for (int i = 0; i < count; i++) {
+            long shingle = 0;
+            for (int j = i; j < Math.min(i + shingleSize, words.size()); j++) {
+                shingle = mix(shingle * 31 + words.get(j));
+            }
+            shingles[i] = shingle;
+        }
+        return shingles;
+    }
+
+    /** SplitMix64 finaliser. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private record Entry(UUID documentId, byte[] sketch, long[] bucketKeys) {
+    }
+}
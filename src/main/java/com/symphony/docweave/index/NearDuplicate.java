@@ -0,0 +1,11 @@
+package com.symphony.docweave.index;
+
+import java.util.UUID;
+
+/**
+ * An existing chunk whose text a new chunk nearly repeats.
+ *
+ * @param similarity estimated Jaccard similarity of the two chunks' word shingles
+ */
+public record NearDuplicate(UUID chunkId, UUID documentId, double similarity) {
+}
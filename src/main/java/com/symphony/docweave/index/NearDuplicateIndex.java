@@ -0,0 +1,213 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.NearDuplicateProperties;
+import com.symphony.docweave.event.ChunksIngestedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Process-local record of which chunks are near-copies of which.
+ *
+ * Only original chunks go into the {@link MinHashLsh}; a chunk found to be a
+ * near-duplicate is linked to the original it copies (its twin), so every
+ * group of near-copies has one representative. New chunks are checked
+ * against the index at ingest; the index itself is updated through
+ * {@link ChunksIngestedEvent} / {@link DocumentDeletedEvent} once the
+ * ingesting or deleting transaction has committed, and built in the
+ * background by {@link NearDuplicateIndexLoader}.
+ */
+@Component
+public class NearDuplicateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NearDuplicateIndex.class);
+
+    private final NearDuplicateProperties properties;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final MinHashLsh lsh;
+    private final Map<UUID, UUID> twinByDuplicate = new HashMap<>();
+    private final Map<UUID, List<UUID>> duplicatesByDocument = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public NearDuplicateIndex(NearDuplicateProperties properties) {
+        this.properties = properties;
+        this.lsh = new MinHashLsh(properties.getShingleSize(), properties.getBands(), properties.getRows(),
+                properties.getThreshold());
+    }
+
+    // -------------------------------------------------------------------------
+    // Public API
+    // -------------------------------------------------------------------------
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public boolean isReady() {
+        return properties.isEnabled() && ready;
+    }
+
+    /**
+     * Twins for a document's new chunks, keyed by chunk id; chunks without a
+     * twin are absent. A chunk can also be the twin of a later chunk of the
+     * same document. Checks against whatever is loaded so far, so while the
+     * index is still loading some duplicates go unnoticed.
+     */
+    public Map<UUID, NearDuplicate> findTwins(UUID documentId, List<ChunksIngestedEvent.IngestedChunk> chunks) {
+        Map<UUID, NearDuplicate> twins = new LinkedHashMap<>();
+        if (!properties.isEnabled()) return twins;
+
+        MinHashLsh ownChunks = lsh.emptyCopy();
+        for (ChunksIngestedEvent.IngestedChunk chunk : chunks) {
+            MinHashLsh.Signature signature = lsh.signature(chunk.content());
+            if (signature == null) continue;
+            NearDuplicate twin;
+            lock.readLock().lock();
+            try {
+                twin = lsh.findNearest(signature);
+            } finally {
+                lock.readLock().unlock();
+            }
+            NearDuplicate own = ownChunks.findNearest(signature);
+            if (own != null && (twin == null || own.similarity() > twin.similarity())) twin = own;
+
+            if (twin != null) {
+                twins.put(chunk.chunkId(), twin);
+            } else {
+                ownChunks.add(chunk.chunkId(), documentId, signature);
+            }
+        }
+        return twins;
+    }
+
+    /**
+     * The original that {@code chunkId} is a near-copy of, or {@code chunkId}
+     * itself; chunks with the same representative belong to one group.
+     */
+    public UUID representativeOf(UUID chunkId) {
+        lock.readLock().lock();
+        try {
+            return twinByDuplicate.getOrDefault(chunkId, chunkId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Whether search results should be collapsed at all; false until some duplicate is known. */
+    public boolean collapsesResults() {
+        if (!properties.isEnabled() || !properties.isCollapseResults()) return false;
+        lock.readLock().lock();
+        try {
+            return !twinByDuplicate.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Candidates to rank so that about {@code k} remain after collapsing. */
+    public int collapseDepth(int k) {
+        return collapsesResults() ? k * properties.getCollapseDepthFactor() : k;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return lsh.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int duplicateCount() {
+        lock.readLock().lock();
+        try {
+            return twinByDuplicate.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Sync with the database
+    // -------------------------------------------------------------------------
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChunksIngested(ChunksIngestedEvent event) {
+        if (!properties.isEnabled()) return;
+        List<MinHashLsh.Signature> signatures = new ArrayList<>(event.chunks().size());
+        for (ChunksIngestedEvent.IngestedChunk chunk : event.chunks()) {
+            signatures.add(chunk.duplicateOf() == null ? lsh.signature(chunk.content()) : null);
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < event.chunks().size(); i++) {
+                ChunksIngestedEvent.IngestedChunk chunk = event.chunks().get(i);
+                if (chunk.duplicateOf() != null) {
+                    link(chunk.chunkId(), event.documentId(), chunk.duplicateOf());
+                } else if (signatures.get(i) != null) {
+                    lsh.add(chunk.chunkId(), event.documentId(), signatures.get(i));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the document's chunks. Copies of them in other documents keep
+     * their link, so they still collapse with each other in search results.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        if (!properties.isEnabled()) return;
+        lock.writeLock().lock();
+        try {
+            int removed = lsh.removeDocument(event.documentId());
+            List<UUID> duplicates = duplicatesByDocument.remove(event.documentId());
+            if (duplicates != null) duplicates.forEach(twinByDuplicate::remove);
+            log.debug("Removed {} original(s) and {} duplicate(s) of document {} from near-duplicate index",
+                    removed, duplicates == null ? 0 : duplicates.size(), event.documentId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Lifecycle (used by NearDuplicateIndexLoader)
+    // -------------------------------------------------------------------------
+
+    void load(UUID chunkId, UUID documentId, String text, UUID duplicateOf) {
+        MinHashLsh.Signature signature = duplicateOf == null ? lsh.signature(text) : null;
+        lock.writeLock().lock();
+        try {
+            if (duplicateOf != null) {
+                link(chunkId, documentId, duplicateOf);
+            } else if (signature != null) {
+                lsh.add(chunkId, documentId, signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void markReady() {
+        log.info("Near-duplicate index ready: {} original chunk(s), {} duplicate(s)", size(), duplicateCount());
+        ready = true;
+    }
+
+    private void link(UUID chunkId, UUID documentId, UUID twin) {
+        twinByDuplicate.put(chunkId, twin);
+        duplicatesByDocument.computeIfAbsent(documentId, d -> new ArrayList<>()).add(chunkId);
+    }
+}
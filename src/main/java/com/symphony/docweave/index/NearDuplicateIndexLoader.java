@@ -0,0 +1,84 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.NearDuplicateProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Streams every chunk's text and twin link out of {@code document_chunks}
+ * into the {@link NearDuplicateIndex} in the background once the application
+ * has started, one shard after another.
+ */
+@Component
+@RequiredArgsConstructor
+public class NearDuplicateIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(NearDuplicateIndexLoader.class);
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    private final NearDuplicateIndex index;
+    private final DocumentChunkRepository chunkRepository;
+    private final NearDuplicateProperties properties;
+    private final Shards shards;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "near-duplicate-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("Near-duplicate detection disabled");
+            return;
+        }
+        executor.submit(this::load);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Row layout: [0] id, [1] document_id, [2] chunk_text, [3] duplicate_of */
+    void load() {
+        long start = System.currentTimeMillis();
+        try {
+            shards.each(shard -> {
+                loadShard();
+                return null;
+            });
+            index.markReady();
+            log.info("Near-duplicate index built in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Near-duplicate index load failed; only chunks ingested from now on are compared", e);
+        }
+    }
+
+    private void loadShard() {
+        UUID after = MIN_UUID;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> rows = chunkRepository.findChunkTextAndTwinAfter(after, properties.getLoadBatchSize());
+            if (rows.isEmpty()) break;
+            for (Object[] row : rows) {
+                after = UUID.fromString(row[0].toString());
+                index.load(after, UUID.fromString(row[1].toString()), (String) row[2],
+                        row[3] == null ? null : UUID.fromString(row[3].toString()));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.symphony.docweave.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-precision float vectors kept outside the Java heap in direct buffers.
+ *
+ * Vectors are addressed by slot and packed back to back into pages of
+ * {@link #VECTORS_PER_PAGE} entries, so millions of embeddings cost the GC
+ * nothing and a slot lookup is two integer divisions.
+ */
+final class OffHeapVectorStore implements VectorStore {
+
+    static final int VECTORS_PER_PAGE = 4096;
+
+    private final int dimensions;
+    private final List<ByteBuffer> pages = new ArrayList<>();
+    private final List<FloatBuffer> floatPages = new ArrayList<>();
+
+    OffHeapVectorStore(int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public VectorEncoding encoding() {
+        return VectorEncoding.FLOAT32;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public void set(int slot, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException(
+                    "Expected vector of " + dimensions + " dimensions but got " + vector.length);
+        }
+        ensureCapacity(slot + 1);
+        page(slot).put(offset(slot), vector);
+    }
+
+    @Override
+    public Scorer scorer(float[] normalizedQuery) {
+        return slot -> 1f - dot(slot, normalizedQuery);
+    }
+
+    @Override
+    public float distance(int a, int b) {
+        return 1f - dot(a, b);
+    }
+
+    /** Dot product between a stored vector and an on-heap query. */
+    float dot(int slot, float[] query) {
+        FloatBuffer page = page(slot);
+        int base = offset(slot);
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += page.get(base + i) * query[i];
+        }
+        return sum;
+    }
+
+    /** Dot product between two stored vectors. */
+    float dot(int a, int b) {
+        FloatBuffer pageA = page(a);
+        FloatBuffer pageB = page(b);
+        int baseA = offset(a);
+        int baseB = offset(b);
+        float sum = 0f;
+        for (int i = 0; i < dimensions; i++) {
+            sum += pageA.get(baseA + i) * pageB.get(baseB + i);
+        }
+        return sum;
+    }
+
+    /**
+     * Copies slots {@code [from, from + count)} back to back into {@code dest};
+     * a bulk copy out of the direct buffer, split only at page boundaries.
+     */
+    void copy(int from, int count, float[] dest) {
+        int copied = 0;
+        while (copied < count) {
+            int slot = from + copied;
+            int run = Math.min(count - copied, VECTORS_PER_PAGE - slot % VECTORS_PER_PAGE);
+            page(slot).get(offset(slot), dest, copied * dimensions, run * dimensions);
+            copied += run;
+        }
+    }
+
+    @Override
+    public long reservedBytes() {
+        return (long) pages.size() * VECTORS_PER_PAGE * dimensions * Float.BYTES;
+    }
+
+    @Override
+    public void writeSlot(DataOutputStream out, int slot) throws IOException {
+        FloatBuffer page = page(slot);
+        int base = offset(slot);
+        for (int i = 0; i < dimensions; i++) {
+            out.writeFloat(page.get(base + i));
+        }
+    }
+
+    @Override
+    public void readSlot(DataInputStream in, int slot) throws IOException {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = in.readFloat();
+        }
+        set(slot, vector);
+    }
+
+    @Override
+    public void copySlot(int slot, VectorStore target, int targetSlot) {
+        OffHeapVectorStore to = (OffHeapVectorStore) target;
+        to.ensureCapacity(targetSlot + 1);
+        to.page(targetSlot).put(to.offset(targetSlot), page(slot), offset(slot), dimensions);
+    }
+
+    private void ensureCapacity(int slots) {
+        while ((long) pages.size() * VECTORS_PER_PAGE < slots) {
+            ByteBuffer page = ByteBuffer
+                    .allocateDirect(VECTORS_PER_PAGE * dimensions * Float.BYTES)
+                    .order(ByteOrder.nativeOrder());
+            pages.add(page);
+            floatPages.add(page.asFloatBuffer());
+        }
+    }
+
+    private FloatBuffer page(int slot) {
+        return floatPages.get(slot / VECTORS_PER_PAGE);
+    }
+
+    private int offset(int slot) {
+        return (slot % VECTORS_PER_PAGE) * dimensions;
+    }
+}
@@ -0,0 +1,54 @@
+package com.symphony.docweave.index;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Dot products using the JDK Vector API. Kept apart from {@link VectorMath}
+ * so that nothing else loads {@code jdk.incubator.vector} classes; callers go
+ * through {@link #AVAILABLE} and fall back to scalar code when the JVM was
+ * started without {@code --add-modules jdk.incubator.vector}.
+ */
+final class SimdVectorMath {
+
+    static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private SimdVectorMath() {}
+
+    /** Dot product of {@code query} with {@code block[offset .. offset + query.length)}. */
+    static float dot(float[] block, int offset, float[] query) {
+        return AVAILABLE ? Kernel.dot(block, offset, query) : scalarDot(block, offset, query);
+    }
+
+    static float scalarDot(float[] block, int offset, float[] query) {
+        float sum = 0f;
+        for (int i = 0; i < query.length; i++) {
+            sum += block[offset + i] * query[i];
+        }
+        return sum;
+    }
+
+    /** Holder so the species constant is only initialised when the module is present. */
+    private static final class Kernel {
+
+        private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+        static float dot(float[] block, int offset, float[] query) {
+            int length = query.length;
+            int bound = SPECIES.loopBound(length);
+            FloatVector acc = FloatVector.zero(SPECIES);
+            int i = 0;
+            for (; i < bound; i += SPECIES.length()) {
+                FloatVector a = FloatVector.fromArray(SPECIES, block, offset + i);
+                FloatVector b = FloatVector.fromArray(SPECIES, query, i);
+                acc = a.fma(b, acc);
+            }
+            float sum = acc.reduceLanes(VectorOperators.ADD);
+            for (; i < length; i++) {
+                sum += block[offset + i] * query[i];
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.symphony.docweave.index;
+
+/**
+ * Bounded min-heap of (slot, similarity) pairs on primitive arrays: keeps the
+ * {@code k} highest similarities seen so far without boxing per candidate.
+ */
+final class TopK {
+
+    private final int k;
+    private final int[] slots;
+    private final float[] scores;
+    private int size;
+
+    TopK(int k) {
+        this.k = k;
+        this.slots = new int[k];
+        this.scores = new float[k];
+    }
+
+    /** Lowest similarity that would still be accepted once the heap is full. */
+    float threshold() {
+        return size < k ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    void offer(int slot, float score) {
+        if (size < k) {
+            slots[size] = slot;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            slots[0] = slot;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    void merge(TopK other) {
+        for (int i = 0; i < other.size; i++) {
+            offer(other.slots[i], other.scores[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Drains the heap into {@code outSlots}/{@code outScores}, best first.
+     * The heap is empty afterwards.
+     */
+    void drainDescending(int[] outSlots, float[] outScores) {
+        for (int i = size - 1; i >= 0; i--) {
+            outSlots[i] = slots[0];
+            outScores[i] = scores[0];
+            size--;
+            slots[0] = slots[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (scores[parent] <= scores[i]) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[i] <= scores[smallest]) break;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int s = slots[a];
+        slots[a] = slots[b];
+        slots[b] = s;
+        float f = scores[a];
+        scores[a] = scores[b];
+        scores[b] = f;
+    }
+}
@@ -0,0 +1,40 @@
+package com.symphony.docweave.index;
+
+/**
+ * Slot-addressed float vectors that can be copied out in contiguous runs,
+ * the input format of {@link ExactSearchEngine}.
+ */
+interface VectorBlocks {
+
+    int dimensions();
+
+    /** Number of addressable slots, live or not. */
+    int slots();
+
+    /**
+     * Copies vectors {@code [from, from + count)} back to back into
+     * {@code dest}, which holds at least {@code count * dimensions()} floats.
+     */
+    void copy(int from, int count, float[] dest);
+
+    /** Wraps an on-heap row-major matrix of {@code slots} vectors. */
+    static VectorBlocks of(float[] matrix, int dimensions) {
+        int slots = matrix.length / dimensions;
+        return new VectorBlocks() {
+            @Override
+            public int dimensions() {
+                return dimensions;
+            }
+
+            @Override
+            public int slots() {
+                return slots;
+            }
+
+            @Override
+            public void copy(int from, int count, float[] dest) {
+                System.arraycopy(matrix, from * dimensions, dest, 0, count * dimensions);
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.symphony.docweave.index;
+
+/**
+ * In-memory representation of indexed vectors.
+ *
+ * Quantized encodings are only used to find candidates; the top
+ * {@code k * oversampling} are then rescored against full-precision vectors.
+ */
+public enum VectorEncoding {
+
+    /** 4 bytes per dimension, exact distances */
+    FLOAT32,
+
+    /** 1 byte per dimension plus a per-vector scale (~4x smaller) */
+    INT8,
+
+    /** 1 bit per dimension, Hamming distance (~32x smaller) */
+    BINARY
+}
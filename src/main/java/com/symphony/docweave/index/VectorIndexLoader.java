@@ -0,0 +1,311 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.VectorIndexProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.repository.DocumentRepository;
+import com.symphony.docweave.storage.ChunkStorage;
+import com.symphony.docweave.storage.StoredChunk;
+import com.symphony.docweave.util.EmbeddingUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Populates {@link HnswVectorIndex} in the background once the application
+ * has started. Sources, in order of preference: a snapshot file, the local
+ * {@link ChunkStorage} segments (when enabled), or streaming every embedded
+ * chunk out of {@code document_chunks}. The first two are reconciled against
+ * the DB afterwards, and chunk storage is kept in step with what was loaded.
+ * With sharding, the database is read one shard after another.
+ *
+ * Once loaded, the index is caught up every
+ * {@code index.hnsw.catch-up-interval-seconds} with writes made on other
+ * nodes, which reach this one only through the database: chunks embedded
+ * since the last run (by {@code embedded_at}, see V11) are added, and
+ * indexed documents that are no longer live are dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class VectorIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(VectorIndexLoader.class);
+
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+
+    /**
+     * Each catch-up re-reads this much before the last {@code embedded_at}
+     * seen: a row is stamped when its transaction writes it but only visible
+     * once it commits (or reaches the replica), possibly after a later one.
+     */
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    private final HnswVectorIndex index;
+    private final DocumentChunkRepository chunkRepository;
+    private final DocumentRepository documentRepository;
+    private final VectorIndexProperties properties;
+    private final ObjectProvider<ChunkStorage> chunkStorage;
+    private final Shards shards;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "hnsw-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Per shard, the latest {@code embedded_at} the index has caught up to. Loader thread only. */
+    private final Map<String, Instant> caughtUpTo = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!properties.isEnabled()) {
+            log.info("HNSW index disabled; searches use pgvector");
+            return;
+        }
+        executor.submit(this::load);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        Path snapshot = snapshotPath();
+        if (snapshot == null || !index.isReady()) return;
+        try {
+            index.writeSnapshot(snapshot);
+            log.info("Wrote HNSW snapshot to {}", snapshot);
+        } catch (Exception e) {
+            log.warn("Failed to write HNSW snapshot to {}: {}", snapshot, e.getMessage());
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Loading
+    // -------------------------------------------------------------------------
+
+    void load() {
+        long start = System.currentTimeMillis();
+        try {
+            // Taken first, so anything embedded while loading is caught up afterwards
+            shards.each(shard -> caughtUpTo.put(shard, toInstant(chunkRepository.findLatestEmbeddedAt())));
+            Path snapshot = snapshotPath();
+            ChunkStorage storage = storage();
+            if (snapshot != null && Files.exists(snapshot)) {
+                index.loadSnapshot(snapshot);
+                log.info("Loaded HNSW snapshot {} ({} vectors)", snapshot, index.size());
+                reconcileWithDatabase();
+            } else if (storage != null && storage.size() > 0) {
+                loadFromStorage(storage);
+                reconcileWithDatabase();
+            } else {
+                loadFromDatabase();
+            }
+            index.markReady();
+            log.info("HNSW index built in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("HNSW index load failed; searches will keep using pgvector", e);
+            return;
+        }
+        long interval = properties.getCatchUpIntervalSeconds();
+        if (interval > 0) {
+            executor.scheduleWithFixedDelay(this::catchUpSafely, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private void loadFromStorage(ChunkStorage storage) {
+        storage.forEach(chunk -> index.upsert(chunk.chunkId(), chunk.documentId(), chunk.chunkIndex(), chunk.vector()));
+        log.info("Loaded {} vector(s) from chunk storage", index.size());
+    }
+
+    private void loadFromDatabase() {
+        shards.each(shard -> {
+            loadShard();
+            return null;
+        });
+    }
+
+    private void loadShard() {
+        UUID after = MIN_UUID;
+        int loaded = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> rows = chunkRepository.findEmbeddedVectorsAfter(after, properties.getLoadBatchSize());
+            if (rows.isEmpty()) break;
+            for (Object[] row : rows) {
+                after = upsertRow(row);
+            }
+            loaded += rows.size();
+            if (loaded % (properties.getLoadBatchSize() * 50) < rows.size()) {
+                log.info("HNSW index load progress: {} vector(s)", loaded);
+            }
+        }
+    }
+
+    /**
+     * Brings a snapshot up to date: vectors embedded since the snapshot was
+     * written are fetched and inserted, and chunks deleted since are dropped.
+     */
+    private void reconcileWithDatabase() {
+        Set<UUID> stale = index.chunkIds();
+        int added = shards.each(shard -> addMissing(stale)).stream().mapToInt(Integer::intValue).sum();
+
+        ChunkStorage storage = storage();
+        for (UUID id : stale) {
+            index.remove(id);
+            if (storage != null) storage.delete(id);
+        }
+        log.info("Reconciled HNSW snapshot: {} added, {} removed", added, stale.size());
+    }
+
+    /**
+     * Loads the current shard's embedded chunks that are not in the index,
+     * removing every chunk it sees from {@code stale}. Returns the number added.
+     */
+    private int addMissing(Set<UUID> stale) {
+        List<UUID> missing = new ArrayList<>();
+        UUID after = MIN_UUID;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<UUID> ids = chunkRepository.findEmbeddedChunkIdsAfter(after, properties.getLoadBatchSize());
+            if (ids.isEmpty()) break;
+            for (UUID id : ids) {
+                if (!stale.remove(id)) missing.add(id);
+            }
+            after = ids.get(ids.size() - 1);
+        }
+        for (List<UUID> batch : EmbeddingUtils.partition(missing, properties.getLoadBatchSize())) {
+            chunkRepository.findEmbeddedVectorsByIds(batch).forEach(this::upsertRow);
+        }
+        return missing.size();
+    }
+
+    // -------------------------------------------------------------------------
+    // Catching up with other nodes
+    // -------------------------------------------------------------------------
+
+    private void catchUpSafely() {
+        try {
+            catchUp();
+        } catch (Exception e) {
+            log.warn("HNSW catch-up failed; retrying in {} s: {}", properties.getCatchUpIntervalSeconds(),
+                    e.getMessage());
+        }
+    }
+
+    void catchUp() {
+        // Snapshot the indexed documents before reading which are live: any of them
+        // was committed before it was indexed, so a live one is always found
+        Set<UUID> indexedDocuments = index.documentIds();
+        int added = shards.each(this::addEmbeddedSince).stream().mapToInt(Integer::intValue).sum();
+        int removed = removeDeleted(indexedDocuments);
+        if (added > 0 || removed > 0) {
+            log.info("HNSW catch-up: {} chunk(s) added, {} deleted document(s) removed", added, removed);
+        }
+    }
+
+    /**
+     * Adds the current shard's chunks embedded since its last catch-up that
+     * the index does not hold yet. Only ids are read for the overlap; vectors
+     * are fetched for the missing ones. Returns the number added.
+     */
+    private int addEmbeddedSince(String shard) {
+        Instant latest = caughtUpTo.getOrDefault(shard, Instant.EPOCH);
+        Instant at = latest.minus(CATCH_UP_OVERLAP);
+        UUID after = MIN_UUID;
+        List<UUID> missing = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object[]> rows = chunkRepository.findEmbeddedSince(at, after, properties.getLoadBatchSize());
+            for (Object[] row : rows) {
+                UUID id = UUID.fromString(row[0].toString());
+                if (!index.contains(id)) missing.add(id);
+                at = toInstant(row[1]);
+                after = id;
+            }
+            if (rows.size() < properties.getLoadBatchSize()) break;
+        }
+        for (List<UUID> batch : EmbeddingUtils.partition(missing, properties.getLoadBatchSize())) {
+            chunkRepository.findEmbeddedVectorsByIds(batch).forEach(this::upsertRow);
+        }
+        if (at.isAfter(latest)) caughtUpTo.put(shard, at);
+        return missing.size();
+    }
+
+    /** Drops documents of {@code indexed} that are deleted or tombstoned. Returns how many. */
+    private int removeDeleted(Set<UUID> indexed) {
+        Map<String, List<UUID>> byShard = new HashMap<>();
+        for (UUID id : indexed) {
+            byShard.computeIfAbsent(shards.shardFor(id), s -> new ArrayList<>()).add(id);
+        }
+        Set<UUID> live = new HashSet<>(indexed.size() * 2);
+        byShard.forEach((shard, ids) -> shards.on(shard, () -> {
+            for (List<UUID> batch : EmbeddingUtils.partition(ids, properties.getLoadBatchSize())) {
+                live.addAll(documentRepository.findLiveIds(batch));
+            }
+            return null;
+        }));
+
+        ChunkStorage storage = storage();
+        int removed = 0;
+        for (UUID id : indexed) {
+            if (live.contains(id)) continue;
+            index.removeDocument(id);
+            if (storage != null) storage.deleteDocument(id);
+            removed++;
+        }
+        return removed;
+    }
+
+    /** {@code embedded_at} as the driver returns it; null (no embedded chunk yet) is the epoch. */
+    private static Instant toInstant(Object value) {
+        if (value == null) return Instant.EPOCH;
+        if (value instanceof Instant instant) return instant;
+        if (value instanceof OffsetDateTime dateTime) return dateTime.toInstant();
+        if (value instanceof Timestamp timestamp) return timestamp.toInstant();
+        throw new IllegalStateException("Unexpected embedded_at value: " + value.getClass().getName());
+    }
+
+    /**
+     * Row layout: [0] id, [1] document_id, [2] chunk_index, [3] embedding text.
+     * Chunks backfilled into storage this way carry no text; search reads
+     * text from the database in any case.
+     */
+    private UUID upsertRow(Object[] row) {
+        UUID chunkId    = UUID.fromString(row[0].toString());
+        UUID documentId = UUID.fromString(row[1].toString());
+        int chunkIndex  = ((Number) row[2]).intValue();
+        float[] vector  = EmbeddingUtils.fromPgVectorLiteral(row[3].toString());
+        index.upsert(chunkId, documentId, chunkIndex, vector);
+        ChunkStorage storage = storage();
+        if (storage != null) storage.put(new StoredChunk(chunkId, documentId, chunkIndex, vector, null));
+        return chunkId;
+    }
+
+    private ChunkStorage storage() {
+        return chunkStorage.getIfAvailable();
+    }
+
+    private Path snapshotPath() {
+        String path = properties.getSnapshotPath();
+        return StringUtils.hasText(path) ? Path.of(path) : null;
+    }
+}
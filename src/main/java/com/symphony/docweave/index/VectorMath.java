@@ -0,0 +1,34 @@
+package com.symphony.docweave.index;
+
+public final class VectorMath {
+
+    private VectorMath() {}
+
+    public static float dot(float[] a, float[] b) {
+        float sum = 0f;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Returns an L2-normalised copy of {@code vector}. Once both sides are
+     * normalised, cosine distance reduces to {@code 1 - dot(a, b)}, which is
+     * what pgvector's {@code <=>} operator returns.
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0d;
+        for (float v : vector) {
+            norm += v * v;
+        }
+        norm = Math.sqrt(norm);
+
+        float[] out = new float[vector.length];
+        if (norm == 0d) return out;
+        for (int i = 0; i < vector.length; i++) {
+            out[i] = (float) (vector[i] / norm);
+        }
+        return out;
+    }
+}
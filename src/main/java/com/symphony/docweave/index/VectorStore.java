@@ -0,0 +1,47 @@
+package com.symphony.docweave.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Slot-addressed storage for L2-normalised vectors in one of the
+ * {@link VectorEncoding}s. Distances are cosine distances (0 = identical);
+ * quantized stores return approximations on the same scale.
+ */
+interface VectorStore {
+
+    VectorEncoding encoding();
+
+    int dimensions();
+
+    void set(int slot, float[] normalized);
+
+    /** Distance between a query (prepared once per search) and a stored vector. */
+    Scorer scorer(float[] normalizedQuery);
+
+    /** Distance between two stored vectors. */
+    float distance(int a, int b);
+
+    long reservedBytes();
+
+    void writeSlot(DataOutputStream out, int slot) throws IOException;
+
+    void readSlot(DataInputStream in, int slot) throws IOException;
+
+    /** Copies a stored vector as is into {@code target}, a store of the same encoding and dimensions. */
+    void copySlot(int slot, VectorStore target, int targetSlot);
+
+    static VectorStore create(VectorEncoding encoding, int dimensions) {
+        return switch (encoding) {
+            case FLOAT32 -> new OffHeapVectorStore(dimensions);
+            case INT8 -> new Int8VectorStore(dimensions);
+            case BINARY -> new BinaryVectorStore(dimensions);
+        };
+    }
+
+    @FunctionalInterface
+    interface Scorer {
+        float distance(int slot);
+    }
+}
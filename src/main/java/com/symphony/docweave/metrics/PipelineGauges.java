@@ -0,0 +1,70 @@
+package com.symphony.docweave.metrics;
+
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.index.ExactSearchEngine;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.service.EmbeddingService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Backlog and queue-depth gauges, bound to the registry at startup.
+ *
+ * The un-embedded chunk count needs a table scan, so it is cached and
+ * re-counted at most once per {@code metrics.backlog-refresh-seconds}
+ * however often Prometheus scrapes.
+ */
+@Component
+public class PipelineGauges implements MeterBinder {
+
+    private final DocumentChunkRepository chunkRepository;
+    private final EmbeddingService embeddingService;
+    private final ExactSearchEngine exactSearchEngine;
+    private final Shards shards;
+    private final long backlogRefreshNanos;
+
+    private volatile long backlog;
+    private volatile long backlogCountedAt;
+    private volatile boolean backlogCounted;
+
+    public PipelineGauges(DocumentChunkRepository chunkRepository,
+                          EmbeddingService embeddingService,
+                          ExactSearchEngine exactSearchEngine,
+                          Shards shards,
+                          @Value("${metrics.backlog-refresh-seconds:30}") long backlogRefreshSeconds) {
+        this.chunkRepository = chunkRepository;
+        this.embeddingService = embeddingService;
+        this.exactSearchEngine = exactSearchEngine;
+        this.shards = shards;
+        this.backlogRefreshNanos = TimeUnit.SECONDS.toNanos(backlogRefreshSeconds);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("docweave.embedding.backlog", this, PipelineGauges::unembeddedChunks)
+                .description("Chunks stored without an embedding")
+                .register(registry);
+        Gauge.builder("docweave.embedding.batches.pending", embeddingService, EmbeddingService::pendingBatches)
+                .description("Embedding batches queued or in flight")
+                .register(registry);
+        Gauge.builder("docweave.search.exact.queued", exactSearchEngine, ExactSearchEngine::queuedTasks)
+                .description("Tasks queued in the exact-search fork-join pool")
+                .register(registry);
+    }
+
+    private double unembeddedChunks() {
+        long now = System.nanoTime();
+        if (!backlogCounted || now - backlogCountedAt >= backlogRefreshNanos) {
+            backlog = shards.each(shard -> chunkRepository.countWithoutEmbedding())
+                    .stream().mapToLong(Long::longValue).sum();
+            backlogCountedAt = now;
+            backlogCounted = true;
+        }
+        return backlog;
+    }
+}
@@ -0,0 +1,108 @@
+package com.symphony.docweave.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stage-level timers and counters for ingestion, embedding, search and RAG.
+ *
+ * Every timer publishes a percentile histogram, so p99s can be computed and
+ * alerted on in Prometheus with {@code histogram_quantile}. Meter names are
+ * kept here rather than at each call site so the dashboard contract lives
+ * in one place.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final MeterRegistry registry;
+
+    private final Timer preprocessing;
+    private final Timer chunking;
+    private final Timer chunkPersistence;
+    private final Counter embeddingRetries;
+    private final Counter embeddingThrottled;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.preprocessing = timer("docweave.ingestion.preprocessing", "Normalizing extracted text before chunking");
+        this.chunking = timer("docweave.ingestion.chunking", "Splitting extracted text into chunks");
+        this.chunkPersistence = timer("docweave.ingestion.persistence", "Saving a document's chunks");
+        this.embeddingRetries = Counter.builder("docweave.embedding.retries")
+                .description("Embedding API attempts that failed and were retried")
+                .register(registry);
+        this.embeddingThrottled = Counter.builder("docweave.embedding.throttled")
+                .description("Embedding API attempts rejected with HTTP 429")
+                .register(registry);
+    }
+
+    /** Starts timing a stage; stop the sample with the stage's timer. */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    // -------------------------------------------------------------------------
+    // Ingestion
+    // -------------------------------------------------------------------------
+
+    /** @param extractor simple class name of the extractor that handled the file */
+    public Timer extraction(String extractor) {
+        return timer("docweave.ingestion.extraction", "Extracting text from an uploaded file", "extractor", extractor);
+    }
+
+    public Timer preprocessing() {
+        return preprocessing;
+    }
+
+    public Timer chunking() {
+        return chunking;
+    }
+
+    public Timer chunkPersistence() {
+        return chunkPersistence;
+    }
+
+    // -------------------------------------------------------------------------
+    // Embedding
+    // -------------------------------------------------------------------------
+
+    /** One embedding API attempt; {@code outcome} is {@code success} or {@code error}. */
+    public Timer embeddingRequest(String outcome) {
+        return timer("docweave.embedding.request", "One embedding API attempt", "outcome", outcome);
+    }
+
+    public Counter embeddingRetries() {
+        return embeddingRetries;
+    }
+
+    public Counter embeddingThrottled() {
+        return embeddingThrottled;
+    }
+
+    // -------------------------------------------------------------------------
+    // Search and RAG
+    // -------------------------------------------------------------------------
+
+    /** A whole search request, tagged with the mode it actually ran in. */
+    public Timer search(String mode) {
+        return timer("docweave.search", "A search request end to end", "mode", mode);
+    }
+
+    /** A pgvector top-k query ({@code findTopKSimilar} or its filtered variant). */
+    public Timer vectorQuery(boolean filtered) {
+        return timer("docweave.search.db", "A pgvector top-k query", "filtered", Boolean.toString(filtered));
+    }
+
+    public Timer llmCall(String model) {
+        return timer("docweave.rag.llm", "One chat completion call", "model", model);
+    }
+
+    private Timer timer(String name, String description, String... tags) {
+        return Timer.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
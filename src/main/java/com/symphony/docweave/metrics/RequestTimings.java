@@ -0,0 +1,83 @@
+package com.symphony.docweave.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Per-request latency breakdown, rendered as a {@code Server-Timing} header.
+ *
+ * A controller opens one with {@link #begin()} and closes it with
+ * {@link #end()}; services record stages through the static helpers, which
+ * do nothing when no request is being timed (e.g. on worker threads or in
+ * unit tests). Repeated stages accumulate. Flags carry non-timed facts such
+ * as which ranker served a search.
+ */
+public final class RequestTimings {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startedAt = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+    private final Map<String, String> flags = new LinkedHashMap<>();
+
+    private RequestTimings() {
+    }
+
+    /** Starts timing the current request on this thread. */
+    public static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /** Runs {@code work}, adding its duration to {@code stage} if a request is being timed. */
+    public static <T> T time(String stage, Supplier<T> work) {
+        RequestTimings timings = CURRENT.get();
+        if (timings == null) return work.get();
+
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            timings.durations.merge(stage, System.nanoTime() - start, Long::sum);
+        }
+    }
+
+    public static void flag(String name, String value) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) timings.flags.put(name, value);
+    }
+
+    // -------------------------------------------------------------------------
+    // Rendering
+    // -------------------------------------------------------------------------
+
+    /** Stage durations in milliseconds, plus {@code total} since {@link #begin()}. */
+    public Map<String, Double> toMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        durations.forEach((stage, nanos) -> millis.put(stage, nanos / 1_000_000d));
+        millis.put("total", (System.nanoTime() - startedAt) / 1_000_000d);
+        return millis;
+    }
+
+    /**
+     * e.g. {@code embed;dur=41.2, vector;dur=3.0, total;dur=45.9, ranker;desc="hnsw"}
+     */
+    public String toServerTiming() {
+        StringBuilder sb = new StringBuilder();
+        toMillis().forEach((stage, ms) -> {
+            if (!sb.isEmpty()) sb.append(", ");
+            sb.append(stage).append(";dur=").append(String.format(Locale.ROOT, "%.1f", ms));
+        });
+        flags.forEach((name, value) -> sb.append(", ").append(name).append(";desc=\"").append(value).append('"'));
+        return sb.toString();
+    }
+}
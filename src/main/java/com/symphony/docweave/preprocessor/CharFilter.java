@@ -0,0 +1,43 @@
+package com.symphony.docweave.preprocessor;
+
+import java.util.List;
+
+/**
+ * One stage of the single-pass normalizer. Stages see characters in order,
+ * keep whatever state they need (usually a few pending characters) and pass
+ * the characters they keep to the next stage, so a whole chain runs in one
+ * pass with no intermediate strings. Instances are stateful: use one per text.
+ */
+public interface CharFilter {
+
+    @FunctionalInterface
+    interface Sink {
+        void put(char c);
+    }
+
+    void put(char c, Sink next);
+
+    /** Called once after the last character; flushes anything still pending. */
+    default void end(Sink next) {
+    }
+
+    /** Runs {@code text} through {@code filters}, first to last. */
+    static String apply(String text, List<CharFilter> filters) {
+        StringBuilder out = new StringBuilder(text.length());
+        Sink[] sinks = new Sink[filters.size() + 1];
+        sinks[filters.size()] = out::append;
+        for (int i = filters.size() - 1; i >= 0; i--) {
+            CharFilter filter = filters.get(i);
+            Sink next = sinks[i + 1];
+            sinks[i] = c -> filter.put(c, next);
+        }
+        Sink head = sinks[0];
+        for (int i = 0; i < text.length(); i++) {
+            head.put(text.charAt(i));
+        }
+        for (int i = 0; i < filters.size(); i++) {
+            filters.get(i).end(sinks[i + 1]);
+        }
+        return out.toString();
+    }
+}
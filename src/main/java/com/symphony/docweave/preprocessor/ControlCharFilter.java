@@ -0,0 +1,48 @@
+package com.symphony.docweave.preprocessor;
+
+/**
+ * Drops control and invisible formatting characters. Line endings are
+ * normalised to {@code \n}, page breaks end the current line, and Unicode
+ * space separators (no-break, thin, ideographic...) become plain spaces.
+ * Soft hyphens, zero-width spaces and stray byte-order marks are removed.
+ */
+public class ControlCharFilter implements CharFilter {
+
+    private boolean afterCarriageReturn;
+    private boolean atLineStart;
+
+    @Override
+    public void put(char c, Sink next) {
+        boolean carriageReturn = afterCarriageReturn;
+        afterCarriageReturn = c == '\r';
+        switch (c) {
+            case '\n' -> {
+                if (!carriageReturn) newline(next);
+            }
+            case '\r', '\u000B', '\u2028', '\u2029' -> newline(next);
+            // a page break ends the current line but does not start a paragraph
+            case TextPreprocessor.PAGE_BREAK -> {
+                if (!atLineStart) newline(next);
+            }
+            case '\t' -> emit('\t', next);
+            case '\u00AD', '\u200B', '\u2060', '\uFEFF' -> { }
+            default -> {
+                if (Character.getType(c) == Character.SPACE_SEPARATOR) {
+                    emit(' ', next);
+                } else if (!Character.isISOControl(c)) {
+                    emit(c, next);
+                }
+            }
+        }
+    }
+
+    private void newline(Sink next) {
+        next.put('\n');
+        atLineStart = true;
+    }
+
+    private void emit(char c, Sink next) {
+        next.put(c);
+        atLineStart = false;
+    }
+}
@@ -1,4 +1,42 @@
 package com.symphony.docweave.preprocessor;
 
-public class DefaultTextPreprocessor {
+import com.symphony.docweave.config.IngestionProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Strips running headers and footers page by page, then runs the text once
+ * through the character filters: control characters, line-break hyphens,
+ * whitespace. Each step can be switched off under
+ * {@code ingestion.preprocessing}.
+ */
+@Component
+public class DefaultTextPreprocessor implements TextPreprocessor {
+
+    private final IngestionProperties.Preprocessing properties;
+    private final RepeatedLineRemover repeatedLines;
+
+    public DefaultTextPreprocessor(IngestionProperties properties) {
+        this.properties = properties.getPreprocessing();
+        this.repeatedLines = new RepeatedLineRemover(
+                this.properties.getRepeatedLineMinPages(), this.properties.getRepeatedLineMinRatio());
+    }
+
+    @Override
+    public String preprocess(String text) {
+        if (text == null || !properties.isEnabled()) return text;
+        if (properties.isRemoveRepeatedLines()) text = repeatedLines.strip(text);
+        return CharFilter.apply(text, filters());
+    }
+
+    /** New instances per call: filters carry per-text state. */
+    private List<CharFilter> filters() {
+        List<CharFilter> filters = new ArrayList<>(3);
+        filters.add(new ControlCharFilter());
+        if (properties.isDehyphenate()) filters.add(new DehyphenationFilter());
+        if (properties.isCollapseWhitespace()) filters.add(new WhitespaceFilter());
+        return filters;
+    }
 }
@@ -0,0 +1,72 @@
+package com.symphony.docweave.preprocessor;
+
+/**
+ * Rejoins words split across lines: {@code "distri-\nbuted"} becomes
+ * {@code "distributed"}. A hyphen only counts as a line-break hyphen when a
+ * letter precedes it and the next line continues in lower case, so list
+ * dashes, ranges and a following capitalised word are left alone.
+ */
+public class DehyphenationFilter implements CharFilter {
+
+    private enum State { TEXT, HYPHEN, LINE_BREAK }
+
+    private final StringBuilder pending = new StringBuilder();
+    private State state = State.TEXT;
+    private boolean afterLetter;
+
+    @Override
+    public void put(char c, Sink next) {
+        switch (state) {
+            case TEXT -> {
+                if (c == '-' && afterLetter) {
+                    pending.append(c);
+                    state = State.HYPHEN;
+                    return;
+                }
+                next.put(c);
+                afterLetter = Character.isLetter(c);
+            }
+            case HYPHEN -> {
+                if (c == ' ' || c == '\t' || c == '\n') {
+                    pending.append(c);
+                    if (c == '\n') state = State.LINE_BREAK;
+                    return;
+                }
+                flushThen(c, next);
+            }
+            case LINE_BREAK -> {
+                if (c == ' ' || c == '\t') {
+                    pending.append(c);
+                    return;
+                }
+                if (Character.isLowerCase(c)) {
+                    pending.setLength(0);
+                    state = State.TEXT;
+                    next.put(c);
+                    afterLetter = true;
+                    return;
+                }
+                flushThen(c, next);
+            }
+        }
+    }
+
+    @Override
+    public void end(Sink next) {
+        flush(next);
+    }
+
+    private void flushThen(char c, Sink next) {
+        flush(next);
+        put(c, next);
+    }
+
+    private void flush(Sink next) {
+        for (int i = 0; i < pending.length(); i++) {
+            next.put(pending.charAt(i));
+        }
+        pending.setLength(0);
+        state = State.TEXT;
+        afterLetter = false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.symphony.docweave.preprocessor;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Removes running headers and footers: lines at the top or bottom of a page
+ * that recur on many pages. Lines are compared with digits masked, so
+ * "Page 3 of 40" and bare page numbers match across pages. Only the first
+ * and last {@link #EDGE_LINES} non-blank lines of each page are candidates,
+ * which keeps repeated phrases in the body safe.
+ */
+public class RepeatedLineRemover {
+
+    static final int EDGE_LINES = 2;
+
+    private final int minPages;
+    private final double minPageRatio;
+
+    /**
+     * @param minPages     a line must recur on at least this many pages, and
+     *                     shorter texts are returned unchanged
+     * @param minPageRatio ... and on at least this fraction of all pages
+     */
+    public RepeatedLineRemover(int minPages, double minPageRatio) {
+        this.minPages = minPages;
+        this.minPageRatio = minPageRatio;
+    }
+
+    public String strip(String text) {
+        if (text.indexOf(TextPreprocessor.PAGE_BREAK) < 0) return text;
+        String[] pages = text.split(String.valueOf(TextPreprocessor.PAGE_BREAK), -1);
+        if (pages.length < minPages) return text;
+
+        List<String[]> pageLines = new ArrayList<>(pages.length);
+        Map<String, Integer> pagesWithLine = new HashMap<>();
+        for (String page : pages) {
+            String[] lines = page.split("\r?\n", -1);
+            pageLines.add(lines);
+            Set<String> seen = new HashSet<>();
+            for (int i : edgeLines(lines)) {
+                String key = key(lines[i]);
+                if (seen.add(key)) pagesWithLine.merge(key, 1, Integer::sum);
+            }
+        }
+
+        int threshold = Math.max(minPages, (int) Math.ceil(minPageRatio * pages.length));
+        StringBuilder out = new StringBuilder(text.length());
+        for (int p = 0; p < pageLines.size(); p++) {
+            if (p > 0) out.append(TextPreprocessor.PAGE_BREAK);
+            String[] lines = pageLines.get(p);
+            Set<Integer> drop = new HashSet<>();
+            for (int i : edgeLines(lines)) {
+                if (pagesWithLine.get(key(lines[i])) >= threshold) drop.add(i);
+            }
+            for (int i = 0; i < lines.length; i++) {
+                if (drop.contains(i)) continue;
+                out.append(lines[i]);
+                if (i < lines.length - 1) out.append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    /** Indexes of the first and last {@link #EDGE_LINES} non-blank lines. */
+    private static Set<Integer> edgeLines(String[] lines) {
+        Set<Integer> edges = new HashSet<>();
+        for (int i = 0, found = 0; i < lines.length && found < EDGE_LINES; i++) {
+            if (!lines[i].isBlank()) {
+                edges.add(i);
+                found++;
+            }
+        }
+        for (int i = lines.length - 1, found = 0; i >= 0 && found < EDGE_LINES; i--) {
+            if (!lines[i].isBlank()) {
+                edges.add(i);
+                found++;
+            }
+        }
+        return edges;
+    }
+
+    private static String key(String line) {
+        StringBuilder key = new StringBuilder(line.length());
+        boolean space = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = !key.isEmpty();
+            } else {
+                if (space) key.append(' ');
+                space = false;
+                if (Character.isDigit(c)) {
+                    if (key.isEmpty() || key.charAt(key.length() - 1) != '#') key.append('#');
+                } else {
+                    key.append(Character.toLowerCase(c));
+                }
+            }
+        }
+        return key.toString();
+    }
+}
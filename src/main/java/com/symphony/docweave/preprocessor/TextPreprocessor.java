@@ -1,4 +1,13 @@
 package com.symphony.docweave.preprocessor;
 
-public class TextPreprocessor {
+/**
+ * Cleans extracted text before it is chunked, so layout artefacts of the
+ * source format are not embedded and stored with every chunk.
+ */
+public interface TextPreprocessor {
+
+    /** Page separator extractors put between pages, for formats that have them. */
+    char PAGE_BREAK = '\f';
+
+    String preprocess(String text);
 }
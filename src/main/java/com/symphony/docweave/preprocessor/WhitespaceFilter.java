@@ -0,0 +1,39 @@
+package com.symphony.docweave.preprocessor;
+
+/**
+ * Collapses whitespace: runs of spaces and tabs become one space, trailing
+ * spaces on a line are dropped, and more than one blank line in a row
+ * becomes a single paragraph break. Leading and trailing whitespace of the
+ * whole text is removed.
+ */
+public class WhitespaceFilter implements CharFilter {
+
+    private boolean started;
+    private boolean pendingSpace;
+    private int pendingNewlines;
+
+    @Override
+    public void put(char c, Sink next) {
+        if (c == '\n') {
+            pendingNewlines++;
+            pendingSpace = false;
+            return;
+        }
+        if (c == ' ' || c == '\t') {
+            if (pendingNewlines == 0) pendingSpace = true;
+            return;
+        }
+        if (started) {
+            if (pendingNewlines > 0) {
+                next.put('\n');
+                if (pendingNewlines > 1) next.put('\n');
+            } else if (pendingSpace) {
+                next.put(' ');
+            }
+        }
+        started = true;
+        pendingSpace = false;
+        pendingNewlines = 0;
+        next.put(c);
+    }
+}
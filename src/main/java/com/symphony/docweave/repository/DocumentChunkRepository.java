@@ -1,46 +1,274 @@
 package com.symphony.docweave.repository;
 
 import com.symphony.docweave.domain.DocumentChunkEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Bulk index scans and search lookups are read-only so that, with
+ * {@code datasource.replicas.enabled}, they are served by a read replica.
+ * {@link #findEmbeddedVectorsByIds} stays on the primary: it follows a fresh
+ * embedding write and must see it.
+ *
+ * Chunks of tombstoned documents (see {@link DocumentRepository}) are
+ * excluded from every search, index-loading and embedding query here; they
+ * are only reachable by {@link #deleteChunkBatch} until purged.
+ */
 @Repository
-public interface DocumentChunkRepository extends JpaRepository<DocumentChunkEntity, UUID> {
+public interface DocumentChunkRepository extends JpaRepository<DocumentChunkEntity, UUID>, DocumentChunkSearchRepository {
 
     List<DocumentChunkEntity> findByDocumentIdOrderByChunkIndex(UUID documentId);
 
+    /**
+     * Keyset-paged listing of a document's chunks without the embedding.
+     * Pass {@code after = -1} for the first page.
+     *
+     * Column order: [0] id, [1] chunk_index, [2] chunk_text
+     */
+    @Query("""
+        SELECT c.id, c.chunkIndex, c.content FROM DocumentChunkEntity c
+        WHERE c.document.id = :documentId AND c.chunkIndex > :after
+        ORDER BY c.chunkIndex
+        """)
+    List<Object[]> findChunkPage(@Param("documentId") UUID documentId, @Param("after") int after, Pageable page);
+
+    /**
+     * All of a document's chunks, same columns as {@link #findChunkPage},
+     * read through a server-side cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT c.id, c.chunkIndex, c.content FROM DocumentChunkEntity c
+        WHERE c.document.id = :documentId
+        ORDER BY c.chunkIndex
+        """)
+    Stream<Object[]> streamChunks(@Param("documentId") UUID documentId);
+
+    /**
+     * Deletes up to {@code limit} chunks of a document in one short
+     * transaction, so purging a large document never holds many row locks
+     * at once. Returns the number deleted; fewer than {@code limit} means done.
+     */
     @Modifying
     @Transactional
-    void deleteByDocumentId(UUID documentId);
+    @Query(value = """
+        DELETE FROM document_chunks
+        WHERE id IN (
+            SELECT id FROM document_chunks
+            WHERE document_id = :documentId
+            LIMIT :limit
+        )
+        """, nativeQuery = true)
+    int deleteChunkBatch(@Param("documentId") UUID documentId, @Param("limit") int limit);
+
+    /**
+     * Per-document chunk totals for a page of documents, in one grouped scan.
+     * Documents without chunks have no row.
+     *
+     * Column order: [0] document_id, [1] chunk count, [2] embedded count, [3] total chunk_text length
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT document_id, COUNT(*), COUNT(embedding), COALESCE(SUM(LENGTH(chunk_text)), 0)
+        FROM document_chunks
+        WHERE document_id IN (:documentIds)
+        GROUP BY document_id
+        """, nativeQuery = true)
+    List<Object[]> summarizeByDocumentIds(@Param("documentIds") Collection<UUID> documentIds);
+
+    @Query("SELECT COUNT(c) FROM DocumentChunkEntity c WHERE c.embedding IS NULL AND c.document.deletedAt IS NULL")
+    long countWithoutEmbedding();
+
+    // -------------------------------------------------------------------------
+    // Embedding leases
+    // -------------------------------------------------------------------------
+
+    /**
+     * Leases up to {@code limit} un-embedded chunks to {@code owner} for
+     * {@code leaseSeconds}. Rows another node is claiming at the same moment
+     * are skipped rather than waited for, and rows with a live lease are not
+     * eligible, so concurrent backfills split the work between them. Expiry
+     * uses the database clock, so node clock skew does not matter.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_text, [3] duplicate_of
+     */
+    @Transactional
+    default List<Object[]> claimPendingChunks(String owner, int leaseSeconds, int limit) {
+        return lease(lockPendingChunks(limit), owner, leaseSeconds);
+    }
+
+    /** Same as {@link #claimPendingChunks}, scoped to one document. */
+    @Transactional
+    default List<Object[]> claimPendingChunksOfDocument(UUID documentId, String owner, int leaseSeconds, int limit) {
+        return lease(lockPendingChunksOfDocument(documentId, limit), owner, leaseSeconds);
+    }
+
+    private List<Object[]> lease(List<Object[]> rows, String owner, int leaseSeconds) {
+        if (!rows.isEmpty()) {
+            setLease(rows.stream().map(row -> UUID.fromString(row[0].toString())).toList(), owner, leaseSeconds);
+        }
+        return rows;
+    }
+
+    /** Row locks taken here are held until the claiming transaction commits the lease. */
+    @Query(value = """
+        SELECT id, document_id, chunk_text, duplicate_of
+        FROM document_chunks
+        WHERE embedding IS NULL
+          AND (lease_expires_at IS NULL OR lease_expires_at < now())
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Object[]> lockPendingChunks(@Param("limit") int limit);
+
+    @Query(value = """
+        SELECT id, document_id, chunk_text, duplicate_of
+        FROM document_chunks
+        WHERE document_id = :documentId
+          AND embedding IS NULL
+          AND (lease_expires_at IS NULL OR lease_expires_at < now())
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY chunk_index
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<Object[]> lockPendingChunksOfDocument(@Param("documentId") UUID documentId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+        UPDATE document_chunks
+        SET lease_owner = :owner, lease_expires_at = now() + :leaseSeconds * INTERVAL '1 second'
+        WHERE id IN (:ids)
+        """, nativeQuery = true)
+    int setLease(@Param("ids") Collection<UUID> ids, @Param("owner") String owner, @Param("leaseSeconds") int leaseSeconds);
+
+    /**
+     * Keyset-paged scan of embedded chunks for building the in-memory index.
+     * The vector is selected as text and parsed by
+     * {@link com.symphony.docweave.util.EmbeddingUtils#fromPgVectorLiteral}.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_index, [3] embedding text
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT id, document_id, chunk_index, CAST(embedding AS text)
+        FROM document_chunks
+        WHERE embedding IS NOT NULL AND id > :after
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findEmbeddedVectorsAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Same columns as {@link #findEmbeddedVectorsAfter} for an explicit id set.
+     */
+    @Query(value = """
+        SELECT id, document_id, chunk_index, CAST(embedding AS text)
+        FROM document_chunks
+        WHERE embedding IS NOT NULL AND id IN (:ids)
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        """, nativeQuery = true)
+    List<Object[]> findEmbeddedVectorsByIds(@Param("ids") Collection<UUID> ids);
+
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT id
+        FROM document_chunks
+        WHERE embedding IS NOT NULL AND id > :after
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<UUID> findEmbeddedChunkIdsAfter(@Param("after") UUID after, @Param("limit") int limit);
 
     /**
-     * Fetches only chunks without an embedding.
-     * Uses JPQL (not findAll) to avoid Hibernate trying to hydrate the
-     * pgvector column for every row, which causes PSQLException.
+     * Chunks embedded after ({@code at}, {@code after}), keyset-paged on
+     * ({@code embedded_at}, id), for catching the in-memory index up with
+     * embeddings written on other nodes. {@code embedded_at} is stamped by
+     * the database (see V11), so node clocks do not matter.
+     *
+     * Column order: [0] id, [1] embedded_at
      */
-    @Query("SELECT c FROM DocumentChunkEntity c WHERE c.embedding IS NULL")
-    List<DocumentChunkEntity> findAllWithoutEmbedding();
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT id, embedded_at
+        FROM document_chunks
+        WHERE embedded_at IS NOT NULL AND (embedded_at, id) > (:at, :after)
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY embedded_at, id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findEmbeddedSince(@Param("at") Instant at, @Param("after") UUID after, @Param("limit") int limit);
+
+    /** The latest {@code embedded_at}, or null when no chunk has one yet. */
+    @Transactional(readOnly = true)
+    @Query(value = "SELECT MAX(embedded_at) FROM document_chunks", nativeQuery = true)
+    Object findLatestEmbeddedAt();
 
     /**
-     * Same as above but scoped to a single document.
+     * Keyset-paged scan of every chunk's text for building the lexical index.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_index, [3] chunk_text
      */
-    @Query("SELECT c FROM DocumentChunkEntity c WHERE c.document.id = :documentId AND c.embedding IS NULL ORDER BY c.chunkIndex")
-    List<DocumentChunkEntity> findByDocumentIdWithoutEmbedding(@Param("documentId") UUID documentId);
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT id, document_id, chunk_index, chunk_text
+        FROM document_chunks
+        WHERE id > :after
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findChunkTextAfter(@Param("after") UUID after, @Param("limit") int limit);
 
+    /**
+     * Keyset-paged scan of every chunk's text and twin for building the
+     * near-duplicate index.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_text, [3] duplicate_of
+     */
+    @Transactional(readOnly = true)
+    @Query(value = """
+        SELECT id, document_id, chunk_text, duplicate_of
+        FROM document_chunks
+        WHERE id > :after
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+        ORDER BY id
+        LIMIT :limit
+        """, nativeQuery = true)
+    List<Object[]> findChunkTextAndTwinAfter(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Fetches only what a search result needs for chunks already ranked by
+     * the in-memory index — no vector, no distance computation.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_index, [3] chunk_text
+     */
+    @Transactional(readOnly = true)
     @Query(value = """
-        SELECT id, document_id, chunk_index, chunk_text, embedding,
-               embedding <=> CAST(:query AS vector) AS score
+        SELECT id, document_id, chunk_index, chunk_text
         FROM document_chunks
-        WHERE embedding IS NOT NULL
-        ORDER BY score
-        LIMIT :k
+        WHERE id IN (:ids)
+          AND document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
         """, nativeQuery = true)
-    List<Object[]> findTopKSimilar(@Param("query") String query, @Param("k") int k);
+    List<Object[]> findChunkTextByIds(@Param("ids") Collection<UUID> ids);
 }
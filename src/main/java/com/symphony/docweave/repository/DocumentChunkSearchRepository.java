@@ -0,0 +1,48 @@
+package com.symphony.docweave.repository;
+
+import com.symphony.docweave.domain.SearchFilter;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Vector queries whose SQL depends on which {@link SearchFilter} fields are
+ * set, or on the embedding column type ({@code embedding.storage.mode}), so
+ * they are built at runtime instead of declared with {@code @Query}.
+ * Mixed into {@link DocumentChunkRepository}.
+ */
+public interface DocumentChunkSearchRepository {
+
+    /**
+     * Top-k chunks by cosine distance across the corpus.
+     *
+     * Column order: [0] id, [1] document_id, [2] chunk_index, [3] chunk_text,
+     * [4] always null, [5] cosine distance
+     */
+    List<Object[]> findTopKSimilar(String queryVector, int k);
+
+    /**
+     * Top-k chunks by cosine distance among chunks of documents matching
+     * {@code filter}. Rows have the same layout as {@link #findTopKSimilar}.
+     */
+    List<Object[]> findTopKSimilarFiltered(String queryVector, int k, SearchFilter filter);
+
+    /**
+     * Two-tier top-k: the {@code shortlistSize} nearest chunks by
+     * {@code embedding_short} are fetched through its HNSW index, then
+     * reranked by full-vector cosine distance. Rows have the same layout as
+     * {@link #findTopKSimilarFiltered}.
+     */
+    List<Object[]> findTopKRescored(String queryVector, String shortQueryVector, int shortlistSize, int k);
+
+    /**
+     * {@link #findTopKSimilarFiltered} with the index scan done two-tier as in
+     * {@link #findTopKRescored}. Selective filters are still ranked exactly.
+     */
+    List<Object[]> findTopKRescoredFiltered(String queryVector, String shortQueryVector, int shortlistSize, int k,
+                                            SearchFilter filter);
+
+    /** Ids of documents matching {@code filter}. */
+    Set<UUID> findDocumentIdsMatching(SearchFilter filter);
+}
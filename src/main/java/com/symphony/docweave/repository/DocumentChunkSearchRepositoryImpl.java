@@ -0,0 +1,304 @@
+package com.symphony.docweave.repository;
+
+import com.symphony.docweave.config.EmbeddingStorageProperties;
+import com.symphony.docweave.domain.EmbeddingStorage;
+import com.symphony.docweave.domain.SearchFilter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Filtered similarity search that pushes the filter into Postgres.
+ *
+ * The number of matching chunks decides the plan:
+ * <ul>
+ *   <li>Selective filters (at most {@code exact-threshold} chunks) materialise
+ *       the matching rows first and rank them exactly — no ANN index, so the
+ *       result always has k rows when k exist, and cost scales with the
+ *       filter, not the corpus. Every candidate's full vector is read, so
+ *       the threshold stays in the low thousands.</li>
+ *   <li>Broad filters use the IVFFlat index with the filter applied during
+ *       the scan. Because IVFFlat only visits {@code ivfflat.probes} lists,
+ *       a filter can leave fewer than k rows; the query is then retried with
+ *       more probes until k rows come back or {@code max-probes} is reached.</li>
+ * </ul>
+ * Two-tier searches replace the broad-filter plan with a shortlist from the
+ * {@code embedding_short} HNSW index, reranked by the full vector; if the
+ * filter leaves fewer than k rows in the shortlist, the IVFFlat plan runs.
+ * Unfiltered two-tier searches go through the same shortlist query.
+ *
+ * With {@code halfvec} storage the stored vectors are unit length, so the
+ * index is ordered by inner product ({@code <#>}) and the reported score is
+ * {@code 1 - inner product}, the same cosine distance as with {@code vector}.
+ */
+public class DocumentChunkSearchRepositoryImpl implements DocumentChunkSearchRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentChunkSearchRepositoryImpl.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private EmbeddingStorageProperties storage;
+
+    @Value("${embedding.search.filter.exact-threshold:2000}")
+    private int exactThreshold;
+
+    @Value("${embedding.search.filter.base-probes:10}")
+    private int baseProbes;
+
+    @Value("${embedding.search.filter.max-probes:100}")
+    private int maxProbes;
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> findTopKSimilar(String queryVector, int k) {
+        Query query = entityManager.createNativeQuery("""
+                SELECT c.id, c.document_id, c.chunk_index, c.chunk_text, NULL,
+                       %s AS score
+                FROM document_chunks c
+                WHERE c.embedding IS NOT NULL
+                  AND c.document_id NOT IN (SELECT id FROM documents WHERE deleted_at IS NOT NULL)
+                ORDER BY %s
+                LIMIT :k
+                """.formatted(cosineDistance("c.embedding"), indexDistance("c.embedding")));
+        query.setParameter("query", queryVector);
+        query.setParameter("k", k);
+        return query.getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> findTopKSimilarFiltered(String queryVector, int k, SearchFilter filter) {
+        return findFiltered(queryVector, null, 0, k, filter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> findTopKRescored(String queryVector, String shortQueryVector, int shortlistSize, int k) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("query", queryVector);
+        params.put("k", k);
+        return shortlistScan("c.embedding IS NOT NULL AND d.deleted_at IS NULL", params, shortQueryVector,
+                shortlistSize);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Object[]> findTopKRescoredFiltered(String queryVector, String shortQueryVector, int shortlistSize,
+                                                   int k, SearchFilter filter) {
+        return findFiltered(queryVector, shortQueryVector, shortlistSize, k, filter);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Set<UUID> findDocumentIdsMatching(SearchFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        String where = documentPredicates(filter, params);
+        Query query = entityManager.createNativeQuery("SELECT d.id FROM documents d WHERE " + where);
+        params.forEach(query::setParameter);
+
+        Set<UUID> ids = new HashSet<>();
+        for (Object id : query.getResultList()) {
+            ids.add(UUID.fromString(id.toString()));
+        }
+        return ids;
+    }
+
+    // -------------------------------------------------------------------------
+    // Plans
+    // -------------------------------------------------------------------------
+
+    /** {@code shortQueryVector} null means a single-tier search. */
+    private List<Object[]> findFiltered(String queryVector, String shortQueryVector, int shortlistSize, int k,
+                                        SearchFilter filter) {
+        Map<String, Object> params = new HashMap<>();
+        String where = whereClause(filter, params);
+
+        long candidates = countCandidates(where, params);
+        if (candidates == 0) return List.of();
+
+        params.put("query", queryVector);
+        params.put("k", k);
+
+        if (candidates <= exactThreshold) {
+            log.debug("Filtered search: {} candidate chunk(s), exact scan", candidates);
+            return exactScan(where, params);
+        }
+        if (shortQueryVector != null) {
+            List<Object[]> rows = shortlistScan(where, params, shortQueryVector, shortlistSize);
+            if (rows.size() >= k) return rows;
+            log.debug("Filtered search: shortlist of {} kept {} row(s); falling back to an index scan",
+                    shortlistSize, rows.size());
+        }
+        return iterativeIndexScan(where, params, k);
+    }
+
+    /** Bounded count: stops as soon as the exact-scan threshold is exceeded. */
+    private long countCandidates(String where, Map<String, Object> params) {
+        Query query = entityManager.createNativeQuery("""
+                SELECT count(*) FROM (
+                    SELECT 1
+                    FROM document_chunks c JOIN documents d ON d.id = c.document_id
+                    WHERE %s
+                    LIMIT %d
+                ) t
+                """.formatted(where, exactThreshold + 1));
+        params.forEach(query::setParameter);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> exactScan(String where, Map<String, Object> params) {
+        Query query = entityManager.createNativeQuery("""
+                WITH candidates AS MATERIALIZED (
+                    SELECT c.id, c.document_id, c.chunk_index, c.chunk_text, c.embedding
+                    FROM document_chunks c JOIN documents d ON d.id = c.document_id
+                    WHERE %s
+                )
+                SELECT id, document_id, chunk_index, chunk_text, NULL,
+                       %s AS score
+                FROM candidates
+                ORDER BY score
+                LIMIT :k
+                """.formatted(where, cosineDistance("embedding")));
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> iterativeIndexScan(String where, Map<String, Object> params, int k) {
+        String sql = """
+                SELECT c.id, c.document_id, c.chunk_index, c.chunk_text, NULL,
+                       %s AS score
+                FROM document_chunks c JOIN documents d ON d.id = c.document_id
+                WHERE %s
+                ORDER BY %s
+                LIMIT :k
+                """.formatted(cosineDistance("c.embedding"), where, indexDistance("c.embedding"));
+
+        List<Object[]> rows = List.of();
+        for (int probes = baseProbes; ; probes = Math.min(probes * 4, maxProbes)) {
+            // SET cannot be parameterised; probes is an int we computed ourselves.
+            entityManager.createNativeQuery("SET LOCAL ivfflat.probes = " + probes).executeUpdate();
+            Query query = entityManager.createNativeQuery(sql);
+            params.forEach(query::setParameter);
+            rows = query.getResultList();
+
+            if (rows.size() >= k || probes >= maxProbes) {
+                log.debug("Filtered search: index scan with {} probe(s) returned {} row(s)", probes, rows.size());
+                return rows;
+            }
+        }
+    }
+
+    /**
+     * Shortlists by the short vector's HNSW index, then reranks the shortlist
+     * by the full vector. HNSW returns at most {@code hnsw.ef_search} rows,
+     * so it is raised to the shortlist size (pgvector caps it at 1000).
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> shortlistScan(String where, Map<String, Object> params, String shortQueryVector,
+                                         int shortlistSize) {
+        int efSearch = Math.max(40, Math.min(shortlistSize, 1000));
+        // SET cannot be parameterised; efSearch is an int we computed ourselves.
+        entityManager.createNativeQuery("SET LOCAL hnsw.ef_search = " + efSearch).executeUpdate();
+
+        Query query = entityManager.createNativeQuery("""
+                WITH shortlist AS MATERIALIZED (
+                    SELECT c.id, c.document_id, c.chunk_index, c.chunk_text, c.embedding
+                    FROM document_chunks c JOIN documents d ON d.id = c.document_id
+                    WHERE %s
+                    ORDER BY c.embedding_short <=> CAST(:shortQuery AS vector)
+                    LIMIT :shortlist
+                )
+                SELECT id, document_id, chunk_index, chunk_text, NULL,
+                       %s AS score
+                FROM shortlist
+                ORDER BY score
+                LIMIT :k
+                """.formatted(where, cosineDistance("embedding")));
+        params.forEach(query::setParameter);
+        query.setParameter("shortQuery", shortQueryVector);
+        query.setParameter("shortlist", shortlistSize);
+        return query.getResultList();
+    }
+
+    // -------------------------------------------------------------------------
+    // SQL building
+    // -------------------------------------------------------------------------
+
+    /**
+     * Distance from {@code column} to {@code :query} in the form the ANN index
+     * is built for; {@code ORDER BY} must use exactly this expression for the
+     * index to be used.
+     */
+    private String indexDistance(String column) {
+        return storage.getMode() == EmbeddingStorage.HALFVEC
+                ? column + " <#> l2_normalize(CAST(:query AS halfvec))"
+                : column + " <=> CAST(:query AS vector)";
+    }
+
+    /** Cosine distance from {@code column} to {@code :query}; {@code <#>} is the negated inner product. */
+    private String cosineDistance(String column) {
+        return storage.getMode() == EmbeddingStorage.HALFVEC
+                ? "1 + (" + indexDistance(column) + ")"
+                : indexDistance(column);
+    }
+
+    private static String whereClause(SearchFilter filter, Map<String, Object> params) {
+        String where = "c.embedding IS NOT NULL AND " + documentPredicates(filter, params);
+        if (params.containsKey("documentIds")) {
+            // document_chunks is hash-partitioned on document_id, and Postgres only
+            // considers partition pruning for a predicate on that column itself,
+            // not one reached through the join. Whether a given plan prunes is
+            // not covered by tests; check with EXPLAIN.
+            where += " AND c.document_id IN (:documentIds)";
+        }
+        return where;
+    }
+
+    /**
+     * Predicates on the {@code documents d} alias; values are always bound,
+     * never inlined. Tombstoned documents never match.
+     */
+    private static String documentPredicates(SearchFilter filter, Map<String, Object> params) {
+        StringBuilder sql = new StringBuilder("d.deleted_at IS NULL");
+        if (filter.getDocumentIds() != null && !filter.getDocumentIds().isEmpty()) {
+            sql.append(" AND d.id IN (:documentIds)");
+            params.put("documentIds", filter.getDocumentIds());
+        }
+        if (filter.getSources() != null && !filter.getSources().isEmpty()) {
+            sql.append(" AND d.source IN (:sources)");
+            params.put("sources", filter.getSources());
+        }
+        if (filter.getCreatedAfter() != null) {
+            sql.append(" AND d.created_at >= :createdAfter");
+            params.put("createdAfter", Timestamp.from(filter.getCreatedAfter()));
+        }
+        if (filter.getCreatedBefore() != null) {
+            sql.append(" AND d.created_at < :createdBefore");
+            params.put("createdBefore", Timestamp.from(filter.getCreatedBefore()));
+        }
+        String like = filter.filenameLikePattern();
+        if (like != null) {
+            sql.append(" AND lower(d.original_filename) LIKE :filename");
+            params.put("filename", like);
+        }
+        return sql.toString();
+    }
+}
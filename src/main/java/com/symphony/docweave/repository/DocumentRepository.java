@@ -1,16 +1,110 @@
 package com.symphony.docweave.repository;
 
 import com.symphony.docweave.domain.DocumentEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Documents whose {@code deletedAt} is set are tombstoned: they are waiting
+ * for {@link com.symphony.docweave.service.DocumentPurger} and are hidden
+ * from every lookup and listing below.
+ */
 @Repository
 public interface DocumentRepository extends JpaRepository<DocumentEntity, UUID> {
 
-    Optional<DocumentEntity> findByChecksum(String checksum);
+    /** The live document with this checksum; a tombstoned duplicate does not block re-ingesting. */
+    @Query("SELECT d FROM DocumentEntity d WHERE d.checksum = :checksum AND d.deletedAt IS NULL")
+    Optional<DocumentEntity> findByChecksum(@Param("checksum") String checksum);
+
+    @Query("SELECT COUNT(d) > 0 FROM DocumentEntity d WHERE d.id = :id AND d.deletedAt IS NULL")
+    boolean existsLiveById(@Param("id") UUID id);
 
     Optional<DocumentEntity> findByOriginalFilename(String originalFilename);
+
+    /**
+     * First page of the listing, oldest first. Ties on {@code createdAt}
+     * are broken by id so the order is total and the keyset is unique.
+     */
+    @Query("SELECT d FROM DocumentEntity d WHERE d.deletedAt IS NULL ORDER BY d.createdAt, d.id")
+    List<DocumentEntity> findFirstPage(Pageable page);
+
+    /**
+     * The page after the document with key ({@code createdAt}, {@code id}).
+     */
+    @Query("""
+        SELECT d FROM DocumentEntity d
+        WHERE d.deletedAt IS NULL
+          AND (d.createdAt > :createdAt OR (d.createdAt = :createdAt AND d.id > :id))
+        ORDER BY d.createdAt, d.id
+        """)
+    List<DocumentEntity> findPageAfter(@Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable page);
+
+    /**
+     * Every document in listing order, read through a server-side cursor.
+     * Rows are scalars rather than entities so the persistence context does
+     * not grow with the stream. Must be consumed inside a transaction.
+     *
+     * Column order: [0] id, [1] source, [2] original_filename, [3] checksum, [4] created_at
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+        SELECT d.id, d.source, d.originalFilename, d.checksum, d.createdAt FROM DocumentEntity d
+        WHERE d.deletedAt IS NULL
+        ORDER BY d.createdAt, d.id
+        """)
+    Stream<Object[]> streamAllInListingOrder();
+
+    // -------------------------------------------------------------------------
+    // Deletion
+    // -------------------------------------------------------------------------
+
+    /**
+     * Deletes the document in one statement; its chunks go with it through
+     * {@code ON DELETE CASCADE}, without being loaded.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentEntity d WHERE d.id = :id")
+    int deleteDocument(@Param("id") UUID id);
+
+    /** Hides live documents from search and listings until they are purged. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DocumentEntity d SET d.deletedAt = :deletedAt WHERE d.id IN (:ids) AND d.deletedAt IS NULL")
+    int tombstone(@Param("ids") Collection<UUID> ids, @Param("deletedAt") Instant deletedAt);
+
+    /**
+     * Which of {@code ids} are live documents. Stays on the primary: a
+     * lagging replica would report a freshly ingested document as deleted.
+     */
+    @Query("SELECT d.id FROM DocumentEntity d WHERE d.id IN (:ids) AND d.deletedAt IS NULL")
+    List<UUID> findLiveIds(@Param("ids") Collection<UUID> ids);
+
+    /** Tombstoned documents, oldest deletion first. */
+    @Query("SELECT d.id FROM DocumentEntity d WHERE d.deletedAt IS NOT NULL ORDER BY d.deletedAt")
+    List<UUID> findTombstonedIds(Pageable page);
+
+    /** Removes a tombstoned document row once its chunks have been purged. */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DocumentEntity d WHERE d.id = :id AND d.deletedAt IS NOT NULL")
+    int deleteTombstoned(@Param("id") UUID id);
 }
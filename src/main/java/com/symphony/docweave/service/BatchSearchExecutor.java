@@ -0,0 +1,69 @@
+package com.symphony.docweave.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread pool shared by all batch searches for their per-query vector
+ * lookups: {@code embedding.search.batch.parallelism} threads however many
+ * batches run at once. Up to {@code embedding.search.batch.queue-capacity}
+ * lookups wait for a thread; beyond that the request thread runs the lookup
+ * itself, slowing callers down rather than failing them.
+ */
+@Component
+public class BatchSearchExecutor {
+
+    private final ThreadPoolExecutor pool;
+
+    public BatchSearchExecutor(@Value("${embedding.search.batch.parallelism:4}") int parallelism,
+                               @Value("${embedding.search.batch.queue-capacity:1000}") int queueCapacity) {
+        int threads = Math.max(1, parallelism);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                r -> {
+                    Thread t = new Thread(r, "batch-search-" + counter.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Runs {@code tasks} and returns their results in task order. A failing
+     * task fails the whole call, with its own exception when unchecked.
+     */
+    public <T> List<T> invokeAll(List<Callable<T>> tasks) {
+        try {
+            List<Future<T>> futures = pool.invokeAll(tasks);
+            List<T> results = new ArrayList<>(futures.size());
+            for (Future<T> f : futures) {
+                results.add(f.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during batch search", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException("Batch search lookup failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,160 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.SearchResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Turns ranked search hits into the context passages sent to the LLM.
+ *
+ * Hits from the same document with consecutive chunk indexes are merged
+ * into one passage, and the words a sliding-window chunk repeats from its
+ * predecessor are dropped, so overlapping windows are only paid for once.
+ * Passages are then added best-first until the token budget is used up.
+ */
+@Component
+public class ContextPacker {
+
+    /** Rough characters-per-token ratio of OpenAI tokenizers for English text. */
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final int tokenBudget;
+
+    public ContextPacker(@Value("${rag.context.token-budget:3000}") int tokenBudget) {
+        if (tokenBudget <= 0) {
+            throw new IllegalArgumentException("rag.context.token-budget must be positive");
+        }
+        this.tokenBudget = tokenBudget;
+    }
+
+    /**
+     * A packed prompt context.
+     *
+     * @param passages        merged passage texts, best first
+     * @param chunks          the hits that contributed text, in their original rank order
+     * @param estimatedTokens approximate token count of all passages
+     */
+    public record PackedContext(List<String> passages, List<SearchResult> chunks, int estimatedTokens) {
+    }
+
+    // -------------------------------------------------------------------------
+    // Public API
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param ranked search hits, best first
+     */
+    public PackedContext pack(List<SearchResult> ranked) {
+        List<Passage> passages = mergeAdjacent(ranked);
+
+        List<String> texts = new ArrayList<>();
+        List<SearchResult> used = new ArrayList<>();
+        int remaining = tokenBudget;
+
+        for (Passage passage : passages) {
+            String text = passage.text();
+            int tokens = estimateTokens(text);
+            if (tokens > remaining) {
+                // Never send an empty context: the best passage is cut to fit.
+                if (!texts.isEmpty()) continue;
+                text = truncate(text, remaining);
+                tokens = estimateTokens(text);
+            }
+            texts.add(text);
+            used.addAll(passage.chunks());
+            remaining -= tokens;
+            if (remaining <= 0) break;
+        }
+
+        Map<UUID, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ranked.size(); i++) rank.putIfAbsent(ranked.get(i).getChunkId(), i);
+        used.sort(Comparator.comparingInt(c -> rank.get(c.getChunkId())));
+
+        return new PackedContext(texts, used, tokenBudget - remaining);
+    }
+
+    static int estimateTokens(String text) {
+        return (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    // -------------------------------------------------------------------------
+    // Merging
+    // -------------------------------------------------------------------------
+
+    /**
+     * Groups hits into runs of consecutive chunk indexes per document. Each
+     * run takes the rank of its best hit; runs are returned in that order.
+     */
+    private static List<Passage> mergeAdjacent(List<SearchResult> ranked) {
+        Map<UUID, List<SearchResult>> byDocument = new LinkedHashMap<>();
+        Map<UUID, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ranked.size(); i++) {
+            SearchResult hit = ranked.get(i);
+            if (rank.putIfAbsent(hit.getChunkId(), i) != null) continue;
+            byDocument.computeIfAbsent(hit.getDocumentId(), d -> new ArrayList<>()).add(hit);
+        }
+
+        List<Passage> passages = new ArrayList<>();
+        for (List<SearchResult> hits : byDocument.values()) {
+            hits.sort(Comparator.comparingInt(SearchResult::getChunkIndex));
+
+            List<SearchResult> run = new ArrayList<>();
+            for (SearchResult hit : hits) {
+                if (!run.isEmpty() && hit.getChunkIndex() > run.get(run.size() - 1).getChunkIndex() + 1) {
+                    passages.add(toPassage(run, rank));
+                    run = new ArrayList<>();
+                }
+                run.add(hit);
+            }
+            passages.add(toPassage(run, rank));
+        }
+
+        passages.sort(Comparator.comparingInt(Passage::rank));
+        return passages;
+    }
+
+    private static Passage toPassage(List<SearchResult> run, Map<UUID, Integer> rank) {
+        List<String> words = new ArrayList<>();
+        int best = Integer.MAX_VALUE;
+        for (SearchResult chunk : run) {
+            List<String> next = Arrays.asList(chunk.getContent().strip().split("\\s+"));
+            words.addAll(next.subList(overlap(words, next), next.size()));
+            best = Math.min(best, rank.get(chunk.getChunkId()));
+        }
+        return new Passage(String.join(" ", words), List.copyOf(run), best);
+    }
+
+    /**
+     * Length of the longest suffix of {@code previous} that is also a prefix
+     * of {@code next}, i.e. the words a sliding window repeats.
+     */
+    static int overlap(List<String> previous, List<String> next) {
+        int max = Math.min(previous.size(), next.size());
+        for (int length = max; length > 0; length--) {
+            if (previous.subList(previous.size() - length, previous.size()).equals(next.subList(0, length))) {
+                return length;
+            }
+        }
+        return 0;
+    }
+
+    /** Cuts {@code text} at a word boundary to at most {@code tokens} estimated tokens. */
+    private static String truncate(String text, int tokens) {
+        int maxChars = tokens * CHARS_PER_TOKEN;
+        if (text.length() <= maxChars) return text;
+        int cut = text.lastIndexOf(' ', maxChars);
+        return text.substring(0, cut > 0 ? cut : maxChars);
+    }
+
+    private record Passage(String text, List<SearchResult> chunks, int rank) {
+    }
+}
@@ -1,22 +1,74 @@
 package com.symphony.docweave.service;
 
 import com.symphony.docweave.api.dto.ChunkResponse;
+import com.symphony.docweave.api.dto.CursorPage;
 import com.symphony.docweave.api.dto.DocumentResponse;
 import com.symphony.docweave.api.dto.IngestionResponse;
+import com.symphony.docweave.domain.SearchFilter;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface DocumentIngestionService {
 
     IngestionResponse ingestDocument(MultipartFile file);
 
+    /**
+     * Ingests a file already on local disk whose SHA-256 is known, such as a
+     * completed resumable upload. The file is streamed, never read into memory.
+     */
+    IngestionResponse ingestDocument(Path file, String filename, String contentType, String checksum);
+
     DocumentResponse getDocument(UUID documentId);
 
-    List<DocumentResponse> getAllDocuments();
+    /**
+     * @param cursor       {@code nextCursor} of the previous page, or null for the first
+     * @param limit        maximum documents on the page
+     * @param includeStats also fill in each document's chunk count, embedded
+     *                     count and text length (one extra grouped query)
+     */
+    CursorPage<DocumentResponse> getDocuments(String cursor, int limit, boolean includeStats);
+
+    CursorPage<ChunkResponse> getChunksByDocumentId(UUID documentId, String cursor, int limit);
+
+    /**
+     * Every document in listing order, unpaged; what the listing returns
+     * when the client asks for neither a cursor nor a limit.
+     */
+    List<DocumentResponse> getAllDocuments(boolean includeStats);
 
     List<ChunkResponse> getChunksByDocumentId(UUID documentId);
 
+    /**
+     * Feeds every document to {@code sink} in listing order without loading
+     * them all; the read transaction stays open until the last one.
+     */
+    void streamDocuments(Consumer<DocumentResponse> sink);
+
+    void streamChunks(UUID documentId, Consumer<ChunkResponse> sink);
+
+    /**
+     * Deletes the document and, through the database cascade, its chunks in
+     * one statement.
+     */
     void deleteDocument(UUID documentId);
+
+    /**
+     * Tombstones the document so it disappears from search and listings at
+     * once; its chunks are purged in bounded batches by
+     * {@link DocumentPurger}.
+     */
+    void deleteDocumentAsync(UUID documentId);
+
+    /**
+     * Tombstones every document matching {@code filter}, which must not be
+     * empty, and returns how many there were. Purged like
+     * {@link #deleteDocumentAsync}. Tombstones commit in batches, so a
+     * failure part-way leaves the earlier batches deleted; repeating the
+     * call finishes the job.
+     */
+    int deleteDocuments(SearchFilter filter);
 }
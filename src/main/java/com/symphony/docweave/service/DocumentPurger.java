@@ -0,0 +1,134 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.event.DocumentDeletedEvent;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.repository.DocumentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Physically removes tombstoned documents in the background.
+ *
+ * Chunks are deleted {@code deletion.purge.batch-size} at a time, each batch
+ * in its own short transaction, so a document with tens of thousands of
+ * chunks never holds a long lock or a huge undo set that would stall
+ * concurrent ingestion. The document row goes last. A purge interrupted by
+ * a restart resumes at the next run, since the tombstone is still there.
+ * With sharding, each shard is swept in turn.
+ */
+@Component
+public class DocumentPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentPurger.class);
+
+    /** Tombstoned documents picked up per run. */
+    private static final int DOCUMENTS_PER_RUN = 100;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentChunkRepository chunkRepository;
+    private final Shards shards;
+    private final int batchSize;
+    private final long intervalSeconds;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "document-purger");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public DocumentPurger(DocumentRepository documentRepository,
+                          DocumentChunkRepository chunkRepository,
+                          Shards shards,
+                          @Value("${deletion.purge.batch-size:1000}") int batchSize,
+                          @Value("${deletion.purge.interval-seconds:30}") long intervalSeconds) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("deletion.purge.batch-size must be positive");
+        }
+        this.documentRepository = documentRepository;
+        this.chunkRepository = chunkRepository;
+        this.shards = shards;
+        this.batchSize = batchSize;
+        this.intervalSeconds = intervalSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /** Starts purging a freshly tombstoned document without waiting for the next run. */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        scheduler.execute(this::runSafely);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Purging
+    // -------------------------------------------------------------------------
+
+    /** Purges every tombstoned document; returns how many were removed. */
+    int purgeTombstoned() {
+        int purged = 0;
+        for (int count : shards.each(shard -> purgeShard())) {
+            purged += count;
+        }
+        return purged;
+    }
+
+    private int purgeShard() {
+        int purged = 0;
+        List<UUID> ids;
+        do {
+            ids = documentRepository.findTombstonedIds(PageRequest.of(0, DOCUMENTS_PER_RUN));
+            for (UUID id : ids) {
+                if (Thread.currentThread().isInterrupted()) return purged;
+                purge(id);
+                purged++;
+            }
+        } while (ids.size() == DOCUMENTS_PER_RUN);
+        return purged;
+    }
+
+    void purge(UUID documentId) {
+        long start = System.currentTimeMillis();
+        long chunks = 0;
+        int deleted;
+        do {
+            deleted = chunkRepository.deleteChunkBatch(documentId, batchSize);
+            chunks += deleted;
+        } while (deleted >= batchSize && !Thread.currentThread().isInterrupted());
+
+        if (deleted < batchSize) {
+            documentRepository.deleteTombstoned(documentId);
+            log.info("Purged document {} and {} chunk(s) in {} ms",
+                    documentId, chunks, System.currentTimeMillis() - start);
+        }
+    }
+
+    private void runSafely() {
+        try {
+            purgeTombstoned();
+        } catch (Exception e) {
+            log.warn("Document purge failed; retrying in {}s: {}", intervalSeconds, e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.symphony.docweave.service;
 
-import com.symphony.docweave.domain.DocumentChunkEntity;
+import com.symphony.docweave.config.EmbeddingStorageProperties;
+import com.symphony.docweave.config.TwoTierSearchProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.domain.EmbeddingStorage;
+import com.symphony.docweave.event.ChunkEmbeddedEvent;
 import com.symphony.docweave.repository.DocumentChunkRepository;
 import com.symphony.docweave.util.EmbeddingUtils;
 import com.symphony.docweave.util.OpenAiEmbeddingClient;
@@ -8,17 +12,39 @@ import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Backfills missing chunk embeddings.
+ *
+ * Several instances can backfill at once without paying for the same chunk
+ * twice: each run claims pending chunks in rounds of
+ * {@code batch-size * parallelism}, leasing them to this node for
+ * {@code embedding.backfill.lease-seconds}, and only embeds what it claimed.
+ * Chunks whose batch fails keep their lease until it expires, then become
+ * claimable again by any node, so a failing API is not retried in a tight
+ * loop and a crashed node's claims are not lost.
+ *
+ * Chunks flagged as near-duplicates at ingest copy their twin's vector
+ * instead of being sent to the API, when the twin has been embedded by then.
+ */
 @Service
 @RequiredArgsConstructor
 public class EmbeddingService {
@@ -27,6 +53,10 @@ public class EmbeddingService {
 
     private final OpenAiEmbeddingClient embeddingClient;
     private final DocumentChunkRepository chunkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Shards shards;
+    private final TwoTierSearchProperties twoTier;
+    private final EmbeddingStorageProperties storage;
 
     @Value("${embedding.batch-size:20}")
     private int batchSize;
@@ -34,44 +64,129 @@ public class EmbeddingService {
     @Value("${embedding.parallelism:4}")
     private int parallelism;
 
+    @Value("${embedding.backfill.lease-seconds:300}")
+    private int leaseSeconds;
+
+    @Value("${index.near-duplicates.reuse-embeddings:true}")
+    private boolean reuseTwinEmbeddings;
+
+    /** Identifies this instance's leases, e.g. {@code 4711@knowlex-2/9f3c1a2e}. */
+    private final String leaseOwner = ManagementFactory.getRuntimeMXBean().getName()
+            + "/" + UUID.randomUUID().toString().substring(0, 8);
+
+    private final AtomicInteger pendingBatches = new AtomicInteger();
+
     // -------------------------------------------------------------------------
     // Public API
     // -------------------------------------------------------------------------
 
     public int generateEmbeddingsForAllChunks() {
-        // Use targeted query — avoids loading the pgvector column for all rows via findAll()
-        List<DocumentChunkEntity> pending = chunkRepository.findAllWithoutEmbedding();
-        log.info("Found {} chunk(s) without embeddings", pending.size());
-        return processBatchesInParallel(pending);
+        int total = 0;
+        for (String shard : shards.names()) {
+            total += drain(() -> shards.on(shard,
+                    () -> chunkRepository.claimPendingChunks(leaseOwner, leaseSeconds, claimSize())));
+        }
+        log.info("Backfill finished: {} chunk(s) embedded by {}", total, leaseOwner);
+        return total;
     }
 
     public int generateEmbeddingsForDocument(UUID documentId) {
-        // Use targeted query — avoids loading the pgvector column for all rows
-        List<DocumentChunkEntity> pending = chunkRepository.findByDocumentIdWithoutEmbedding(documentId);
-        log.info("Document {}: {} chunk(s) need embeddings", documentId, pending.size());
-        return processBatchesInParallel(pending);
+        int total = drain(() -> shards.onShardOf(documentId,
+                () -> chunkRepository.claimPendingChunksOfDocument(documentId, leaseOwner, leaseSeconds, claimSize())));
+        log.info("Document {}: {} chunk(s) embedded", documentId, total);
+        return total;
     }
 
     public float[] generateEmbedding(String text) {
         return embeddingClient.embed(List.of(text)).get(0);
     }
 
+    /** Batches submitted but not yet finished, across all running generate calls. */
+    public int pendingBatches() {
+        return pendingBatches.get();
+    }
+
     // -------------------------------------------------------------------------
     // Batch / parallel processing
     // -------------------------------------------------------------------------
 
-    private int processBatchesInParallel(List<DocumentChunkEntity> chunks) {
+    /** One round keeps every worker busy with one batch. */
+    private int claimSize() {
+        return batchSize * parallelism;
+    }
+
+    /** Claims and embeds rounds of chunks until none are left to claim. */
+    private int drain(Supplier<List<Object[]>> claim) {
+        int total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingChunk> claimed = claim.get().stream().map(PendingChunk::fromRow).toList();
+            if (claimed.isEmpty()) break;
+            log.info("Leased {} chunk(s) for embedding", claimed.size());
+            if (reuseTwinEmbeddings) {
+                // Originals first, so a duplicate whose twin was claimed in the same round can copy its vector
+                total += processBatchesInParallel(claimed.stream().filter(c -> c.duplicateOf() == null).toList());
+                total += embedDuplicates(claimed.stream().filter(c -> c.duplicateOf() != null).toList());
+            } else {
+                total += processBatchesInParallel(claimed);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Copies each near-duplicate's twin's vector where the twin has one; the
+     * rest are embedded like any other chunk. Twins may live on any shard.
+     */
+    private int embedDuplicates(List<PendingChunk> duplicates) {
+        if (duplicates.isEmpty()) return 0;
+
+        Set<UUID> twinIds = duplicates.stream().map(PendingChunk::duplicateOf).collect(Collectors.toSet());
+        Map<UUID, float[]> twinVectors = new HashMap<>();
+        try {
+            for (List<Object[]> rows : shards.scatter(shard -> chunkRepository.findEmbeddedVectorsByIds(twinIds))) {
+                for (Object[] row : rows) {
+                    twinVectors.put(UUID.fromString(row[0].toString()),
+                            EmbeddingUtils.fromPgVectorLiteral(row[3].toString()));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not look up twin embeddings; embedding {} duplicate(s) instead: {}",
+                    duplicates.size(), e.getMessage());
+        }
+
+        List<PendingChunk> unmatched = new ArrayList<>();
+        int copied = 0;
+        for (PendingChunk chunk : duplicates) {
+            float[] vector = twinVectors.get(chunk.duplicateOf());
+            if (vector == null) {
+                unmatched.add(chunk);
+            } else if (save(chunk, vector)) {
+                copied++;
+            }
+        }
+        if (copied > 0) log.info("Reused twin embeddings for {} near-duplicate chunk(s)", copied);
+        return copied + processBatchesInParallel(unmatched);
+    }
+
+    private int processBatchesInParallel(List<PendingChunk> chunks) {
         if (chunks.isEmpty()) return 0;
 
-        List<List<DocumentChunkEntity>> batches = EmbeddingUtils.partition(chunks, batchSize);
+        List<List<PendingChunk>> batches = EmbeddingUtils.partition(chunks, batchSize);
         log.info("Processing {} batch(es) of up to {} chunks, parallelism={}",
                 batches.size(), batchSize, parallelism);
 
         ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, batches.size()));
         List<Future<Integer>> futures = new ArrayList<>();
 
-        for (List<DocumentChunkEntity> batch : batches) {
-            futures.add(executor.submit(() -> processBatch(batch)));
+        pendingBatches.addAndGet(batches.size());
+        for (List<PendingChunk> batch : batches) {
+            futures.add(executor.submit(() -> {
+                try {
+                    return processBatch(batch);
+                } finally {
+                    pendingBatches.decrementAndGet();
+                }
+            }));
         }
 
         executor.shutdown();
@@ -89,27 +204,50 @@ public class EmbeddingService {
         return total;
     }
 
-    private int processBatch(List<DocumentChunkEntity> batch) {
-        List<String> texts = batch.stream().map(DocumentChunkEntity::getContent).toList();
+    private int processBatch(List<PendingChunk> batch) {
+        List<String> texts = batch.stream().map(PendingChunk::content).toList();
         List<float[]> embeddings = embeddingClient.embed(texts);
 
         int saved = 0;
         for (int i = 0; i < batch.size(); i++) {
-            try {
-                saveEmbedding(batch.get(i).getId(), embeddings.get(i));
-                saved++;
-            } catch (Exception e) {
-                log.error("Failed to save embedding for chunk {}: {}", batch.get(i).getId(), e.getMessage());
-            }
+            if (save(batch.get(i), embeddings.get(i))) saved++;
         }
         return saved;
     }
 
+    private boolean save(PendingChunk chunk, float[] embedding) {
+        try {
+            shards.onShardOf(chunk.documentId(), () -> {
+                saveEmbedding(chunk.id(), embedding);
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to save embedding for chunk {}: {}", chunk.id(), e.getMessage());
+            return false;
+        }
+    }
+
+    /** With {@code halfvec} storage the vector is normalised first, so inner product equals cosine similarity. */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void saveEmbedding(UUID chunkId, float[] embedding) {
+    public void saveEmbedding(UUID chunkId, float[] vector) {
+        float[] embedding = storage.getMode() == EmbeddingStorage.HALFVEC ? EmbeddingUtils.normalize(vector) : vector;
         chunkRepository.findById(chunkId).ifPresent(chunk -> {
             chunk.setEmbedding(embedding);
+            chunk.setEmbeddingShort(EmbeddingUtils.truncate(embedding, twoTier.getDimensions()));
             chunkRepository.save(chunk);
+            eventPublisher.publishEvent(new ChunkEmbeddedEvent(
+                    chunk.getId(), chunk.getDocument().getId(), chunk.getChunkIndex(), embedding,
+                    chunk.getContent()));
         });
     }
+
+    /** A leased chunk; row layout as returned by the claim queries. */
+    private record PendingChunk(UUID id, UUID documentId, String content, UUID duplicateOf) {
+
+        static PendingChunk fromRow(Object[] row) {
+            return new PendingChunk(UUID.fromString(row[0].toString()), UUID.fromString(row[1].toString()),
+                    (String) row[2], row[3] == null ? null : UUID.fromString(row[3].toString()));
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.symphony.docweave.service;
 import com.symphony.docweave.api.dto.RagRequest;
 import com.symphony.docweave.api.dto.RagResponse;
 import com.symphony.docweave.api.dto.SearchResult;
+import com.symphony.docweave.metrics.PipelineMetrics;
+import com.symphony.docweave.metrics.RequestTimings;
 import com.theokanning.openai.OpenAiService;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatMessage;
@@ -26,6 +28,8 @@ public class RagService {
 
     private final SemanticSearchService searchService;
     private final OpenAiService openAiService;
+    private final ContextPacker contextPacker;
+    private final PipelineMetrics metrics;
 
     @Value("${rag.model:gpt-4o-mini}")
     private String model;
@@ -54,7 +58,8 @@ public class RagService {
      * Full RAG pipeline:
      * 1. Validate the incoming request
      * 2. Embed the query and retrieve the top-K most similar chunks
-     * 3. Build a prompt from those chunks and send it to the LLM
+     * 3. Merge adjacent chunks, pack them into the context token budget and
+     *    send the prompt to the LLM
      * 4. Return the LLM answer together with the source chunks for citation
      *
      * @param request contains the user query and optional topK override
@@ -69,7 +74,7 @@ public class RagService {
         log.info("RAG pipeline | k={} | query=\"{}\"", k, query);
 
         // Step 1: Retrieve relevant chunks via vector similarity
-        List<SearchResult> chunks = searchService.search(query, k);
+        List<SearchResult> chunks = searchService.search(query, k, null, request.getFilter());
 
         if (chunks.isEmpty()) {
             log.warn("No relevant chunks found for query: {}", query);
@@ -78,14 +83,16 @@ public class RagService {
                     List.of());
         }
 
-        // Step 2: Build the context block from retrieved chunks
-        String context = buildContext(chunks);
+        // Step 2: Merge adjacent chunks and pack them into the token budget
+        ContextPacker.PackedContext packed = RequestTimings.time("context", () -> contextPacker.pack(chunks));
+        String context = RequestTimings.time("context", () -> buildContext(packed.passages()));
 
         // Step 3: Call the LLM with system + context + user question
-        String answer = callLlm(context, query);
+        String answer = RequestTimings.time("llm", () -> callLlm(context, query));
 
-        log.info("RAG pipeline complete | chunks_used={}", chunks.size());
-        return new RagResponse(query, answer, chunks);
+        log.info("RAG pipeline complete | chunks_used={}/{} | passages={} | context_tokens~{}",
+                packed.chunks().size(), chunks.size(), packed.passages().size(), packed.estimatedTokens());
+        return new RagResponse(query, answer, packed.chunks());
     }
 
     // -------------------------------------------------------------------------
@@ -93,20 +100,20 @@ public class RagService {
     // -------------------------------------------------------------------------
 
     /**
-     * Joins chunk contents into a numbered, delimited context block, e.g.:
+     * Joins packed passages into a numbered, delimited context block, e.g.:
      *
      * [1]
-     * <chunk text>
+     * <passage text>
      * ---
      * [2]
-     * <chunk text>
+     * <passage text>
      * ---
      */
-    private String buildContext(List<SearchResult> chunks) {
+    private String buildContext(List<String> passages) {
         StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < chunks.size(); i++) {
+        for (int i = 0; i < passages.size(); i++) {
             sb.append("[").append(i + 1).append("]\n");
-            sb.append(chunks.get(i).getContent().strip());
+            sb.append(passages.get(i));
             sb.append("\n---\n");
         }
         return sb.toString();
@@ -136,11 +143,11 @@ public class RagService {
 
         log.debug("Calling LLM model={} maxTokens={} temperature={}", model, maxTokens, temperature);
 
-        return openAiService.createChatCompletion(request)
+        return metrics.llmCall(model).record(() -> openAiService.createChatCompletion(request)
                 .getChoices()
                 .get(0)
                 .getMessage()
-                .getContent();
+                .getContent());
     }
 
     private List<ChatMessage> buildMessages(String context, String query) {
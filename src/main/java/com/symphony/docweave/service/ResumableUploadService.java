@@ -0,0 +1,504 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.IngestionResponse;
+import com.symphony.docweave.api.dto.UploadResponse;
+import com.symphony.docweave.config.UploadProperties;
+import com.symphony.docweave.exception.DocumentProcessingException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumable uploads for documents too large, or links too unreliable, for a
+ * single multipart request.
+ *
+ * A client creates an upload, sends its bytes as ranges in order and then
+ * completes it, which ingests the file. Ranges are appended straight from the
+ * request to a spool file under {@code upload.directory}, so nothing is held
+ * in memory, and the SHA-256 used for deduplication is updated as bytes
+ * arrive. A range cut off by a dropped connection keeps whatever arrived; the
+ * client asks for the offset and carries on from there. Bytes of a range that
+ * the spool already holds are skipped, so resending a whole range is safe.
+ *
+ * The spool survives restarts: each upload's metadata sits next to its data,
+ * and the digest is rebuilt from the data file the first time the upload is
+ * touched again. Uploads not written to for {@code upload.expire-after-hours}
+ * are discarded.
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final String DATA_SUFFIX = ".part";
+    private static final String META_SUFFIX = ".properties";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentIngestionService ingestionService;
+    private final Path directory;
+    private final long maxSize;
+    private final Duration expireAfter;
+    private final long cleanupIntervalSeconds;
+
+    /** Uploads touched since startup; others are loaded from the spool on first use. */
+    private final Map<UUID, Upload> uploads = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "upload-cleaner");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ResumableUploadService(DocumentIngestionService ingestionService, UploadProperties properties) {
+        if (properties.getMaxSizeMb() <= 0) {
+            throw new IllegalArgumentException("upload.max-size-mb must be positive");
+        }
+        this.ingestionService = ingestionService;
+        this.directory = Paths.get(properties.getDirectory());
+        this.maxSize = properties.getMaxSizeMb() * 1024L * 1024L;
+        this.expireAfter = Duration.ofHours(properties.getExpireAfterHours());
+        this.cleanupIntervalSeconds = Math.max(1, properties.getCleanupIntervalSeconds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        cleaner.scheduleWithFixedDelay(this::discardExpiredSafely, 0, cleanupIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    // -------------------------------------------------------------------------
+    // Public API
+    // -------------------------------------------------------------------------
+
+    /**
+     * @param length total size if the client knows it up front; otherwise it
+     *               is taken from the first range that declares one
+     * @throws IllegalArgumentException if the filename is blank or the length
+     *         is not positive or over {@code upload.max-size-mb}
+     */
+    public UploadResponse create(String filename, String contentType, Long length) {
+        if (!StringUtils.hasText(filename)) {
+            throw new IllegalArgumentException("filename must not be blank");
+        }
+        if (length != null) checkLength(length);
+
+        UUID id = UUID.randomUUID();
+        Upload upload = new Upload(id, filename, contentType, directory.resolve(id + DATA_SUFFIX));
+        upload.length = length;
+        upload.digest = sha256();
+        try {
+            Files.createDirectories(directory);
+            // Metadata first: data without it could never be found again, and so never cleaned up
+            writeMetadata(upload);
+            Files.createFile(upload.data);
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to create upload for: " + filename, e);
+        }
+        uploads.put(id, upload);
+        log.info("Created upload {} for {} ({} bytes declared)", id, filename, length == null ? "no" : length);
+        return toResponse(upload);
+    }
+
+    public UploadResponse status(UUID uploadId) {
+        Upload upload = find(uploadId);
+        synchronized (upload) {
+            checkOpen(upload);
+            syncWithDisk(upload);
+            return toResponse(upload);
+        }
+    }
+
+    /**
+     * Appends bytes {@code start} to {@code end} (inclusive) read from
+     * {@code body}. Bytes before the current offset are skipped rather than
+     * written twice. If the body ends early, what arrived is kept and the
+     * returned offset says where to resume.
+     *
+     * @param total the upload's total size from the range, or null if not given
+     * @throws IllegalArgumentException if the range starts after the current
+     *         offset, runs past the upload's length, or declares a different length
+     */
+    public UploadResponse append(UUID uploadId, long start, long end, Long total, InputStream body) {
+        Upload upload = find(uploadId);
+        synchronized (upload) {
+            checkOpen(upload);
+            syncWithDisk(upload);
+            if (total != null) declareLength(upload, total);
+
+            if (start > upload.offset) {
+                throw new IllegalArgumentException("Range starts at byte " + start + " but upload " + uploadId
+                        + " has " + upload.offset + " byte(s); resume from byte " + upload.offset);
+            }
+            long size = upload.length != null ? upload.length : maxSize;
+            if (end >= size) {
+                throw new IllegalArgumentException("Range ends at byte " + end + ", past the end of upload "
+                        + uploadId + " (" + size + " bytes)");
+            }
+
+            long fresh = end + 1 - upload.offset;
+            if (fresh > 0 && skip(body, upload.offset - start)) {
+                write(upload, body, fresh);
+            }
+            return toResponse(upload);
+        }
+    }
+
+    /**
+     * Ingests the finished upload and removes it from the spool. The upload
+     * is also removed if ingestion rejects the file (see {@link #isRejection}),
+     * since completing it again could not succeed; after any other failure,
+     * such as a read or database error, it is kept and can be completed again.
+     *
+     * @param expectedSha256 the client's own checksum of the file, to detect
+     *                       corruption in transit; optional
+     * @throws IllegalArgumentException if bytes are still missing
+     */
+    public IngestionResponse complete(UUID uploadId, String expectedSha256) {
+        Upload upload = find(uploadId);
+        synchronized (upload) {
+            checkOpen(upload);
+            syncWithDisk(upload);
+            if (upload.offset == 0) {
+                throw new IllegalArgumentException("Upload " + uploadId + " is empty");
+            }
+            if (upload.length != null && upload.offset < upload.length) {
+                throw new IllegalArgumentException("Upload " + uploadId + " has " + upload.offset
+                        + " of " + upload.length + " bytes");
+            }
+
+            String checksum = HexFormat.of().formatHex(upload.digest.digest());
+            upload.digest = null; // digest() reset it; rebuilt from the file if completing is retried
+            if (expectedSha256 != null && !expectedSha256.equalsIgnoreCase(checksum)) {
+                discard(upload);
+                throw new DocumentProcessingException("Upload " + uploadId + " was corrupted in transit: SHA-256 is "
+                        + checksum + ", expected " + expectedSha256);
+            }
+
+            try {
+                IngestionResponse response = ingestionService.ingestDocument(
+                        upload.data, upload.filename, upload.contentType, checksum);
+                discard(upload);
+                return response;
+            } catch (DocumentProcessingException e) {
+                if (isRejection(e)) discard(upload);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Whether ingestion turned the file itself down: a duplicate, a type no
+     * extractor handles, or a file with no text. Recognised by message, as
+     * {@code GlobalExceptionHandler} does; anything else may be transient.
+     */
+    private static boolean isRejection(DocumentProcessingException e) {
+        String message = e.getMessage();
+        return message != null && (message.contains("already ingested")
+                || message.startsWith("Unsupported document type")
+                || message.startsWith("Not a DOCX file")
+                || message.startsWith("No text could be extracted"));
+    }
+
+    public void abort(UUID uploadId) {
+        Upload upload = find(uploadId);
+        synchronized (upload) {
+            checkOpen(upload);
+            discard(upload);
+            log.info("Aborted upload {} after {} byte(s)", uploadId, upload.offset);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Spool
+    // -------------------------------------------------------------------------
+
+    private void write(Upload upload, InputStream body, long limit) {
+        long before = upload.offset;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (FileChannel channel = FileChannel.open(upload.data, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            long remaining = limit;
+            while (remaining > 0) {
+                int n;
+                try {
+                    n = body.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                } catch (IOException e) {
+                    log.info("Upload {}: connection lost after {} byte(s) of this range", upload.id, upload.offset - before);
+                    break;
+                }
+                if (n == -1) break;
+                ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, n);
+                while (bytes.hasRemaining()) channel.write(bytes);
+                upload.digest.update(buffer, 0, n);
+                upload.offset += n;
+                remaining -= n;
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Part of a buffer may have been written; the next call re-reads the file to catch up
+            upload.digest = null;
+            throw new DocumentProcessingException("Failed to write upload " + upload.id, e);
+        }
+    }
+
+    /** Reads and drops {@code count} bytes; false if the body ends first. */
+    private static boolean skip(InputStream body, long count) {
+        byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, Math.max(1, count))];
+        try {
+            for (long remaining = count; remaining > 0; ) {
+                int n = body.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (n == -1) return false;
+                remaining -= n;
+            }
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Brings offset and digest in line with the data file after a restart or
+     * a failed write. The file is the source of truth: every byte in it was
+     * sent by the client, in order.
+     */
+    private void syncWithDisk(Upload upload) {
+        try {
+            long size = Files.size(upload.data);
+            if (upload.digest != null && size == upload.offset) return;
+
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream in = Files.newInputStream(upload.data)) {
+                int n;
+                while ((n = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, n);
+                }
+            }
+            upload.digest = digest;
+            upload.offset = size;
+            log.debug("Upload {}: resumed at byte {}", upload.id, size);
+        } catch (NoSuchFileException e) {
+            discard(upload);
+            throw notFound(upload.id);
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to read upload " + upload.id, e);
+        }
+    }
+
+    private void declareLength(Upload upload, long total) {
+        if (upload.length != null) {
+            if (upload.length != total) {
+                throw new IllegalArgumentException("Upload " + upload.id + " is " + upload.length
+                        + " bytes, not " + total);
+            }
+            return;
+        }
+        checkLength(total);
+        if (total < upload.offset) {
+            throw new IllegalArgumentException("Upload " + upload.id + " already has " + upload.offset
+                    + " bytes, more than " + total);
+        }
+        upload.length = total;
+        try {
+            writeMetadata(upload);
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to update upload " + upload.id, e);
+        }
+    }
+
+    private void checkLength(long length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Upload length must be positive");
+        }
+        if (length > maxSize) {
+            throw new IllegalArgumentException("Upload of " + length + " bytes exceeds the limit of "
+                    + maxSize + " bytes");
+        }
+    }
+
+    private Upload find(UUID uploadId) {
+        Upload upload = uploads.computeIfAbsent(uploadId, this::load);
+        if (upload == null) throw notFound(uploadId);
+        return upload;
+    }
+
+    private static void checkOpen(Upload upload) {
+        if (upload.discarded) throw notFound(upload.id);
+    }
+
+    private static DocumentProcessingException notFound(UUID uploadId) {
+        return new DocumentProcessingException("Upload not found: " + uploadId);
+    }
+
+    /** Only called with the upload's monitor held. */
+    private void discard(Upload upload) {
+        upload.discarded = true;
+        uploads.remove(upload.id, upload);
+        try {
+            Files.deleteIfExists(upload.data);
+            Files.deleteIfExists(metadataPath(upload.id));
+        } catch (IOException e) {
+            log.warn("Could not delete spool files of upload {}: {}", upload.id, e.getMessage());
+        }
+    }
+
+    private Path metadataPath(UUID uploadId) {
+        return directory.resolve(uploadId + META_SUFFIX);
+    }
+
+    /** Written to a temporary file and moved into place, so it is never seen half-written. */
+    private void writeMetadata(Upload upload) throws IOException {
+        Properties metadata = new Properties();
+        metadata.setProperty("filename", upload.filename);
+        if (upload.contentType != null) metadata.setProperty("contentType", upload.contentType);
+        if (upload.length != null) metadata.setProperty("length", Long.toString(upload.length));
+
+        Path target = metadataPath(upload.id);
+        Path temp = directory.resolve(upload.id + META_SUFFIX + ".tmp");
+        try (Writer out = new OutputStreamWriter(Files.newOutputStream(temp), StandardCharsets.UTF_8)) {
+            metadata.store(out, null);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Loads an upload created before the last restart; null if there is none. */
+    private Upload load(UUID uploadId) {
+        Path path = metadataPath(uploadId);
+        if (!Files.exists(path)) return null;
+
+        Properties metadata = new Properties();
+        try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            metadata.load(in);
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to read upload " + uploadId, e);
+        }
+        Upload upload = new Upload(uploadId, metadata.getProperty("filename"),
+                metadata.getProperty("contentType"), directory.resolve(uploadId + DATA_SUFFIX));
+        String length = metadata.getProperty("length");
+        if (length != null) upload.length = Long.parseLong(length);
+        return upload;
+    }
+
+    private UploadResponse toResponse(Upload upload) {
+        return new UploadResponse(upload.id, upload.filename, upload.offset, upload.length,
+                lastWrite(upload).plus(expireAfter));
+    }
+
+    private static Instant lastWrite(Upload upload) {
+        try {
+            return Files.getLastModifiedTime(upload.data).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Expiry
+    // -------------------------------------------------------------------------
+
+    /** Discards uploads idle longer than {@code upload.expire-after-hours}; returns how many. */
+    int discardExpired() {
+        if (!Files.isDirectory(directory)) return 0;
+
+        Instant cutoff = Instant.now().minus(expireAfter);
+        int discarded = 0;
+        try (DirectoryStream<Path> metadataFiles = Files.newDirectoryStream(directory, "*" + META_SUFFIX)) {
+            for (Path path : metadataFiles) {
+                String name = path.getFileName().toString();
+                UUID id;
+                try {
+                    id = UUID.fromString(name.substring(0, name.length() - META_SUFFIX.length()));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                Upload upload = uploads.computeIfAbsent(id, this::load);
+                if (upload == null) continue;
+                synchronized (upload) {
+                    if (!upload.discarded && lastWrite(upload).isBefore(cutoff)) {
+                        discard(upload);
+                        discarded++;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DocumentProcessingException("Failed to scan upload spool " + directory, e);
+        }
+        if (discarded > 0) log.info("Discarded {} expired upload(s)", discarded);
+        return discarded;
+    }
+
+    private void discardExpiredSafely() {
+        try {
+            discardExpired();
+        } catch (Exception e) {
+            log.warn("Upload cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /** An upload's state; guarded by its own monitor. */
+    private static final class Upload {
+
+        final UUID id;
+        final String filename;
+        final String contentType;
+        final Path data;
+
+        Long length;
+        long offset;
+
+        /** SHA-256 of bytes [0, offset); null until rebuilt from the data file */
+        MessageDigest digest;
+
+        boolean discarded;
+
+        Upload(UUID id, String filename, String contentType, Path data) {
+            this.id = id;
+            this.filename = filename;
+            this.contentType = contentType;
+            this.data = data;
+        }
+    }
+}
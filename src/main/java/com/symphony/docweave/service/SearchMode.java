@@ -0,0 +1,32 @@
+package com.symphony.docweave.service;
+
+import java.util.Locale;
+
+/**
+ * How {@link SemanticSearchService} ranks chunks.
+ */
+public enum SearchMode {
+
+    /** Embedding similarity only */
+    VECTOR,
+
+    /** BM25 over chunk text only; no embedding call */
+    LEXICAL,
+
+    /** Reciprocal rank fusion of the vector and lexical rankings */
+    HYBRID;
+
+    /**
+     * Case-insensitive lookup for request parameters and configuration.
+     *
+     * @throws IllegalArgumentException if {@code value} is not a known mode
+     */
+    public static SearchMode parse(String value) {
+        try {
+            return SearchMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search mode: " + value
+                    + " (expected vector, lexical or hybrid)");
+        }
+    }
+}
@@ -1,8 +1,24 @@
 package com.symphony.docweave.service;
 
+import com.symphony.docweave.api.dto.BatchSearchResult;
 import com.symphony.docweave.api.dto.SearchResult;
+import com.symphony.docweave.config.ExactSearchProperties;
+import com.symphony.docweave.config.LexicalIndexProperties;
+import com.symphony.docweave.config.TwoTierSearchProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.domain.SearchFilter;
+import com.symphony.docweave.index.HnswVectorIndex;
+import com.symphony.docweave.index.IndexHit;
+import com.symphony.docweave.index.LexicalAnalyzer;
+import com.symphony.docweave.index.LexicalHit;
+import com.symphony.docweave.index.LexicalIndex;
+import com.symphony.docweave.index.NearDuplicateIndex;
+import com.symphony.docweave.metrics.PipelineMetrics;
+import com.symphony.docweave.metrics.RequestTimings;
 import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.util.EmbeddingUtils;
 import com.symphony.docweave.util.OpenAiEmbeddingClient;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,8 +26,19 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +48,15 @@ public class SemanticSearchService {
 
     private final OpenAiEmbeddingClient embeddingClient;
     private final DocumentChunkRepository chunkRepository;
+    private final HnswVectorIndex vectorIndex;
+    private final ExactSearchProperties exactSearchProperties;
+    private final LexicalIndex lexicalIndex;
+    private final LexicalIndexProperties lexicalProperties;
+    private final PipelineMetrics metrics;
+    private final Shards shards;
+    private final NearDuplicateIndex nearDuplicates;
+    private final TwoTierSearchProperties twoTier;
+    private final BatchSearchExecutor batchExecutor;
 
     @Value("${embedding.search.default-k:5}")
     private int defaultK;
@@ -28,43 +64,178 @@ public class SemanticSearchService {
     @Value("${embedding.search.max-k:50}")
     private int maxK;
 
+    @Value("${embedding.search.mode:hybrid}")
+    private String defaultMode;
+
+    @Value("${embedding.search.batch.max-queries:100}")
+    private int maxBatchQueries;
+
     // -------------------------------------------------------------------------
     // Public API
     // -------------------------------------------------------------------------
 
     /**
-     * Embed {@code query}, retrieve the top-K most similar chunks from the DB,
-     * and return them as ranked {@link SearchResult}s (closest first).
+     * Retrieve the top-K chunks for {@code query} and return them as ranked
+     * {@link SearchResult}s (best first).
+     *
+     * <ul>
+     *   <li>{@link SearchMode#VECTOR}: embed the query and rank by cosine
+     *       distance — in the in-process index when it is loaded (scanned
+     *       exactly with SIMD for small corpora), otherwise with pgvector,
+     *       shortlisting by the short Matryoshka vector and reranking by the
+     *       full one.</li>
+     *   <li>{@link SearchMode#LEXICAL}: BM25 over chunk text; no embedding call.</li>
+     *   <li>{@link SearchMode#HYBRID}: both rankings fused with reciprocal rank
+     *       fusion. Identifier-style queries (error codes, SKUs) whose terms
+     *       occur in at most K chunks are answered lexically without
+     *       embedding at all.</li>
+     * </ul>
+     * Lexical and hybrid requests fall back to vector search while the
+     * lexical index is still loading.
+     *
+     * A non-empty {@code filter} is applied inside each ranker rather than
+     * to its output, so scoped searches still return k results when k
+     * matching chunks exist, and small scopes are ranked exactly.
+     *
+     * With sharding, pgvector searches ask every shard for its own top k in
+     * parallel and merge them; shards that fail or time out are left out
+     * of the result rather than failing the search.
      *
-     * @param query raw user query string
-     * @param k     number of results to return; clamped to [1, maxK]
-     * @return ranked list of matching chunks with their similarity scores
+     * Near-duplicate chunks (see {@link NearDuplicateIndex}) are collapsed to
+     * their best-ranked member; rankers are asked for extra candidates so
+     * that k distinct results usually remain.
+     *
+     * @param query  raw user query string
+     * @param k      number of results to return; clamped to [1, maxK]
+     * @param mode   ranking strategy, or {@code null} for the configured default
+     * @param filter document restrictions, or {@code null} for the whole corpus
+     * @return ranked list of matching chunks with their scores
      * @throws IllegalArgumentException if the query is blank
      */
-    public List<SearchResult> search(String query, int k) {
+    public List<SearchResult> search(String query, int k, SearchMode mode, SearchFilter filter) {
         validateQuery(query);
         int clampedK = clamp(k, 1, maxK);
+        SearchMode effective = effectiveMode(mode);
 
-        log.info("Semantic search | k={} | query=\"{}\"", clampedK, query);
-
-        // 1. Embed the query text into a vector
-        float[] queryVector = embeddingClient.embed(List.of(query)).get(0);
-
-        // 2. Convert float[] → PostgreSQL-compatible vector literal "[x,x,x,...]"
-        String pgVector = toPgVectorLiteral(queryVector);
+        log.info("Semantic search | mode={} | k={} | filtered={} | query=\"{}\"",
+                effective, clampedK, filter != null && !filter.isEmpty(), query);
 
-        // 3. Query DB for top-K nearest chunks
-        List<Object[]> rows = chunkRepository.findTopKSimilar(pgVector, clampedK);
+        Timer.Sample sample = metrics.start();
+        List<SearchResult> results;
+        try {
+            Scope scope = resolveScope(filter, effective);
+            if (scope.isEmpty()) {
+                log.info("Search filter matches no documents");
+                return List.of();
+            }
 
-        // 4. Map raw rows → SearchResult DTOs
-        List<SearchResult> results = rows.stream()
-                .map(this::toSearchResult)
-                .toList();
+            int fetchK = nearDuplicates.collapseDepth(clampedK);
+            results = collapse(switch (effective) {
+                case VECTOR -> rankByVector(embed(query), fetchK, scope);
+                case LEXICAL -> searchLexical(query, fetchK, scope);
+                case HYBRID -> searchHybrid(query, fetchK, scope);
+            }, clampedK);
+        } finally {
+            sample.stop(metrics.search(effective.name().toLowerCase()));
+        }
 
         log.info("Semantic search returned {} result(s)", results.size());
         return results;
     }
 
+    /**
+     * Runs several queries with the same k, mode and filter, returning one
+     * entry per query in request order.
+     *
+     * Every query that needs a vector is embedded in a single OpenAI call
+     * (duplicates once), so a batch costs one embedding round trip instead
+     * of one per query. The filter is resolved once for the whole batch and
+     * the per-query vector lookups then run concurrently on the
+     * {@link BatchSearchExecutor} shared by all batches.
+     *
+     * @throws IllegalArgumentException if the batch is empty, larger than
+     *         {@code embedding.search.batch.max-queries}, or any query is blank
+     */
+    public List<BatchSearchResult> searchBatch(List<String> queries, int k, SearchMode mode, SearchFilter filter) {
+        if (queries == null || queries.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one query");
+        }
+        if (queries.size() > maxBatchQueries) {
+            throw new IllegalArgumentException(
+                    "Batch contains " + queries.size() + " queries; the maximum is " + maxBatchQueries);
+        }
+        queries.forEach(SemanticSearchService::validateQuery);
+
+        int clampedK = clamp(k, 1, maxK);
+        int fetchK = nearDuplicates.collapseDepth(clampedK);
+        SearchMode effective = effectiveMode(mode);
+        log.info("Batch search | mode={} | k={} | filtered={} | queries={}",
+                effective, clampedK, filter != null && !filter.isEmpty(), queries.size());
+
+        Scope scope = resolveScope(filter, effective);
+        List<List<SearchResult>> results = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) results.add(List.of());
+        if (scope.isEmpty()) {
+            log.info("Search filter matches no documents");
+            return toBatchResults(queries, results, clampedK);
+        }
+
+        // Lexical work is in-process and cheap; it also decides which queries
+        // can skip the embedding call entirely.
+        int depth = hybridDepth(fetchK);
+        Map<Integer, List<LexicalHit>> pendingLexical = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            String query = queries.get(i);
+            switch (effective) {
+                case VECTOR -> pendingLexical.put(i, null);
+                case LEXICAL -> results.set(i, searchLexical(query, fetchK, scope));
+                case HYBRID -> {
+                    List<LexicalHit> lexical = RequestTimings.time("lexical",
+                            () -> lexicalIndex.search(query, depth, scope.predicate()));
+                    if (isDecisiveLexicalMatch(query, lexical, fetchK, scope)) {
+                        results.set(i, withContent(toIndexHits(lexical.subList(0, Math.min(fetchK, lexical.size()))), Map.of()));
+                    } else {
+                        pendingLexical.put(i, lexical);
+                    }
+                }
+            }
+        }
+        if (pendingLexical.isEmpty()) {
+            return toBatchResults(queries, results, clampedK);
+        }
+
+        Map<String, float[]> vectors = embedAll(pendingLexical.keySet().stream().map(queries::get).toList());
+
+        // The lookups are untimed: one the executor hands back to this thread
+        // would otherwise add to a stage the whole batch is already timed in.
+        List<Integer> order = new ArrayList<>(pendingLexical.keySet());
+        List<Callable<List<SearchResult>>> lookups = new ArrayList<>(order.size());
+        for (int i : order) {
+            float[] vector = vectors.get(queries.get(i));
+            List<LexicalHit> lexical = pendingLexical.get(i);
+            lookups.add(lexical == null
+                    ? () -> rankByVectorUntimed(vector, fetchK, scope)
+                    : () -> fuse(rankByVectorUntimed(vector, depth, scope), lexical, fetchK));
+        }
+
+        List<List<SearchResult>> ranked = RequestTimings.time("vector-batch", () -> batchExecutor.invokeAll(lookups));
+        for (int j = 0; j < order.size(); j++) {
+            results.set(order.get(j), ranked.get(j));
+        }
+
+        log.info("Batch search returned results for {} queries ({} embedded in one call)",
+                queries.size(), vectors.size());
+        return toBatchResults(queries, results, clampedK);
+    }
+
+    public List<SearchResult> search(String query, int k, SearchMode mode) {
+        return search(query, k, mode, null);
+    }
+
+    public List<SearchResult> search(String query, int k) {
+        return search(query, k, null, null);
+    }
+
     /**
      * Overload using the configured default K.
      */
@@ -72,6 +243,275 @@ public class SemanticSearchService {
         return search(query, defaultK);
     }
 
+    // -------------------------------------------------------------------------
+    // Retrieval paths
+    // -------------------------------------------------------------------------
+
+    private float[] embed(String query) {
+        return RequestTimings.time("embed", () -> embeddingClient.embed(List.of(query)).get(0));
+    }
+
+    /** One embedding call for all distinct {@code queries}. */
+    private Map<String, float[]> embedAll(List<String> queries) {
+        List<String> distinct = queries.stream().distinct().toList();
+        List<float[]> embeddings = RequestTimings.time("embed", () -> embeddingClient.embed(distinct));
+        Map<String, float[]> byQuery = new HashMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            byQuery.put(distinct.get(i), embeddings.get(i));
+        }
+        return byQuery;
+    }
+
+    private List<SearchResult> searchLexical(String query, int k, Scope scope) {
+        return RequestTimings.time("lexical",
+                () -> withContent(toIndexHits(lexicalIndex.search(query, k, scope.predicate())), Map.of()));
+    }
+
+    private List<SearchResult> rankByVector(float[] queryVector, int k, Scope scope) {
+        return RequestTimings.time("vector", () -> rankByVectorUntimed(queryVector, k, scope));
+    }
+
+    /**
+     * Ranks in memory if possible, otherwise in Postgres. In memory, scopes
+     * small enough for an exact scan skip the graph entirely.
+     */
+    private List<SearchResult> rankByVectorUntimed(float[] queryVector, int k, Scope scope) {
+        if (!vectorIndex.isReady()) {
+            RequestTimings.flag("ranker", twoTier.isEnabled() ? "pgvector-two-tier" : "pgvector");
+            return scope.filter() == null
+                    ? searchDatabase(queryVector, k)
+                    : searchDatabaseFiltered(queryVector, k, scope.filter());
+        }
+        int candidates = scope.documentIds() == null
+                ? vectorIndex.size()
+                : vectorIndex.countChunks(scope.documentIds());
+        if (useExactSearch(candidates)) {
+            RequestTimings.flag("ranker", "exact");
+            return withContent(vectorIndex.searchExact(queryVector, k, scope.predicate()), Map.of());
+        }
+        RequestTimings.flag("ranker", "hnsw");
+        return withContent(vectorIndex.search(queryVector, k, scope.predicate()), Map.of());
+    }
+
+    private List<SearchResult> searchHybrid(String query, int k, Scope scope) {
+        int depth = hybridDepth(k);
+        List<LexicalHit> lexical = RequestTimings.time("lexical",
+                () -> lexicalIndex.search(query, depth, scope.predicate()));
+
+        if (isDecisiveLexicalMatch(query, lexical, k, scope)) {
+            log.info("Lexical match is decisive; skipping query embedding");
+            RequestTimings.flag("embed", "skipped");
+            return withContent(toIndexHits(lexical.subList(0, Math.min(k, lexical.size()))), Map.of());
+        }
+
+        List<SearchResult> vector = rankByVector(embed(query), depth, scope);
+        return fuse(vector, lexical, k);
+    }
+
+    /**
+     * In-memory rankers need the matching document ids up front; the pgvector
+     * path pushes the filter into SQL instead, so ids are only resolved when
+     * an in-memory index will actually be used.
+     */
+    private Scope resolveScope(SearchFilter filter, SearchMode mode) {
+        if (filter == null || filter.isEmpty()) return Scope.ALL;
+        if (!vectorIndex.isReady() && mode == SearchMode.VECTOR) return new Scope(filter, null);
+
+        boolean onlyDocumentIds = filter.getSources() == null || filter.getSources().isEmpty();
+        onlyDocumentIds &= filter.getCreatedAfter() == null && filter.getCreatedBefore() == null;
+        onlyDocumentIds &= filter.filenameLikePattern() == null;
+        Set<UUID> documentIds = new HashSet<>();
+        if (onlyDocumentIds) {
+            documentIds.addAll(filter.getDocumentIds());
+        } else {
+            shards.scatter(shard -> chunkRepository.findDocumentIdsMatching(filter)).forEach(documentIds::addAll);
+        }
+        return new Scope(filter, documentIds);
+    }
+
+    /**
+     * A short query made of identifiers (e.g. {@code ERR-4012}, {@code SKU 88213})
+     * whose identifiers all co-occur in between 1 and {@code k} chunks is an
+     * exact-token lookup: embeddings cannot rank those chunks any better, so
+     * the lexical ranking is returned as is.
+     */
+    private boolean isDecisiveLexicalMatch(String query, List<LexicalHit> lexical, int k, Scope scope) {
+        if (!lexicalProperties.isShortCircuit() || lexical.isEmpty()) return false;
+
+        List<String> compounds = LexicalAnalyzer.compounds(query);
+        if (compounds.size() > lexicalProperties.getShortCircuitMaxTokens()) return false;
+
+        List<String> identifiers = compounds.stream().filter(LexicalAnalyzer::isIdentifier).toList();
+        if (identifiers.isEmpty()) return false;
+
+        int matches = lexicalIndex.countContainingAll(identifiers, scope.predicate());
+        return matches >= 1 && matches <= k;
+    }
+
+    /**
+     * Reciprocal rank fusion: each ranking contributes {@code 1 / (rrfK + rank)}
+     * per chunk. The fused score is reported as {@code 1 - fused / best possible},
+     * so lower stays better as with cosine distance.
+     */
+    private List<SearchResult> fuse(List<SearchResult> vector, List<LexicalHit> lexical, int k) {
+        int rrfK = lexicalProperties.getRrfK();
+        Map<UUID, Double> fused = new HashMap<>();
+        Map<UUID, IndexHit> identity = new HashMap<>();
+        Map<UUID, String> knownContent = new HashMap<>();
+
+        for (int rank = 0; rank < vector.size(); rank++) {
+            SearchResult r = vector.get(rank);
+            fused.merge(r.getChunkId(), 1d / (rrfK + rank + 1), Double::sum);
+            identity.putIfAbsent(r.getChunkId(), new IndexHit(r.getChunkId(), r.getDocumentId(), r.getChunkIndex(), 0d));
+            knownContent.put(r.getChunkId(), r.getContent());
+        }
+        for (int rank = 0; rank < lexical.size(); rank++) {
+            LexicalHit h = lexical.get(rank);
+            fused.merge(h.chunkId(), 1d / (rrfK + rank + 1), Double::sum);
+            identity.putIfAbsent(h.chunkId(), new IndexHit(h.chunkId(), h.documentId(), h.chunkIndex(), 0d));
+        }
+
+        double best = 2d / (rrfK + 1);
+        List<IndexHit> ranked = fused.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Double>comparingByValue(Comparator.reverseOrder()))
+                .limit(k)
+                .map(e -> {
+                    IndexHit id = identity.get(e.getKey());
+                    return new IndexHit(id.chunkId(), id.documentId(), id.chunkIndex(), 1d - e.getValue() / best);
+                })
+                .toList();
+        return withContent(ranked, knownContent);
+    }
+
+    /** BM25 scores mapped onto [0, 1) relative to the best hit, lower = better. */
+    private static List<IndexHit> toIndexHits(List<LexicalHit> hits) {
+        if (hits.isEmpty()) return List.of();
+        double top = hits.get(0).score();
+        return hits.stream()
+                .map(h -> new IndexHit(h.chunkId(), h.documentId(), h.chunkIndex(),
+                        top > 0 ? 1d - h.score() / top : 0d))
+                .toList();
+    }
+
+    private List<SearchResult> searchDatabase(float[] queryVector, int k) {
+        // Convert float[] → PostgreSQL-compatible vector literal "[x,x,x,...]"
+        String pgVector = EmbeddingUtils.toPgVectorLiteral(queryVector);
+
+        if (twoTier.isEnabled()) {
+            String shortVector = shortQueryLiteral(queryVector);
+            int shortlist = shortlistSize(k);
+            return metrics.vectorQuery(false).record(() -> mergeTopK(
+                    shards.scatter(shard -> chunkRepository.findTopKRescored(pgVector, shortVector, shortlist, k)), k));
+        }
+        return metrics.vectorQuery(false).record(() -> mergeTopK(
+                shards.scatter(shard -> chunkRepository.findTopKSimilar(pgVector, k)), k));
+    }
+
+    private List<SearchResult> searchDatabaseFiltered(float[] queryVector, int k, SearchFilter filter) {
+        String pgVector = EmbeddingUtils.toPgVectorLiteral(queryVector);
+        if (twoTier.isEnabled()) {
+            String shortVector = shortQueryLiteral(queryVector);
+            int shortlist = shortlistSize(k);
+            return metrics.vectorQuery(true).record(() -> mergeTopK(shards.scatter(shard ->
+                    chunkRepository.findTopKRescoredFiltered(pgVector, shortVector, shortlist, k, filter)), k));
+        }
+        return metrics.vectorQuery(true).record(() -> mergeTopK(
+                shards.scatter(shard -> chunkRepository.findTopKSimilarFiltered(pgVector, k, filter)), k));
+    }
+
+    /** The query truncated the same way stored chunks are, for the short-vector index. */
+    private String shortQueryLiteral(float[] queryVector) {
+        return EmbeddingUtils.toPgVectorLiteral(EmbeddingUtils.truncate(queryVector, twoTier.getDimensions()));
+    }
+
+    private int shortlistSize(int k) {
+        return k * Math.max(1, twoTier.getOversampling());
+    }
+
+    /**
+     * Merges per-shard top-k rows into the overall top k, best first. A
+     * max-heap of size k keeps the k best seen so far, so merging costs
+     * O(n log k) for n rows instead of sorting them all.
+     */
+    static List<SearchResult> mergeTopK(List<List<Object[]>> shardRows, int k) {
+        if (shardRows.size() == 1) {
+            return shardRows.get(0).stream().map(SemanticSearchService::toSearchResult).toList();
+        }
+        PriorityQueue<SearchResult> best = new PriorityQueue<>(k + 1,
+                Comparator.comparingDouble(SearchResult::getScore).reversed());
+        for (List<Object[]> rows : shardRows) {
+            for (Object[] row : rows) {
+                SearchResult result = toSearchResult(row);
+                if (best.size() < k) {
+                    best.add(result);
+                } else if (result.getScore() < best.peek().getScore()) {
+                    best.poll();
+                    best.add(result);
+                }
+            }
+        }
+        List<SearchResult> merged = new ArrayList<>(best);
+        merged.sort(Comparator.comparingDouble(SearchResult::getScore));
+        return merged;
+    }
+
+    private List<SearchResult> collapse(List<SearchResult> ranked, int k) {
+        if (!nearDuplicates.collapsesResults()) return ranked.size() > k ? ranked.subList(0, k) : ranked;
+        return collapse(ranked, k, nearDuplicates::representativeOf);
+    }
+
+    /**
+     * Keeps the best-ranked result of each near-duplicate group, up to
+     * {@code k}; {@code representativeOf} maps a chunk id to its group.
+     */
+    static List<SearchResult> collapse(List<SearchResult> ranked, int k, UnaryOperator<UUID> representativeOf) {
+        Set<UUID> seen = new HashSet<>();
+        List<SearchResult> collapsed = new ArrayList<>(Math.min(k, ranked.size()));
+        for (SearchResult result : ranked) {
+            if (collapsed.size() == k) break;
+            if (seen.add(representativeOf.apply(result.getChunkId()))) collapsed.add(result);
+        }
+        return collapsed;
+    }
+
+    /**
+     * Exact scanning is only worth it (and only possible) for full-precision
+     * in-memory vectors and a candidate set under the configured ceiling.
+     */
+    private boolean useExactSearch(int candidates) {
+        return exactSearchProperties.isEnabled()
+                && vectorIndex.supportsExactSearch()
+                && candidates <= exactSearchProperties.getMaxCandidates();
+    }
+
+    /**
+     * Fetches chunk text for in-memory hits in a single primary-key lookup,
+     * skipping ids whose text is already in {@code knownContent}. Hits whose
+     * row has since been deleted are dropped rather than failing the search.
+     */
+    private List<SearchResult> withContent(List<IndexHit> hits, Map<UUID, String> knownContent) {
+        if (hits.isEmpty()) return List.of();
+
+        Map<UUID, String> contentById = new HashMap<>(knownContent);
+        List<UUID> missing = hits.stream().map(IndexHit::chunkId).filter(id -> !contentById.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            for (List<Object[]> rows : shards.scatter(shard -> chunkRepository.findChunkTextByIds(missing))) {
+                for (Object[] row : rows) {
+                    contentById.put(UUID.fromString(row[0].toString()), (String) row[3]);
+                }
+            }
+        }
+
+        List<SearchResult> results = new ArrayList<>(hits.size());
+        for (IndexHit hit : hits) {
+            String content = contentById.get(hit.chunkId());
+            if (content == null) continue;
+            results.add(new SearchResult(hit.chunkId(), hit.documentId(), hit.chunkIndex(),
+                    content, hit.distance()));
+        }
+        return results;
+    }
+
     // -------------------------------------------------------------------------
     // Mapping
     // -------------------------------------------------------------------------
@@ -87,7 +527,7 @@ public class SemanticSearchService {
      *   [4] embedding   (ignored here)
      *   [5] score       double (cosine distance)
      */
-    private SearchResult toSearchResult(Object[] row) {
+    static SearchResult toSearchResult(Object[] row) {
         UUID chunkId    = UUID.fromString(row[0].toString());
         UUID documentId = UUID.fromString(row[1].toString());
         int chunkIndex  = ((Number) row[2]).intValue();
@@ -101,6 +541,26 @@ public class SemanticSearchService {
     // Helpers
     // -------------------------------------------------------------------------
 
+    /** Lexical and hybrid requests fall back to vector search while the lexical index loads. */
+    private SearchMode effectiveMode(SearchMode mode) {
+        SearchMode requested = mode != null ? mode : SearchMode.parse(defaultMode);
+        return requested == SearchMode.VECTOR || lexicalIndex.isReady()
+                ? requested
+                : SearchMode.VECTOR;
+    }
+
+    private int hybridDepth(int k) {
+        return k * Math.max(1, lexicalProperties.getHybridDepthFactor());
+    }
+
+    private List<BatchSearchResult> toBatchResults(List<String> queries, List<List<SearchResult>> results, int k) {
+        List<BatchSearchResult> batch = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            batch.add(new BatchSearchResult(queries.get(i), collapse(results.get(i), k)));
+        }
+        return batch;
+    }
+
     private static void validateQuery(String query) {
         if (!StringUtils.hasText(query)) {
             throw new IllegalArgumentException("Search query must not be blank");
@@ -112,18 +572,20 @@ public class SemanticSearchService {
     }
 
     /**
-     * Converts a float[] to the PostgreSQL vector literal format: "[0.1,0.2,...]"
-     *
-     * IMPORTANT: must use plain decimal notation (%.8f), never scientific
-     * notation (e.g. 1.23E-5), which pgvector's parser rejects.
+     * A resolved search filter: {@code filter} for SQL push-down and, when an
+     * in-memory index is involved, the matching {@code documentIds}. Both
+     * null means the whole corpus.
      */
-    private static String toPgVectorLiteral(float[] vector) {
-        StringBuilder sb = new StringBuilder("[");
-        for (int i = 0; i < vector.length; i++) {
-            sb.append(String.format("%.8f", vector[i]));
-            if (i < vector.length - 1) sb.append(",");
-        }
-        sb.append("]");
-        return sb.toString();
+    private record Scope(SearchFilter filter, Set<UUID> documentIds) {
+
+        static final Scope ALL = new Scope(null, null);
+
+        boolean isEmpty() {
+            return documentIds != null && documentIds.isEmpty();
+        }
+
+        Predicate<UUID> predicate() {
+            return documentIds == null ? null : documentIds::contains;
+        }
     }
 }
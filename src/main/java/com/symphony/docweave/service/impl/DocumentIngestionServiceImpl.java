@@ -1,91 +1,169 @@
 package com.symphony.docweave.service.impl;
 
 import com.symphony.docweave.api.dto.ChunkResponse;
+import com.symphony.docweave.api.dto.CursorPage;
 import com.symphony.docweave.api.dto.DocumentResponse;
 import com.symphony.docweave.api.dto.IngestionResponse;
 import com.symphony.docweave.chunker.TextChunker;
+import com.symphony.docweave.datasource.Shards;
 import com.symphony.docweave.domain.DocumentChunk;
 import com.symphony.docweave.domain.DocumentChunkEntity;
 import com.symphony.docweave.domain.DocumentEntity;
+import com.symphony.docweave.domain.SearchFilter;
+import com.symphony.docweave.event.ChunksIngestedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
 import com.symphony.docweave.exception.DocumentProcessingException;
+import com.symphony.docweave.extractor.DocumentExtractorRegistry;
 import com.symphony.docweave.extractor.DocumentTextExtractor;
+import com.symphony.docweave.index.NearDuplicate;
+import com.symphony.docweave.index.NearDuplicateIndex;
+import com.symphony.docweave.metrics.PipelineMetrics;
+import com.symphony.docweave.preprocessor.TextPreprocessor;
 import com.symphony.docweave.repository.DocumentChunkRepository;
 import com.symphony.docweave.repository.DocumentRepository;
 import com.symphony.docweave.service.DocumentIngestionService;
+import com.symphony.docweave.util.Cursors;
+import com.symphony.docweave.util.EmbeddingUtils;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.InputStream;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DocumentIngestionServiceImpl implements DocumentIngestionService {
 
     private static final Logger log = LoggerFactory.getLogger(DocumentIngestionServiceImpl.class);
 
-    private final DocumentTextExtractor textExtractor;
+    /** Ids per tombstone UPDATE, well under the JDBC bind-parameter limit. */
+    private static final int TOMBSTONE_BATCH_SIZE = 1000;
+    private static final int STATS_BATCH_SIZE = 1000;
+
+    private static final Comparator<DocumentEntity> LISTING_ORDER =
+            Comparator.comparing(DocumentEntity::getCreatedAt).thenComparing(d -> d.getId().toString());
+
+    private final DocumentExtractorRegistry extractors;
+    private final TextPreprocessor preprocessor;
     private final TextChunker textChunker;
+    private final NearDuplicateIndex nearDuplicates;
     private final DocumentRepository documentRepository;
     private final DocumentChunkRepository chunkRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PipelineMetrics metrics;
+    private final Shards shards;
 
-    public DocumentIngestionServiceImpl(DocumentTextExtractor textExtractor,
+    public DocumentIngestionServiceImpl(DocumentExtractorRegistry extractors,
+                                        TextPreprocessor preprocessor,
                                         TextChunker textChunker,
+                                        NearDuplicateIndex nearDuplicates,
                                         DocumentRepository documentRepository,
-                                        DocumentChunkRepository chunkRepository) {
-        this.textExtractor = textExtractor;
+                                        DocumentChunkRepository chunkRepository,
+                                        ApplicationEventPublisher eventPublisher,
+                                        PipelineMetrics metrics,
+                                        Shards shards) {
+        this.extractors = extractors;
+        this.preprocessor = preprocessor;
         this.textChunker = textChunker;
+        this.nearDuplicates = nearDuplicates;
         this.documentRepository = documentRepository;
         this.chunkRepository = chunkRepository;
+        this.eventPublisher = eventPublisher;
+        this.metrics = metrics;
+        this.shards = shards;
     }
 
     @Override
     @Transactional
     public IngestionResponse ingestDocument(MultipartFile file) {
-        String filename = file.getOriginalFilename();
-        log.info("Starting ingestion for file: {}", filename);
-
-        // Compute checksum for deduplication
-        String checksum = computeChecksum(file);
-        documentRepository.findByChecksum(checksum).ifPresent(existing -> {
-            throw new DocumentProcessingException(
-                    "Document already ingested with ID: " + existing.getId());
-        });
-
-        // Extract text from the uploaded file
-        String extractedText;
-        try (InputStream inputStream = file.getInputStream()) {
-            extractedText = textExtractor.extract(inputStream, filename);
+        log.info("Starting ingestion for file: {}", file.getOriginalFilename());
+        return ingest(file, file.getOriginalFilename(), file.getContentType(), computeChecksum(file));
+    }
+
+    @Override
+    @Transactional
+    public IngestionResponse ingestDocument(Path file, String filename, String contentType, String checksum) {
+        log.info("Starting ingestion for spooled file: {}", filename);
+        return ingest(new FileSystemResource(file), filename, contentType, checksum);
+    }
+
+    private IngestionResponse ingest(InputStreamSource file, String filename, String contentType, String checksum) {
+        // Deduplicate by checksum. Documents are placed by checksum (see below), but ones
+        // ingested before that, or moved by a resharding, may live on any shard.
+        shards.each(shard -> documentRepository.findByChecksum(checksum)).stream()
+                .flatMap(Optional::stream)
+                .findFirst()
+                .ifPresent(existing -> {
+                    throw new DocumentProcessingException(
+                            "Document already ingested with ID: " + existing.getId());
+                });
+
+        // Extract text with the extractor the upload's leading bytes, content type or name point to
+        String rawText;
+        DocumentTextExtractor textExtractor = null;
+        Timer.Sample extraction = metrics.start();
+        try (InputStream inputStream = new BufferedInputStream(file.getInputStream())) {
+            textExtractor = extractors.select(inputStream, contentType, filename);
+            rawText = textExtractor.extract(inputStream, filename);
         } catch (DocumentProcessingException e) {
             throw e;
         } catch (Exception e) {
             throw new DocumentProcessingException("Failed to read uploaded file: " + filename, e);
+        } finally {
+            extraction.stop(metrics.extraction(
+                    textExtractor == null ? "unknown" : textExtractor.getClass().getSimpleName()));
         }
 
+        // Strip running headers/footers, line-break hyphens and redundant whitespace before chunking
+        String extractedText = metrics.preprocessing().record(() -> preprocessor.preprocess(rawText));
         if (extractedText == null || extractedText.isBlank()) {
             throw new DocumentProcessingException("No text could be extracted from: " + filename);
         }
 
-        // Persist the document record
-        UUID documentId = UUID.randomUUID();
+        // Persist the document record on the shard its checksum hashes to: the id is drawn to
+        // land there, so a concurrent upload of the same file meets the same unique index
+        UUID documentId = shards.newDocumentId(checksum);
+        shards.bindTransaction(documentId);
         DocumentEntity documentEntity = new DocumentEntity(
                 documentId,
-                file.getContentType(),
+                contentType,
                 filename,
                 checksum
         );
         documentRepository.save(documentEntity);
+        try {
+            documentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new DocumentProcessingException("Document already ingested with checksum: " + checksum, e);
+        }
         log.info("Saved document record: {} ({})", documentId, filename);
 
         // Chunk the extracted text
-        List<DocumentChunk> chunks = textChunker.chunk(extractedText, documentId.toString());
+        List<DocumentChunk> chunks = metrics.chunking()
+                .record(() -> textChunker.chunk(extractedText, documentId.toString()));
         log.info("Generated {} chunks for document: {}", chunks.size(), documentId);
 
         // Persist chunks
@@ -97,9 +175,28 @@ public class DocumentIngestionServiceImpl implements DocumentIngestionService {
                         chunk.getContent()
                 ))
                 .collect(Collectors.toList());
-        chunkRepository.saveAll(chunkEntities);
+
+        // Flag near-copies of existing chunks; the embedding backfill reuses their twin's vector
+        Map<UUID, NearDuplicate> twins = nearDuplicates.findTwins(documentId, chunkEntities.stream()
+                .map(c -> new ChunksIngestedEvent.IngestedChunk(c.getId(), c.getChunkIndex(), c.getContent(), null))
+                .toList());
+        for (DocumentChunkEntity chunk : chunkEntities) {
+            NearDuplicate twin = twins.get(chunk.getId());
+            if (twin != null) chunk.setDuplicateOf(twin.chunkId());
+        }
+        if (!twins.isEmpty()) {
+            log.info("{} of {} chunks of document {} are near-duplicates of existing chunks",
+                    twins.size(), chunkEntities.size(), documentId);
+        }
+
+        metrics.chunkPersistence().record(() -> chunkRepository.saveAll(chunkEntities));
         log.info("Saved {} chunks for document: {}", chunkEntities.size(), documentId);
 
+        eventPublisher.publishEvent(new ChunksIngestedEvent(documentId, chunkEntities.stream()
+                .map(c -> new ChunksIngestedEvent.IngestedChunk(c.getId(), c.getChunkIndex(), c.getContent(),
+                        c.getDuplicateOf()))
+                .toList()));
+
         return new IngestionResponse(
                 documentId,
                 filename,
@@ -112,47 +209,176 @@ public class DocumentIngestionServiceImpl implements DocumentIngestionService {
     @Override
     @Transactional(readOnly = true)
     public DocumentResponse getDocument(UUID documentId) {
+        shards.bindTransaction(documentId);
         DocumentEntity entity = documentRepository.findById(documentId)
+                .filter(document -> !document.isDeleted())
                 .orElseThrow(() -> new DocumentProcessingException("Document not found: " + documentId));
         return toDocumentResponse(entity);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<DocumentResponse> getAllDocuments() {
-        return documentRepository.findAll().stream()
-                .map(this::toDocumentResponse)
-                .collect(Collectors.toList());
+    public CursorPage<DocumentResponse> getDocuments(String cursor, int limit, boolean includeStats) {
+        requirePositive(limit);
+        // One extra row tells us whether another page follows.
+        Pageable page = PageRequest.of(0, limit + 1);
+        ListingKey after = cursor == null ? null
+                : Cursors.decode(cursor, 2, key -> new ListingKey(Instant.parse(key[0]), UUID.fromString(key[1])));
+        List<DocumentEntity> rows = mergePages(shards.each(shard -> after == null
+                ? documentRepository.findFirstPage(page)
+                : documentRepository.findPageAfter(after.createdAt(), after.id(), page)), limit + 1);
+
+        List<DocumentResponse> documents = rows.stream().limit(limit).map(this::toDocumentResponse).toList();
+        if (includeStats) attachStats(documents);
+        String next = null;
+        if (rows.size() > limit) {
+            DocumentResponse last = documents.get(documents.size() - 1);
+            next = Cursors.encode(last.getCreatedAt(), last.getId());
+        }
+        return new CursorPage<>(documents, next);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ChunkResponse> getChunksByDocumentId(UUID documentId) {
+    public CursorPage<ChunkResponse> getChunksByDocumentId(UUID documentId, String cursor, int limit) {
+        requirePositive(limit);
+        shards.bindTransaction(documentId);
         // Verify document exists
-        if (!documentRepository.existsById(documentId)) {
+        if (!documentRepository.existsLiveById(documentId)) {
             throw new DocumentProcessingException("Document not found: " + documentId);
         }
-        return chunkRepository.findByDocumentIdOrderByChunkIndex(documentId).stream()
-                .map(chunk -> new ChunkResponse(
-                        chunk.getId(),
-                        documentId,
-                        chunk.getChunkIndex(),
-                        chunk.getContent()
-                ))
-                .collect(Collectors.toList());
+        int after = cursor == null ? -1 : Cursors.decode(cursor, 1, key -> Integer.parseInt(key[0]));
+
+        List<Object[]> rows = chunkRepository.findChunkPage(documentId, after, PageRequest.of(0, limit + 1));
+        List<ChunkResponse> chunks = rows.stream().limit(limit).map(row -> toChunkResponse(documentId, row)).toList();
+        String next = rows.size() > limit ? Cursors.encode(chunks.get(chunks.size() - 1).getChunkIndex()) : null;
+        return new CursorPage<>(chunks, next);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DocumentResponse> getAllDocuments(boolean includeStats) {
+        List<DocumentResponse> documents = new ArrayList<>();
+        streamDocuments(documents::add);
+        if (shards.names().size() > 1) {
+            documents.sort(Comparator.comparing(DocumentResponse::getCreatedAt)
+                    .thenComparing(d -> d.getId().toString()));
+        }
+        if (includeStats) {
+            EmbeddingUtils.partition(documents, STATS_BATCH_SIZE).forEach(this::attachStats);
+        }
+        return documents;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ChunkResponse> getChunksByDocumentId(UUID documentId) {
+        shards.bindTransaction(documentId);
+        if (!documentRepository.existsLiveById(documentId)) {
+            throw new DocumentProcessingException("Document not found: " + documentId);
+        }
+        List<ChunkResponse> chunks = new ArrayList<>();
+        streamChunks(documentId, chunks::add);
+        return chunks;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamDocuments(Consumer<DocumentResponse> sink) {
+        // With sharding, documents come shard by shard, each shard in listing order.
+        for (String shard : shards.names()) {
+            shards.read(shard, () -> {
+                try (Stream<Object[]> rows = documentRepository.streamAllInListingOrder()) {
+                    rows.map(row -> new DocumentResponse(
+                            (UUID) row[0],
+                            (String) row[1],
+                            (String) row[2],
+                            (String) row[3],
+                            (Instant) row[4]
+                    )).forEach(sink);
+                }
+                return null;
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamChunks(UUID documentId, Consumer<ChunkResponse> sink) {
+        shards.bindTransaction(documentId);
+        try (Stream<Object[]> rows = chunkRepository.streamChunks(documentId)) {
+            rows.map(row -> toChunkResponse(documentId, row)).forEach(sink);
+        }
     }
 
     @Override
     @Transactional
     public void deleteDocument(UUID documentId) {
-        if (!documentRepository.existsById(documentId)) {
+        shards.bindTransaction(documentId);
+        if (!documentRepository.existsLiveById(documentId)) {
             throw new DocumentProcessingException("Document not found: " + documentId);
         }
-        chunkRepository.deleteByDocumentId(documentId);
-        documentRepository.deleteById(documentId);
+        documentRepository.deleteDocument(documentId);
+        eventPublisher.publishEvent(new DocumentDeletedEvent(documentId));
         log.info("Deleted document and chunks: {}", documentId);
     }
 
+    @Override
+    @Transactional
+    public void deleteDocumentAsync(UUID documentId) {
+        shards.bindTransaction(documentId);
+        if (documentRepository.tombstone(List.of(documentId), Instant.now()) == 0) {
+            throw new DocumentProcessingException("Document not found: " + documentId);
+        }
+        eventPublisher.publishEvent(new DocumentDeletedEvent(documentId));
+        log.info("Tombstoned document {}; chunks will be purged in the background", documentId);
+    }
+
+    /**
+     * Not transactional: each batch of tombstones commits on its own and its
+     * events go out straight after, so the in-memory indexes never lag a
+     * committed tombstone. If a shard fails, the batches committed before it
+     * stay deleted and the failure propagates.
+     */
+    @Override
+    public int deleteDocuments(SearchFilter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("A non-empty filter is required to delete documents in bulk");
+        }
+        Instant now = Instant.now();
+        int deleted = 0;
+        for (int count : shards.each(shard -> tombstoneMatching(filter, now))) {
+            deleted += count;
+        }
+        log.info("Tombstoned {} document(s) matching filter; chunks will be purged in the background", deleted);
+        return deleted;
+    }
+
+    /**
+     * Each shard returns its own next {@code size} documents after the
+     * cursor; the page is the first {@code size} of their union. Ids are
+     * compared as text, which matches Postgres' byte order for uuid.
+     */
+    private static List<DocumentEntity> mergePages(List<List<DocumentEntity>> pages, int size) {
+        if (pages.size() == 1) return pages.get(0);
+        return pages.stream()
+                .flatMap(List::stream)
+                .sorted(LISTING_ORDER)
+                .limit(size)
+                .toList();
+    }
+
+    /** Tombstones the current shard's documents matching {@code filter}, publishing each batch once committed. */
+    private int tombstoneMatching(SearchFilter filter, Instant now) {
+        List<UUID> ids = List.copyOf(chunkRepository.findDocumentIdsMatching(filter));
+        int deleted = 0;
+        for (List<UUID> batch : EmbeddingUtils.partition(ids, TOMBSTONE_BATCH_SIZE)) {
+            deleted += documentRepository.tombstone(batch, now);
+            batch.forEach(id -> eventPublisher.publishEvent(new DocumentDeletedEvent(id)));
+        }
+        return deleted;
+    }
+
     private DocumentResponse toDocumentResponse(DocumentEntity entity) {
         return new DocumentResponse(
                 entity.getId(),
@@ -163,13 +389,47 @@ public class DocumentIngestionServiceImpl implements DocumentIngestionService {
         );
     }
 
+    private void attachStats(List<DocumentResponse> documents) {
+        if (documents.isEmpty()) return;
+
+        Map<UUID, Object[]> stats = new HashMap<>();
+        List<UUID> ids = documents.stream().map(DocumentResponse::getId).toList();
+        for (List<Object[]> rows : shards.each(shard -> chunkRepository.summarizeByDocumentIds(ids))) {
+            rows.forEach(row -> stats.put((UUID) row[0], row));
+        }
+        for (DocumentResponse document : documents) {
+            Object[] row = stats.get(document.getId());
+            document.setChunkCount(row == null ? 0L : ((Number) row[1]).longValue());
+            document.setEmbeddedChunkCount(row == null ? 0L : ((Number) row[2]).longValue());
+            document.setTextLength(row == null ? 0L : ((Number) row[3]).longValue());
+        }
+    }
+
+    private static ChunkResponse toChunkResponse(UUID documentId, Object[] row) {
+        return new ChunkResponse((UUID) row[0], documentId, (Integer) row[1], (String) row[2]);
+    }
+
+    private static void requirePositive(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+    }
+
+    /** Streams the upload through the digest instead of loading it into memory. */
     private String computeChecksum(MultipartFile file) {
-        try {
+        try (InputStream in = file.getInputStream()) {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(file.getBytes());
-            return HexFormat.of().formatHex(hash);
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, n);
+            }
+            return HexFormat.of().formatHex(digest.digest());
         } catch (Exception e) {
             throw new DocumentProcessingException("Failed to compute checksum", e);
         }
     }
+
+    private record ListingKey(Instant createdAt, UUID id) {
+    }
 }
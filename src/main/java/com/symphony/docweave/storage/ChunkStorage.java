@@ -1,4 +1,33 @@
 package com.symphony.docweave.storage;
 
-public class ChunkStorage {
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Local, node-side copy of embedded chunks that search nodes can load without
+ * pulling every vector out of Postgres. The database remains the source of
+ * truth; implementations are expected to be rebuilt or reconciled from it.
+ */
+public interface ChunkStorage {
+
+    /** Stores (or replaces) a chunk. */
+    void put(StoredChunk chunk);
+
+    Optional<StoredChunk> get(UUID chunkId);
+
+    /** Vectors for the given ids; ids that are not stored are omitted. */
+    Map<UUID, float[]> getVectors(Collection<UUID> chunkIds);
+
+    boolean delete(UUID chunkId);
+
+    /** Deletes every chunk of a document; returns how many were removed. */
+    int deleteDocument(UUID documentId);
+
+    /** Visits every live chunk, in storage order. */
+    void forEach(Consumer<StoredChunk> consumer);
+
+    int size();
 }
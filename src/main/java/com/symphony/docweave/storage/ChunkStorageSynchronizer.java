@@ -0,0 +1,32 @@
+package com.symphony.docweave.storage;
+
+import com.symphony.docweave.event.ChunkEmbeddedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Mirrors embedding writes and document deletes into {@link ChunkStorage}.
+ * Registered by {@code ChunkStorageConfig} only when local storage is enabled.
+ */
+@RequiredArgsConstructor
+public class ChunkStorageSynchronizer {
+
+    private static final Logger log = LoggerFactory.getLogger(ChunkStorageSynchronizer.class);
+
+    private final ChunkStorage chunkStorage;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChunkEmbedded(ChunkEmbeddedEvent event) {
+        chunkStorage.put(new StoredChunk(event.chunkId(), event.documentId(), event.chunkIndex(),
+                event.embedding(), event.content()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDocumentDeleted(DocumentDeletedEvent event) {
+        int removed = chunkStorage.deleteDocument(event.documentId());
+        log.debug("Removed {} chunk(s) of document {} from chunk storage", removed, event.documentId());
+    }
+}
@@ -1,4 +1,566 @@
 package com.symphony.docweave.storage;
 
-public class FileSystemChunkStorage {
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link ChunkStorage} backed by append-only, memory-mapped segment files.
+ *
+ * Layout of the storage directory:
+ * <pre>
+ *   MANIFEST              segment ids currently in use (rewritten atomically)
+ *   segment-000001.seg    fixed-size, pre-allocated, mmapped record log
+ *   tombstones.log        16-byte chunk ids that have been deleted
+ * </pre>
+ *
+ * A record is {@code [int length][chunk id][document id][chunk index][dims]
+ * [float * dims][int textLength][utf-8 text]}. The length prefix is written
+ * last, so a record torn by a crash reads as the end of the segment.
+ *
+ * Re-putting a chunk appends a new record and leaves the old one as garbage;
+ * deletes only append a tombstone. A background task rewrites sealed
+ * segments whose garbage ratio exceeds the compaction threshold into the
+ * active segment and drops them. Residency is left to the OS page cache.
+ */
+public class FileSystemChunkStorage implements ChunkStorage, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSystemChunkStorage.class);
+
+    private static final String MANIFEST = "MANIFEST";
+    private static final String TOMBSTONES = "tombstones.log";
+    private static final int MANIFEST_VERSION = 1;
+    private static final int UUID_BYTES = 16;
+    /** chunk id + document id + chunk index + dims */
+    private static final int FIXED_BODY_BYTES = UUID_BYTES * 2 + Integer.BYTES * 2;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final boolean storeText;
+    private final double compactionThreshold;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+    private final Map<UUID, Location> locations = new HashMap<>();
+    private final Map<UUID, Set<UUID>> chunksByDocument = new HashMap<>();
+    private final Set<UUID> tombstones = new HashSet<>();
+
+    private Segment active;
+    private FileChannel tombstoneLog;
+    private ScheduledExecutorService compactor;
+
+    public FileSystemChunkStorage(Path directory, int segmentBytes, boolean storeText, double compactionThreshold) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.storeText = storeText;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    // -------------------------------------------------------------------------
+    // Lifecycle
+    // -------------------------------------------------------------------------
+
+    /**
+     * Maps the segments listed in the manifest, rebuilds the in-memory
+     * location table by scanning their record headers and applies tombstones.
+     */
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> ids = readManifest();
+        deleteOrphanSegments(ids);
+
+        for (int id : ids) {
+            Segment segment = Segment.map(segmentPath(id), id, segmentBytes);
+            segments.put(id, segment);
+            scan(segment);
+        }
+        loadTombstones();
+
+        if (segments.isEmpty()) {
+            roll();
+        } else {
+            active = segments.lastEntry().getValue();
+        }
+        log.info("Opened chunk storage at {}: {} chunk(s) in {} segment(s)",
+                directory, locations.size(), segments.size());
+    }
+
+    /** Starts periodic compaction of sealed segments. */
+    public void startCompaction(long intervalSeconds) {
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "chunk-storage-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (Exception e) {
+                log.warn("Chunk storage compaction failed: {}", e.getMessage());
+            }
+        }, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (compactor != null) compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.buffer.force();
+                segment.channel.close();
+            }
+            if (tombstoneLog != null) tombstoneLog.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // ChunkStorage
+    // -------------------------------------------------------------------------
+
+    @Override
+    public void put(StoredChunk chunk) {
+        byte[] text = storeText && chunk.content() != null
+                ? chunk.content().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        int bodyLength = FIXED_BODY_BYTES + chunk.vector().length * Float.BYTES + Integer.BYTES + text.length;
+        if (Integer.BYTES + bodyLength > segmentBytes) {
+            throw new IllegalArgumentException("Chunk " + chunk.chunkId() + " does not fit in a segment");
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (active.remaining() < Integer.BYTES + bodyLength) roll();
+
+            int offset = active.writePosition;
+            ByteBuffer buffer = active.buffer;
+            int p = offset + Integer.BYTES;
+            p = putUuid(buffer, p, chunk.chunkId());
+            p = putUuid(buffer, p, chunk.documentId());
+            buffer.putInt(p, chunk.chunkIndex());
+            buffer.putInt(p + 4, chunk.vector().length);
+            p += 8;
+            for (float v : chunk.vector()) {
+                buffer.putFloat(p, v);
+                p += Float.BYTES;
+            }
+            buffer.putInt(p, text.length);
+            buffer.put(p + Integer.BYTES, text);
+            buffer.putInt(offset, bodyLength);   // commit point
+
+            active.writePosition = offset + Integer.BYTES + bodyLength;
+            track(chunk.chunkId(), chunk.documentId(), new Location(active.id, offset, Integer.BYTES + bodyLength));
+            if (tombstones.remove(chunk.chunkId())) rewriteTombstones();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append chunk " + chunk.chunkId(), e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<StoredChunk> get(UUID chunkId) {
+        lock.readLock().lock();
+        try {
+            Location location = locations.get(chunkId);
+            return location == null ? Optional.empty() : Optional.of(read(location));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<UUID, float[]> getVectors(Collection<UUID> chunkIds) {
+        Map<UUID, float[]> vectors = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (UUID id : chunkIds) {
+                Location location = locations.get(id);
+                if (location != null) vectors.put(id, readVector(location));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return vectors;
+    }
+
+    @Override
+    public boolean delete(UUID chunkId) {
+        lock.writeLock().lock();
+        try {
+            return tombstone(chunkId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete chunk " + chunkId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int deleteDocument(UUID documentId) {
+        lock.writeLock().lock();
+        try {
+            Set<UUID> chunkIds = chunksByDocument.get(documentId);
+            if (chunkIds == null) return 0;
+            int removed = 0;
+            for (UUID chunkId : new ArrayList<>(chunkIds)) {
+                if (tombstone(chunkId)) removed++;
+            }
+            return removed;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete document " + documentId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<StoredChunk> consumer) {
+        lock.readLock().lock();
+        try {
+            for (Segment segment : segments.values()) {
+                int offset = 0;
+                while (offset < segment.writePosition) {
+                    int length = Integer.BYTES + segment.buffer.getInt(offset);
+                    UUID chunkId = getUuid(segment.buffer, offset + Integer.BYTES);
+                    Location location = locations.get(chunkId);
+                    if (location != null && location.segmentId() == segment.id && location.offset() == offset) {
+                        consumer.accept(read(location));
+                    }
+                    offset += length;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return locations.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Compaction
+    // -------------------------------------------------------------------------
+
+    /**
+     * Copies the live records of sealed segments whose garbage ratio is above
+     * the threshold into the active segment, then deletes those segments and
+     * drops tombstones that no longer shadow any record on disk.
+     *
+     * @return number of segments reclaimed
+     */
+    public int compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<Segment> victims = new ArrayList<>();
+            for (Segment segment : segments.values()) {
+                if (segment != active && segment.garbageRatio() >= compactionThreshold) {
+                    victims.add(segment);
+                }
+            }
+            if (victims.isEmpty()) return 0;
+
+            for (Segment victim : victims) {
+                relocateLiveRecords(victim);
+                segments.remove(victim.id);
+                writeManifest();
+                victim.channel.close();
+                Files.deleteIfExists(victim.path);
+                log.info("Compacted chunk storage segment {}", victim.id);
+            }
+            pruneTombstones();
+            return victims.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void relocateLiveRecords(Segment victim) throws IOException {
+        int offset = 0;
+        while (offset < victim.writePosition) {
+            int length = Integer.BYTES + victim.buffer.getInt(offset);
+            UUID chunkId = getUuid(victim.buffer, offset + Integer.BYTES);
+            Location location = locations.get(chunkId);
+            if (location != null && location.segmentId() == victim.id && location.offset() == offset) {
+                if (active.remaining() < length) roll();
+                byte[] record = new byte[length];
+                victim.buffer.get(offset, record);
+                active.buffer.put(active.writePosition, record);
+                UUID documentId = getUuid(victim.buffer, offset + Integer.BYTES + UUID_BYTES);
+                track(chunkId, documentId, new Location(active.id, active.writePosition, length));
+                active.writePosition += length;
+            }
+            offset += length;
+        }
+    }
+
+    /** Keeps only tombstones whose chunk id still has a (dead) record in some segment. */
+    private void pruneTombstones() throws IOException {
+        if (tombstones.isEmpty()) return;
+        Set<UUID> onDisk = new HashSet<>();
+        for (Segment segment : segments.values()) {
+            int offset = 0;
+            while (offset < segment.writePosition) {
+                onDisk.add(getUuid(segment.buffer, offset + Integer.BYTES));
+                offset += Integer.BYTES + segment.buffer.getInt(offset);
+            }
+        }
+        if (tombstones.retainAll(onDisk)) rewriteTombstones();
+    }
+
+    // -------------------------------------------------------------------------
+    // Internals
+    // -------------------------------------------------------------------------
+
+    private void scan(Segment segment) {
+        int offset = 0;
+        while (offset + Integer.BYTES <= segmentBytes) {
+            int bodyLength = segment.buffer.getInt(offset);
+            if (bodyLength <= 0 || offset + Integer.BYTES + bodyLength > segmentBytes) break;
+            UUID chunkId = getUuid(segment.buffer, offset + Integer.BYTES);
+            UUID documentId = getUuid(segment.buffer, offset + Integer.BYTES + UUID_BYTES);
+            track(chunkId, documentId, new Location(segment.id, offset, Integer.BYTES + bodyLength));
+            offset += Integer.BYTES + bodyLength;
+        }
+        segment.writePosition = offset;
+    }
+
+    private void track(UUID chunkId, UUID documentId, Location location) {
+        Location previous = locations.put(chunkId, location);
+        if (previous != null) segments.get(previous.segmentId()).liveBytes -= previous.length();
+        segments.get(location.segmentId()).liveBytes += location.length();
+        chunksByDocument.computeIfAbsent(documentId, id -> new HashSet<>()).add(chunkId);
+    }
+
+    private boolean tombstone(UUID chunkId) throws IOException {
+        Location location = locations.remove(chunkId);
+        if (location == null) return false;
+
+        Segment segment = segments.get(location.segmentId());
+        segment.liveBytes -= location.length();
+        UUID documentId = getUuid(segment.buffer, location.offset() + Integer.BYTES + UUID_BYTES);
+        Set<UUID> siblings = chunksByDocument.get(documentId);
+        if (siblings != null) {
+            siblings.remove(chunkId);
+            if (siblings.isEmpty()) chunksByDocument.remove(documentId);
+        }
+
+        tombstones.add(chunkId);
+        ByteBuffer entry = ByteBuffer.allocate(UUID_BYTES);
+        putUuid(entry, 0, chunkId);
+        tombstoneLog.write(entry);
+        return true;
+    }
+
+    private StoredChunk read(Location location) {
+        ByteBuffer buffer = segments.get(location.segmentId()).buffer;
+        int p = location.offset() + Integer.BYTES;
+        UUID chunkId = getUuid(buffer, p);
+        UUID documentId = getUuid(buffer, p + UUID_BYTES);
+        int chunkIndex = buffer.getInt(p + UUID_BYTES * 2);
+        float[] vector = readVector(location);
+        p += FIXED_BODY_BYTES + vector.length * Float.BYTES;
+        int textLength = buffer.getInt(p);
+        String content = null;
+        if (textLength > 0) {
+            byte[] text = new byte[textLength];
+            buffer.get(p + Integer.BYTES, text);
+            content = new String(text, StandardCharsets.UTF_8);
+        }
+        return new StoredChunk(chunkId, documentId, chunkIndex, vector, content);
+    }
+
+    private float[] readVector(Location location) {
+        ByteBuffer buffer = segments.get(location.segmentId()).buffer;
+        int p = location.offset() + Integer.BYTES + UUID_BYTES * 2 + Integer.BYTES;
+        int dims = buffer.getInt(p);
+        p += Integer.BYTES;
+        float[] vector = new float[dims];
+        for (int i = 0; i < dims; i++) {
+            vector[i] = buffer.getFloat(p + i * Float.BYTES);
+        }
+        return vector;
+    }
+
+    private void roll() throws IOException {
+        if (active != null) active.buffer.force();
+        int id = segments.isEmpty() ? 1 : segments.lastKey() + 1;
+        Segment segment = Segment.map(segmentPath(id), id, segmentBytes);
+        segments.put(id, segment);
+        active = segment;
+        writeManifest();
+    }
+
+    private List<Integer> readManifest() throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) return new ArrayList<>();
+
+        List<Integer> ids = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (line.startsWith("version=")) {
+                int version = Integer.parseInt(line.substring("version=".length()).trim());
+                if (version != MANIFEST_VERSION) {
+                    throw new IOException("Unsupported chunk storage manifest version: " + version);
+                }
+            } else if (line.startsWith("segments=") && line.length() > "segments=".length()) {
+                Arrays.stream(line.substring("segments=".length()).split(","))
+                        .map(String::trim)
+                        .map(Integer::parseInt)
+                        .forEach(ids::add);
+            }
+        }
+        return ids;
+    }
+
+    private void writeManifest() throws IOException {
+        String content = "version=" + MANIFEST_VERSION + "\n"
+                + "segments=" + String.join(",", segments.keySet().stream().map(String::valueOf).toList()) + "\n";
+        Path tmp = directory.resolve(MANIFEST + ".tmp");
+        Files.writeString(tmp, content, StandardCharsets.UTF_8);
+        Files.move(tmp, directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Segments created but never recorded in the manifest (crash during roll). */
+    private void deleteOrphanSegments(List<Integer> ids) throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("segment-") && name.endsWith(".seg")) {
+                    int id = Integer.parseInt(name.substring("segment-".length(), name.length() - ".seg".length()));
+                    if (!ids.contains(id)) Files.delete(file);
+                }
+            }
+        }
+    }
+
+    private void loadTombstones() throws IOException {
+        Path path = directory.resolve(TOMBSTONES);
+        if (Files.exists(path)) {
+            byte[] bytes = Files.readAllBytes(path);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (int p = 0; p + UUID_BYTES <= bytes.length; p += UUID_BYTES) {
+                UUID chunkId = getUuid(buffer, p);
+                tombstones.add(chunkId);
+                Location location = locations.remove(chunkId);
+                if (location != null) {
+                    Segment segment = segments.get(location.segmentId());
+                    segment.liveBytes -= location.length();
+                    UUID documentId = getUuid(segment.buffer, location.offset() + Integer.BYTES + UUID_BYTES);
+                    Set<UUID> siblings = chunksByDocument.get(documentId);
+                    if (siblings != null) {
+                        siblings.remove(chunkId);
+                        if (siblings.isEmpty()) chunksByDocument.remove(documentId);
+                    }
+                }
+            }
+        }
+        tombstoneLog = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private void rewriteTombstones() throws IOException {
+        Path path = directory.resolve(TOMBSTONES);
+        Path tmp = directory.resolve(TOMBSTONES + ".tmp");
+        ByteBuffer buffer = ByteBuffer.allocate(tombstones.size() * UUID_BYTES);
+        int p = 0;
+        for (UUID id : tombstones) {
+            p = putUuid(buffer, p, id);
+        }
+        Files.write(tmp, buffer.array());
+        tombstoneLog.close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tombstoneLog = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve(String.format("segment-%06d.seg", id));
+    }
+
+    private static int putUuid(ByteBuffer buffer, int offset, UUID id) {
+        buffer.putLong(offset, id.getMostSignificantBits());
+        buffer.putLong(offset + Long.BYTES, id.getLeastSignificantBits());
+        return offset + UUID_BYTES;
+    }
+
+    private static UUID getUuid(ByteBuffer buffer, int offset) {
+        return new UUID(buffer.getLong(offset), buffer.getLong(offset + Long.BYTES));
+    }
+
+    private record Location(int segmentId, int offset, int length) {}
+
+    /**
+     * One pre-allocated segment file mapped in full. Sealed segments are never
+     * written again except by compaction reading them; the OS decides which
+     * pages stay resident.
+     */
+    private static final class Segment {
+
+        final int id;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        int writePosition;
+        long liveBytes;
+
+        private Segment(int id, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment map(Path path, int id, int size) throws IOException {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                if (file.length() < size) file.setLength(size);
+            }
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(id, path, channel, buffer);
+        }
+
+        int remaining() {
+            return buffer.capacity() - writePosition;
+        }
+
+        double garbageRatio() {
+            return writePosition == 0 ? 0d : 1d - (double) liveBytes / writePosition;
+        }
+    }
 }
@@ -0,0 +1,36 @@
+package com.symphony.docweave.storage;
+
+import com.symphony.docweave.index.DatabaseVectorSource;
+import com.symphony.docweave.index.FullPrecisionVectorSource;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Serves rescoring vectors from local {@link ChunkStorage}, falling back to
+ * the database for ids the storage does not have yet.
+ */
+@RequiredArgsConstructor
+public class StorageVectorSource implements FullPrecisionVectorSource {
+
+    private final ChunkStorage chunkStorage;
+    private final DatabaseVectorSource databaseVectorSource;
+
+    @Override
+    public Map<UUID, float[]> fetch(Collection<UUID> chunkIds) {
+        Map<UUID, float[]> vectors = new HashMap<>(chunkStorage.getVectors(chunkIds));
+        if (vectors.size() == chunkIds.size()) return vectors;
+
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : chunkIds) {
+            if (!vectors.containsKey(id)) missing.add(id);
+        }
+        vectors.putAll(databaseVectorSource.fetch(missing));
+        return vectors;
+    }
+}
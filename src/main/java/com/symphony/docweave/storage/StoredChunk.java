@@ -0,0 +1,10 @@
+package com.symphony.docweave.storage;
+
+import java.util.UUID;
+
+/**
+ * A chunk as persisted by {@link ChunkStorage}. {@code content} is null when
+ * the storage is configured to keep vectors only.
+ */
+public record StoredChunk(UUID chunkId, UUID documentId, int chunkIndex, float[] vector, String content) {
+}
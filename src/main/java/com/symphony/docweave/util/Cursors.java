@@ -0,0 +1,41 @@
+package com.symphony.docweave.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque keyset-pagination cursors: the sort key of the last row of a page,
+ * base64url-encoded so clients treat it as a token rather than building
+ * their own.
+ */
+public final class Cursors {
+
+    private static final String SEPARATOR = "|";
+
+    private Cursors() {
+    }
+
+    public static String encode(Object... keyParts) {
+        String key = Arrays.stream(keyParts).map(String::valueOf).collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param parts  number of key parts the cursor must carry
+     * @param parser builds the key from its parts
+     * @throws IllegalArgumentException if the cursor was not produced by {@link #encode} with that shape
+     */
+    public static <T> T decode(String cursor, int parts, Function<String[], T> parser) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] keyParts = key.split("\\" + SEPARATOR, -1);
+            if (keyParts.length != parts) throw new IllegalArgumentException();
+            return parser.apply(keyParts);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.symphony.docweave.util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public final class EmbeddingUtils {
@@ -15,6 +16,78 @@ public final class EmbeddingUtils {
         return arr;
     }
 
+    /**
+     * Parses pgvector's text representation ("[0.1,0.2,...]") into a float[].
+     * Used wherever a native query selects {@code CAST(embedding AS text)}
+     * instead of letting Hibernate hydrate the vector column.
+     */
+    public static float[] fromPgVectorLiteral(String literal) {
+        int start = literal.indexOf('[') + 1;
+        int end = literal.lastIndexOf(']');
+        if (end <= start) return new float[0];
+
+        int count = 1;
+        for (int i = start; i < end; i++) {
+            if (literal.charAt(i) == ',') count++;
+        }
+
+        float[] arr = new float[count];
+        int idx = 0;
+        int tokenStart = start;
+        for (int i = start; i <= end; i++) {
+            if (i == end || literal.charAt(i) == ',') {
+                arr[idx++] = Float.parseFloat(literal.substring(tokenStart, i).trim());
+                tokenStart = i + 1;
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Converts a float[] to the PostgreSQL vector literal format: "[0.1,0.2,...]"
+     *
+     * IMPORTANT: must use plain decimal notation (%.8f), never scientific
+     * notation (e.g. 1.23E-5), which pgvector's parser rejects.
+     */
+    public static String toPgVectorLiteral(float[] vector) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < vector.length; i++) {
+            sb.append(String.format("%.8f", vector[i]));
+            if (i < vector.length - 1) sb.append(",");
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+
+    /**
+     * The first {@code dimensions} components of a Matryoshka embedding,
+     * scaled back to unit length so the prefix is itself a normalised
+     * embedding.
+     *
+     * @throws IllegalArgumentException if the vector is shorter than {@code dimensions}
+     */
+    public static float[] truncate(float[] vector, int dimensions) {
+        if (vector.length < dimensions) {
+            throw new IllegalArgumentException(
+                    "Cannot truncate a " + vector.length + "-dimensional vector to " + dimensions + " dimensions");
+        }
+        return normalizeInPlace(Arrays.copyOf(vector, dimensions));
+    }
+
+    /** A unit-length copy of {@code vector}; a zero vector is returned as is. */
+    public static float[] normalize(float[] vector) {
+        return normalizeInPlace(vector.clone());
+    }
+
+    private static float[] normalizeInPlace(float[] vector) {
+        double norm = 0;
+        for (float v : vector) norm += (double) v * v;
+        if (norm == 0) return vector;
+        float scale = (float) (1 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) vector[i] *= scale;
+        return vector;
+    }
+
     public static <T> List<List<T>> partition(List<T> list, int size) {
         List<List<T>> parts = new ArrayList<>();
         for (int i = 0; i < list.size(); i += size) {
@@ -1,14 +1,17 @@
 package com.symphony.docweave.util;
 
+import com.symphony.docweave.metrics.PipelineMetrics;
 import com.theokanning.openai.OpenAiService;
 import com.theokanning.openai.embedding.Embedding;
 import com.theokanning.openai.embedding.EmbeddingRequest;
 import com.theokanning.openai.embedding.EmbeddingResult;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
 import java.util.List;
 
 @Component
@@ -22,6 +25,7 @@ public class OpenAiEmbeddingClient {
     private static final long RETRY_DELAY_MS = 1000;
 
     private final OpenAiService openAiService;
+    private final PipelineMetrics metrics;
 
     /**
      * Calls the OpenAI Embeddings API for the given texts and returns one float[]
@@ -32,6 +36,7 @@ public class OpenAiEmbeddingClient {
         Exception lastException = null;
 
         for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            Timer.Sample sample = metrics.start();
             try {
                 EmbeddingRequest request = EmbeddingRequest.builder()
                         .model(MODEL)
@@ -39,13 +44,20 @@ public class OpenAiEmbeddingClient {
                         .build();
 
                 EmbeddingResult result = openAiService.createEmbeddings(request);
+                sample.stop(metrics.embeddingRequest("success"));
 
+                // Sort by index: the API does not promise response order, and
+                // batched callers map embeddings back to inputs by position.
                 return result.getData().stream()
+                        .sorted(Comparator.comparing(Embedding::getIndex))
                         .map(Embedding::getEmbedding)
                         .map(EmbeddingUtils::toFloatArray)
                         .toList();
 
             } catch (Exception e) {
+                sample.stop(metrics.embeddingRequest("error"));
+                if (isThrottled(e)) metrics.embeddingThrottled().increment();
+                if (attempt < MAX_RETRIES) metrics.embeddingRetries().increment();
                 lastException = e;
                 long delay = RETRY_DELAY_MS * (1L << (attempt - 1)); // 1 s, 2 s, 4 s
                 log.warn("OpenAI embed call failed (attempt {}/{}): {}. Retrying in {} ms",
@@ -61,4 +73,19 @@ public class OpenAiEmbeddingClient {
 
         throw new RuntimeException("OpenAI embed failed after " + MAX_RETRIES + " attempts", lastException);
     }
+
+    /**
+     * The client surfaces rate limiting as an HTTP 429 somewhere in the
+     * cause chain; its exception types differ between versions, so the
+     * status is matched on the messages.
+     */
+    private static boolean isThrottled(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            String message = t.getMessage();
+            if (message != null && (message.contains("429") || message.toLowerCase().contains("rate limit"))) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,160 @@
+-- Optional halfvec storage for chunk embeddings (embedding.storage.mode).
+--
+-- With spring.flyway.placeholders.embedding_storage = halfvec, embedding
+-- becomes HALFVEC(1536): 3 KB instead of 6 KB per row, so the table, its
+-- TOAST relation and the ANN index are half the size. Vectors are
+-- normalised as they are converted (and on every later write), and the
+-- IVFFlat index is rebuilt with inner-product ops, which rank unit
+-- vectors the same as cosine distance but cost less per comparison.
+-- With the default (vector) this migration does nothing, and the choice
+-- is fixed from then on, like chunk_partitions in V6.
+--
+-- Online cutover, like V6. Runs outside a transaction (see the .conf
+-- file). Rows are converted into a new column in batches of 10,000, each
+-- committed on its own, while a trigger converts every embedding written
+-- meanwhile. The new column's indexes are then built one partition at a
+-- time. Only the final step blocks writers: it takes an EXCLUSIVE lock
+-- (reads continue), converts anything still missing, and swaps the
+-- columns. Every step checks whether it has already happened, so after a
+-- failure the migration can be repaired and run again.
+
+DO $$
+BEGIN
+    IF lower('${embedding_storage}') <> 'halfvec' THEN
+        RETURN;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'document_chunks' AND column_name = 'embedding' AND udt_name = 'vector') THEN
+        RETURN;
+    END IF;
+
+    ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS embedding_half HALFVEC(1536);
+
+    -- Embeddings written from here on are converted as they are written.
+    -- Entity saves rewrite every column, so this covers re-embedding too.
+    CREATE OR REPLACE FUNCTION document_chunks_sync_embedding_half() RETURNS trigger AS $fn$
+    BEGIN
+        NEW.embedding_half := CAST(l2_normalize(NEW.embedding) AS halfvec);
+        RETURN NEW;
+    END $fn$ LANGUAGE plpgsql;
+
+    DROP TRIGGER IF EXISTS trg_chunks_sync_embedding_half ON document_chunks;
+    CREATE TRIGGER trg_chunks_sync_embedding_half
+    BEFORE INSERT OR UPDATE OF embedding ON document_chunks
+    FOR EACH ROW
+    EXECUTE FUNCTION document_chunks_sync_embedding_half();
+END $$;
+
+-- Keyset over the primary key, so each batch starts where the last ended
+-- instead of searching the table again for rows still to convert.
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    last_document_id UUID := '00000000-0000-0000-0000-000000000000';
+    next_id UUID;
+    next_document_id UUID;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'document_chunks' AND column_name = 'embedding_half') THEN
+        RETURN;
+    END IF;
+
+    LOOP
+        SELECT id, document_id INTO next_id, next_document_id
+        FROM (
+            SELECT id, document_id FROM document_chunks
+            WHERE (id, document_id) > (last_id, last_document_id)
+            ORDER BY id, document_id
+            LIMIT 10000
+        ) batch
+        ORDER BY id DESC, document_id DESC
+        LIMIT 1;
+        EXIT WHEN NOT FOUND;
+
+        UPDATE document_chunks
+        SET embedding_half = CAST(l2_normalize(embedding) AS halfvec)
+        WHERE (id, document_id) > (last_id, last_document_id)
+          AND (id, document_id) <= (next_id, next_document_id)
+          AND embedding IS NOT NULL
+          AND embedding_half IS NULL;
+
+        last_id := next_id;
+        last_document_id := next_document_id;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Built before the swap on the parent only, then partition by partition,
+-- each committed on its own. They follow embedding_half through the
+-- rename below, and take the old indexes' names there.
+DO $$
+DECLARE
+    spec TEXT[];
+    part TEXT;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'document_chunks' AND column_name = 'embedding_half') THEN
+        RETURN;
+    END IF;
+
+    -- index name, partition index suffix, definition
+    FOREACH spec SLICE 1 IN ARRAY ARRAY[
+        ['idx_chunks_embedded_document_id_new', 'embedded_document_id_half_idx',
+         '(document_id) WHERE embedding_half IS NOT NULL'],
+        ['idx_chunks_pending_embedding_new', 'pending_embedding_half_idx',
+         '(lease_expires_at) WHERE embedding_half IS NULL'],
+        -- lists applies per partition, as in V6
+        ['idx_chunks_embedding_new', 'embedding_half_idx',
+         'USING ivfflat (embedding_half halfvec_ip_ops) WITH (lists = 100)']
+    ] LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON ONLY document_chunks %s', spec[1], spec[3]);
+        COMMIT;
+
+        FOR part IN
+            SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'document_chunks'::regclass
+            ORDER BY c.relname
+        LOOP
+            EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I %s', part || '_' || spec[2], part, spec[3]);
+            IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                           WHERE inhrelid = to_regclass(quote_ident(part || '_' || spec[2]))) THEN
+                EXECUTE format('ALTER INDEX %I ATTACH PARTITION %I', spec[1], part || '_' || spec[2]);
+            END IF;
+            COMMIT;
+        END LOOP;
+    END LOOP;
+END $$;
+
+-- Catch up and swap in one transaction.
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_name = 'document_chunks' AND column_name = 'embedding_half') THEN
+        RETURN;
+    END IF;
+
+    -- Writers wait from here until the swap commits; readers carry on.
+    LOCK TABLE document_chunks IN EXCLUSIVE MODE;
+
+    -- Written behind the cursor before the trigger existed
+    UPDATE document_chunks
+    SET embedding_half = CAST(l2_normalize(embedding) AS halfvec)
+    WHERE embedding IS NOT NULL
+      AND embedding_half IS NULL;
+
+    DROP TRIGGER trg_chunks_sync_embedding_half ON document_chunks;
+    DROP FUNCTION document_chunks_sync_embedding_half();
+
+    -- Indexes on the old column go with it.
+    DROP INDEX IF EXISTS idx_chunks_embedding;
+    DROP INDEX IF EXISTS idx_chunks_embedded_document_id;
+    DROP INDEX IF EXISTS idx_chunks_pending_embedding;
+    ALTER TABLE document_chunks DROP COLUMN embedding;
+    ALTER TABLE document_chunks RENAME COLUMN embedding_half TO embedding;
+
+    ALTER INDEX idx_chunks_embedded_document_id_new RENAME TO idx_chunks_embedded_document_id;
+    ALTER INDEX idx_chunks_pending_embedding_new RENAME TO idx_chunks_pending_embedding;
+    ALTER INDEX idx_chunks_embedding_new RENAME TO idx_chunks_embedding;
+END $$;
+
+ANALYZE document_chunks;
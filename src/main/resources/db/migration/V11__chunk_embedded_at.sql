@@ -0,0 +1,62 @@
+-- When each chunk's embedding was written, by the database clock.
+--
+-- Every node keeps its own in-memory HNSW index, fed by the embeddings it
+-- writes itself. VectorIndexLoader polls this column to pick up embeddings
+-- written by other nodes. A trigger stamps it, so every writer keeps it
+-- current without knowing about it. Rows embedded before this migration
+-- stay NULL; they were loaded at startup in any case.
+--
+-- Runs outside a transaction (see the .conf file). The index is built one
+-- partition at a time, each committed on its own, so only one partition's
+-- writers wait for a build at any moment. Every step checks whether it has
+-- already happened, so after a failure the migration can be repaired and
+-- run again.
+
+ALTER TABLE document_chunks ADD COLUMN IF NOT EXISTS embedded_at TIMESTAMPTZ;
+
+CREATE OR REPLACE FUNCTION document_chunks_stamp_embedded_at() RETURNS trigger AS $$
+BEGIN
+    NEW.embedded_at := now();
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_chunks_embedded_at_insert ON document_chunks;
+CREATE TRIGGER trg_chunks_embedded_at_insert
+BEFORE INSERT ON document_chunks
+FOR EACH ROW
+WHEN (NEW.embedding IS NOT NULL)
+EXECUTE FUNCTION document_chunks_stamp_embedded_at();
+
+-- Entity saves rewrite every column, so only a changed embedding counts.
+DROP TRIGGER IF EXISTS trg_chunks_embedded_at_update ON document_chunks;
+CREATE TRIGGER trg_chunks_embedded_at_update
+BEFORE UPDATE OF embedding ON document_chunks
+FOR EACH ROW
+WHEN (NEW.embedding IS NOT NULL AND NEW.embedding IS DISTINCT FROM OLD.embedding)
+EXECUTE FUNCTION document_chunks_stamp_embedded_at();
+
+-- Created on the parent only, then built and attached partition by
+-- partition; the parent index becomes valid once every partition has one.
+DO $$
+DECLARE
+    part TEXT;
+BEGIN
+    CREATE INDEX IF NOT EXISTS idx_chunks_embedded_at
+    ON ONLY document_chunks(embedded_at, id)
+    WHERE embedded_at IS NOT NULL;
+    COMMIT;
+
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'document_chunks'::regclass
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I(embedded_at, id) WHERE embedded_at IS NOT NULL',
+                       part || '_embedded_at_idx', part);
+        IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                       WHERE inhrelid = to_regclass(quote_ident(part || '_embedded_at_idx'))) THEN
+            EXECUTE format('ALTER INDEX idx_chunks_embedded_at ATTACH PARTITION %I', part || '_embedded_at_idx');
+        END IF;
+        COMMIT;
+    END LOOP;
+END $$;
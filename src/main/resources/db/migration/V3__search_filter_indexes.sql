@@ -0,0 +1,16 @@
+-- Indexes backing filtered search (see DocumentChunkSearchRepositoryImpl)
+
+-- Source (content type) and ingestion-date filters on documents
+CREATE INDEX idx_documents_source ON documents(source);
+CREATE INDEX idx_documents_created_at ON documents(created_at);
+
+-- Case-insensitive filename globs, including leading wildcards ('%report%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_documents_filename_trgm
+ON documents
+USING gin (lower(original_filename) gin_trgm_ops);
+
+-- Embedded chunks of a given document, for the exact-scan path
+CREATE INDEX idx_chunks_embedded_document_id
+ON document_chunks(document_id)
+WHERE embedding IS NOT NULL;
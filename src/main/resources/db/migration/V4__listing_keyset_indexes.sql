@@ -0,0 +1,8 @@
+-- Keyset pagination over documents and chunks (GET /api/v1/documents, /{id}/chunks).
+-- Each composite index also serves every query its leading column did, so it replaces it.
+
+CREATE INDEX idx_documents_created_at_id ON documents(created_at, id);
+DROP INDEX IF EXISTS idx_documents_created_at;
+
+CREATE INDEX idx_chunks_document_id_chunk_index ON document_chunks(document_id, chunk_index);
+DROP INDEX IF EXISTS idx_chunks_document_id;
@@ -0,0 +1,9 @@
+-- Asynchronous deletion: a tombstoned document is hidden at once and purged in batches by DocumentPurger.
+ALTER TABLE documents ADD COLUMN deleted_at TIMESTAMP;
+
+-- Small, since tombstones only live until the purge; backs the "NOT IN tombstoned" search predicates.
+CREATE INDEX idx_documents_tombstoned ON documents(deleted_at) WHERE deleted_at IS NOT NULL;
+
+-- A file can be re-ingested while its deleted copy is still being purged.
+DROP INDEX idx_documents_checksum;
+CREATE UNIQUE INDEX idx_documents_checksum ON documents(checksum) WHERE deleted_at IS NULL;
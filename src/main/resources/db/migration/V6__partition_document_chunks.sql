@@ -0,0 +1,137 @@
+-- Hash-partition document_chunks by document_id.
+--
+-- Each partition gets its own IVFFlat, chunk-order and embedded-chunk indexes
+-- (created below on the parent, so future partitions inherit them). Index
+-- builds, REINDEX and vacuum then work one partition at a time.
+--
+-- The partition count comes from spring.flyway.placeholders.chunk_partitions
+-- and is fixed once this has run; changing it later means repartitioning.
+--
+-- Online cutover. Runs outside a transaction (see the .conf file), so the
+-- old table stays readable and writable while rows are copied in batches of
+-- 10,000, each committed on its own, and while the new table's indexes are
+-- built. Only the final step blocks writers: it takes an EXCLUSIVE lock on
+-- the old table (reads continue), copies rows inserted, embedded or deleted
+-- since their batch, then swaps the tables. The catch-up matches rows by
+-- primary key and only writes the ones that changed, so it holds the lock
+-- for far less time than a one-transaction copy would. Every step checks whether it has already happened, so after a
+-- failure the migration can be repaired and run again.
+
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'document_chunks'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    CREATE TABLE IF NOT EXISTS document_chunks_partitioned (
+        id UUID NOT NULL,
+        document_id UUID NOT NULL,
+        chunk_index INT NOT NULL,
+        chunk_text TEXT NOT NULL,
+        created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+        embedding VECTOR(1536),
+
+        -- The partition key must be part of the primary key; id leads so
+        -- lookups by chunk id still use it.
+        PRIMARY KEY (id, document_id),
+
+        CONSTRAINT fk_chunks_document
+            FOREIGN KEY (document_id)
+            REFERENCES documents(id)
+            ON DELETE CASCADE
+    ) PARTITION BY HASH (document_id);
+
+    FOR r IN 0..${chunk_partitions} - 1 LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS document_chunks_p%s PARTITION OF document_chunks_partitioned
+             FOR VALUES WITH (MODULUS %s, REMAINDER %s)',
+            r, ${chunk_partitions}, r);
+    END LOOP;
+END $$;
+
+-- Copy in id order, resuming after the highest id already copied.
+DO $$
+DECLARE
+    last_id UUID;
+    copied BIGINT;
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'document_chunks'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    LOOP
+        SELECT id INTO last_id FROM document_chunks_partitioned ORDER BY id DESC LIMIT 1;
+
+        INSERT INTO document_chunks_partitioned (id, document_id, chunk_index, chunk_text, created_at, embedding)
+        SELECT id, document_id, chunk_index, chunk_text, created_at, embedding
+        FROM document_chunks
+        WHERE id > COALESCE(last_id, '00000000-0000-0000-0000-000000000000')
+        ORDER BY id
+        LIMIT 10000;
+        GET DIAGNOSTICS copied = ROW_COUNT;
+        EXIT WHEN copied = 0;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Built after the copy, which is much faster than maintaining them row by
+-- row, and before the swap, so only the new table is locked meanwhile. The
+-- old table's indexes still hold the final names; these take them below.
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'document_chunks'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    CREATE INDEX IF NOT EXISTS idx_chunks_document_id_chunk_index_new
+    ON document_chunks_partitioned(document_id, chunk_index);
+
+    CREATE INDEX IF NOT EXISTS idx_chunks_embedded_document_id_new
+    ON document_chunks_partitioned(document_id)
+    WHERE embedding IS NOT NULL;
+
+    -- lists applies per partition: roughly partition rows / 1000
+    CREATE INDEX IF NOT EXISTS idx_chunks_embedding_new
+    ON document_chunks_partitioned
+    USING ivfflat (embedding vector_cosine_ops)
+    WITH (lists = 100);
+END $$;
+
+-- Catch up and swap in one transaction.
+DO $$
+BEGIN
+    IF (SELECT relkind FROM pg_class WHERE oid = 'document_chunks'::regclass) = 'p' THEN
+        RETURN;
+    END IF;
+
+    -- Writers wait from here until the swap commits; readers carry on.
+    LOCK TABLE document_chunks IN EXCLUSIVE MODE;
+
+    -- Inserted after the batch that covered their id
+    INSERT INTO document_chunks_partitioned (id, document_id, chunk_index, chunk_text, created_at, embedding)
+    SELECT o.id, o.document_id, o.chunk_index, o.chunk_text, o.created_at, o.embedding
+    FROM document_chunks o
+    WHERE NOT EXISTS (SELECT 1 FROM document_chunks_partitioned n
+                      WHERE n.id = o.id AND n.document_id = o.document_id);
+
+    -- Embedded after being copied
+    UPDATE document_chunks_partitioned n
+    SET embedding = o.embedding
+    FROM document_chunks o
+    WHERE o.id = n.id AND o.document_id = n.document_id
+      AND n.embedding IS NULL AND o.embedding IS NOT NULL;
+
+    -- Deleted after being copied (purges of tombstoned documents)
+    DELETE FROM document_chunks_partitioned n
+    WHERE NOT EXISTS (SELECT 1 FROM document_chunks o
+                      WHERE o.id = n.id AND o.document_id = n.document_id);
+
+    DROP TABLE document_chunks;
+    ALTER TABLE document_chunks_partitioned RENAME TO document_chunks;
+    ALTER INDEX document_chunks_partitioned_pkey RENAME TO document_chunks_pkey;
+    ALTER INDEX idx_chunks_document_id_chunk_index_new RENAME TO idx_chunks_document_id_chunk_index;
+    ALTER INDEX idx_chunks_embedded_document_id_new RENAME TO idx_chunks_embedded_document_id;
+    ALTER INDEX idx_chunks_embedding_new RENAME TO idx_chunks_embedding;
+END $$;
+
+ANALYZE document_chunks;
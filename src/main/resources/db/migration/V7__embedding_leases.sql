@@ -0,0 +1,7 @@
+-- Embedding backfill leases: a node claims pending chunks by stamping them with its id and an expiry,
+-- so concurrent backfills on several instances never embed the same chunk twice.
+ALTER TABLE document_chunks ADD COLUMN lease_owner TEXT;
+ALTER TABLE document_chunks ADD COLUMN lease_expires_at TIMESTAMPTZ;
+
+-- Only un-embedded chunks are ever claimed; keeps the claim scan off the embedded bulk of the table.
+CREATE INDEX idx_chunks_pending_embedding ON document_chunks(lease_expires_at) WHERE embedding IS NULL;
@@ -0,0 +1,4 @@
+-- Near-duplicate chunks: duplicate_of names an earlier chunk whose text this one nearly repeats.
+-- The twin may live in another document or on another shard, so this is a plain column rather than
+-- a foreign key; deleting the twin's document leaves its copies and their vectors untouched.
+ALTER TABLE document_chunks ADD COLUMN duplicate_of UUID;
@@ -0,0 +1,93 @@
+-- Matryoshka short vectors for two-tier search.
+--
+-- text-embedding-3 models are trained so that a prefix of an embedding is
+-- itself a usable embedding. embedding_short keeps the leading dimensions,
+-- renormalised to unit length, and gets its own HNSW index: about a sixth
+-- of the size of the full-vector index at the default 256, so it stays in shared buffers and
+-- builds and scans several times faster. Searches shortlist candidates
+-- through it and rerank them by the full embedding.
+--
+-- The width comes from spring.flyway.placeholders.short_embedding_dimensions
+-- (embedding.search.two-tier.dimensions) and is fixed once this has run,
+-- like chunk_partitions in V6. Needs pgvector 0.7+ for subvector() and
+-- l2_normalize().
+--
+-- Runs outside a transaction (see the .conf file), like V6. The backfill
+-- walks the primary key in batches of 10,000, each committed on its own,
+-- and the index is built one partition at a time, so writers are never
+-- held up for more than one batch or one partition's build. Every step
+-- checks whether it has already happened, so after a failure the migration
+-- can be repaired and run again.
+
+ALTER TABLE document_chunks
+ADD COLUMN IF NOT EXISTS embedding_short VECTOR(${short_embedding_dimensions});
+
+-- Keyset over the primary key, so each batch starts where the last ended
+-- instead of searching the table again for rows still to fill.
+DO $$
+DECLARE
+    last_id UUID := '00000000-0000-0000-0000-000000000000';
+    last_document_id UUID := '00000000-0000-0000-0000-000000000000';
+    next_id UUID;
+    next_document_id UUID;
+BEGIN
+    LOOP
+        SELECT id, document_id INTO next_id, next_document_id
+        FROM (
+            SELECT id, document_id FROM document_chunks
+            WHERE (id, document_id) > (last_id, last_document_id)
+            ORDER BY id, document_id
+            LIMIT 10000
+        ) batch
+        ORDER BY id DESC, document_id DESC
+        LIMIT 1;
+        EXIT WHEN NOT FOUND;
+
+        UPDATE document_chunks
+        SET embedding_short = l2_normalize(subvector(embedding, 1, ${short_embedding_dimensions}))
+        WHERE (id, document_id) > (last_id, last_document_id)
+          AND (id, document_id) <= (next_id, next_document_id)
+          AND embedding IS NOT NULL
+          AND embedding_short IS NULL;
+
+        last_id := next_id;
+        last_document_id := next_document_id;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Created on the parent only, then built and attached partition by
+-- partition; the parent index becomes valid once every partition has one.
+DO $$
+DECLARE
+    part TEXT;
+BEGIN
+    CREATE INDEX IF NOT EXISTS idx_chunks_embedding_short
+    ON ONLY document_chunks
+    USING hnsw (embedding_short vector_cosine_ops);
+    COMMIT;
+
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'document_chunks'::regclass
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format('CREATE INDEX IF NOT EXISTS %I ON %I USING hnsw (embedding_short vector_cosine_ops)',
+                       part || '_embedding_short_idx', part);
+        IF NOT EXISTS (SELECT 1 FROM pg_inherits
+                       WHERE inhrelid = to_regclass(quote_ident(part || '_embedding_short_idx'))) THEN
+            EXECUTE format('ALTER INDEX idx_chunks_embedding_short ATTACH PARTITION %I',
+                           part || '_embedding_short_idx');
+        END IF;
+        COMMIT;
+    END LOOP;
+END $$;
+
+-- Chunks embedded behind the cursor while the migration ran, by instances
+-- that do not write embedding_short yet. Only those rows are written.
+UPDATE document_chunks
+SET embedding_short = l2_normalize(subvector(embedding, 1, ${short_embedding_dimensions}))
+WHERE embedding IS NOT NULL
+  AND embedding_short IS NULL;
+
+ANALYZE document_chunks;
@@ -1,6 +1,7 @@
 package com.symphony.docweave.api;
 
 import com.symphony.docweave.api.dto.ChunkResponse;
+import com.symphony.docweave.api.dto.CursorPage;
 import com.symphony.docweave.api.dto.DocumentResponse;
 import com.symphony.docweave.api.dto.IngestionResponse;
 import com.symphony.docweave.exception.DocumentProcessingException;
@@ -12,13 +13,17 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -97,18 +102,93 @@ class DocumentIngestionControllerTest {
                 new DocumentResponse(id1, "pdf", "a.pdf", "checksum1", Instant.now()),
                 new DocumentResponse(id2, "pdf", "b.pdf", "checksum2", Instant.now())
         );
-        when(ingestionService.getAllDocuments()).thenReturn(docs);
+        when(ingestionService.getAllDocuments(false)).thenReturn(docs);
 
         mockMvc.perform(get("/api/v1/documents"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(DocumentIngestionController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].originalFilename").value("a.pdf"))
-                .andExpect(jsonPath("$[1].originalFilename").value("b.pdf"));
+                .andExpect(jsonPath("$[1].originalFilename").value("b.pdf"))
+                .andExpect(jsonPath("$[0].chunkCount").doesNotExist());
+    }
+
+    @Test
+    void getAllDocuments_shouldIncludeStatsWhenRequested() throws Exception {
+        DocumentResponse doc = new DocumentResponse(UUID.randomUUID(), "pdf", "a.pdf", "checksum1", Instant.now());
+        doc.setChunkCount(12L);
+        doc.setEmbeddedChunkCount(9L);
+        doc.setTextLength(48_000L);
+        when(ingestionService.getAllDocuments(true)).thenReturn(List.of(doc));
+
+        mockMvc.perform(get("/api/v1/documents").param("includeStats", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].chunkCount").value(12))
+                .andExpect(jsonPath("$[0].embeddedChunkCount").value(9))
+                .andExpect(jsonPath("$[0].textLength").value(48000));
+    }
+
+    @Test
+    void getAllDocuments_shouldPassCursorAndReturnNextCursorHeader() throws Exception {
+        DocumentResponse doc = new DocumentResponse(UUID.randomUUID(), "pdf", "a.pdf", "checksum1", Instant.now());
+        when(ingestionService.getDocuments("abc", 1, false)).thenReturn(new CursorPage<>(List.of(doc), "def"));
+
+        mockMvc.perform(get("/api/v1/documents").param("cursor", "abc").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(DocumentIngestionController.NEXT_CURSOR_HEADER, "def"))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getAllDocuments_shouldUseDefaultLimitWhenOnlyCursorIsGiven() throws Exception {
+        DocumentResponse doc = new DocumentResponse(UUID.randomUUID(), "pdf", "a.pdf", "checksum1", Instant.now());
+        when(ingestionService.getDocuments("abc", 100, false)).thenReturn(new CursorPage<>(List.of(doc), null));
+
+        mockMvc.perform(get("/api/v1/documents").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+
+        verify(ingestionService, never()).getAllDocuments(anyBoolean());
+    }
+
+    @Test
+    void getAllDocuments_shouldReturn400ForLimitAboveMaximum() throws Exception {
+        mockMvc.perform(get("/api/v1/documents").param("limit", "5000"))
+                .andExpect(status().isBadRequest());
+
+        verify(ingestionService, never()).getDocuments(any(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void getAllDocuments_shouldStreamNdjson() throws Exception {
+        List<DocumentResponse> docs = List.of(
+                new DocumentResponse(UUID.randomUUID(), "pdf", "a.pdf", "checksum1", Instant.now()),
+                new DocumentResponse(UUID.randomUUID(), "pdf", "b.pdf", "checksum2", Instant.now())
+        );
+        doAnswer(invocation -> {
+            Consumer<DocumentResponse> sink = invocation.getArgument(0);
+            docs.forEach(sink);
+            return null;
+        }).when(ingestionService).streamDocuments(any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/documents").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"originalFilename\":\"a.pdf\""));
+        assertTrue(lines[1].contains("\"originalFilename\":\"b.pdf\""));
     }
 
     @Test
     void getAllDocuments_shouldReturn200WithEmptyList() throws Exception {
-        when(ingestionService.getAllDocuments()).thenReturn(Collections.emptyList());
+        when(ingestionService.getAllDocuments(false)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/v1/documents"))
                 .andExpect(status().isOk())
@@ -169,6 +249,18 @@ class DocumentIngestionControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getChunks_shouldReturn404BeforeStreamingWhenDocumentNotFound() throws Exception {
+        UUID docId = UUID.randomUUID();
+        when(ingestionService.getDocument(docId))
+                .thenThrow(new DocumentProcessingException("Document not found: " + docId));
+
+        mockMvc.perform(get("/api/v1/documents/{id}/chunks", docId).accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isNotFound());
+
+        verify(ingestionService, never()).streamChunks(any(), any());
+    }
+
     // --- DELETE /api/v1/documents/{id} ---
 
     @Test
@@ -192,4 +284,39 @@ class DocumentIngestionControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(containsString("not found")));
     }
+
+    @Test
+    void deleteDocument_shouldReturn202WhenAsync() throws Exception {
+        UUID docId = UUID.randomUUID();
+
+        mockMvc.perform(delete("/api/v1/documents/{id}", docId).param("async", "true"))
+                .andExpect(status().isAccepted());
+
+        verify(ingestionService).deleteDocumentAsync(docId);
+        verify(ingestionService, never()).deleteDocument(any());
+    }
+
+    // --- POST /api/v1/documents/bulk-delete ---
+
+    @Test
+    void bulkDelete_shouldReturn202WithCount() throws Exception {
+        when(ingestionService.deleteDocuments(any())).thenReturn(3);
+
+        mockMvc.perform(post("/api/v1/documents/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filenamePattern\": \"draft-*\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.deletedDocuments").value(3));
+    }
+
+    @Test
+    void bulkDelete_shouldReturn400ForEmptyFilter() throws Exception {
+        when(ingestionService.deleteDocuments(any()))
+                .thenThrow(new IllegalArgumentException("A non-empty filter is required to delete documents in bulk"));
+
+        mockMvc.perform(post("/api/v1/documents/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+    }
 }
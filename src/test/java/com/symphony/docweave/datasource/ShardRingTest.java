@@ -0,0 +1,73 @@
+package com.symphony.docweave.datasource;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRingTest {
+
+    private static final List<UUID> DOCUMENTS = IntStream.range(0, 20_000)
+            .mapToObj(i -> new UUID(i * 0x9E3779B97F4A7C15L, i))
+            .toList();
+
+    @Test
+    void shardFor_isStableAcrossRingInstances() {
+        ShardRing first = new ShardRing(List.of("a", "b", "c"), 128);
+        ShardRing second = new ShardRing(List.of("c", "a", "b"), 128);
+
+        for (UUID id : DOCUMENTS.subList(0, 1000)) {
+            assertEquals(first.shardFor(id), second.shardFor(id));
+        }
+    }
+
+    @Test
+    void shardFor_spreadsDocumentsEvenly() {
+        ShardRing ring = new ShardRing(List.of("a", "b", "c", "d"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        DOCUMENTS.forEach(id -> counts.merge(ring.shardFor(id), 1, Integer::sum));
+
+        assertEquals(4, counts.size());
+        for (int count : counts.values()) {
+            assertTrue(count > 5000 * 0.8 && count < 5000 * 1.2, "uneven shard size " + count);
+        }
+    }
+
+    @Test
+    void addingAShard_onlyMovesDocumentsToTheNewShard() {
+        ShardRing before = new ShardRing(List.of("a", "b", "c"), 128);
+        ShardRing after = new ShardRing(List.of("a", "b", "c", "d"), 128);
+
+        int moved = 0;
+        for (UUID id : DOCUMENTS) {
+            String was = before.shardFor(id);
+            String now = after.shardFor(id);
+            if (!was.equals(now)) {
+                assertEquals("d", now);
+                moved++;
+            }
+        }
+        assertTrue(moved < DOCUMENTS.size() * 0.35, "moved " + moved);
+    }
+
+    @Test
+    void randomIdOnShardOf_placesIdsOnTheKeysShard() {
+        ShardRing ring = new ShardRing(List.of("a", "b", "c", "d"), 128);
+
+        for (int i = 0; i < 200; i++) {
+            String checksum = "%064x".formatted(i * 0x9E3779B97F4A7C15L);
+            assertEquals(ring.shardFor(checksum), ring.shardFor(ring.randomIdOnShardOf(checksum)));
+        }
+    }
+
+    @Test
+    void constructor_rejectsEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRing(List.of(), 128));
+    }
+}
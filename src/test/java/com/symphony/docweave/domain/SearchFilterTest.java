@@ -0,0 +1,38 @@
+package com.symphony.docweave.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchFilterTest {
+
+    @Test
+    void isEmpty_shouldBeTrueWhenNothingIsSet() {
+        assertTrue(new SearchFilter().isEmpty());
+        assertTrue(new SearchFilter(List.of(), List.of(), null, null, "  ").isEmpty());
+    }
+
+    @Test
+    void isEmpty_shouldBeFalseWhenAnyFieldIsSet() {
+        assertFalse(new SearchFilter(List.of(UUID.randomUUID()), null, null, null, null).isEmpty());
+        assertFalse(new SearchFilter(null, List.of("application/pdf"), null, null, null).isEmpty());
+        assertFalse(new SearchFilter(null, null, Instant.now(), null, null).isEmpty());
+        assertFalse(new SearchFilter(null, null, null, null, "*.pdf").isEmpty());
+    }
+
+    @Test
+    void filenameLikePattern_shouldTranslateGlobAndEscapeLikeWildcards() {
+        SearchFilter filter = new SearchFilter(null, null, null, null, "Report_2024?*.PDF");
+
+        assertEquals("report\\_2024_%.pdf", filter.filenameLikePattern());
+    }
+
+    @Test
+    void filenameLikePattern_shouldBeNullWhenUnset() {
+        assertNull(new SearchFilter().filenameLikePattern());
+    }
+}
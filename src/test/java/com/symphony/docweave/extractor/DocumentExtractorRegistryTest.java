@@ -0,0 +1,69 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.DocumentType;
+import com.symphony.docweave.exception.DocumentProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocumentExtractorRegistryTest {
+
+    private final DocumentExtractorRegistry registry = new DocumentExtractorRegistry(List.of(
+            new PdfBoxDocumentExtractor(), new DocxDocumentExtractor(), new HtmlDocumentExtractor(),
+            new MarkdownDocumentExtractor(), new PlainTextDocumentExtractor()));
+
+    @Test
+    void detect_prefersMagicBytesOverDeclaredType() {
+        assertEquals(DocumentType.PDF, DocumentExtractorRegistry.detect(bytes("%PDF-1.7\n"), "text/plain", "a.txt"));
+        assertEquals(DocumentType.DOCX, DocumentExtractorRegistry.detect(
+                new byte[]{'P', 'K', 3, 4, 20, 0}, "application/octet-stream", "upload.bin"));
+    }
+
+    @Test
+    void detect_fallsBackToContentTypeThenExtension() {
+        assertEquals(DocumentType.HTML, DocumentExtractorRegistry.detect(bytes("hello"), "text/html; charset=utf-8", "x"));
+        assertEquals(DocumentType.MARKDOWN, DocumentExtractorRegistry.detect(bytes("# hi"), null, "README.MD"));
+        assertEquals(DocumentType.MARKDOWN, DocumentExtractorRegistry.detect(bytes("# hi"), "text/plain", "notes.md"));
+    }
+
+    @Test
+    void detect_sniffsTextWhenNothingIsDeclared() {
+        assertEquals(DocumentType.HTML, DocumentExtractorRegistry.detect(
+                bytes("\uFEFF  <!DOCTYPE html><html>"), "application/octet-stream", "page"));
+        assertEquals(DocumentType.TEXT, DocumentExtractorRegistry.detect(bytes("just words"), null, null));
+        assertNull(DocumentExtractorRegistry.detect(new byte[]{1, 0, 2}, null, "blob"));
+    }
+
+    @Test
+    void select_rewindsTheStreamForTheChosenExtractor() {
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(bytes("<html><body><p>Hi</p></body></html>")));
+
+        DocumentTextExtractor extractor = registry.select(in, null, "page");
+
+        assertInstanceOf(HtmlDocumentExtractor.class, extractor);
+        assertEquals("Hi", extractor.extract(in, "page"));
+    }
+
+    @Test
+    void select_rejectsUnsupportedBinary() {
+        InputStream in = new BufferedInputStream(new ByteArrayInputStream(new byte[]{0x7f, 'E', 'L', 'F', 0, 0}));
+
+        assertThrows(DocumentProcessingException.class, () -> registry.select(in, null, "a.out"));
+    }
+
+    @Test
+    void constructor_rejectsTwoExtractorsForOneType() {
+        assertThrows(IllegalStateException.class, () -> new DocumentExtractorRegistry(
+                List.of(new HtmlDocumentExtractor(), new HtmlDocumentExtractor())));
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
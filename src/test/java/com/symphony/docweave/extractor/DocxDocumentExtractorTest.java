@@ -0,0 +1,74 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.exception.DocumentProcessingException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DocxDocumentExtractorTest {
+
+    private final DocxDocumentExtractor extractor = new DocxDocumentExtractor();
+
+    @Test
+    void extract_readsRunTextParagraphByParagraph() throws Exception {
+        byte[] docx = docx("<w:p><w:r><w:t>Hello </w:t></w:r><w:r><w:t>world</w:t></w:r></w:p>"
+                + "<w:p><w:r><w:t>Name</w:t><w:tab/><w:t>Value</w:t><w:br/><w:t>Next line</w:t></w:r></w:p>");
+
+        String text = extractor.extract(new ByteArrayInputStream(docx), "test.docx");
+
+        assertEquals("Hello world\nName\tValue\nNext line\n", text);
+    }
+
+    @Test
+    void extract_ignoresMarkupOutsideRunText() throws Exception {
+        byte[] docx = docx("<w:p><w:pPr><w:pStyle w:val=\"Heading1\"/></w:pPr>"
+                + "<w:r><w:rPr><w:b/></w:rPr><w:t xml:space=\"preserve\">Title &amp; more</w:t></w:r></w:p>");
+
+        assertEquals("Title & more\n", extractor.extract(new ByteArrayInputStream(docx), "test.docx"));
+    }
+
+    @Test
+    void extract_rejectsZipWithoutDocumentPart() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("xl/workbook.xml"));
+            zip.write("<workbook/>".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThrows(DocumentProcessingException.class, () ->
+                extractor.extract(new ByteArrayInputStream(bytes.toByteArray()), "book.xlsx"));
+    }
+
+    @Test
+    void extract_rejectsDoctypeDeclarations() throws Exception {
+        byte[] docx = zip("<?xml version=\"1.0\"?><!DOCTYPE w [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+                + "<w:document xmlns:w=\"" + NS + "\"><w:body><w:p><w:r><w:t>&x;</w:t></w:r></w:p></w:body></w:document>");
+
+        assertThrows(DocumentProcessingException.class, () ->
+                extractor.extract(new ByteArrayInputStream(docx), "evil.docx"));
+    }
+
+    private static final String NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+
+    private static byte[] docx(String body) throws Exception {
+        return zip("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>"
+                + "<w:document xmlns:w=\"" + NS + "\"><w:body>" + body + "</w:body></w:document>");
+    }
+
+    private static byte[] zip(String documentXml) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bytes)) {
+            zip.putNextEntry(new ZipEntry("[Content_Types].xml"));
+            zip.write("<Types/>".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("word/document.xml"));
+            zip.write(documentXml.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+}
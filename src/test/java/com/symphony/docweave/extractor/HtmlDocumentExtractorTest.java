@@ -0,0 +1,55 @@
+package com.symphony.docweave.extractor;
+
+import com.symphony.docweave.domain.Document;
+import com.symphony.docweave.domain.DocumentType;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlDocumentExtractorTest {
+
+    private final HtmlDocumentExtractor extractor = new HtmlDocumentExtractor();
+
+    @Test
+    void extract_stripsTagsAndBreaksLinesAtBlockElements() {
+        String html = "<!DOCTYPE html><html><head><title>Guide</title></head>"
+                + "<body><h1>Intro</h1><p>First <b>bold</b> paragraph.</p><p>Second</p></body></html>";
+
+        assertEquals("Guide\nIntro\nFirst bold paragraph.\nSecond", extract(html));
+    }
+
+    @Test
+    void extract_skipsScriptStyleAndComments() {
+        String html = "<p>Keep</p><script>if (a < b) { alert('</p>'); }</script>"
+                + "<style>p { color: red; }</style><!-- <p>hidden</p> --><p>this</p>";
+
+        assertEquals("Keep\nthis", extract(html));
+    }
+
+    @Test
+    void extract_decodesEntitiesAndCollapsesWhitespace() {
+        String html = "<p>Fish &amp;   chips&nbsp;&mdash; &#163;5 &#x20AC;6 &unknown; 1 < 2</p>";
+
+        assertEquals("Fish & chips — £5 €6 &unknown; 1 < 2", extract(html));
+    }
+
+    @Test
+    void extract_ignoresAngleBracketsInsideQuotedAttributes() {
+        String html = "<a title=\"a > b\" href='x'>link</a> text";
+
+        assertEquals("link text", extract(html));
+    }
+
+    @Test
+    void extract_withDocument_shouldRejectPdfType() {
+        assertThrows(IllegalArgumentException.class, () ->
+                extractor.extract(new Document("test.pdf", DocumentType.PDF)));
+    }
+
+    private String extract(String html) {
+        return extractor.extract(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)), "test.html");
+    }
+}
@@ -0,0 +1,35 @@
+package com.symphony.docweave.extractor;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkdownDocumentExtractorTest {
+
+    private final MarkdownDocumentExtractor extractor = new MarkdownDocumentExtractor();
+
+    @Test
+    void extract_dropsBlockMarkersEmphasisAndLinkTargets() {
+        String markdown = "# Setup ##\n"
+                + "> Read **this** first, see [the guide](https://example.com/guide).\n"
+                + "- install `docweave`\n"
+                + "2. set ![logo](logo.png) and my_config_value\n";
+
+        assertEquals("Setup\nRead this first, see the guide.\ninstall docweave\nset logo and my_config_value\n",
+                extract(markdown));
+    }
+
+    @Test
+    void extract_keepsFencedCodeVerbatimWithoutFences() {
+        String markdown = "Example:\n```java\n# not a heading\nint **x** = 1;\n```\nDone\n";
+
+        assertEquals("Example:\n# not a heading\nint **x** = 1;\nDone\n", extract(markdown));
+    }
+
+    private String extract(String markdown) {
+        return extractor.extract(new ByteArrayInputStream(markdown.getBytes(StandardCharsets.UTF_8)), "readme.md");
+    }
+}
@@ -0,0 +1,129 @@
+package com.symphony.docweave.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Bm25IndexTest {
+
+    private Bm25Index index;
+
+    @BeforeEach
+    void setUp() {
+        index = new Bm25Index(1.2f, 0.75f);
+    }
+
+    @Test
+    void tokens_shouldKeepIdentifiersWholeAndSplitThem() {
+        List<String> tokens = LexicalAnalyzer.tokens("Error ERR-4012: disk full.");
+
+        assertEquals(List.of("error", "err-4012", "err", "4012", "disk", "full"), tokens);
+    }
+
+    @Test
+    void isIdentifier_shouldRecogniseCodesButNotWords() {
+        assertTrue(LexicalAnalyzer.isIdentifier("err-4012"));
+        assertTrue(LexicalAnalyzer.isIdentifier("sku88213"));
+        assertTrue(LexicalAnalyzer.isIdentifier("v1.2"));
+        assertFalse(LexicalAnalyzer.isIdentifier("balancing"));
+        assertFalse(LexicalAnalyzer.isIdentifier("2024"));
+    }
+
+    @Test
+    void search_shouldRankRareTermAboveCommonOnes() {
+        UUID doc = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        index.upsert(UUID.randomUUID(), doc, 0, "the server returned an error");
+        index.upsert(UUID.randomUUID(), doc, 1, "the error was logged by the server");
+        index.upsert(target, doc, 2, "the server returned ERR-4012 after the upgrade");
+
+        List<LexicalHit> hits = index.search("server ERR-4012", 3);
+
+        assertEquals(target, hits.get(0).chunkId());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    @Test
+    void search_shouldSumTermScoresPerChunkAcrossALargeCorpus() {
+        UUID doc = UUID.randomUUID();
+        UUID target = UUID.randomUUID();
+        for (int i = 0; i < 3000; i++) {
+            index.upsert(UUID.randomUUID(), doc, i, i % 2 == 0 ? "replica lag" : "replica failover");
+        }
+        index.upsert(target, doc, 3000, "replica lag during failover");
+
+        List<LexicalHit> hits = index.search("replica lag failover", 5);
+
+        assertEquals(5, hits.size());
+        assertEquals(target, hits.get(0).chunkId());
+    }
+
+    @Test
+    void search_shouldReturnEmptyForUnknownTerms() {
+        index.upsert(UUID.randomUUID(), UUID.randomUUID(), 0, "load balancing");
+
+        assertTrue(index.search("kubernetes", 5).isEmpty());
+    }
+
+    @Test
+    void upsert_shouldReplacePreviousText() {
+        UUID chunk = UUID.randomUUID();
+        index.upsert(chunk, UUID.randomUUID(), 0, "alpha");
+        index.upsert(chunk, UUID.randomUUID(), 0, "beta");
+
+        assertTrue(index.search("alpha", 5).isEmpty());
+        assertEquals(chunk, index.search("beta", 5).get(0).chunkId());
+        assertEquals(1, index.liveCount());
+    }
+
+    @Test
+    void removeDocument_shouldHideAllItsChunks() {
+        UUID removed = UUID.randomUUID();
+        UUID kept = UUID.randomUUID();
+        index.upsert(UUID.randomUUID(), removed, 0, "invoice INV-77");
+        index.upsert(UUID.randomUUID(), removed, 1, "invoice INV-78");
+        UUID keptChunk = UUID.randomUUID();
+        index.upsert(keptChunk, kept, 0, "invoice INV-79");
+
+        assertEquals(2, index.removeDocument(removed));
+
+        List<LexicalHit> hits = index.search("invoice", 5);
+        assertEquals(1, hits.size());
+        assertEquals(keptChunk, hits.get(0).chunkId());
+    }
+
+    @Test
+    void countContainingAll_shouldIntersectPostings() {
+        UUID doc = UUID.randomUUID();
+        index.upsert(UUID.randomUUID(), doc, 0, "ERR-4012 on node-7");
+        index.upsert(UUID.randomUUID(), doc, 1, "ERR-4012 on node-9");
+        index.upsert(UUID.randomUUID(), doc, 2, "node-7 healthy");
+
+        assertEquals(2, index.countContainingAll(List.of("err-4012")));
+        assertEquals(1, index.countContainingAll(List.of("err-4012", "node-7")));
+        assertEquals(0, index.countContainingAll(List.of("err-4012", "node-8")));
+    }
+
+    @Test
+    void compaction_shouldKeepSearchResultsConsistent() {
+        UUID keptDocument = UUID.randomUUID();
+        UUID keptChunk = UUID.randomUUID();
+        index.upsert(keptChunk, keptDocument, 0, "needle in the haystack");
+        for (int d = 0; d < 30; d++) {
+            UUID doc = UUID.randomUUID();
+            for (int i = 0; i < 100; i++) {
+                index.upsert(UUID.randomUUID(), doc, i, "hay straw chunk " + i);
+            }
+            index.removeDocument(doc);
+        }
+
+        assertEquals(1, index.liveCount());
+        assertEquals(keptChunk, index.search("needle", 1).get(0).chunkId());
+        assertTrue(index.search("straw", 5).isEmpty());
+        assertEquals(1, index.removeDocument(keptDocument));
+    }
+}
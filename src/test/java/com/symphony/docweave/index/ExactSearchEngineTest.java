@@ -0,0 +1,127 @@
+package com.symphony.docweave.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExactSearchEngineTest {
+
+    private static final int DIMENSIONS = 37;   // deliberately not a multiple of any SIMD width
+
+    private ExactSearchEngine engine;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        engine = new ExactSearchEngine(4, 64);
+        random = new Random(5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    void search_shouldMatchScalarBruteForce() {
+        int count = 2_000;
+        float[] matrix = new float[count * DIMENSIONS];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(randomUnitVector(), 0, matrix, i * DIMENSIONS, DIMENSIONS);
+        }
+        float[] query = randomUnitVector();
+
+        ExactSearchEngine.Result result = engine.search(VectorBlocks.of(matrix, DIMENSIONS), query, 10, null);
+
+        int[] expected = IntStream.range(0, count).boxed()
+                .sorted(Comparator.comparingDouble(
+                        (Integer slot) -> -SimdVectorMath.scalarDot(matrix, slot * DIMENSIONS, query)))
+                .limit(10)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertArrayEquals(expected, result.slots());
+        for (int i = 1; i < result.similarities().length; i++) {
+            assertTrue(result.similarities()[i - 1] >= result.similarities()[i]);
+        }
+    }
+
+    @Test
+    void search_shouldOnlyReturnAcceptedSlots() {
+        int count = 500;
+        float[] matrix = new float[count * DIMENSIONS];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(randomUnitVector(), 0, matrix, i * DIMENSIONS, DIMENSIONS);
+        }
+
+        ExactSearchEngine.Result result = engine.search(
+                VectorBlocks.of(matrix, DIMENSIONS), randomUnitVector(), 20, slot -> slot % 7 == 0);
+
+        assertEquals(20, result.slots().length);
+        for (int slot : result.slots()) {
+            assertEquals(0, slot % 7);
+        }
+    }
+
+    @Test
+    void search_shouldReturnFewerThanKWhenFilterIsSelective() {
+        float[] matrix = new float[100 * DIMENSIONS];
+        for (int i = 0; i < 100; i++) {
+            System.arraycopy(randomUnitVector(), 0, matrix, i * DIMENSIONS, DIMENSIONS);
+        }
+
+        ExactSearchEngine.Result result = engine.search(
+                VectorBlocks.of(matrix, DIMENSIONS), randomUnitVector(), 10, slot -> slot < 3);
+
+        assertEquals(3, result.slots().length);
+    }
+
+    @Test
+    void graphExactSearch_shouldSkipDeletedAndFilteredChunks() {
+        HnswGraph graph = new HnswGraph(DIMENSIONS, 8, 32, 1L);
+        UUID keptDocument = UUID.randomUUID();
+        UUID otherDocument = UUID.randomUUID();
+        List<UUID> kept = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            UUID chunkId = UUID.randomUUID();
+            boolean keep = i % 2 == 0;
+            graph.upsert(chunkId, keep ? keptDocument : otherDocument, i, randomUnitVector());
+            if (keep) kept.add(chunkId);
+        }
+        UUID removed = kept.remove(0);
+        graph.remove(removed);
+
+        List<IndexHit> hits = graph.exactSearch(engine, randomUnitVector(), 50, keptDocument::equals);
+
+        assertEquals(50, hits.size());
+        for (IndexHit hit : hits) {
+            assertEquals(keptDocument, hit.documentId());
+            assertNotEquals(removed, hit.chunkId());
+        }
+    }
+
+    @Test
+    void graphExactSearch_shouldRejectQuantizedGraph() {
+        HnswGraph graph = new HnswGraph(DIMENSIONS, 8, 32, 1L, VectorEncoding.INT8);
+        graph.upsert(UUID.randomUUID(), UUID.randomUUID(), 0, randomUnitVector());
+
+        assertThrows(IllegalStateException.class,
+                () -> graph.exactSearch(engine, randomUnitVector(), 1, null));
+    }
+
+    private float[] randomUnitVector() {
+        float[] v = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return VectorMath.normalize(v);
+    }
+}
@@ -0,0 +1,298 @@
+package com.symphony.docweave.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswGraphTest {
+
+    private static final int DIMENSIONS = 16;
+
+    private HnswGraph graph;
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        graph = new HnswGraph(DIMENSIONS, 8, 64, 7L);
+        random = new Random(123);
+    }
+
+    @Test
+    void search_shouldReturnEmptyListWhenGraphIsEmpty() {
+        assertTrue(graph.search(randomVector(), 5, 50).isEmpty());
+    }
+
+    @Test
+    void search_shouldFindExactMatchFirst() {
+        insertRandom(200, UUID.randomUUID());
+        UUID target = UUID.randomUUID();
+        float[] query = randomVector();
+        graph.upsert(target, UUID.randomUUID(), 0, query);
+
+        List<IndexHit> hits = graph.search(query, 1, 50);
+
+        assertEquals(1, hits.size());
+        assertEquals(target, hits.get(0).chunkId());
+        assertEquals(0.0, hits.get(0).distance(), 1e-5);
+    }
+
+    @Test
+    void search_shouldHaveHighRecallAgainstBruteForce() {
+        List<UUID> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID id = UUID.randomUUID();
+            float[] v = randomVector();
+            graph.upsert(id, UUID.randomUUID(), i, v);
+            ids.add(id);
+            vectors.add(v);
+        }
+
+        int found = 0;
+        int queries = 20;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            List<UUID> expected = bruteForce(ids, vectors, query, 10);
+            List<UUID> actual = graph.search(query, 10, 100).stream().map(IndexHit::chunkId).toList();
+            for (UUID id : actual) {
+                if (expected.contains(id)) found++;
+            }
+        }
+
+        double recall = found / (queries * 10.0);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    void search_withInt8Encoding_shouldKeepHighRecallWhenOversampled() {
+        graph = new HnswGraph(DIMENSIONS, 8, 64, 7L, VectorEncoding.INT8);
+        List<UUID> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID id = UUID.randomUUID();
+            float[] v = randomVector();
+            graph.upsert(id, UUID.randomUUID(), i, v);
+            ids.add(id);
+            vectors.add(v);
+        }
+
+        int found = 0;
+        int queries = 20;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            List<UUID> expected = bruteForce(ids, vectors, query, 10);
+            List<UUID> candidates = graph.search(query, 40, 100).stream().map(IndexHit::chunkId).toList();
+            for (UUID id : expected) {
+                if (candidates.contains(id)) found++;
+            }
+        }
+
+        double recall = found / (queries * 10.0);
+        assertTrue(recall >= 0.9, "int8 candidate recall@10 was " + recall);
+    }
+
+    @Test
+    void removeDocument_shouldHideAllItsChunks() {
+        UUID kept = UUID.randomUUID();
+        UUID removed = UUID.randomUUID();
+        insertRandom(50, kept);
+        insertRandom(50, removed);
+
+        assertEquals(50, graph.removeDocument(removed));
+
+        List<IndexHit> hits = graph.search(randomVector(), 100, 200);
+        assertEquals(50, hits.size());
+        assertTrue(hits.stream().allMatch(h -> h.documentId().equals(kept)));
+        assertEquals(50, graph.liveCount());
+    }
+
+    @Test
+    void search_withDocumentFilter_shouldOnlyReturnMatchingDocuments() {
+        UUID wanted = UUID.randomUUID();
+        insertRandom(400, UUID.randomUUID());
+        insertRandom(20, wanted);
+        graph.upsert(UUID.randomUUID(), UUID.randomUUID(), 0, randomVector());
+
+        List<IndexHit> hits = graph.search(randomVector(), 10, 500, wanted::equals);
+
+        assertEquals(10, hits.size());
+        assertTrue(hits.stream().allMatch(h -> h.documentId().equals(wanted)));
+        assertEquals(20, graph.countChunks(List.of(wanted)));
+    }
+
+    @Test
+    void upsert_shouldReplaceExistingVectorForSameChunk() {
+        insertRandom(50, UUID.randomUUID());
+        UUID chunkId = UUID.randomUUID();
+        float[] first = randomVector();
+        float[] second = randomVector();
+
+        graph.upsert(chunkId, UUID.randomUUID(), 0, first);
+        graph.upsert(chunkId, UUID.randomUUID(), 0, second);
+
+        List<IndexHit> hits = graph.search(second, 1, 50);
+        assertEquals(chunkId, hits.get(0).chunkId());
+        assertEquals(0.0, hits.get(0).distance(), 1e-5);
+        assertEquals(51, graph.liveCount());
+    }
+
+    @Test
+    void snapshot_shouldRoundTripGraph() throws Exception {
+        List<float[]> vectors = insertRandom(100, UUID.randomUUID());
+
+        HnswGraph restored = roundTrip(graph);
+
+        assertEquals(graph.liveCount(), restored.liveCount());
+        float[] query = vectors.get(3);
+        assertEquals(
+                graph.search(query, 5, 50).stream().map(IndexHit::chunkId).toList(),
+                restored.search(query, 5, 50).stream().map(IndexHit::chunkId).toList());
+    }
+
+    @Test
+    void snapshot_shouldLeaveOutTombstonesAndKeepRecall() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            UUID id = UUID.randomUUID();
+            float[] v = randomVector();
+            graph.upsert(id, UUID.randomUUID(), i, v);
+            ids.add(id);
+            vectors.add(v);
+        }
+        // Delete a quarter, re-embed another quarter: 200 tombstones in all
+        for (int i = 0; i < 100; i++) {
+            graph.remove(ids.get(i));
+        }
+        for (int i = 100; i < 200; i++) {
+            float[] v = randomVector();
+            graph.upsert(ids.get(i), UUID.randomUUID(), i, v);
+            vectors.set(i, v);
+        }
+        assertEquals(200, graph.deletedCount());
+
+        HnswGraph restored = roundTrip(graph);
+
+        assertEquals(0, restored.deletedCount());
+        assertEquals(300, restored.liveCount());
+        assertFalse(restored.contains(ids.get(0)));
+
+        List<UUID> liveIds = ids.subList(100, 400);
+        List<float[]> liveVectors = vectors.subList(100, 400);
+        int found = 0;
+        int queries = 20;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector();
+            List<UUID> expected = bruteForce(liveIds, liveVectors, query, 10);
+            for (IndexHit hit : restored.search(query, 10, 100)) {
+                if (expected.contains(hit.chunkId())) found++;
+            }
+        }
+        double recall = found / (queries * 10.0);
+        assertTrue(recall >= 0.9, "recall@10 after compaction was " + recall);
+    }
+
+    @Test
+    void snapshot_ofFullyDeletedGraphShouldRestoreEmpty() throws Exception {
+        graph.removeDocument(UUID.randomUUID());
+        UUID doc = UUID.randomUUID();
+        insertRandom(20, doc);
+        graph.removeDocument(doc);
+
+        HnswGraph restored = roundTrip(graph);
+
+        assertEquals(0, restored.liveCount());
+        assertTrue(restored.search(randomVector(), 5, 50).isEmpty());
+        restored.upsert(UUID.randomUUID(), doc, 0, randomVector());
+        assertEquals(1, restored.search(randomVector(), 5, 50).size());
+    }
+
+    @Test
+    void compact_shouldMatchTheSnapshotOfTheLiveGraph() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            UUID id = UUID.randomUUID();
+            graph.upsert(id, UUID.randomUUID(), i, randomVector());
+            ids.add(id);
+        }
+        for (int i = 0; i < 150; i++) {
+            graph.remove(ids.get(i * 2));
+        }
+
+        HnswGraph compacted = graph.compact();
+        HnswGraph restored = roundTrip(graph);
+
+        assertEquals(0, compacted.deletedCount());
+        assertEquals(150, compacted.liveCount());
+        assertFalse(compacted.contains(ids.get(0)));
+        for (int q = 0; q < 10; q++) {
+            float[] query = randomVector();
+            assertEquals(restored.search(query, 10, 100), compacted.search(query, 10, 100));
+        }
+
+        UUID added = UUID.randomUUID();
+        float[] vector = randomVector();
+        compacted.upsert(added, UUID.randomUUID(), 0, vector);
+        assertEquals(added, compacted.search(vector, 1, 50).get(0).chunkId());
+    }
+
+    @Test
+    void compact_withInt8Encoding_shouldKeepStoredCodes() {
+        graph = new HnswGraph(DIMENSIONS, 8, 64, 7L, VectorEncoding.INT8);
+        UUID removed = UUID.randomUUID();
+        insertRandom(100, UUID.randomUUID());
+        insertRandom(100, removed);
+        graph.removeDocument(removed);
+        float[] query = randomVector();
+
+        HnswGraph compacted = graph.compact();
+
+        assertEquals(100, compacted.liveCount());
+        assertEquals(graph.search(query, 10, 200), compacted.search(query, 10, 200));
+    }
+
+    private static HnswGraph roundTrip(HnswGraph graph) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        graph.writeTo(new DataOutputStream(bytes));
+        return HnswGraph.readFrom(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 8, 64, 7L,
+                VectorEncoding.FLOAT32);
+    }
+
+    private List<float[]> insertRandom(int count, UUID documentId) {
+        List<float[]> vectors = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            float[] v = randomVector();
+            graph.upsert(UUID.randomUUID(), documentId, i, v);
+            vectors.add(v);
+        }
+        return vectors;
+    }
+
+    private float[] randomVector() {
+        float[] v = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return v;
+    }
+
+    private static List<UUID> bruteForce(List<UUID> ids, List<float[]> vectors, float[] query, int k) {
+        float[] q = VectorMath.normalize(query);
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) order.add(i);
+        order.sort(Comparator.comparingDouble(i -> -VectorMath.dot(VectorMath.normalize(vectors.get(i)), q)));
+        return order.subList(0, k).stream().map(ids::get).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.symphony.docweave.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MinHashLshTest {
+
+    private static final String PARAGRAPH = "The replication lag alarm fires when the standby falls more than "
+            + "thirty seconds behind the primary. Operators should first check network throughput between "
+            + "the two hosts, then inspect long running transactions on the primary that hold back the WAL "
+            + "sender, and finally confirm that the standby has enough disk bandwidth to replay changes.";
+
+    private MinHashLsh lsh;
+
+    @BeforeEach
+    void setUp() {
+        lsh = new MinHashLsh(3, 16, 8, 0.8);
+    }
+
+    @Test
+    void findNearest_shouldFindALightlyEditedCopy() {
+        UUID original = UUID.randomUUID();
+        UUID document = UUID.randomUUID();
+        lsh.add(original, document, lsh.signature(PARAGRAPH));
+
+        NearDuplicate twin = lsh.findNearest(lsh.signature(PARAGRAPH.replace("finally", "lastly") + " "));
+
+        assertNotNull(twin);
+        assertEquals(original, twin.chunkId());
+        assertEquals(document, twin.documentId());
+        assertTrue(twin.similarity() >= 0.8);
+    }
+
+    @Test
+    void findNearest_shouldIgnoreUnrelatedText() {
+        lsh.add(UUID.randomUUID(), UUID.randomUUID(), lsh.signature(PARAGRAPH));
+
+        assertNull(lsh.findNearest(lsh.signature("Invoices are issued on the first business day of each month "
+                + "and are payable within thirty days by bank transfer or card.")));
+    }
+
+    @Test
+    void signature_shouldBeNullForTextWithoutWords() {
+        assertNull(lsh.signature("  --- \n\n ... "));
+    }
+
+    @Test
+    void removeDocument_shouldForgetItsChunks() {
+        UUID document = UUID.randomUUID();
+        lsh.add(UUID.randomUUID(), document, lsh.signature(PARAGRAPH));
+
+        assertEquals(1, lsh.removeDocument(document));
+        assertEquals(0, lsh.size());
+        assertNull(lsh.findNearest(lsh.signature(PARAGRAPH)));
+    }
+
+    @Test
+    void similarity_shouldApproximateShingleJaccard() {
+        // Replacing the last third of the words leaves roughly half of the shingles shared
+        String[] words = PARAGRAPH.split(" ");
+        StringBuilder edited = new StringBuilder();
+        for (int i = 0; i < words.length; i++) {
+            edited.append(i < words.length * 2 / 3 ? words[i] : "other" + i).append(' ');
+        }
+
+        double estimate = MinHashLsh.similarity(lsh.signature(PARAGRAPH).sketch(),
+                lsh.signature(edited.toString()).sketch());
+
+        assertEquals(0.5, estimate, 0.15);
+        assertEquals(1.0, MinHashLsh.similarity(lsh.signature(PARAGRAPH).sketch(),
+                lsh.signature(PARAGRAPH).sketch()), 1e-9);
+    }
+}
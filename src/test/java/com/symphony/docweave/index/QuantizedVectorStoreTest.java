@@ -0,0 +1,105 @@
+package com.symphony.docweave.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantizedVectorStoreTest {
+
+    private static final int DIMENSIONS = 256;
+
+    private Random random;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(99);
+    }
+
+    @Test
+    void int8_shouldApproximateCosineDistanceClosely() {
+        VectorStore store = VectorStore.create(VectorEncoding.INT8, DIMENSIONS);
+        float[] a = randomUnitVector();
+        float[] b = randomUnitVector();
+        store.set(0, a);
+        store.set(1, b);
+
+        float exact = 1f - VectorMath.dot(a, b);
+
+        assertEquals(exact, store.scorer(a).distance(1), 0.01f);
+        assertEquals(exact, store.distance(0, 1), 0.01f);
+        assertEquals(0f, store.scorer(a).distance(0), 0.01f);
+    }
+
+    @Test
+    void binary_shouldRankNearVectorAboveRandomVector() {
+        VectorStore store = VectorStore.create(VectorEncoding.BINARY, DIMENSIONS);
+        float[] query = randomUnitVector();
+        float[] near = perturb(query, 0.1f);
+        float[] far = randomUnitVector();
+        store.set(0, near);
+        store.set(1, far);
+
+        VectorStore.Scorer scorer = store.scorer(query);
+
+        assertTrue(scorer.distance(0) < scorer.distance(1));
+        assertEquals(0f, store.distance(0, 0), 0f);
+    }
+
+    @Test
+    void binary_shouldUseOneBitPerDimension() {
+        VectorStore binary = VectorStore.create(VectorEncoding.BINARY, DIMENSIONS);
+        VectorStore float32 = VectorStore.create(VectorEncoding.FLOAT32, DIMENSIONS);
+        binary.set(0, randomUnitVector());
+        float32.set(0, randomUnitVector());
+
+        long perVectorBinary = binary.reservedBytes() / BinaryVectorStore.VECTORS_PER_PAGE;
+        long perVectorFloat = float32.reservedBytes() / OffHeapVectorStore.VECTORS_PER_PAGE;
+
+        assertEquals(DIMENSIONS / 8, perVectorBinary);
+        assertEquals(32, perVectorFloat / perVectorBinary);
+    }
+
+    @Test
+    void int8_shouldRoundTripThroughSnapshotFormat() throws Exception {
+        VectorStore store = VectorStore.create(VectorEncoding.INT8, DIMENSIONS);
+        float[] a = randomUnitVector();
+        float[] b = randomUnitVector();
+        store.set(0, a);
+        store.set(1, b);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        store.writeSlot(out, 0);
+        store.writeSlot(out, 1);
+
+        VectorStore restored = VectorStore.create(VectorEncoding.INT8, DIMENSIONS);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        restored.readSlot(in, 0);
+        restored.readSlot(in, 1);
+
+        assertEquals(store.distance(0, 1), restored.distance(0, 1), 0f);
+    }
+
+    private float[] randomUnitVector() {
+        float[] v = new float[DIMENSIONS];
+        for (int i = 0; i < DIMENSIONS; i++) {
+            v[i] = (float) random.nextGaussian();
+        }
+        return VectorMath.normalize(v);
+    }
+
+    private float[] perturb(float[] v, float amount) {
+        float[] out = new float[v.length];
+        for (int i = 0; i < v.length; i++) {
+            out[i] = v[i] + (float) random.nextGaussian() * amount / (float) Math.sqrt(v.length);
+        }
+        return VectorMath.normalize(out);
+    }
+}
@@ -0,0 +1,83 @@
+package com.symphony.docweave.index;
+
+import com.symphony.docweave.config.ShardingProperties;
+import com.symphony.docweave.config.VectorIndexProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.repository.DocumentRepository;
+import com.symphony.docweave.storage.ChunkStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VectorIndexLoaderTest {
+
+    @Mock
+    private DocumentChunkRepository chunkRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private ObjectProvider<ChunkStorage> chunkStorage;
+
+    private HnswVectorIndex index;
+    private VectorIndexLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        VectorIndexProperties properties = new VectorIndexProperties();
+        properties.setDimensions(3);
+        index = new HnswVectorIndex(properties, null, null);
+        loader = new VectorIndexLoader(index, chunkRepository, documentRepository, properties, chunkStorage,
+                new Shards(new ShardingProperties(), null));
+    }
+
+    @Test
+    void catchUp_addsChunksEmbeddedElsewhereAndDropsDocumentsDeletedElsewhere() {
+        UUID deletedDocument = UUID.randomUUID();
+        UUID deletedChunk = UUID.randomUUID();
+        index.upsert(deletedChunk, deletedDocument, 0, new float[] {1f, 0f, 0f});
+
+        UUID newDocument = UUID.randomUUID();
+        UUID newChunk = UUID.randomUUID();
+        when(chunkRepository.findEmbeddedSince(any(), any(), eq(1000)))
+                .thenReturn(List.<Object[]>of(new Object[] {newChunk, Timestamp.from(Instant.now())}));
+        when(chunkRepository.findEmbeddedVectorsByIds(List.of(newChunk)))
+                .thenReturn(List.<Object[]>of(new Object[] {newChunk, newDocument, 0, "[0,1,0]"}));
+        when(documentRepository.findLiveIds(List.of(deletedDocument))).thenReturn(List.of());
+
+        loader.catchUp();
+
+        assertTrue(index.contains(newChunk));
+        assertFalse(index.contains(deletedChunk));
+    }
+
+    @Test
+    void catchUp_skipsChunksAlreadyIndexed() {
+        UUID document = UUID.randomUUID();
+        UUID chunk = UUID.randomUUID();
+        index.upsert(chunk, document, 0, new float[] {1f, 0f, 0f});
+        when(chunkRepository.findEmbeddedSince(any(), any(), eq(1000)))
+                .thenReturn(List.<Object[]>of(new Object[] {chunk, Timestamp.from(Instant.now())}));
+        when(documentRepository.findLiveIds(List.of(document))).thenReturn(List.of(document));
+
+        loader.catchUp();
+
+        assertEquals(1, index.size());
+    }
+}
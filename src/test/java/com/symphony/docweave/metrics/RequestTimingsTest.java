@@ -0,0 +1,47 @@
+package com.symphony.docweave.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestTimingsTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTimings.end();
+    }
+
+    @Test
+    void time_accumulatesRepeatedStagesAndAddsTotal() {
+        RequestTimings timings = RequestTimings.begin();
+
+        assertEquals("a", RequestTimings.time("embed", () -> "a"));
+        RequestTimings.time("embed", () -> "b");
+        RequestTimings.time("llm", () -> "c");
+
+        Map<String, Double> millis = timings.toMillis();
+        assertEquals(List.of("embed", "llm", "total"), List.copyOf(millis.keySet()));
+        assertTrue(millis.get("total") >= millis.get("embed") + millis.get("llm"));
+    }
+
+    @Test
+    void toServerTiming_rendersDurationsAndFlags() {
+        RequestTimings timings = RequestTimings.begin();
+        RequestTimings.time("vector", () -> null);
+        RequestTimings.flag("ranker", "hnsw");
+
+        String header = timings.toServerTiming();
+
+        assertTrue(header.matches("vector;dur=\\d+\\.\\d, total;dur=\\d+\\.\\d, ranker;desc=\"hnsw\""), header);
+    }
+
+    @Test
+    void helpers_areNoOpsWhenNoRequestIsTimed() {
+        assertEquals("x", RequestTimings.time("embed", () -> "x"));
+        assertDoesNotThrow(() -> RequestTimings.flag("ranker", "exact"));
+    }
+}
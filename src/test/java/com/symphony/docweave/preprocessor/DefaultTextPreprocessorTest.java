@@ -0,0 +1,61 @@
+package com.symphony.docweave.preprocessor;
+
+import com.symphony.docweave.config.IngestionProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefaultTextPreprocessorTest {
+
+    private final DefaultTextPreprocessor preprocessor = new DefaultTextPreprocessor(new IngestionProperties());
+
+    @Test
+    void preprocess_rejoinsWordsHyphenatedAcrossLines() {
+        assertEquals("a distributed system", preprocessor.preprocess("a distri-\nbuted system"));
+        assertEquals("consistent hashing", preprocessor.preprocess("consis- \r\n   tent hashing"));
+    }
+
+    @Test
+    void preprocess_keepsHyphensThatAreNotLineBreaks() {
+        assertEquals("well-known", preprocessor.preprocess("well-known"));
+        assertEquals("New-\nYork", preprocessor.preprocess("New-\nYork"));
+        assertEquals("items:\n- one\n- two", preprocessor.preprocess("items:\n- one\n- two"));
+        assertEquals("pages 10-\n12", preprocessor.preprocess("pages 10-\n12"));
+    }
+
+    @Test
+    void preprocess_collapsesWhitespaceAndKeepsParagraphBreaks() {
+        assertEquals("one two\nthree\n\nfour",
+                preprocessor.preprocess("  one \t  two  \nthree\n\n\n\n  four  \n"));
+    }
+
+    @Test
+    void preprocess_stripsControlAndInvisibleCharacters() {
+        assertEquals("ab c d\ne", preprocessor.preprocess("a\u0000b c\u200B d\u0007\fe\uFEFF"));
+    }
+
+    @Test
+    void preprocess_removesRunningHeadersFootersAndPageNumbers() {
+        String[] bodies = {"Replicas serve reads.", "Leaders take writes.", "Shards split the keyspace.",
+                "Quorums decide commits.", "Caches absorb hot keys."};
+        StringBuilder pdf = new StringBuilder();
+        for (int page = 1; page <= bodies.length; page++) {
+            if (page > 1) pdf.append('\f');
+            pdf.append("ACME Corp - Internal\n")
+                    .append(bodies[page - 1]).append('\n')
+                    .append("Page ").append(page).append(" of 5\n");
+        }
+
+        String text = preprocessor.preprocess(pdf.toString());
+
+        assertEquals(String.join("\n", bodies), text);
+    }
+
+    @Test
+    void preprocess_canBeSwitchedOff() {
+        IngestionProperties properties = new IngestionProperties();
+        properties.getPreprocessing().setEnabled(false);
+
+        assertEquals("a  distri-\nbuted", new DefaultTextPreprocessor(properties).preprocess("a  distri-\nbuted"));
+    }
+}
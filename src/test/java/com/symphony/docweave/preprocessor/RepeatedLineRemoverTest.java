@@ -0,0 +1,42 @@
+package com.symphony.docweave.preprocessor;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepeatedLineRemoverTest {
+
+    private final RepeatedLineRemover remover = new RepeatedLineRemover(3, 0.5);
+
+    @Test
+    void strip_keepsRepeatedLinesInThePageBody() {
+        String pages = page("Header", "intro", "Note: see above", "middle", "Note: see above", "end", "1") + "\f"
+                + page("Header", "more", "Note: see above", "middle", "Note: see above", "done", "2") + "\f"
+                + page("Header", "last", "Note: see above", "middle", "Note: see above", "bye", "3");
+
+        String stripped = remover.strip(pages);
+
+        assertFalse(stripped.contains("Header"));
+        assertFalse(stripped.contains("\n1"));
+        assertEquals(6, stripped.split("Note: see above", -1).length - 1);
+    }
+
+    @Test
+    void strip_leavesLinesOnTooFewPages() {
+        String pages = page("Draft", "a") + "\f" + page("Draft", "b") + "\f" + page("Final", "c") + "\f"
+                + page("Final", "d") + "\f" + page("Other", "e") + "\f" + page("Other", "f") + "\f" + page("X", "g");
+
+        assertEquals(pages, remover.strip(pages));
+    }
+
+    @Test
+    void strip_ignoresTextsWithFewerPagesThanTheMinimum() {
+        String pages = page("Header", "a") + "\f" + page("Header", "b");
+
+        assertEquals(pages, remover.strip(pages));
+    }
+
+    private static String page(String... lines) {
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,89 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContextPackerTest {
+
+    private static final UUID DOC_A = UUID.randomUUID();
+    private static final UUID DOC_B = UUID.randomUUID();
+
+    @Test
+    void pack_mergesAdjacentChunksAndDropsOverlap() {
+        // Windows of 6 words overlapping by 2, as SlidingWindowChunker produces
+        SearchResult second = chunk(DOC_A, 1, "e f g h i j", 0.2);
+        SearchResult first = chunk(DOC_A, 0, "a b c d e f", 0.1);
+
+        ContextPacker.PackedContext packed = new ContextPacker(1000).pack(List.of(second, first));
+
+        assertEquals(List.of("a b c d e f g h i j"), packed.passages());
+        assertEquals(List.of(second, first), packed.chunks());
+    }
+
+    @Test
+    void pack_keepsNonAdjacentChunksAndOtherDocumentsSeparate() {
+        SearchResult a0 = chunk(DOC_A, 0, "alpha beta", 0.1);
+        SearchResult b1 = chunk(DOC_B, 1, "gamma delta", 0.2);
+        SearchResult a5 = chunk(DOC_A, 5, "epsilon zeta", 0.3);
+
+        ContextPacker.PackedContext packed = new ContextPacker(1000).pack(List.of(a0, b1, a5));
+
+        assertEquals(List.of("alpha beta", "gamma delta", "epsilon zeta"), packed.passages());
+    }
+
+    @Test
+    void pack_ordersPassagesByBestRank() {
+        SearchResult b = chunk(DOC_B, 0, "best match", 0.05);
+        SearchResult a0 = chunk(DOC_A, 0, "weaker one", 0.3);
+        SearchResult a1 = chunk(DOC_A, 1, "weaker two", 0.4);
+
+        ContextPacker.PackedContext packed = new ContextPacker(1000).pack(List.of(b, a0, a1));
+
+        assertEquals(List.of("best match", "weaker one weaker two"), packed.passages());
+    }
+
+    @Test
+    void pack_skipsPassagesThatExceedTheRemainingBudget() {
+        SearchResult small = chunk(DOC_A, 0, words(10), 0.1);
+        SearchResult large = chunk(DOC_B, 0, words(200), 0.2);
+        SearchResult tail = chunk(DOC_B, 9, words(5), 0.3);
+
+        ContextPacker.PackedContext packed = new ContextPacker(50).pack(List.of(small, large, tail));
+
+        assertEquals(List.of(small, tail), packed.chunks());
+        assertTrue(packed.estimatedTokens() <= 50);
+    }
+
+    @Test
+    void pack_truncatesTheBestPassageWhenItAloneExceedsTheBudget() {
+        SearchResult large = chunk(DOC_A, 0, words(500), 0.1);
+
+        ContextPacker.PackedContext packed = new ContextPacker(20).pack(List.of(large));
+
+        assertEquals(1, packed.passages().size());
+        assertTrue(ContextPacker.estimateTokens(packed.passages().get(0)) <= 20);
+        assertEquals(List.of(large), packed.chunks());
+    }
+
+    @Test
+    void overlap_findsLongestSuffixPrefixMatch() {
+        assertEquals(2, ContextPacker.overlap(List.of("a", "b", "c"), List.of("b", "c", "d")));
+        assertEquals(0, ContextPacker.overlap(List.of("a", "b"), List.of("c", "d")));
+        assertEquals(0, ContextPacker.overlap(List.of(), List.of("a")));
+    }
+
+    private static SearchResult chunk(UUID documentId, int index, String content, double score) {
+        return new SearchResult(UUID.randomUUID(), documentId, index, content, score);
+    }
+
+    private static String words(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "w" + i).collect(Collectors.joining(" "));
+    }
+}
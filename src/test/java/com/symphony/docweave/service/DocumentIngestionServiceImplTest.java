@@ -1,30 +1,51 @@
 package com.symphony.docweave.service;
 
 import com.symphony.docweave.api.dto.ChunkResponse;
+import com.symphony.docweave.api.dto.CursorPage;
 import com.symphony.docweave.api.dto.DocumentResponse;
 import com.symphony.docweave.api.dto.IngestionResponse;
 import com.symphony.docweave.chunker.TextChunker;
+import com.symphony.docweave.config.IngestionProperties;
+import com.symphony.docweave.config.NearDuplicateProperties;
+import com.symphony.docweave.config.ShardingProperties;
+import com.symphony.docweave.datasource.Shards;
 import com.symphony.docweave.domain.DocumentChunk;
-import com.symphony.docweave.domain.DocumentChunkEntity;
 import com.symphony.docweave.domain.DocumentEntity;
+import com.symphony.docweave.domain.DocumentType;
+import com.symphony.docweave.domain.SearchFilter;
+import com.symphony.docweave.event.ChunksIngestedEvent;
+import com.symphony.docweave.event.DocumentDeletedEvent;
 import com.symphony.docweave.exception.DocumentProcessingException;
+import com.symphony.docweave.extractor.DocumentExtractorRegistry;
 import com.symphony.docweave.extractor.DocumentTextExtractor;
+import com.symphony.docweave.index.NearDuplicateIndex;
+import com.symphony.docweave.metrics.PipelineMetrics;
+import com.symphony.docweave.preprocessor.DefaultTextPreprocessor;
 import com.symphony.docweave.repository.DocumentChunkRepository;
 import com.symphony.docweave.repository.DocumentRepository;
 import com.symphony.docweave.service.impl.DocumentIngestionServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.InputStream;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,11 +66,20 @@ class DocumentIngestionServiceImplTest {
     @Mock
     private DocumentChunkRepository chunkRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     private DocumentIngestionServiceImpl service;
 
     @BeforeEach
     void setUp() {
-        service = new DocumentIngestionServiceImpl(textExtractor, textChunker, documentRepository, chunkRepository);
+        when(textExtractor.supportedType()).thenReturn(DocumentType.PDF);
+        service = new DocumentIngestionServiceImpl(
+                new DocumentExtractorRegistry(List.of(textExtractor)),
+                new DefaultTextPreprocessor(new IngestionProperties()),
+                textChunker, new NearDuplicateIndex(new NearDuplicateProperties()),
+                documentRepository, chunkRepository, eventPublisher,
+                new PipelineMetrics(new SimpleMeterRegistry()), new Shards(new ShardingProperties(), null));
     }
 
     // --- ingestDocument tests ---
@@ -83,6 +113,38 @@ class DocumentIngestionServiceImplTest {
 
         verify(documentRepository).save(any(DocumentEntity.class));
         verify(chunkRepository).saveAll(anyList());
+
+        ArgumentCaptor<ChunksIngestedEvent> event = ArgumentCaptor.forClass(ChunksIngestedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(response.getDocumentId(), event.getValue().documentId());
+        assertEquals(2, event.getValue().chunks().size());
+    }
+
+    @Test
+    void ingestDocument_shouldLinkNearDuplicateChunksToTheirTwin() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "test.pdf", "application/pdf", "pdf content".getBytes());
+        String paragraph = "Replicas serve reads while the leader takes every write and ships its log to followers";
+
+        when(documentRepository.findByChecksum(anyString())).thenReturn(Optional.empty());
+        when(textExtractor.extract(any(InputStream.class), eq("test.pdf"))).thenReturn("Some text");
+        when(textChunker.chunk(anyString(), anyString()))
+                .thenReturn(List.of(
+                        new DocumentChunk("c1", "doc1", 0, paragraph),
+                        new DocumentChunk("c2", "doc1", 1, "Quorums decide which writes commit"),
+                        new DocumentChunk("c3", "doc1", 2, paragraph + ".")
+                ));
+        when(documentRepository.save(any(DocumentEntity.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(chunkRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.ingestDocument(file);
+
+        ArgumentCaptor<ChunksIngestedEvent> event = ArgumentCaptor.forClass(ChunksIngestedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        List<ChunksIngestedEvent.IngestedChunk> chunks = event.getValue().chunks();
+        assertNull(chunks.get(0).duplicateOf());
+        assertNull(chunks.get(1).duplicateOf());
+        assertEquals(chunks.get(0).chunkId(), chunks.get(2).duplicateOf());
     }
 
     @Test
@@ -181,26 +243,92 @@ class DocumentIngestionServiceImplTest {
         assertTrue(ex.getMessage().contains("not found"));
     }
 
-    // --- getAllDocuments tests ---
+    @Test
+    void getDocument_shouldHideTombstonedDocument() {
+        UUID docId = UUID.randomUUID();
+        DocumentEntity entity = new DocumentEntity(docId, "application/pdf", "test.pdf", "abc123");
+        ReflectionTestUtils.setField(entity, "deletedAt", Instant.now());
+        when(documentRepository.findById(docId)).thenReturn(Optional.of(entity));
+
+        assertThrows(DocumentProcessingException.class, () -> service.getDocument(docId));
+    }
+
+    // --- getDocuments tests ---
 
     @Test
-    void getAllDocuments_shouldReturnAllDocuments() {
+    void getDocuments_shouldReturnFirstPageWithoutCursorWhenAllFit() {
         DocumentEntity e1 = new DocumentEntity(UUID.randomUUID(), "pdf", "a.pdf", "c1");
         DocumentEntity e2 = new DocumentEntity(UUID.randomUUID(), "pdf", "b.pdf", "c2");
-        when(documentRepository.findAll()).thenReturn(List.of(e1, e2));
+        when(documentRepository.findFirstPage(PageRequest.of(0, 11))).thenReturn(List.of(e1, e2));
 
-        List<DocumentResponse> results = service.getAllDocuments();
+        CursorPage<DocumentResponse> page = service.getDocuments(null, 10, false);
 
-        assertEquals(2, results.size());
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
     }
 
     @Test
-    void getAllDocuments_shouldReturnEmptyListWhenNoDocuments() {
-        when(documentRepository.findAll()).thenReturn(Collections.emptyList());
+    void getDocuments_shouldReturnEmptyPageWhenNoDocuments() {
+        when(documentRepository.findFirstPage(any())).thenReturn(Collections.emptyList());
 
-        List<DocumentResponse> results = service.getAllDocuments();
+        CursorPage<DocumentResponse> page = service.getDocuments(null, 10, false);
 
-        assertTrue(results.isEmpty());
+        assertTrue(page.getItems().isEmpty());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getDocuments_shouldResumeAfterTheLastDocumentOfThePreviousPage() {
+        DocumentEntity e1 = new DocumentEntity(UUID.randomUUID(), "pdf", "a.pdf", "c1");
+        DocumentEntity e2 = new DocumentEntity(UUID.randomUUID(), "pdf", "b.pdf", "c2");
+        DocumentEntity e3 = new DocumentEntity(UUID.randomUUID(), "pdf", "c.pdf", "c3");
+        when(documentRepository.findFirstPage(PageRequest.of(0, 3))).thenReturn(List.of(e1, e2, e3));
+
+        CursorPage<DocumentResponse> first = service.getDocuments(null, 2, false);
+
+        assertEquals(2, first.getItems().size());
+        assertNotNull(first.getNextCursor());
+
+        when(documentRepository.findPageAfter(e2.getCreatedAt(), e2.getId(), PageRequest.of(0, 3))).thenReturn(List.of(e3));
+
+        CursorPage<DocumentResponse> second = service.getDocuments(first.getNextCursor(), 2, false);
+
+        assertEquals(List.of("c.pdf"), second.getItems().stream().map(DocumentResponse::getOriginalFilename).toList());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void getDocuments_shouldAttachChunkStatsFromOneGroupedQuery() {
+        DocumentEntity withChunks = new DocumentEntity(UUID.randomUUID(), "pdf", "a.pdf", "c1");
+        DocumentEntity empty = new DocumentEntity(UUID.randomUUID(), "pdf", "b.pdf", "c2");
+        when(documentRepository.findFirstPage(any())).thenReturn(List.of(withChunks, empty));
+        when(chunkRepository.summarizeByDocumentIds(List.of(withChunks.getId(), empty.getId())))
+                .thenReturn(List.<Object[]>of(new Object[]{withChunks.getId(), 12L, 9L, 48_000L}));
+
+        List<DocumentResponse> documents = service.getDocuments(null, 10, true).getItems();
+
+        assertEquals(12L, documents.get(0).getChunkCount());
+        assertEquals(9L, documents.get(0).getEmbeddedChunkCount());
+        assertEquals(48_000L, documents.get(0).getTextLength());
+        assertEquals(0L, documents.get(1).getChunkCount());
+        assertEquals(0L, documents.get(1).getEmbeddedChunkCount());
+        verify(chunkRepository, times(1)).summarizeByDocumentIds(any());
+    }
+
+    @Test
+    void getDocuments_shouldNotQueryStatsUnlessAsked() {
+        when(documentRepository.findFirstPage(any()))
+                .thenReturn(List.of(new DocumentEntity(UUID.randomUUID(), "pdf", "a.pdf", "c1")));
+
+        DocumentResponse document = service.getDocuments(null, 10, false).getItems().get(0);
+
+        assertNull(document.getChunkCount());
+        verify(chunkRepository, never()).summarizeByDocumentIds(any());
+    }
+
+    @Test
+    void getDocuments_shouldRejectMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> service.getDocuments("not-a-cursor", 10, false));
     }
 
     // --- getChunksByDocumentId tests ---
@@ -208,15 +336,14 @@ class DocumentIngestionServiceImplTest {
     @Test
     void getChunksByDocumentId_shouldReturnChunks() {
         UUID docId = UUID.randomUUID();
-        DocumentEntity docEntity = new DocumentEntity(docId, "pdf", "test.pdf", "checksum");
-        DocumentChunkEntity chunk1 = new DocumentChunkEntity(UUID.randomUUID(), docEntity, 0, "chunk one");
-        DocumentChunkEntity chunk2 = new DocumentChunkEntity(UUID.randomUUID(), docEntity, 1, "chunk two");
+        UUID chunk1 = UUID.randomUUID();
+        UUID chunk2 = UUID.randomUUID();
 
-        when(documentRepository.existsById(docId)).thenReturn(true);
-        when(chunkRepository.findByDocumentIdOrderByChunkIndex(docId))
-                .thenReturn(List.of(chunk1, chunk2));
+        when(documentRepository.existsLiveById(docId)).thenReturn(true);
+        when(chunkRepository.findChunkPage(docId, -1, PageRequest.of(0, 11)))
+                .thenReturn(List.of(new Object[]{chunk1, 0, "chunk one"}, new Object[]{chunk2, 1, "chunk two"}));
 
-        List<ChunkResponse> results = service.getChunksByDocumentId(docId);
+        List<ChunkResponse> results = service.getChunksByDocumentId(docId, null, 10).getItems();
 
         assertEquals(2, results.size());
         assertEquals(0, results.get(0).getChunkIndex());
@@ -225,40 +352,145 @@ class DocumentIngestionServiceImplTest {
         assertEquals("chunk two", results.get(1).getContent());
     }
 
+    @Test
+    void getChunksByDocumentId_shouldPageByChunkIndex() {
+        UUID docId = UUID.randomUUID();
+        when(documentRepository.existsLiveById(docId)).thenReturn(true);
+        when(chunkRepository.findChunkPage(docId, -1, PageRequest.of(0, 2)))
+                .thenReturn(List.of(new Object[]{UUID.randomUUID(), 0, "a"}, new Object[]{UUID.randomUUID(), 1, "b"}));
+        when(chunkRepository.findChunkPage(docId, 0, PageRequest.of(0, 2)))
+                .thenReturn(List.<Object[]>of(new Object[]{UUID.randomUUID(), 1, "b"}));
+
+        CursorPage<ChunkResponse> first = service.getChunksByDocumentId(docId, null, 1);
+        CursorPage<ChunkResponse> second = service.getChunksByDocumentId(docId, first.getNextCursor(), 1);
+
+        assertEquals("a", first.getItems().get(0).getContent());
+        assertEquals("b", second.getItems().get(0).getContent());
+        assertNull(second.getNextCursor());
+    }
+
     @Test
     void getChunksByDocumentId_shouldThrowWhenDocumentNotFound() {
         UUID docId = UUID.randomUUID();
-        when(documentRepository.existsById(docId)).thenReturn(false);
+        when(documentRepository.existsLiveById(docId)).thenReturn(false);
 
         DocumentProcessingException ex = assertThrows(DocumentProcessingException.class,
-                () -> service.getChunksByDocumentId(docId));
+                () -> service.getChunksByDocumentId(docId, null, 10));
 
         assertTrue(ex.getMessage().contains("not found"));
     }
 
+    @Test
+    void getChunksByDocumentId_withoutPaging_shouldReturnEveryChunk() {
+        UUID docId = UUID.randomUUID();
+        when(documentRepository.existsLiveById(docId)).thenReturn(true);
+        when(chunkRepository.streamChunks(docId))
+                .thenReturn(Stream.of(new Object[]{UUID.randomUUID(), 0, "a"}, new Object[]{UUID.randomUUID(), 1, "b"}));
+
+        List<ChunkResponse> chunks = service.getChunksByDocumentId(docId);
+
+        assertEquals(List.of(0, 1), chunks.stream().map(ChunkResponse::getChunkIndex).toList());
+    }
+
+    @Test
+    void streamChunks_shouldFeedEveryRowToTheSink() {
+        UUID docId = UUID.randomUUID();
+        when(chunkRepository.streamChunks(docId))
+                .thenReturn(Stream.of(new Object[]{UUID.randomUUID(), 0, "a"}, new Object[]{UUID.randomUUID(), 1, "b"}));
+
+        List<ChunkResponse> received = new ArrayList<>();
+        service.streamChunks(docId, received::add);
+
+        assertEquals(List.of("a", "b"), received.stream().map(ChunkResponse::getContent).toList());
+        assertTrue(received.stream().allMatch(c -> c.getDocumentId().equals(docId)));
+    }
+
     // --- deleteDocument tests ---
 
     @Test
     void deleteDocument_shouldDeleteDocumentAndChunks() {
         UUID docId = UUID.randomUUID();
-        when(documentRepository.existsById(docId)).thenReturn(true);
+        when(documentRepository.existsLiveById(docId)).thenReturn(true);
 
         service.deleteDocument(docId);
 
-        verify(chunkRepository).deleteByDocumentId(docId);
-        verify(documentRepository).deleteById(docId);
+        // One statement; chunks go through ON DELETE CASCADE
+        verify(documentRepository).deleteDocument(docId);
+        verifyNoInteractions(chunkRepository);
+        verify(eventPublisher).publishEvent(new DocumentDeletedEvent(docId));
     }
 
     @Test
     void deleteDocument_shouldThrowWhenNotFound() {
         UUID docId = UUID.randomUUID();
-        when(documentRepository.existsById(docId)).thenReturn(false);
+        when(documentRepository.existsLiveById(docId)).thenReturn(false);
 
         DocumentProcessingException ex = assertThrows(DocumentProcessingException.class,
                 () -> service.deleteDocument(docId));
 
         assertTrue(ex.getMessage().contains("not found"));
-        verify(chunkRepository, never()).deleteByDocumentId(any());
-        verify(documentRepository, never()).deleteById(any());
+        verify(documentRepository, never()).deleteDocument(any());
+    }
+
+    @Test
+    void deleteDocumentAsync_shouldTombstoneAndPublishDeletion() {
+        UUID docId = UUID.randomUUID();
+        when(documentRepository.tombstone(eq(List.of(docId)), any())).thenReturn(1);
+
+        service.deleteDocumentAsync(docId);
+
+        verify(documentRepository, never()).deleteDocument(any());
+        verify(eventPublisher).publishEvent(new DocumentDeletedEvent(docId));
+    }
+
+    @Test
+    void deleteDocumentAsync_shouldThrowWhenNotFoundOrAlreadyDeleted() {
+        UUID docId = UUID.randomUUID();
+        when(documentRepository.tombstone(eq(List.of(docId)), any())).thenReturn(0);
+
+        assertThrows(DocumentProcessingException.class, () -> service.deleteDocumentAsync(docId));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    // --- deleteDocuments tests ---
+
+    @Test
+    void deleteDocuments_shouldTombstoneEveryMatchingDocument() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        SearchFilter filter = new SearchFilter();
+        filter.setFilenamePattern("draft-*");
+        when(chunkRepository.findDocumentIdsMatching(filter)).thenReturn(Set.of(a, b));
+        when(documentRepository.tombstone(anyCollection(), any())).thenReturn(2);
+
+        int deleted = service.deleteDocuments(filter);
+
+        assertEquals(2, deleted);
+        verify(eventPublisher).publishEvent(new DocumentDeletedEvent(a));
+        verify(eventPublisher).publishEvent(new DocumentDeletedEvent(b));
+    }
+
+    @Test
+    void deleteDocuments_shouldPublishEachBatchOnlyAfterItsTombstonesCommit() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 1001; i++) ids.add(UUID.randomUUID());
+        SearchFilter filter = new SearchFilter();
+        filter.setFilenamePattern("draft-*");
+        when(chunkRepository.findDocumentIdsMatching(filter)).thenReturn(new LinkedHashSet<>(ids));
+        when(documentRepository.tombstone(anyCollection(), any()))
+                .thenReturn(1000)
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        assertThrows(IllegalStateException.class, () -> service.deleteDocuments(filter));
+
+        // The first batch committed, so its documents are gone; the failed one published nothing.
+        verify(eventPublisher, times(1000)).publishEvent(any(DocumentDeletedEvent.class));
+        verify(eventPublisher, never()).publishEvent(new DocumentDeletedEvent(ids.get(1000)));
+    }
+
+    @Test
+    void deleteDocuments_shouldRejectEmptyFilter() {
+        assertThrows(IllegalArgumentException.class, () -> service.deleteDocuments(new SearchFilter()));
+        verifyNoInteractions(documentRepository);
     }
 }
@@ -0,0 +1,62 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.config.ShardingProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.repository.DocumentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentPurgerTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentChunkRepository chunkRepository;
+
+    private DocumentPurger purger;
+
+    @BeforeEach
+    void setUp() {
+        purger = new DocumentPurger(documentRepository, chunkRepository,
+                new Shards(new ShardingProperties(), null), 100, 30);
+    }
+
+    @Test
+    void purge_deletesChunksInBatchesThenTheDocument() {
+        UUID docId = UUID.randomUUID();
+        when(chunkRepository.deleteChunkBatch(docId, 100)).thenReturn(100, 100, 37);
+
+        purger.purge(docId);
+
+        InOrder order = inOrder(chunkRepository, documentRepository);
+        order.verify(chunkRepository, times(3)).deleteChunkBatch(docId, 100);
+        order.verify(documentRepository).deleteTombstoned(docId);
+    }
+
+    @Test
+    void purgeTombstoned_purgesEveryTombstonedDocument() {
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        when(documentRepository.findTombstonedIds(any())).thenReturn(List.of(a, b));
+        when(chunkRepository.deleteChunkBatch(any(), eq(100))).thenReturn(0);
+
+        assertEquals(2, purger.purgeTombstoned());
+
+        verify(documentRepository).deleteTombstoned(a);
+        verify(documentRepository).deleteTombstoned(b);
+    }
+}
@@ -0,0 +1,140 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.config.EmbeddingStorageProperties;
+import com.symphony.docweave.config.ShardingProperties;
+import com.symphony.docweave.config.TwoTierSearchProperties;
+import com.symphony.docweave.datasource.Shards;
+import com.symphony.docweave.domain.DocumentChunkEntity;
+import com.symphony.docweave.domain.DocumentEntity;
+import com.symphony.docweave.domain.EmbeddingStorage;
+import com.symphony.docweave.repository.DocumentChunkRepository;
+import com.symphony.docweave.util.OpenAiEmbeddingClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmbeddingServiceTest {
+
+    @Mock
+    private OpenAiEmbeddingClient embeddingClient;
+
+    @Mock
+    private DocumentChunkRepository chunkRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final EmbeddingStorageProperties storage = new EmbeddingStorageProperties();
+
+    private EmbeddingService service;
+
+    @BeforeEach
+    void setUp() {
+        TwoTierSearchProperties twoTier = new TwoTierSearchProperties();
+        twoTier.setDimensions(1);
+        service = new EmbeddingService(embeddingClient, chunkRepository, eventPublisher,
+                new Shards(new ShardingProperties(), null), twoTier, storage);
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "parallelism", 1);
+        ReflectionTestUtils.setField(service, "leaseSeconds", 60);
+        ReflectionTestUtils.setField(service, "reuseTwinEmbeddings", true);
+    }
+
+    @Test
+    void generateEmbeddingsForAllChunks_embedsLeasedRoundsUntilNothingIsClaimable() {
+        Object[] a = pending("alpha");
+        Object[] b = pending("beta");
+        Object[] c = pending("gamma");
+        when(chunkRepository.claimPendingChunks(anyString(), eq(60), eq(2)))
+                .thenReturn(List.of(a, b), List.<Object[]>of(c), List.of());
+        when(embeddingClient.embed(anyList()))
+                .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).stream().map(t -> new float[]{1f}).toList());
+        DocumentEntity document = new DocumentEntity(UUID.randomUUID(), "text/plain", "a.txt", "checksum");
+        when(chunkRepository.findById(any()))
+                .thenAnswer(inv -> Optional.of(new DocumentChunkEntity(inv.getArgument(0), document, 0, "text")));
+
+        assertEquals(3, service.generateEmbeddingsForAllChunks());
+
+        verify(chunkRepository, times(3)).claimPendingChunks(anyString(), eq(60), eq(2));
+        verify(embeddingClient).embed(List.of("alpha", "beta"));
+        verify(embeddingClient).embed(List.of("gamma"));
+    }
+
+    @Test
+    void generateEmbeddingsForAllChunks_leavesFailedBatchLeasedInsteadOfReclaimingIt() {
+        when(chunkRepository.claimPendingChunks(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.<Object[]>of(pending("alpha")), List.of());
+        when(embeddingClient.embed(anyList())).thenThrow(new IllegalStateException("rate limited"));
+
+        assertEquals(0, service.generateEmbeddingsForAllChunks());
+
+        verify(chunkRepository, times(2)).claimPendingChunks(anyString(), anyInt(), anyInt());
+        verify(chunkRepository, never()).save(any());
+    }
+
+    @Test
+    void generateEmbeddingsForAllChunks_copiesTwinVectorForNearDuplicatesInsteadOfCallingTheApi() {
+        UUID twin = UUID.randomUUID();
+        when(chunkRepository.claimPendingChunks(anyString(), anyInt(), anyInt()))
+                .thenReturn(List.<Object[]>of(duplicate("alpha copy", twin), duplicate("beta copy", UUID.randomUUID())),
+                        List.of());
+        when(chunkRepository.findEmbeddedVectorsByIds(anySet()))
+                .thenReturn(List.<Object[]>of(new Object[]{twin, UUID.randomUUID(), 0, "[0.5,0.25]"}));
+        when(embeddingClient.embed(anyList())).thenReturn(List.of(new float[]{1f}));
+        DocumentEntity document = new DocumentEntity(UUID.randomUUID(), "text/plain", "a.txt", "checksum");
+        when(chunkRepository.findById(any()))
+                .thenAnswer(inv -> Optional.of(new DocumentChunkEntity(inv.getArgument(0), document, 0, "text")));
+
+        assertEquals(2, service.generateEmbeddingsForAllChunks());
+
+        // Only the duplicate whose twin has no vector yet goes to the API
+        verify(embeddingClient).embed(List.of("beta copy"));
+        verify(chunkRepository, times(2)).save(any());
+    }
+
+    @Test
+    void saveEmbedding_storesTheRenormalisedPrefixAlongsideTheFullVector() {
+        DocumentChunkEntity chunk = new DocumentChunkEntity(UUID.randomUUID(),
+                new DocumentEntity(UUID.randomUUID(), "text/plain", "a.txt", "checksum"), 0, "text");
+        when(chunkRepository.findById(chunk.getId())).thenReturn(Optional.of(chunk));
+
+        service.saveEmbedding(chunk.getId(), new float[]{-0.6f, 0.8f});
+
+        assertArrayEquals(new float[]{-0.6f, 0.8f}, chunk.getEmbedding());
+        assertArrayEquals(new float[]{-1f}, chunk.getEmbeddingShort(), 1e-6f);
+    }
+
+    @Test
+    void saveEmbedding_normalisesVectorsForHalfvecStorage() {
+        storage.setMode(EmbeddingStorage.HALFVEC);
+        DocumentChunkEntity chunk = new DocumentChunkEntity(UUID.randomUUID(),
+                new DocumentEntity(UUID.randomUUID(), "text/plain", "a.txt", "checksum"), 0, "text");
+        when(chunkRepository.findById(chunk.getId())).thenReturn(Optional.of(chunk));
+
+        service.saveEmbedding(chunk.getId(), new float[]{3f, 4f});
+
+        assertArrayEquals(new float[]{0.6f, 0.8f}, chunk.getEmbedding(), 1e-6f);
+    }
+
+    private static Object[] pending(String text) {
+        return new Object[]{UUID.randomUUID(), UUID.randomUUID(), text, null};
+    }
+
+    private static Object[] duplicate(String text, UUID twin) {
+        return new Object[]{UUID.randomUUID(), UUID.randomUUID(), text, twin};
+    }
+}
@@ -0,0 +1,195 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.UploadResponse;
+import com.symphony.docweave.config.UploadProperties;
+import com.symphony.docweave.exception.DocumentProcessingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ResumableUploadServiceTest {
+
+    private static final byte[] CONTENT = "The quick brown fox jumps over the lazy dog.\n"
+            .repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @Mock
+    private DocumentIngestionService ingestionService;
+
+    @TempDir
+    Path spool;
+
+    private UploadProperties properties;
+    private ResumableUploadService uploads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UploadProperties();
+        properties.setDirectory(spool.toString());
+        uploads = new ResumableUploadService(ingestionService, properties);
+    }
+
+    @Test
+    void complete_ingestsSpooledFileWithChecksumOfWholeContent() throws Exception {
+        UUID id = uploads.create("fox.txt", "text/plain", (long) CONTENT.length).getUploadId();
+
+        uploads.append(id, 0, 999, null, range(0, 1000));
+        UploadResponse status = uploads.append(id, 1000, CONTENT.length - 1, null, range(1000, CONTENT.length));
+        assertEquals(CONTENT.length, status.getOffset());
+
+        uploads.complete(id, sha256(CONTENT));
+
+        verify(ingestionService).ingestDocument(any(Path.class), eq("fox.txt"), eq("text/plain"), eq(sha256(CONTENT)));
+        try (var files = Files.list(spool)) {
+            assertEquals(0, files.count(), "spool files are removed once ingested");
+        }
+    }
+
+    @Test
+    void append_keepsBytesOfInterruptedRangeAndSkipsThemWhenResent() throws Exception {
+        UUID id = uploads.create("fox.txt", null, null).getUploadId();
+
+        InputStream dropped = new DroppingStream(Arrays.copyOfRange(CONTENT, 0, 700));
+        assertEquals(700, uploads.append(id, 0, CONTENT.length - 1, (long) CONTENT.length, dropped).getOffset());
+
+        // The client resends the whole range; the first 700 bytes must not be written twice
+        assertEquals(CONTENT.length,
+                uploads.append(id, 0, CONTENT.length - 1, null, range(0, CONTENT.length)).getOffset());
+
+        uploads.complete(id, null);
+        verify(ingestionService).ingestDocument(any(Path.class), eq("fox.txt"), isNull(), eq(sha256(CONTENT)));
+    }
+
+    @Test
+    void append_rejectsRangeThatLeavesAGap() {
+        UUID id = uploads.create("fox.txt", null, null).getUploadId();
+        uploads.append(id, 0, 99, null, range(0, 100));
+
+        assertThrows(IllegalArgumentException.class, () -> uploads.append(id, 200, 299, null, range(200, 300)));
+        assertEquals(100, uploads.status(id).getOffset());
+    }
+
+    @Test
+    void complete_rejectsUploadWithMissingBytes() {
+        UUID id = uploads.create("fox.txt", null, (long) CONTENT.length).getUploadId();
+        uploads.append(id, 0, 99, null, range(0, 100));
+
+        assertThrows(IllegalArgumentException.class, () -> uploads.complete(id, null));
+        verify(ingestionService, never()).ingestDocument(any(Path.class), anyString(), any(), anyString());
+    }
+
+    @Test
+    void complete_discardsUploadWhoseChecksumDoesNotMatch() {
+        UUID id = uploads.create("fox.txt", null, null).getUploadId();
+        uploads.append(id, 0, 99, null, range(0, 100));
+
+        assertThrows(DocumentProcessingException.class, () -> uploads.complete(id, "00".repeat(32)));
+        assertThrows(DocumentProcessingException.class, () -> uploads.status(id));
+    }
+
+    @Test
+    void complete_keepsUploadAfterTransientIngestionFailure() {
+        UUID id = uploads.create("fox.txt", null, null).getUploadId();
+        uploads.append(id, 0, CONTENT.length - 1, null, range(0, CONTENT.length));
+        when(ingestionService.ingestDocument(any(Path.class), anyString(), any(), anyString()))
+                .thenThrow(new DocumentProcessingException("Failed to read uploaded file: fox.txt"))
+                .thenReturn(null);
+
+        assertThrows(DocumentProcessingException.class, () -> uploads.complete(id, null));
+        assertEquals(CONTENT.length, uploads.status(id).getOffset());
+
+        uploads.complete(id, null);
+        assertThrows(DocumentProcessingException.class, () -> uploads.status(id));
+    }
+
+    @Test
+    void complete_discardsUploadThatIngestionRejects() {
+        UUID id = uploads.create("fox.txt", null, null).getUploadId();
+        uploads.append(id, 0, 99, null, range(0, 100));
+        when(ingestionService.ingestDocument(any(Path.class), anyString(), any(), anyString()))
+                .thenThrow(new DocumentProcessingException("Document already ingested with ID: 42"));
+
+        assertThrows(DocumentProcessingException.class, () -> uploads.complete(id, null));
+        assertThrows(DocumentProcessingException.class, () -> uploads.status(id));
+    }
+
+    @Test
+    void upload_resumesAfterRestart() throws Exception {
+        UUID id = uploads.create("fox.txt", "text/plain", (long) CONTENT.length).getUploadId();
+        uploads.append(id, 0, 1499, null, range(0, 1500));
+
+        ResumableUploadService restarted = new ResumableUploadService(ingestionService, properties);
+        assertEquals(1500, restarted.status(id).getOffset());
+        restarted.append(id, 1500, CONTENT.length - 1, null, range(1500, CONTENT.length));
+        restarted.complete(id, null);
+
+        verify(ingestionService).ingestDocument(any(Path.class), eq("fox.txt"), eq("text/plain"), eq(sha256(CONTENT)));
+    }
+
+    @Test
+    void discardExpired_removesIdleUploads() {
+        properties.setExpireAfterHours(0);
+        ResumableUploadService expiring = new ResumableUploadService(ingestionService, properties);
+        UUID id = expiring.create("fox.txt", null, null).getUploadId();
+
+        assertEquals(1, expiring.discardExpired());
+        assertThrows(DocumentProcessingException.class, () -> expiring.status(id));
+    }
+
+    // -------------------------------------------------------------------------
+
+    private static InputStream range(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(CONTENT, from, to));
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+
+    /** Delivers its bytes, then fails like a connection reset by the client. */
+    private static final class DroppingStream extends InputStream {
+
+        private final ByteArrayInputStream delegate;
+
+        DroppingStream(byte[] bytes) {
+            this.delegate = new ByteArrayInputStream(bytes);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b == -1) throw new IOException("Connection reset");
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n == -1) throw new IOException("Connection reset");
+            return n;
+        }
+    }
+}
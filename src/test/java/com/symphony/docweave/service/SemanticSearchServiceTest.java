@@ -0,0 +1,50 @@
+package com.symphony.docweave.service;
+
+import com.symphony.docweave.api.dto.SearchResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SemanticSearchServiceTest {
+
+    @Test
+    void mergeTopK_keepsTheKBestRowsAcrossShardsBestFirst() {
+        List<Object[]> shardA = List.of(row("a1", 0.10), row("a2", 0.40), row("a3", 0.70));
+        List<Object[]> shardB = List.of(row("b1", 0.05), row("b2", 0.30));
+        List<Object[]> shardC = List.<Object[]>of(row("c1", 0.20));
+
+        List<SearchResult> merged = SemanticSearchService.mergeTopK(List.of(shardA, shardB, shardC), 4);
+
+        assertEquals(List.of("b1", "a1", "c1", "b2"), merged.stream().map(SearchResult::getContent).toList());
+    }
+
+    @Test
+    void mergeTopK_returnsFewerThanKWhenShardsHaveFewerRows() {
+        List<SearchResult> merged = SemanticSearchService.mergeTopK(
+                List.of(List.<Object[]>of(row("a1", 0.3)), List.<Object[]>of(), List.<Object[]>of(row("c1", 0.1))), 5);
+
+        assertEquals(List.of("c1", "a1"), merged.stream().map(SearchResult::getContent).toList());
+    }
+
+    @Test
+    void collapse_keepsTheBestRankedMemberOfEachNearDuplicateGroup() {
+        List<SearchResult> ranked = SemanticSearchService.mergeTopK(List.of(List.of(
+                row("original", 0.1), row("copy", 0.2), row("other", 0.3), row("third", 0.4))), 4);
+        UUID original = ranked.get(0).getChunkId();
+        Map<UUID, UUID> twins = Map.of(ranked.get(1).getChunkId(), original);
+
+        List<SearchResult> collapsed = SemanticSearchService.collapse(ranked, 2,
+                id -> twins.getOrDefault(id, id));
+
+        assertEquals(List.of("original", "other"), collapsed.stream().map(SearchResult::getContent).toList());
+    }
+
+    /** Same layout as the pgvector top-k queries: id, document_id, chunk_index, chunk_text, embedding, score. */
+    private static Object[] row(String content, double score) {
+        return new Object[]{UUID.randomUUID(), UUID.randomUUID(), 0, content, null, score};
+    }
+}
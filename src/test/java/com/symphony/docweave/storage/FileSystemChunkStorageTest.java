@@ -0,0 +1,177 @@
+package com.symphony.docweave.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemChunkStorageTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    @TempDir
+    Path directory;
+
+    private FileSystemChunkStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        storage.close();
+    }
+
+    @Test
+    void put_shouldRoundTripVectorAndText() {
+        StoredChunk chunk = chunk(UUID.randomUUID(), 3, "héllo wörld");
+        storage.put(chunk);
+
+        StoredChunk stored = storage.get(chunk.chunkId()).orElseThrow();
+        assertEquals(chunk.documentId(), stored.documentId());
+        assertEquals(3, stored.chunkIndex());
+        assertArrayEquals(chunk.vector(), stored.vector());
+        assertEquals("héllo wörld", stored.content());
+    }
+
+    @Test
+    void put_shouldReplaceExistingChunk() {
+        UUID documentId = UUID.randomUUID();
+        StoredChunk first = chunk(documentId, 0, "first");
+        storage.put(first);
+        storage.put(new StoredChunk(first.chunkId(), documentId, 0, new float[]{9f, 9f, 9f, 9f}, "second"));
+
+        assertEquals(1, storage.size());
+        assertEquals("second", storage.get(first.chunkId()).orElseThrow().content());
+    }
+
+    @Test
+    void reopen_shouldRecoverChunksAndTombstones() throws IOException {
+        UUID documentId = UUID.randomUUID();
+        StoredChunk kept = chunk(documentId, 0, "kept");
+        StoredChunk deleted = chunk(documentId, 1, "deleted");
+        storage.put(kept);
+        storage.put(deleted);
+        assertTrue(storage.delete(deleted.chunkId()));
+
+        storage.close();
+        storage = open();
+
+        assertEquals(1, storage.size());
+        assertTrue(storage.get(kept.chunkId()).isPresent());
+        assertTrue(storage.get(deleted.chunkId()).isEmpty());
+    }
+
+    @Test
+    void put_shouldRollToNewSegmentWhenFull() throws IOException {
+        List<StoredChunk> chunks = new ArrayList<>();
+        UUID documentId = UUID.randomUUID();
+        for (int i = 0; i < 100; i++) {
+            StoredChunk chunk = chunk(documentId, i, "chunk text number " + i);
+            chunks.add(chunk);
+            storage.put(chunk);
+        }
+
+        assertTrue(segmentFiles() > 1);
+        for (StoredChunk chunk : chunks) {
+            assertEquals(chunk.content(), storage.get(chunk.chunkId()).orElseThrow().content());
+        }
+    }
+
+    @Test
+    void deleteDocument_shouldRemoveOnlyThatDocument() {
+        UUID docA = UUID.randomUUID();
+        UUID docB = UUID.randomUUID();
+        storage.put(chunk(docA, 0, "a0"));
+        storage.put(chunk(docA, 1, "a1"));
+        StoredChunk b0 = chunk(docB, 0, "b0");
+        storage.put(b0);
+
+        assertEquals(2, storage.deleteDocument(docA));
+        assertEquals(1, storage.size());
+        assertTrue(storage.get(b0.chunkId()).isPresent());
+        assertEquals(0, storage.deleteDocument(docA));
+    }
+
+    @Test
+    void getVectors_shouldOmitUnknownIds() {
+        StoredChunk chunk = chunk(UUID.randomUUID(), 0, "x");
+        storage.put(chunk);
+
+        Map<UUID, float[]> vectors = storage.getVectors(List.of(chunk.chunkId(), UUID.randomUUID()));
+
+        assertEquals(1, vectors.size());
+        assertArrayEquals(chunk.vector(), vectors.get(chunk.chunkId()));
+    }
+
+    @Test
+    void compact_shouldReclaimDeadSegmentsAndKeepLiveChunks() throws IOException {
+        UUID documentId = UUID.randomUUID();
+        List<StoredChunk> chunks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            StoredChunk chunk = chunk(documentId, i, "chunk text number " + i);
+            chunks.add(chunk);
+            storage.put(chunk);
+        }
+        long before = segmentFiles();
+        for (int i = 0; i < 90; i++) {
+            storage.delete(chunks.get(i).chunkId());
+        }
+
+        assertTrue(storage.compact() > 0);
+        assertTrue(segmentFiles() < before);
+        assertEquals(10, storage.size());
+
+        storage.close();
+        storage = open();
+
+        assertEquals(10, storage.size());
+        for (int i = 90; i < 100; i++) {
+            assertEquals(chunks.get(i).content(), storage.get(chunks.get(i).chunkId()).orElseThrow().content());
+        }
+    }
+
+    @Test
+    void forEach_shouldVisitLiveChunksOnly() {
+        UUID documentId = UUID.randomUUID();
+        StoredChunk live = chunk(documentId, 0, "live");
+        StoredChunk dead = chunk(documentId, 1, "dead");
+        storage.put(live);
+        storage.put(dead);
+        storage.delete(dead.chunkId());
+
+        List<UUID> visited = new ArrayList<>();
+        storage.forEach(chunk -> visited.add(chunk.chunkId()));
+
+        assertEquals(List.of(live.chunkId()), visited);
+    }
+
+    private FileSystemChunkStorage open() throws IOException {
+        FileSystemChunkStorage opened = new FileSystemChunkStorage(directory, SEGMENT_BYTES, true, 0.3);
+        opened.open();
+        return opened;
+    }
+
+    private long segmentFiles() throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(".seg")).count();
+        }
+    }
+
+    private static StoredChunk chunk(UUID documentId, int chunkIndex, String content) {
+        float[] vector = {chunkIndex, 1f, 2f, 3f};
+        return new StoredChunk(UUID.randomUUID(), documentId, chunkIndex, vector, content);
+    }
+}
@@ -0,0 +1,40 @@
+package com.symphony.docweave.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmbeddingUtilsTest {
+
+    @Test
+    void truncate_shouldKeepTheLeadingDimensionsAtUnitLength() {
+        float[] prefix = EmbeddingUtils.truncate(new float[]{0.3f, 0.4f, 0.5f, 0.7f}, 2);
+
+        assertArrayEquals(new float[]{0.6f, 0.8f}, prefix, 1e-6f);
+    }
+
+    @Test
+    void truncate_shouldLeaveAZeroPrefixAlone() {
+        assertArrayEquals(new float[]{0f, 0f}, EmbeddingUtils.truncate(new float[]{0f, 0f, 1f}, 2));
+    }
+
+    @Test
+    void truncate_shouldRejectVectorsShorterThanThePrefix() {
+        assertThrows(IllegalArgumentException.class, () -> EmbeddingUtils.truncate(new float[]{1f}, 2));
+    }
+
+    @Test
+    void normalize_shouldReturnAUnitLengthCopy() {
+        float[] vector = {3f, 0f, -4f};
+
+        assertArrayEquals(new float[]{0.6f, 0f, -0.8f}, EmbeddingUtils.normalize(vector), 1e-6f);
+        assertArrayEquals(new float[]{3f, 0f, -4f}, vector);
+    }
+
+    @Test
+    void pgVectorLiteral_shouldRoundTrip() {
+        float[] vector = {0.125f, -0.5f, 0.00001f};
+
+        assertArrayEquals(vector, EmbeddingUtils.fromPgVectorLiteral(EmbeddingUtils.toPgVectorLiteral(vector)), 1e-7f);
+    }
+}